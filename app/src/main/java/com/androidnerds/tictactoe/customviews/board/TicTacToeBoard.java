@@ -1,6 +1,7 @@
 package com.androidnerds.tictactoe.customviews.board;
 
 import android.content.Context;
+import android.content.res.TypedArray;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.View;
@@ -11,14 +12,23 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.androidnerds.tictactoe.BuildConfig;
 import com.androidnerds.tictactoe.R;
 import com.androidnerds.tictactoe.customviews.board.itemdecoration.BoardItemDecorator;
 import com.androidnerds.tictactoe.game.BoardUtils;
 import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.ai.ComputerPlayer;
+import com.androidnerds.tictactoe.game.ai.OpeningBook;
+import com.androidnerds.tictactoe.game.ai.SearchLimits;
 import com.androidnerds.tictactoe.game.model.Cell;
+import com.androidnerds.tictactoe.game.model.CellState;
 import com.androidnerds.tictactoe.game.model.Player;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This class forms the visual representation of the Tic-Tac-Toe board for the game.
@@ -29,7 +39,16 @@ public class TicTacToeBoard extends RecyclerView implements TicTacToeBoardAdapte
 
     private Cell[][] board;
     private TicTacToeBoardAdapter adapter;
+    private BoardItemDecorator itemDecorator;
     private GameEngine gameEngine;
+    //Selects the moves of Player 2 in a ONE_PLAYER game, created again when the board is attached after a detach.
+    private ComputerPlayer computerPlayer;
+    //Runs the search for the computer moves off the UI thread, shut down while the board is detached.
+    private ExecutorService computerExecutor;
+    //Incremented on every new game, to discard the computer moves searched for an earlier game.
+    private int gameId;
+    //Limits of the search in progress for the computer move, cancelled when the game is reset.
+    private SearchLimits computerSearchLimits;
 
     private OnPlayerChangedListener playerChangedListener;
     private OnGameCompletionListener gameCompletionListener;
@@ -56,7 +75,56 @@ public class TicTacToeBoard extends RecyclerView implements TicTacToeBoardAdapte
 
     public TicTacToeBoard(@NonNull Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
-        init(context);
+        init(context, getBoardSize(context, attrs));
+        startComputerPlayer(context);
+    }
+
+    /**
+     * Creates the computer player & the thread of its moves.
+     */
+    private void startComputerPlayer(@NonNull Context context) {
+        computerPlayer = new ComputerPlayer();
+        computerExecutor = Executors.newSingleThreadExecutor();
+        if (BuildConfig.DEBUG) {
+            //Logs the depth reached within the time budget, for tuning the budget on the devices.
+            computerPlayer.setIterationListener((result, elapsedNanos) ->
+                    Log.d(TicTacToeBoard.class.getName(), "depth: " + result.getDepth() + ", nodes: " + result.getNodeCount() +
+                            ", elapsed: " + elapsedNanos / 1_000_000 + "ms"));
+        }
+        loadOpeningBook(context, computerPlayer, computerExecutor);
+    }
+
+    /**
+     * Loads the opening book from the assets on the thread of the computer moves, before any move is searched.
+     * The computer plays without the book if it can not be loaded.
+     */
+    private static void loadOpeningBook(@NonNull Context context, @NonNull final ComputerPlayer computerPlayer,
+                                        @NonNull ExecutorService computerExecutor) {
+        final Context applicationContext = context.getApplicationContext();
+        computerExecutor.execute(() -> {
+            try {
+                InputStream inputStream = applicationContext.getAssets().open(OpeningBook.ASSET_NAME);
+                try {
+                    computerPlayer.setOpeningBook(OpeningBook.read(inputStream));
+                } finally {
+                    inputStream.close();
+                }
+            } catch (IOException e) {
+                Log.e(TicTacToeBoard.class.getName(), "Opening book could not be loaded", e);
+            }
+        });
+    }
+
+    /**
+     * Reads the size of the board from the boardSize attribute, defaults to {@link GameEngine#SPAN_COUNT}.
+     */
+    private static int getBoardSize(@NonNull Context context, @Nullable AttributeSet attrs) {
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.TicTacToeBoard);
+        try {
+            return typedArray.getInteger(R.styleable.TicTacToeBoard_boardSize, GameEngine.SPAN_COUNT);
+        } finally {
+            typedArray.recycle();
+        }
     }
 
     /**
@@ -73,17 +141,42 @@ public class TicTacToeBoard extends RecyclerView implements TicTacToeBoardAdapte
         this.gameCompletionListener = gameCompletionListener;
     }
 
+    /**
+     * Changes the size of the board. The current game is discarded and a new game needs to be started, the type of
+     * the game is kept.
+     *
+     * @param boardSize - no: of cells on a row/column of the board.
+     */
+    public void setBoardSize(int boardSize) {
+        if (boardSize != gameEngine.getBoardSize()) {
+            init(getContext(), boardSize);
+            requestLayout();
+        }
+    }
+
+    /**
+     * Changes the type of the game. In a {@link GameEngine.GameType#ONE_PLAYER} game, Player 2 is played by the computer.
+     */
+    public void setGameType(GameEngine.GameType gameType) {
+        gameEngine.setGameType(gameType);
+    }
+
     /**
      * Initializing the TicTacToeBoard
      */
-    private void init(Context context) {
-        initGameEngine();
+    private void init(Context context, int boardSize) {
+        initGameEngine(boardSize);
         initBoard(context, gameEngine.getBoardSize());
     }
 
-    private void initGameEngine() {
-        gameEngine = new GameEngine(this);
+    private void initGameEngine(int boardSize) {
+        cancelComputerMove();
+        GameEngine.GameType gameType = null != gameEngine ? gameEngine.getGameType() : null;
+        gameEngine = new GameEngine(this, boardSize);
         gameEngine.init();
+        if (null != gameType) {
+            gameEngine.setGameType(gameType);
+        }
     }
 
     public void start() throws Exception {
@@ -118,7 +211,11 @@ public class TicTacToeBoard extends RecyclerView implements TicTacToeBoardAdapte
         setHasFixedSize(true);
         setBackgroundColor(ContextCompat.getColor(context, R.color.grey));
         int spacing = context.getResources().getDimensionPixelSize(R.dimen.border_width);
-        addItemDecoration(new BoardItemDecorator(spacing, boardSize));
+        if (null != itemDecorator) {
+            removeItemDecoration(itemDecorator);
+        }
+        itemDecorator = new BoardItemDecorator(spacing, boardSize);
+        addItemDecoration(itemDecorator);
         setLayoutManager(new GridLayoutManager(context, boardSize));
         setBoardAdapter(context, this.board);
     }
@@ -129,13 +226,12 @@ public class TicTacToeBoard extends RecyclerView implements TicTacToeBoardAdapte
     }
 
     public void resetBoard() {
+        cancelComputerMove();
         gameEngine.init();
         initBoardValues(gameEngine.getBoardSize());
         this.adapter.notifyDataSetChanged();
-        try {
-            gameEngine.startGame();
-        } catch (Exception e) {
-            Log.d(TicTacToeBoard.class.getName(), ""+e.getMessage());
+        if (!gameEngine.tryStartGame()) {
+            Log.d(TicTacToeBoard.class.getName(), "Game could not be started");
         }
     }
 
@@ -148,14 +244,28 @@ public class TicTacToeBoard extends RecyclerView implements TicTacToeBoardAdapte
      */
     @Override
     public void onItemClicked(View view, int position) {
+        if (!gameEngine.isComputerTurn()) {
+            playMove(position);
+        }
+    }
+
+    /**
+     * Places the piece of the current player on the cell at the position in the adapter.
+     */
+    private void playMove(int position) {
         if (!gameEngine.isGameOver()) {
-            Cell cell = this.board[BoardUtils.calculateRowPosition(position, board.length)][BoardUtils.calculateColumnPosition(position, board.length)];
+            int row = BoardUtils.calculateRowPosition(position, board.length);
+            int column = BoardUtils.calculateColumnPosition(position, board.length);
+            Cell cell = this.board[row][column];
+            CellState previousState = cell.getCellState();
             cell.setCellState(gameEngine.getCurrentPlayer().getCellState());
             this.adapter.notifyItemChanged(position);
-            try {
-                this.gameEngine.onPlayerSelected(BoardUtils.calculateRowPosition(position, board.length), BoardUtils.calculateColumnPosition(position, board.length));
-            } catch (Exception e) {
-                Log.d(TicTacToeBoard.class.getName(), "exception: "+e.getMessage());
+            GameEngine.MoveResult moveResult = this.gameEngine.playMove(row, column);
+            if (moveResult != GameEngine.MoveResult.ACCEPTED) {
+                //The engine has not played the move, so the cell keeps its previous state.
+                cell.setCellState(previousState);
+                this.adapter.notifyItemChanged(position);
+                Log.d(TicTacToeBoard.class.getName(), "Move rejected: " + moveResult);
             }
         }
     }
@@ -185,11 +295,85 @@ public class TicTacToeBoard extends RecyclerView implements TicTacToeBoardAdapte
                 if (null != playerChangedListener) {
                     playerChangedListener.onPlayerChanged(this.gameEngine.getCurrentPlayer());
                 }
+                if (gameEngine.isComputerTurn()) {
+                    playComputerMove();
+                }
             default:
                 break;
         }
     }
 
+    /**
+     * Searches the move of the computer on a background thread and plays it on the UI thread.
+     * The move is discarded if the game was reset in the meantime.
+     */
+    private void playComputerMove() {
+        if (computerExecutor.isShutdown()) {
+            return;
+        }
+        final int searchGameId = gameId;
+        final GameEngine engine = gameEngine;
+        final ComputerPlayer computerPlayer = this.computerPlayer;
+        final CellState[][] cells = engine.getBoard();
+        final CellState sideToMove = engine.getCurrentPlayer().getCellState();
+        final SearchLimits limits = computerPlayer.newSearchLimits();
+        computerSearchLimits = limits;
+        computerExecutor.execute(() -> {
+            final int move = computerPlayer.selectMove(cells, sideToMove, limits);
+            if (null != computerPlayer.getLastFailure()) {
+                Log.e(TicTacToeBoard.class.getName(), "Computer move could not be searched",
+                        computerPlayer.getLastFailure());
+            }
+            post(() -> {
+                if (searchGameId == gameId && engine == gameEngine && move >= 0 && engine.isComputerTurn()) {
+                    //Index of the cell on the board is the same as the position in the adapter.
+                    playMove(move);
+                }
+            });
+        });
+    }
+
+    /**
+     * Starts the computer player again if the board is attached after a detach, eg. on its reuse by a fragment, and
+     * resumes the computer move which was cancelled by the detach.
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (computerExecutor.isShutdown()) {
+            startComputerPlayer(getContext());
+            if (gameEngine.isComputerTurn()) {
+                playComputerMove();
+            }
+        }
+    }
+
+    /**
+     * Stops the computer player when the board is removed from the window, the board does not play the computer
+     * moves until it is attached again. The search in progress is cancelled, and the threads of the computer player
+     * are stopped on the thread of the computer moves after it, so that no search can start them again.
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        cancelComputerMove();
+        if (!computerExecutor.isShutdown()) {
+            computerExecutor.execute(computerPlayer::shutdown);
+            computerExecutor.shutdown();
+        }
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Stops the search for the computer move of the current game, its result is discarded.
+     */
+    private void cancelComputerMove() {
+        gameId++;
+        if (null != computerSearchLimits) {
+            computerSearchLimits.cancel();
+            computerSearchLimits = null;
+        }
+    }
+
     /**
      * Callback when the game has completed with a win for the player.
      * On receiving the list of cells matched, UI is updated to highlight the same.
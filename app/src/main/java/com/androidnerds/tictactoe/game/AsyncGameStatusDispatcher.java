@@ -0,0 +1,255 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.Cell;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link GameEngine.GameStatusListener} which delivers the events of an engine to its listeners on a thread of its own,
+ * so that slow listeners do not stall the moves.
+ * <p>
+ * Passed to the {@link GameEngine} in place of a listener, the dispatcher only writes each event into a slot of a
+ * bounded ring buffer and publishes it by advancing the tail sequence, without locks or allocations, so the cost of a
+ * move does not depend on the no: of listeners attached or on how long they take. The dispatch thread takes the events
+ * from the head of the buffer and calls the listeners in the order the events were published.
+ * </p>
+ * <p>
+ * The buffer has a single producer: the events of a dispatcher are published by one engine, or by callers that do
+ * not publish concurrently. When the dispatch thread falls behind, a {@link GameEngine.GameStatus#NEXT_PLAYER_PLAYS}
+ * which follows a {@link GameEngine.GameStatus#NEXT_PLAYER_PLAYS} still waiting in the buffer is coalesced into it,
+ * the listeners would see the same status twice in a row. An event whose delivery may have started is never coalesced
+ * into, so the listeners always hear of the last move. Other events are never dropped: when the buffer is full,
+ * the move waits for the dispatch thread to free a slot.
+ * </p>
+ * <p>
+ * An exception thrown by a listener is counted by {@link #getFailureCount()} and does not stop the delivery of the
+ * event to the other listeners. Events published after {@link #close()} are ignored.
+ * </p>
+ */
+public final class AsyncGameStatusDispatcher implements GameEngine.GameStatusListener, Closeable {
+
+    //Default no: of events held by the buffer, a power of 2.
+    public static final int DEFAULT_CAPACITY = 1024;
+    //Time waited by a move for a free slot between two checks of the buffer.
+    private static final long FULL_WAIT_NANOS = 10_000;
+
+    private static final GameEngine.GameStatusListener[] NO_LISTENERS = new GameEngine.GameStatusListener[0];
+
+    private final int mask;
+    //Status of a status change, null for a game-over event.
+    private final GameEngine.GameStatus[] statuses;
+    //Matched cells of a game-over event.
+    private final Object[] matchedCells;
+    //Sequence of the next event to be published, written only by the producer.
+    private final AtomicLong tail = new AtomicLong();
+    //Sequence of the next event to be delivered, written only by the dispatch thread.
+    private final AtomicLong head = new AtomicLong();
+    private final Thread dispatchThread;
+    //Head last seen by the producer, read again only when the buffer looks full.
+    private long cachedHead;
+    private volatile GameEngine.GameStatusListener[] listeners;
+    private volatile boolean dispatcherWaiting;
+    private volatile boolean closed;
+    private volatile long coalescedCount;
+    private volatile long failureCount;
+
+    public AsyncGameStatusDispatcher(@NonNull GameEngine.GameStatusListener... listeners) {
+        this(DEFAULT_CAPACITY, listeners);
+    }
+
+    /**
+     * Creates the dispatcher and starts its dispatch thread.
+     *
+     * @param capacity  - no: of events held by the buffer, a power of 2.
+     * @param listeners - listeners called on the dispatch thread.
+     */
+    public AsyncGameStatusDispatcher(int capacity, @NonNull GameEngine.GameStatusListener... listeners) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.statuses = new GameEngine.GameStatus[capacity];
+        this.matchedCells = new Object[capacity];
+        this.listeners = listeners.length > 0 ? listeners.clone() : NO_LISTENERS;
+        this.dispatchThread = new Thread(this::dispatch, "game-status-dispatcher");
+        dispatchThread.setDaemon(true);
+        dispatchThread.start();
+    }
+
+    /**
+     * Attaches a listener, which receives the events delivered from now on.
+     */
+    public synchronized void addListener(@NonNull GameEngine.GameStatusListener listener) {
+        GameEngine.GameStatusListener[] current = listeners;
+        GameEngine.GameStatusListener[] updated = new GameEngine.GameStatusListener[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Detaches a listener, an event being delivered may still reach it.
+     */
+    public synchronized void removeListener(@NonNull GameEngine.GameStatusListener listener) {
+        GameEngine.GameStatusListener[] current = listeners;
+        for (int index = 0; index < current.length; index++) {
+            if (current[index] == listener) {
+                GameEngine.GameStatusListener[] updated = new GameEngine.GameStatusListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onGameStatusChanged(GameEngine.GameStatus gameStatus) {
+        if (closed) {
+            return;
+        }
+        long sequence = tail.get();
+        if (gameStatus == GameEngine.GameStatus.NEXT_PLAYER_PLAYS && sequence - 1 > head.get()
+                && statuses[(int) (sequence - 1) & mask] == GameEngine.GameStatus.NEXT_PLAYER_PLAYS) {
+            //The previous event has the same status & its delivery has not started, the event at the head may be
+            //being delivered already, so the listeners would miss the move if it was coalesced into that one.
+            coalescedCount++;
+            return;
+        }
+        publish(sequence, gameStatus, null);
+    }
+
+    @Override
+    public void onGameOver(List<Cell> matchedCells) {
+        if (closed) {
+            return;
+        }
+        publish(tail.get(), null, matchedCells);
+    }
+
+    /**
+     * Waits until the events published so far have been delivered to the listeners.
+     *
+     * @return FALSE - if the timeout elapsed first.
+     */
+    public boolean awaitDelivery(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        long sequence = tail.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (head.get() < sequence) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(FULL_WAIT_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * @return the no: of {@link GameEngine.GameStatus#NEXT_PLAYER_PLAYS} events coalesced into the previous one.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * @return the no: of listener calls which threw an exception.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Stops accepting events and waits for the dispatch thread to deliver the events already published.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatchThread);
+        boolean interrupted = false;
+        while (dispatchThread.isAlive()) {
+            try {
+                dispatchThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(long sequence, GameEngine.GameStatus gameStatus, List<Cell> cells) {
+        if (sequence - cachedHead > mask) {
+            cachedHead = head.get();
+            while (sequence - cachedHead > mask) {
+                LockSupport.parkNanos(FULL_WAIT_NANOS);
+                cachedHead = head.get();
+            }
+        }
+        int slot = (int) sequence & mask;
+        statuses[slot] = gameStatus;
+        matchedCells[slot] = cells;
+        //Volatile store, so the flag of a dispatch thread going to park is read after the new tail is visible.
+        tail.set(sequence + 1);
+        if (dispatcherWaiting) {
+            LockSupport.unpark(dispatchThread);
+        }
+    }
+
+    /**
+     * Loop of the dispatch thread, parks when the buffer is empty until an event is published or the dispatcher is
+     * closed.
+     */
+    @SuppressWarnings("unchecked")
+    private void dispatch() {
+        long sequence = head.get();
+        while (true) {
+            long available = tail.get();
+            if (sequence == available) {
+                if (closed) {
+                    return;
+                }
+                dispatcherWaiting = true;
+                //Checked again after the flag is set, so a publish racing with the flag is not missed.
+                if (tail.get() == sequence && !closed) {
+                    LockSupport.park(this);
+                }
+                dispatcherWaiting = false;
+                continue;
+            }
+            for (; sequence < available; sequence++) {
+                int slot = (int) sequence & mask;
+                GameEngine.GameStatus gameStatus = statuses[slot];
+                List<Cell> cells = (List<Cell>) matchedCells[slot];
+                matchedCells[slot] = null;
+                deliver(gameStatus, cells);
+                //The slot is freed once delivered. Volatile store, so a producer which reads the old head coalesces
+                //only into the events after it, whose delivery starts after the store.
+                head.set(sequence + 1);
+            }
+        }
+    }
+
+    private void deliver(GameEngine.GameStatus gameStatus, List<Cell> cells) {
+        for (GameEngine.GameStatusListener listener : listeners) {
+            try {
+                if (null != gameStatus) {
+                    listener.onGameStatusChanged(gameStatus);
+                } else {
+                    listener.onGameOver(cells);
+                }
+            } catch (RuntimeException e) {
+                failureCount++;
+            }
+        }
+    }
+}
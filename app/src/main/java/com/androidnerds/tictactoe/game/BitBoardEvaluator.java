@@ -0,0 +1,29 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+/**
+ * {@link MoveEvaluator} for the 4x4 {@link BitBoard}, which evaluates the moves via the precomputed winning masks.
+ */
+public final class BitBoardEvaluator implements MoveEvaluator {
+
+    @Override
+    public boolean evaluate(@NonNull Board board, int row, int column, @NonNull EvaluationResult evaluationResult) {
+        return GameStatusEvaluator.evaluate((BitBoard) board, row, column, evaluationResult);
+    }
+
+    @Override
+    public void undo(@NonNull Board board, int row, int column, @NonNull CellState playerState) {
+        //The evaluation does not keep any state across the moves.
+    }
+
+    @Override
+    public void reset() {
+        //The evaluation does not keep any state across the moves.
+    }
+}
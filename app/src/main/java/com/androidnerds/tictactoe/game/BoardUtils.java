@@ -2,6 +2,7 @@ package com.androidnerds.tictactoe.game;
 
 import androidx.annotation.NonNull;
 
+import com.androidnerds.tictactoe.game.board.Board;
 import com.androidnerds.tictactoe.game.model.CellState;
 
 /**
@@ -43,7 +44,52 @@ public final class BoardUtils {
     }
 
     public static int getTotalCellsOnBoard(int boardSize) {
-        return (int) Math.pow(boardSize, 2);
+        return boardSize * boardSize;
+    }
+
+    /**
+     * Adapts the {@link Board} to the 2d array representation used by the UI.
+     *
+     * @param board - board holding the state of the game.
+     * @return 2d array representation of the tic-tac-toe board.
+     * @throws IllegalArgumentException - if the board is unbounded, see
+     *                                  {@link #toCellStateArray(Board, int, int, int)} for a window of such a board.
+     */
+    @NonNull
+    public static CellState[][] toCellStateArray(@NonNull Board board) {
+        int boardSize = board.getSize();
+        if (boardSize == Board.UNBOUNDED_SIZE) {
+            throw new IllegalArgumentException("Unbounded boards can not be represented as an array.");
+        }
+        return toCellStateArray(board, 0, 0, boardSize);
+    }
+
+    /**
+     * Adapts a square window of the {@link Board} to the 2d array representation used by the UI, the cell
+     * (fromRow, fromColumn) of the board being the cell [0][0] of the array.
+     *
+     * @param board      - board holding the state of the game.
+     * @param fromRow    - rowIndex of the first row of the window.
+     * @param fromColumn - columnIndex of the first column of the window.
+     * @param size       - no: of cells on a row/column of the window.
+     * @return 2d array representation of the window.
+     * @throws IllegalArgumentException - if the window is not on a bounded board.
+     */
+    @NonNull
+    public static CellState[][] toCellStateArray(@NonNull Board board, int fromRow, int fromColumn, int size) {
+        int boardSize = board.getSize();
+        if (size < 0 || (boardSize != Board.UNBOUNDED_SIZE && (fromRow < 0 || fromColumn < 0 ||
+                fromRow > boardSize - size || fromColumn > boardSize - size))) {
+            throw new IllegalArgumentException("Window of size " + size + " at (" + fromRow + ", " + fromColumn +
+                    ") is not on the board of size " + boardSize);
+        }
+        CellState[][] cellStates = new CellState[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                cellStates[row][column] = board.getCellState(fromRow + row, fromColumn + column);
+            }
+        }
+        return cellStates;
     }
 
     /**
@@ -1,15 +1,18 @@
 package com.androidnerds.tictactoe.game;
 
 import com.androidnerds.tictactoe.R;
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.board.ZobristHash;
 import com.androidnerds.tictactoe.game.model.Cell;
 import com.androidnerds.tictactoe.game.model.CellState;
 import com.androidnerds.tictactoe.game.model.EvaluationResult;
 import com.androidnerds.tictactoe.game.model.Player;
 
+import java.util.Arrays;
 import java.util.List;
 
-import static com.androidnerds.tictactoe.game.GameStatusEvaluator.evaluate;
-
 /**
  * Core class that handles the Tic-Tac-Toe game.
  * <p>
@@ -17,8 +20,14 @@ import static com.androidnerds.tictactoe.game.GameStatusEvaluator.evaluate;
  * evaluates the game status after each move.
  * </p>
  * <p>
+ * The size of the board is passed in the constructor of the class. The 4x4 board is represented by a {@link BitBoard},
+ * while the other sizes use a {@link PackedBoard} holding 2 bits per cell, evaluated by the {@link IncrementalWinEvaluator}
+ * whose cost per move does not grow with the size of the board.
+ * </p>
+ * <p>
  * This class provides the changes in the game status to the subscriber via the {@link GameStatusListener} callback passed
- * in the constructor of the class.
+ * in the constructor of the class. The callbacks are called on the thread of the move, an
+ * {@link AsyncGameStatusDispatcher} passed as the listener delivers them to the listeners on a thread of its own instead.
  * </p>
  * <p>
  * The game can be started by calling the {@link GameEngine#startGame()} method. This will result in changing the status of the game and
@@ -26,9 +35,14 @@ import static com.androidnerds.tictactoe.game.GameStatusEvaluator.evaluate;
  * </p>
  * <p>
  * When the player has selected a cell on the board, it should be passed to the GameEngine via {@link GameEngine#onPlayerSelected(int, int)} method.
- * On receiving the row & column indices of the selected cell, the GameEngine updates the 2d representation of the board.
+ * On receiving the row & column indices of the selected cell, the GameEngine updates the {@link Board} representation of the board.
  * Once updated, this class proceeds with evaluating the status of the game based on the move of the player.
- * {@link GameStatusEvaluator} class is used to evaluate the status and performs the action based on the result.(refer {@link GameStatusEvaluator#evaluate(CellState[][], int, int)} method.
+ * {@link MoveEvaluator} is used to evaluate the status and performs the action based on the result.(refer {@link MoveEvaluator#evaluate(Board, int, int, EvaluationResult)} method.
+ * </p>
+ * <p>
+ * Bulk play & replay should use {@link GameEngine#playMove(int, int)} and {@link GameEngine#applyMoves(int[])}, which
+ * report an invalid move by a {@link MoveResult} instead of an Exception, and apply a batch of moves with a single
+ * callback at the end.
  * </p>
  */
 public class GameEngine {
@@ -49,6 +63,20 @@ public class GameEngine {
         NEXT_PLAYER_PLAYS
     }
 
+    //Result of a move passed to the non-throwing move API.
+    public enum MoveResult {
+        //The move was played.
+        ACCEPTED,
+        //The cell is not on the board.
+        ILLEGAL,
+        //The cell is already occupied.
+        OCCUPIED,
+        //The game has not been started.
+        NOT_STARTED,
+        //The game is already over.
+        GAME_OVER
+    }
+
     //Interface for updating the Game Status to the caller.
     public interface GameStatusListener {
         void onGameStatusChanged(GameStatus gameStatus);
@@ -56,12 +84,18 @@ public class GameEngine {
         void onGameOver(List<Cell> matchedCells);
     }
 
-    //Represents the max number of ROW/COLUMN on the board(4x4)
-    public static final int SPAN_COUNT = 4;
+    //Represents the default number of ROW/COLUMN on the board(4x4)
+    public static final int SPAN_COUNT = BitBoard.SIZE;
+    //Initial no: of moves held by the move history, grown when needed.
+    private static final int INITIAL_MOVE_CAPACITY = BitBoard.CELL_COUNT;
     //
     private final GameStatusListener gameStatusListener;
-    //2d array representation of the Tic-Tac-Toe board.
-    private CellState[][] board;
+    //Represents the number of ROW/COLUMN on the board.
+    private final int boardSize;
+    //Representation of the Tic-Tac-Toe board, chosen based on the board size.
+    private Board board;
+    //Evaluates the moves on the board.
+    private MoveEvaluator moveEvaluator;
     //Represents the game-type
     private GameType gameType = GameType.TWO_PLAYER;
     //Object for Player 1
@@ -70,36 +104,77 @@ public class GameEngine {
     private Player player2;
     //Object holds the current player playing the game.
     private Player currentPlayer;
-    //Holds the result after the evaluation by the engine.
-    private EvaluationResult evaluationResult;
+    //No: of pieces placed on the board in the current game.
+    private int movesPlayed;
+    //Rows & columns of the moves played in the current game, in the order played, to take back the moves.
+    private int[] moveRows = new int[INITIAL_MOVE_CAPACITY];
+    private int[] moveColumns = new int[INITIAL_MOVE_CAPACITY];
+    //Zobrist hash of the position, updated on every move & undo.
+    private long hash = ZobristHash.EMPTY_HASH;
+    //Holds the result after the evaluation by the engine, reused for every move.
+    private final EvaluationResult evaluationResult = new EvaluationResult();
     //Indicates whether the game has completed or not.
     private GameStatus gameStatus = GameStatus.NOT_INITIALIZED;
 
     public GameEngine(GameStatusListener gameStatusListener) {
+        this(gameStatusListener, SPAN_COUNT);
+    }
+
+    /**
+     * @param gameStatusListener - listener for the changes in the game status.
+     * @param boardSize          - no: of cells on a row/column of the board, up to {@link PackedBoard#MAX_SIZE}.
+     */
+    public GameEngine(GameStatusListener gameStatusListener, int boardSize) {
+        if (boardSize <= 0 || boardSize > PackedBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid board size: " + boardSize);
+        }
         this.gameStatusListener = gameStatusListener;
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * Creates the engine for a custom board & rules, eg. the unbounded
+     * {@link com.androidnerds.tictactoe.game.board.SparseBoard} with the {@link KInARowEvaluator}.
+     *
+     * @param gameStatusListener - listener for the changes in the game status.
+     * @param board              - representation of the board, cleared when the engine is initialized.
+     * @param moveEvaluator      - evaluates whether a move has won the game.
+     */
+    public GameEngine(GameStatusListener gameStatusListener, Board board, MoveEvaluator moveEvaluator) {
+        this.gameStatusListener = gameStatusListener;
+        this.boardSize = board.getSize();
+        this.board = board;
+        this.moveEvaluator = moveEvaluator;
     }
 
     /**
      * Initializes the board and other values related to the Game Engine.
      */
     public void init() {
-        initBoard(SPAN_COUNT);
+        initBoard();
         setPlayers();
-        evaluationResult = null;
+        evaluationResult.reset();
+        movesPlayed = 0;
+        hash = ZobristHash.EMPTY_HASH;
         gameStatus = GameStatus.NOT_STARTED;
     }
 
     /**
-     * Initializes the 2d array representation of the board.
-     *
-     * @param boardSize - size of the board.
+     * Initializes the representation of the board with all the cells free.
+     * The 4x4 board is held in a {@link BitBoard}, the other sizes in a {@link PackedBoard}.
      */
-    private void initBoard(int boardSize) {
-        this.board = new CellState[boardSize][boardSize];
-        for (int row = 0; row < boardSize; row++) {
-            for (int column = 0; column < boardSize; column++) {
-                this.board[row][column] = CellState.FREE;
+    private void initBoard() {
+        if (null == this.board) {
+            if (boardSize == BitBoard.SIZE) {
+                this.board = new BitBoard();
+                this.moveEvaluator = new BitBoardEvaluator();
+            } else {
+                this.board = new PackedBoard(boardSize);
+                this.moveEvaluator = new IncrementalWinEvaluator(boardSize);
             }
+        } else {
+            this.board.clear();
+            this.moveEvaluator.reset();
         }
     }
 
@@ -116,18 +191,103 @@ public class GameEngine {
      * game is updated.
      */
     public void startGame() throws Exception {
-        if(gameStatus != GameStatus.NOT_STARTED) {
+        if (!tryStartGame()) {
             throw new Exception("InvalidStateException: Initialize the GameEngine before starting the game.");
         }
+    }
+
+    /**
+     * Starts the game like {@link #startGame()}, without throwing when the engine is not initialized.
+     *
+     * @return TRUE - if the game was started.
+     */
+    public boolean tryStartGame() {
+        if (gameStatus != GameStatus.NOT_STARTED) {
+            return false;
+        }
         currentPlayer = player1;
         onGameStatusChanged(GameStatus.NEXT_PLAYER_PLAYS);
+        return true;
+    }
+
+    /**
+     * @return the status of the game after the last move.
+     */
+    public GameStatus getGameStatus() {
+        return gameStatus;
+    }
+
+    public GameType getGameType() {
+        return gameType;
+    }
+
+    /**
+     * Sets the type of the game. In a {@link GameType#ONE_PLAYER} game, Player 2 is played by the computer,
+     * which is supported only on the bounded boards.
+     */
+    public void setGameType(GameType gameType) {
+        if (gameType == GameType.ONE_PLAYER && isUnbounded()) {
+            throw new IllegalArgumentException("ONE_PLAYER game is not supported on board of size: " + boardSize);
+        }
+        this.gameType = gameType;
     }
 
     /**
-     * @return the no: of cells on a row/column on the board.
+     * @return TRUE - if the game is waiting for the move of the computer player.
+     */
+    public boolean isComputerTurn() {
+        return gameType == GameType.ONE_PLAYER &&
+                gameStatus == GameStatus.NEXT_PLAYER_PLAYS &&
+                currentPlayer == player2;
+    }
+
+    /**
+     * @return the no: of cells on a row/column on the board, or {@link Board#UNBOUNDED_SIZE}.
      */
     public int getBoardSize() {
-        return SPAN_COUNT;
+        return boardSize;
+    }
+
+    /**
+     * @return the no: of moves left before the board is full, {@link Integer#MAX_VALUE} for the unbounded boards.
+     */
+    public int getRemainingMoves() {
+        return isUnbounded() ? Integer.MAX_VALUE : getTotalCells() - movesPlayed;
+    }
+
+    /**
+     * Collects the cells that can be selected by the current player, identified by the index {@code row * boardSize + column}.
+     * The cost is proportional to the no: of free cells on the board.
+     *
+     * @param moves - array to be filled with the legal moves, should be able to hold {@link #getRemainingMoves()} entries.
+     * @return the no: of legal moves written into the array.
+     */
+    public int getLegalMoves(int[] moves) {
+        if (gameStatus != GameStatus.NEXT_PLAYER_PLAYS) {
+            return 0;
+        }
+        return board.getFreeCells(moves);
+    }
+
+    /**
+     * @return 2d array representation of the board, adapted from the board held by the engine, null if the engine is
+     * not initialized or the board is unbounded, whose cells are read by {@link #getBoard(int, int, int)}.
+     */
+    public CellState[][] getBoard() {
+        return null != board && !isUnbounded() ? BoardUtils.toCellStateArray(board) : null;
+    }
+
+    /**
+     * Reads a square window of the board, eg. the part of an unbounded board shown to the user.
+     *
+     * @param fromRow    - rowIndex of the first row of the window, the row [0] of the array.
+     * @param fromColumn - columnIndex of the first column of the window, the column [0] of the array.
+     * @param size       - no: of cells on a row/column of the window.
+     * @return 2d array representation of the window, null if the engine is not initialized.
+     * @throws IllegalArgumentException - if the window is not on a bounded board.
+     */
+    public CellState[][] getBoard(int fromRow, int fromColumn, int size) {
+        return null != board ? BoardUtils.toCellStateArray(board, fromRow, fromColumn, size) : null;
     }
 
     /**
@@ -151,20 +311,168 @@ public class GameEngine {
      * @param column - columnIndex of the cell selected on the board.
      */
     public void onPlayerSelected(int row, int column) throws Exception {
-        if(gameStatus != GameStatus.NEXT_PLAYER_PLAYS) {
-            throw new Exception("InvalidStateException: Start the game before calling onPlayerSelected");
+        switch (playMove(row, column)) {
+            case NOT_STARTED:
+            case GAME_OVER:
+                throw new Exception("InvalidStateException: Start the game before calling onPlayerSelected");
+            case ILLEGAL:
+                throw new Exception("InvalidMoveException: Cell (" + row + ", " + column + ") is not on the board");
+            case OCCUPIED:
+                throw new Exception("InvalidMoveException: Cell (" + row + ", " + column + ") is already occupied");
+            default:
+                break;
         }
-        board[row][column] = currentPlayer.getCellState();
-        GameStatus gameStatus = getGameStatus(board, row, column);
+    }
+
+    /**
+     * Plays the move of the current player like {@link #onPlayerSelected(int, int)}, but reports an invalid move by
+     * the result instead of an Exception. The board is not changed if the move is not accepted.
+     *
+     * @param row    - rowIndex of the cell selected on the board.
+     * @param column - columnIndex of the cell selected on the board.
+     * @return {@link MoveResult#ACCEPTED} - if the move was played, else the reason why the move was rejected.
+     */
+    public MoveResult playMove(int row, int column) {
+        MoveResult moveResult = play(row, column);
+        if (moveResult == MoveResult.ACCEPTED) {
+            onMovePlayed();
+        }
+        return moveResult;
+    }
+
+    /**
+     * Applies the moves in the order of the array, see {@link #applyMoves(int[], int, int)}.
+     */
+    public MoveResult applyMoves(int[] moves) {
+        return applyMoves(moves, 0, moves.length);
+    }
+
+    /**
+     * Applies a batch of moves, each encoded as the index {@code row * boardSize + column} of its cell, with the
+     * players alternating as in {@link #playMove(int, int)}. The {@link GameStatusListener} is notified once, with the
+     * status after the last move applied, instead of once per move. Moves are supported only on the bounded boards.
+     * <p>
+     * The batch stops at the first move which is rejected, the moves before it stay applied, so
+     * {@link #getGameStatus()} and the no: of moves played locate the rejected move.
+     * </p>
+     *
+     * @param moves  - encoded moves.
+     * @param offset - index of the first move in the array.
+     * @param count  - no: of moves to apply.
+     * @return {@link MoveResult#ACCEPTED} - if all the moves were played, else the result of the first rejected move.
+     */
+    public MoveResult applyMoves(int[] moves, int offset, int count) {
+        MoveResult moveResult = MoveResult.ACCEPTED;
+        int applied = 0;
+        if (isUnbounded()) {
+            moveResult = count > 0 ? MoveResult.ILLEGAL : MoveResult.ACCEPTED;
+        } else {
+            for (; applied < count; applied++) {
+                int move = moves[offset + applied];
+                if (move < 0) {
+                    moveResult = MoveResult.ILLEGAL;
+                    break;
+                }
+                moveResult = play(BoardUtils.calculateRowPosition(move, boardSize),
+                        BoardUtils.calculateColumnPosition(move, boardSize));
+                if (moveResult != MoveResult.ACCEPTED) {
+                    break;
+                }
+            }
+        }
+        if (applied > 0) {
+            onMovePlayed();
+        }
+        return moveResult;
+    }
+
+    /**
+     * Places the piece of the current player and evaluates the move, without notifying the listener.
+     */
+    private MoveResult play(int row, int column) {
+        if (gameStatus != GameStatus.NEXT_PLAYER_PLAYS) {
+            return isGameOver() ? MoveResult.GAME_OVER : MoveResult.NOT_STARTED;
+        }
+        if (!isUnbounded() && (row < 0 || row >= boardSize || column < 0 || column >= boardSize)) {
+            return MoveResult.ILLEGAL;
+        }
+        if (board.getCellState(row, column) != CellState.FREE) {
+            return MoveResult.OCCUPIED;
+        }
+        board.setCellState(row, column, currentPlayer.getCellState());
+        hash ^= ZobristHash.getKey(row, column, currentPlayer.getCellState());
+        addToMoveHistory(row, column);
+        gameStatus = getGameStatus(board, row, column);
         if (gameStatus == GameStatus.NEXT_PLAYER_PLAYS) {
             nexTurn();
         }
+        return MoveResult.ACCEPTED;
+    }
+
+    /**
+     * Notifies the listener of the status after the moves played.
+     */
+    private void onMovePlayed() {
         onGameStatusChanged(gameStatus);
-        if (gameStatus == GameStatus.DRAW || gameStatus == GameStatus.PLAYER_1_WON || gameStatus == GameStatus.PLAYER_2_WON) {
+        if (isGameOver()) {
             onGameCompleted(gameStatus);
         }
     }
 
+    /**
+     * Takes back the last move played, the player of the move is the current player again.
+     * A move which completed the game can be taken back too, which resumes the game.
+     */
+    public void undoLastMove() throws Exception {
+        if (movesPlayed == 0 || (gameStatus != GameStatus.NEXT_PLAYER_PLAYS && !isGameOver())) {
+            throw new Exception("InvalidStateException: No moves to undo");
+        }
+        movesPlayed--;
+        int row = moveRows[movesPlayed];
+        int column = moveColumns[movesPlayed];
+        CellState playerState = board.getCellState(row, column);
+        board.setCellState(row, column, CellState.FREE);
+        moveEvaluator.undo(board, row, column, playerState);
+        hash ^= ZobristHash.getKey(row, column, playerState);
+        evaluationResult.reset();
+        currentPlayer = playerState == player1.getCellState() ? player1 : player2;
+        onGameStatusChanged(GameStatus.NEXT_PLAYER_PLAYS);
+    }
+
+    /**
+     * Collects the moves played in the current game, in the order played, identified by the index
+     * {@code row * boardSize + column} like the moves of {@link #applyMoves(int[])}.
+     *
+     * @param cells - array to be filled with the moves, should be able to hold all of them.
+     * @return the no: of moves written into the array, 0 for the unbounded boards.
+     */
+    public int getMoves(int[] cells) {
+        if (isUnbounded()) {
+            return 0;
+        }
+        for (int index = 0; index < movesPlayed; index++) {
+            cells[index] = moveRows[index] * boardSize + moveColumns[index];
+        }
+        return movesPlayed;
+    }
+
+    /**
+     * @return the Zobrist hash of the current position, see {@link ZobristHash}.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    private void addToMoveHistory(int row, int column) {
+        if (movesPlayed == moveRows.length) {
+            moveRows = Arrays.copyOf(moveRows, movesPlayed * 2);
+            moveColumns = Arrays.copyOf(moveColumns, movesPlayed * 2);
+        }
+        moveRows[movesPlayed] = row;
+        moveColumns[movesPlayed] = column;
+        movesPlayed++;
+    }
+
     private void onGameStatusChanged(GameStatus gameStatus) {
         this.gameStatus = gameStatus;
         if (null != gameStatusListener) {
@@ -175,7 +483,7 @@ public class GameEngine {
     /**
      * Evaluates the status of the game after the move.
      *
-     * @param board  - 2d array representation of the board.
+     * @param board  - representation of the board.
      * @param row    - rowIndex of the cell currently selected.
      * @param column - columnIndex of the cell currently selected.
      * @return {@link GameStatus#PLAYER_1_WON} - if Player1 wins the game.
@@ -183,15 +491,14 @@ public class GameEngine {
      * {@link GameStatus#NEXT_PLAYER_PLAYS} - if Free cells are available on the board.
      * {@link GameStatus#DRAW} - if there are no free cells on the board.
      */
-    private GameStatus getGameStatus(CellState[][] board, int row, int column) {
-        evaluationResult = evaluate(board, row, column);
-        if (evaluationResult.hasWon()) {
+    private GameStatus getGameStatus(Board board, int row, int column) {
+        if (moveEvaluator.evaluate(board, row, column, evaluationResult)) {
             if (currentPlayer == player1) {
                 return GameStatus.PLAYER_1_WON;
             } else {
                 return GameStatus.PLAYER_2_WON;
             }
-        } else if (isFreeCellsAvailable(board)) {
+        } else if (isFreeCellsAvailable()) {
             return GameStatus.NEXT_PLAYER_PLAYS;
         } else {
             return GameStatus.DRAW;
@@ -228,18 +535,19 @@ public class GameEngine {
     }
 
     /**
-     * Method evaluates whether the board contains any free cells.
+     * Method evaluates whether the board contains any free cells, based on the no: of moves played.
      *
      * @return TRUE if there are free cells on the board.
      */
-    private boolean isFreeCellsAvailable(CellState[][] board) {
-        for (CellState[] row : board) {
-            for (CellState cellState : row) {
-                if (cellState == CellState.FREE) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    private boolean isFreeCellsAvailable() {
+        return isUnbounded() || movesPlayed < getTotalCells();
+    }
+
+    private boolean isUnbounded() {
+        return boardSize == Board.UNBOUNDED_SIZE;
+    }
+
+    private int getTotalCells() {
+        return BoardUtils.getTotalCellsOnBoard(getBoardSize());
     }
 }
@@ -2,18 +2,10 @@ package com.androidnerds.tictactoe.game;
 
 import androidx.annotation.NonNull;
 
-import com.androidnerds.tictactoe.game.model.Cell;
+import com.androidnerds.tictactoe.game.board.BitBoard;
 import com.androidnerds.tictactoe.game.model.CellState;
 import com.androidnerds.tictactoe.game.model.EvaluationResult;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import static com.androidnerds.tictactoe.game.BoardUtils.isIndexInPrincipalDiagonal;
-import static com.androidnerds.tictactoe.game.BoardUtils.isIndexOnBoard;
-import static com.androidnerds.tictactoe.game.BoardUtils.isIndexOnCornerOfBoard;
-import static com.androidnerds.tictactoe.game.BoardUtils.isIndexOnSecondaryDiagonal;
-
 /**
  * Utility class that performs the rules validation for the Tic-Tac-Toe game.
  */
@@ -42,229 +34,96 @@ public final class GameStatusEvaluator {
      */
     @NonNull
     protected static EvaluationResult evaluate(@NonNull CellState[][] board, int row, int column) {
-        EvaluationResult evaluationResult = hasPlayerWonTheRow(board, row, column);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
-        }
-
-        evaluationResult = hasPlayerWonTheColumn(board, row, column);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
-        }
-
-        evaluationResult = hasPlayerWonThePrincipalDiagonal(board, row, column);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
-        }
-
-        evaluationResult = hasPlayerWonTheSecondaryDiagonal(board, row, column);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
-        }
-
-        evaluationResult = hasPlayerWonAllCorners(board, row, column);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
-        }
-
-        return hasPlayerWonASquare(board, row, column);
-    }
-
-    /**
-     * Method returns whether the player has selected all the cells in the current row.
-     *
-     * @param board  - 2d array representation of the tic-tac-toe board
-     * @param row    - rowIndex of the selected cell on the board.
-     * @param column - columnIndex of the selected cell on the board.
-     */
-    @NonNull
-    private static EvaluationResult hasPlayerWonTheRow(@NonNull CellState[][] board, int row, int column) {
-        CellState currentPlayerState = board[row][column];
-        EvaluationResult evaluationResult = new EvaluationResult();
-        List<Cell> matchedCells = new ArrayList<>();
-        int columnIndex = 0;
-        while (columnIndex < board[row].length && board[row][columnIndex] == currentPlayerState) {
-            matchedCells.add(new Cell(row, columnIndex, true, currentPlayerState));
-            columnIndex++;
-        }
-        if (columnIndex == board[row].length) {
-            evaluationResult.setWin(true);
-            evaluationResult.setMatchedCells(matchedCells);
-        } else {
-            evaluationResult.setWin(false);
-        }
-        return evaluationResult;
-    }
-
-    /**
-     * Method returns whether the player has selected all the cells in the current column.
-     *
-     * @param board  - 2d array representation of the tic-tac-toe board
-     * @param row    - rowIndex of the selected cell on the board.
-     * @param column - columnIndex of the selected cell on the board.
-     */
-    @NonNull
-    private static EvaluationResult hasPlayerWonTheColumn(@NonNull CellState[][] board, int row, int column) {
-        CellState currentPlayerState = board[row][column];
         EvaluationResult evaluationResult = new EvaluationResult();
-        List<Cell> matchedCells = new ArrayList<>();
-        int rowIndex = 0;
-        while (rowIndex < board.length && board[rowIndex][column] == currentPlayerState) {
-            matchedCells.add(new Cell(rowIndex, column, true, currentPlayerState));
-            rowIndex++;
-        }
-        if (rowIndex == board.length) {
-            evaluationResult.setWin(true);
-            evaluationResult.setMatchedCells(matchedCells);
-        } else {
-            evaluationResult.setWin(false);
-        }
+        evaluate(board, row, column, evaluationResult);
         return evaluationResult;
     }
 
     /**
-     * Method returns whether the player has selected all the four corners of the board.
+     * Allocation free variant of {@link #evaluate(CellState[][], int, int)}.
+     * The result is written into the evaluationResult owned by the caller, which only records the winning pattern.
+     * The list of matched cells is built when it is requested for a win.
      *
-     * @param board  - 2d array representation of the tic-tac-toe board
-     * @param row    - rowIndex of the selected cell on the board.
-     * @param column - columnIndex of the selected cell on the board.
+     * @param board            - 2d array representation of the tic-tac-toe board
+     * @param row              - rowIndex of the selected cell on the board.
+     * @param column           - columnIndex of the selected cell on the board.
+     * @param evaluationResult - reusable holder for the result of the evaluation.
+     * @return TRUE - if the player has won the game after the current move.
      */
-    @NonNull
-    private static EvaluationResult hasPlayerWonAllCorners(@NonNull CellState[][] board, int row, int column) {
-        EvaluationResult evaluationResult = new EvaluationResult();
-        if (isIndexOnCornerOfBoard(board, row, column)) {
-            CellState playerState = board[row][column];
-            if (board[0][0] == playerState &&
-                    board[0][board.length - 1] == playerState &&
-                    board[board.length - 1][0] == playerState &&
-                    board[board.length - 1][board.length - 1] == playerState) {
-                evaluationResult.setWin(true);
-                List<Cell> matchedCells = new ArrayList<>();
-                matchedCells.add(new Cell(0, 0, true, playerState));
-                matchedCells.add(new Cell(0, board.length - 1, true, playerState));
-                matchedCells.add(new Cell(board.length - 1, 0, true, playerState));
-                matchedCells.add(new Cell(board.length - 1, board.length - 1, true, playerState));
-                evaluationResult.setMatchedCells(matchedCells);
+    protected static boolean evaluate(@NonNull CellState[][] board, int row, int column, @NonNull EvaluationResult evaluationResult) {
+        evaluationResult.reset();
+        CellState playerState = board[row][column];
+        if (playerState == CellState.FREE) {
+            return false;
+        }
+        WinPatternTable patternTable = WinPatternTable.forSize(board.length);
+        int cellIndex = row * board.length + column;
+        for (int index = patternTable.getCellStart(cellIndex); index < patternTable.getCellEnd(cellIndex); index++) {
+            int pattern = patternTable.getCellPattern(index);
+            if (isPatternOccupied(board, patternTable, pattern, playerState)) {
+                evaluationResult.setWinningPattern(patternTable, pattern, playerState);
+                return true;
             }
-        } else {
-            evaluationResult.setWin(false);
         }
-        return evaluationResult;
+        return false;
     }
 
     /**
-     * Method returns whether the player has selected all the cells in the secondary diagonal.
+     * Method evaluates whether the user has won the game after the current move on a {@link BitBoard}.
+     * The same set of rules as {@link #evaluate(CellState[][], int, int)} are applied, but via the
+     * precomputed winning masks of the board.
      *
-     * @param board  - 2d array representation of the tic-tac-toe board
+     * @param board  - bitboard representation of the tic-tac-toe board
      * @param row    - rowIndex of the selected cell on the board.
      * @param column - columnIndex of the selected cell on the board.
+     * @return {@link EvaluationResult} object which contains:
+     * 1. Status as whether the user has won or not
+     * 2. If won, then contains list of cells that were matched.
      */
     @NonNull
-    private static EvaluationResult hasPlayerWonTheSecondaryDiagonal(@NonNull CellState[][] board, int row, int column) {
+    protected static EvaluationResult evaluate(@NonNull BitBoard board, int row, int column) {
         EvaluationResult evaluationResult = new EvaluationResult();
-        if (isIndexOnBoard(board, row, column) && isIndexOnSecondaryDiagonal(row, column, board.length)) {
-            int rowIndex = 0;
-            int columnIndex = board.length - 1;
-            List<Cell> matchedCells = new ArrayList<>();
-            while (rowIndex < board.length &&
-                    columnIndex >= 0 &&
-                    board[rowIndex][columnIndex] == board[row][column]) {
-                matchedCells.add(new Cell(rowIndex, columnIndex, true, board[row][column]));
-                rowIndex++;
-                columnIndex--;
-            }
-            if (rowIndex == board.length && columnIndex == -1) {
-                evaluationResult.setWin(true);
-                evaluationResult.setMatchedCells(matchedCells);
-            }
-        }
+        evaluate(board, row, column, evaluationResult);
         return evaluationResult;
     }
 
     /**
-     * Method returns whether the player has selected all the cells in the principal diagonal.
+     * Allocation free variant of {@link #evaluate(BitBoard, int, int)}.
+     * The result is written into the evaluationResult owned by the caller, which only records the winning pattern.
+     * The list of matched cells is built when it is requested for a win.
      *
-     * @param board  - 2d array representation of the tic-tac-toe board
-     * @param row    - rowIndex of the selected cell on the board.
-     * @param column - columnIndex of the selected cell on the board.
+     * @param board            - bitboard representation of the tic-tac-toe board
+     * @param row              - rowIndex of the selected cell on the board.
+     * @param column           - columnIndex of the selected cell on the board.
+     * @param evaluationResult - reusable holder for the result of the evaluation.
+     * @return TRUE - if the player has won the game after the current move.
      */
-    @NonNull
-    private static EvaluationResult hasPlayerWonThePrincipalDiagonal(@NonNull CellState[][] board, int row, int column) {
-        EvaluationResult evaluationResult = new EvaluationResult();
-        if (isIndexOnBoard(board, row, column) && isIndexInPrincipalDiagonal(row, column)) {
-            int rowIndex = 0;
-            int columnIndex = 0;
-            List<Cell> matchedCells = new ArrayList<>();
-            while (rowIndex < board.length &&
-                    columnIndex < board.length &&
-                    board[rowIndex][columnIndex] == board[row][column]) {
-                matchedCells.add(new Cell(rowIndex, columnIndex, true, board[row][column]));
-                rowIndex++;
-                columnIndex++;
-            }
-            if (rowIndex == board.length && columnIndex == board.length) {
-                evaluationResult.setWin(true);
-                evaluationResult.setMatchedCells(matchedCells);
-            }
-        }
-        return evaluationResult;
-    }
-
-    @NonNull
-    private static EvaluationResult validateSquare(@NonNull CellState[][] board, CellState playerState, int rowStart, int columnStart, int rowEnd, int columnEnd) {
-        int columnIndex;
-        int rowIndex;
-        boolean playerWon = true;
-        EvaluationResult evaluationResult = new EvaluationResult();
-        List<Cell> matchedCells = new ArrayList<>();
-        for (columnIndex = columnStart; columnIndex <= columnEnd; columnIndex++) {
-            for (rowIndex = rowStart; rowIndex <= rowEnd; rowIndex++) {
-                if (!isIndexOnBoard(board, rowIndex, columnIndex) || board[rowIndex][columnIndex] != playerState) {
-                    playerWon = false;
-                    break;
-                } else {
-                    matchedCells.add(new Cell(rowIndex, columnIndex, true, playerState));
-                }
-            }
-            if (playerWon && rowIndex == rowEnd + 1 && columnIndex == columnEnd) {
-                evaluationResult.setWin(true);
-                evaluationResult.setMatchedCells(matchedCells);
-            }
-        }
-        return evaluationResult;
+    protected static boolean evaluate(@NonNull BitBoard board, int row, int column, @NonNull EvaluationResult evaluationResult) {
+        evaluationResult.reset();
+        int pattern = board.findWinningPattern(row, column);
+        if (pattern < 0) {
+            return false;
+        }
+        evaluationResult.setWinningPattern(WinPatternTable.forSize(BitBoard.SIZE), pattern, board.getCellState(row, column));
+        return true;
     }
 
     /**
-     * Method evaluates whether the player has formed a 2x2 box after the current move.
-     * The selected cell can possibly form 4 2x2 box with the adjacent elements on the board.
-     * 1. Top Left box.
-     * 2. Top Right box.
-     * 3. Bottom Left box.
-     * 4. Bottom Right box.
-     * If the user forms a 2x2 box on, then the player has won the game.
+     * Method returns whether the player has occupied all the cells of the pattern.
      *
-     * @param board  - 2d array representation of the tic-tac-toe board.
-     * @param row    - rowIndex of the selected cell on the board.
-     * @param column - columnIndex of the selected cell on the board.
+     * @param board        - 2d array representation of the tic-tac-toe board
+     * @param patternTable - compiled winning patterns for the board size.
+     * @param pattern      - index of the pattern in the table.
+     * @param playerState  - state of the cells occupied by the player.
      */
-    @NonNull
-    private static EvaluationResult hasPlayerWonASquare(@NonNull CellState[][] board, int row, int column) {
-        //Top Left
-        EvaluationResult evaluationResult = validateSquare(board, board[row][column], row - 1, column - 1, row, column);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
-        }
-        //TopRight
-        evaluationResult = validateSquare(board, board[row][column], row - 1, column, row, column + 1);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
-        }
-        //BottomLeft
-        evaluationResult = validateSquare(board, board[row][column], row, column - 1, row + 1, column);
-        if (evaluationResult.hasWon()) {
-            return evaluationResult;
+    private static boolean isPatternOccupied(@NonNull CellState[][] board, @NonNull WinPatternTable patternTable, int pattern, CellState playerState) {
+        int boardSize = board.length;
+        for (int index = patternTable.getPatternStart(pattern); index < patternTable.getPatternEnd(pattern); index++) {
+            int cell = patternTable.getPatternCell(index);
+            if (board[cell / boardSize][cell % boardSize] != playerState) {
+                return false;
+            }
         }
-        //BottomRight
-        return validateSquare(board, board[row][column], row, column, row + 1, column + 1);
+        return true;
     }
 }
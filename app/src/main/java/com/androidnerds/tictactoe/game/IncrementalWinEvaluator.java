@@ -0,0 +1,193 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.model.Cell;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link MoveEvaluator} for boards of any size, whose cost per move does not depend on the size of the board.
+ * <p>
+ * The evaluator keeps the no: of cells occupied by each player on every row, column, diagonal and on the corners,
+ * which are updated with each move. A line is won when the count of the player reaches the board size.
+ * The 2x2 boxes around the last move are validated by probing the neighbouring cells.
+ * </p>
+ * <p>
+ * The patterns are numbered in the same order as the {@link WinPatternTable} of the board size:
+ * rows, columns, principal diagonal, secondary diagonal, four corners and the 2x2 boxes, so the results match
+ * the evaluation via the table without having to compile it for large boards.
+ * </p>
+ */
+public final class IncrementalWinEvaluator implements MoveEvaluator, WinPatterns {
+
+    private static final int CROSS = 0;
+    private static final int CIRCLE = 1;
+
+    private final int boardSize;
+    //Counts of the cells occupied on each row/column, indexed by player * boardSize + row/column.
+    private final int[] rowCounts;
+    private final int[] columnCounts;
+    //Counts of the cells occupied on the diagonals and the corners, indexed by the player.
+    private final int[] principalDiagonalCounts = new int[2];
+    private final int[] secondaryDiagonalCounts = new int[2];
+    private final int[] cornerCounts = new int[2];
+
+    public IncrementalWinEvaluator(int boardSize) {
+        if (boardSize <= 0) {
+            throw new IllegalArgumentException("Invalid board size: " + boardSize);
+        }
+        this.boardSize = boardSize;
+        this.rowCounts = new int[2 * boardSize];
+        this.columnCounts = new int[2 * boardSize];
+    }
+
+    @Override
+    public boolean evaluate(@NonNull Board board, int row, int column, @NonNull EvaluationResult evaluationResult) {
+        evaluationResult.reset();
+        CellState playerState = board.getCellState(row, column);
+        if (playerState == CellState.FREE) {
+            return false;
+        }
+        int player = playerState == CellState.CROSS ? CROSS : CIRCLE;
+        int pattern = -1;
+        if (++rowCounts[player * boardSize + row] == boardSize) {
+            pattern = row;
+        }
+        if (++columnCounts[player * boardSize + column] == boardSize && pattern < 0) {
+            pattern = boardSize + column;
+        }
+        if (BoardUtils.isIndexInPrincipalDiagonal(row, column) &&
+                ++principalDiagonalCounts[player] == boardSize && pattern < 0) {
+            pattern = getPrincipalDiagonalPattern();
+        }
+        if (BoardUtils.isIndexOnSecondaryDiagonal(row, column, boardSize) &&
+                ++secondaryDiagonalCounts[player] == boardSize && pattern < 0) {
+            pattern = getPrincipalDiagonalPattern() + 1;
+        }
+        if (hasCorners() && isCorner(row, column) && ++cornerCounts[player] == 4 && pattern < 0) {
+            pattern = getCornersPattern();
+        }
+        if (pattern < 0) {
+            pattern = findWinningBox(board, row, column, playerState);
+        }
+        if (pattern < 0) {
+            return false;
+        }
+        evaluationResult.setWinningPattern(this, pattern, playerState);
+        return true;
+    }
+
+    @Override
+    public void undo(@NonNull Board board, int row, int column, @NonNull CellState playerState) {
+        if (playerState == CellState.FREE) {
+            return;
+        }
+        int player = playerState == CellState.CROSS ? CROSS : CIRCLE;
+        rowCounts[player * boardSize + row]--;
+        columnCounts[player * boardSize + column]--;
+        if (BoardUtils.isIndexInPrincipalDiagonal(row, column)) {
+            principalDiagonalCounts[player]--;
+        }
+        if (BoardUtils.isIndexOnSecondaryDiagonal(row, column, boardSize)) {
+            secondaryDiagonalCounts[player]--;
+        }
+        if (hasCorners() && isCorner(row, column)) {
+            cornerCounts[player]--;
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (int index = 0; index < rowCounts.length; index++) {
+            rowCounts[index] = 0;
+            columnCounts[index] = 0;
+        }
+        for (int player = CROSS; player <= CIRCLE; player++) {
+            principalDiagonalCounts[player] = 0;
+            secondaryDiagonalCounts[player] = 0;
+            cornerCounts[player] = 0;
+        }
+    }
+
+    @NonNull
+    @Override
+    public List<Cell> getPatternCells(int pattern, CellState playerState) {
+        List<Cell> matchedCells = new ArrayList<>();
+        if (pattern < boardSize) {
+            for (int column = 0; column < boardSize; column++) {
+                matchedCells.add(new Cell(pattern, column, true, playerState));
+            }
+        } else if (pattern < 2 * boardSize) {
+            for (int row = 0; row < boardSize; row++) {
+                matchedCells.add(new Cell(row, pattern - boardSize, true, playerState));
+            }
+        } else if (pattern == getPrincipalDiagonalPattern()) {
+            for (int row = 0; row < boardSize; row++) {
+                matchedCells.add(new Cell(row, row, true, playerState));
+            }
+        } else if (pattern == getPrincipalDiagonalPattern() + 1) {
+            for (int row = 0; row < boardSize; row++) {
+                matchedCells.add(new Cell(row, boardSize - 1 - row, true, playerState));
+            }
+        } else if (hasCorners() && pattern == getCornersPattern()) {
+            matchedCells.add(new Cell(0, 0, true, playerState));
+            matchedCells.add(new Cell(0, boardSize - 1, true, playerState));
+            matchedCells.add(new Cell(boardSize - 1, 0, true, playerState));
+            matchedCells.add(new Cell(boardSize - 1, boardSize - 1, true, playerState));
+        } else {
+            int box = pattern - getFirstBoxPattern();
+            int row = box / (boardSize - 1);
+            int column = box % (boardSize - 1);
+            matchedCells.add(new Cell(row, column, true, playerState));
+            matchedCells.add(new Cell(row, column + 1, true, playerState));
+            matchedCells.add(new Cell(row + 1, column, true, playerState));
+            matchedCells.add(new Cell(row + 1, column + 1, true, playerState));
+        }
+        return matchedCells;
+    }
+
+    /**
+     * Validates the (up to four) 2x2 boxes including the selected cell, in the order of their top-left cells.
+     *
+     * @return the pattern of the first box occupied by the player, or -1.
+     */
+    private int findWinningBox(@NonNull Board board, int row, int column, CellState playerState) {
+        for (int top = row - 1; top <= row; top++) {
+            for (int left = column - 1; left <= column; left++) {
+                if (top >= 0 && left >= 0 && top < boardSize - 1 && left < boardSize - 1 &&
+                        board.getCellState(top, left) == playerState &&
+                        board.getCellState(top, left + 1) == playerState &&
+                        board.getCellState(top + 1, left) == playerState &&
+                        board.getCellState(top + 1, left + 1) == playerState) {
+                    return getFirstBoxPattern() + top * (boardSize - 1) + left;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean hasCorners() {
+        return boardSize > 1;
+    }
+
+    private boolean isCorner(int row, int column) {
+        return (row == 0 || row == boardSize - 1) && (column == 0 || column == boardSize - 1);
+    }
+
+    private int getPrincipalDiagonalPattern() {
+        return 2 * boardSize;
+    }
+
+    private int getCornersPattern() {
+        return 2 * boardSize + 2;
+    }
+
+    private int getFirstBoxPattern() {
+        return 2 * boardSize + 2 + (hasCorners() ? 1 : 0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.model.Cell;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link MoveEvaluator} for the Gomoku style variants, where a player wins by forming k cells in a row.
+ * <p>
+ * Instead of scanning whole rows, the evaluator counts the run of the player outward from the last move in the
+ * four directions (horizontal, vertical and both diagonals), so the cost per move is bounded by k.
+ * It works on bounded boards as well as on the unbounded {@link com.androidnerds.tictactoe.game.board.SparseBoard}.
+ * </p>
+ * <p>
+ * The winning pattern is the index of the direction of the run, the run itself is remembered by the evaluator
+ * to build the matched cells.
+ * </p>
+ */
+public final class KInARowEvaluator implements MoveEvaluator, WinPatterns {
+
+    //Row & column steps of the four directions: horizontal, vertical, principal diagonal & secondary diagonal.
+    private static final int[] ROW_STEPS = {0, 1, 1, 1};
+    private static final int[] COLUMN_STEPS = {1, 0, 1, -1};
+
+    //No: of cells in a row needed to win.
+    private final int runLength;
+    //First cell & length of the last winning run.
+    private int winningRow;
+    private int winningColumn;
+    private int winningLength;
+
+    public KInARowEvaluator(int runLength) {
+        if (runLength <= 0) {
+            throw new IllegalArgumentException("Invalid run length: " + runLength);
+        }
+        this.runLength = runLength;
+    }
+
+    public int getRunLength() {
+        return runLength;
+    }
+
+    @Override
+    public boolean evaluate(@NonNull Board board, int row, int column, @NonNull EvaluationResult evaluationResult) {
+        evaluationResult.reset();
+        CellState playerState = board.getCellState(row, column);
+        if (playerState == CellState.FREE) {
+            return false;
+        }
+        for (int direction = 0; direction < ROW_STEPS.length; direction++) {
+            int rowStep = ROW_STEPS[direction];
+            int columnStep = COLUMN_STEPS[direction];
+            int backward = countRun(board, row, column, -rowStep, -columnStep, playerState);
+            int forward = countRun(board, row, column, rowStep, columnStep, playerState);
+            if (backward + 1 + forward >= runLength) {
+                winningRow = row - backward * rowStep;
+                winningColumn = column - backward * columnStep;
+                winningLength = backward + 1 + forward;
+                evaluationResult.setWinningPattern(this, direction, playerState);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void undo(@NonNull Board board, int row, int column, @NonNull CellState playerState) {
+        winningLength = 0;
+    }
+
+    @Override
+    public void reset() {
+        winningLength = 0;
+    }
+
+    /**
+     * Builds the cells of the last winning run, the pattern being the direction of the run.
+     */
+    @NonNull
+    @Override
+    public List<Cell> getPatternCells(int pattern, CellState playerState) {
+        List<Cell> matchedCells = new ArrayList<>();
+        for (int index = 0; index < winningLength; index++) {
+            matchedCells.add(new Cell(winningRow + index * ROW_STEPS[pattern],
+                    winningColumn + index * COLUMN_STEPS[pattern], true, playerState));
+        }
+        return matchedCells;
+    }
+
+    /**
+     * Counts the cells of the player next to the (row, column) cell in the direction, up to runLength - 1 cells.
+     */
+    private int countRun(@NonNull Board board, int row, int column, int rowStep, int columnStep, CellState playerState) {
+        int boardSize = board.getSize();
+        int count = 0;
+        int rowIndex = row + rowStep;
+        int columnIndex = column + columnStep;
+        while (count < runLength - 1 &&
+                (boardSize == Board.UNBOUNDED_SIZE || isOnBoard(rowIndex, columnIndex, boardSize)) &&
+                board.getCellState(rowIndex, columnIndex) == playerState) {
+            count++;
+            rowIndex += rowStep;
+            columnIndex += columnStep;
+        }
+        return count;
+    }
+
+    private static boolean isOnBoard(int row, int column, int boardSize) {
+        return row >= 0 && row < boardSize && column >= 0 && column < boardSize;
+    }
+}
@@ -0,0 +1,39 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+/**
+ * Strategy used by the {@link GameEngine} to evaluate whether the last move has won the game.
+ */
+public interface MoveEvaluator {
+
+    /**
+     * Method is invoked once after each move, when the cell at (row, column) has been occupied on the board.
+     *
+     * @param board            - board holding the state of the game.
+     * @param row              - rowIndex of the selected cell on the board.
+     * @param column           - columnIndex of the selected cell on the board.
+     * @param evaluationResult - reusable holder for the result of the evaluation.
+     * @return TRUE - if the player has won the game after the current move.
+     */
+    boolean evaluate(@NonNull Board board, int row, int column, @NonNull EvaluationResult evaluationResult);
+
+    /**
+     * Method is invoked when a move is taken back, after the cell at (row, column) has been freed on the board.
+     *
+     * @param board       - board holding the state of the game.
+     * @param row         - rowIndex of the freed cell on the board.
+     * @param column      - columnIndex of the freed cell on the board.
+     * @param playerState - state of the cell before it was freed.
+     */
+    void undo(@NonNull Board board, int row, int column, @NonNull CellState playerState);
+
+    /**
+     * Clears any state kept across the moves, invoked when the board is cleared for a new game.
+     */
+    void reset();
+}
@@ -0,0 +1,81 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+/**
+ * {@link MoveEvaluator} for any set of {@link WinRule}s, compiled once into a {@link WinPatternTable}.
+ * <p>
+ * Each move is evaluated by a single loop over the patterns through the last move. On a {@link BitBoard} the
+ * patterns are tested against the masks of the table, otherwise cell by cell.
+ * </p>
+ * <pre>
+ * WinPatternTable table = WinPatternTable.compile(5, StandardWinRule.ROW, StandardWinRule.COLUMN, StandardWinRule.SQUARE);
+ * GameEngine gameEngine = new GameEngine(listener, new PackedBoard(5), new PatternTableEvaluator(table));
+ * </pre>
+ */
+public final class PatternTableEvaluator implements MoveEvaluator {
+
+    private final WinPatternTable patternTable;
+    private final int boardSize;
+
+    public PatternTableEvaluator(@NonNull WinPatternTable patternTable) {
+        this.patternTable = patternTable;
+        this.boardSize = patternTable.getBoardSize();
+    }
+
+    @NonNull
+    public WinPatternTable getPatternTable() {
+        return patternTable;
+    }
+
+    @Override
+    public boolean evaluate(@NonNull Board board, int row, int column, @NonNull EvaluationResult evaluationResult) {
+        evaluationResult.reset();
+        CellState playerState = board.getCellState(row, column);
+        if (playerState == CellState.FREE) {
+            return false;
+        }
+        int pattern = board instanceof BitBoard && patternTable.hasPatternMasks() ?
+                patternTable.findWinningPattern(((BitBoard) board).getMask(playerState), row * boardSize + column) :
+                findWinningPattern(board, row * boardSize + column, playerState);
+        if (pattern < 0) {
+            return false;
+        }
+        evaluationResult.setWinningPattern(patternTable, pattern, playerState);
+        return true;
+    }
+
+    @Override
+    public void undo(@NonNull Board board, int row, int column, @NonNull CellState playerState) {
+        //The evaluation does not keep any state across the moves.
+    }
+
+    @Override
+    public void reset() {
+        //The evaluation does not keep any state across the moves.
+    }
+
+    private int findWinningPattern(@NonNull Board board, int cell, CellState playerState) {
+        for (int index = patternTable.getCellStart(cell); index < patternTable.getCellEnd(cell); index++) {
+            int pattern = patternTable.getCellPattern(index);
+            int patternIndex = patternTable.getPatternStart(pattern);
+            int patternEnd = patternTable.getPatternEnd(pattern);
+            while (patternIndex < patternEnd) {
+                int patternCell = patternTable.getPatternCell(patternIndex);
+                if (board.getCellState(patternCell / boardSize, patternCell % boardSize) != playerState) {
+                    break;
+                }
+                patternIndex++;
+            }
+            if (patternIndex == patternEnd) {
+                return pattern;
+            }
+        }
+        return -1;
+    }
+}
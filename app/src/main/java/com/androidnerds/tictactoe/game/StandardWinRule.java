@@ -0,0 +1,82 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The rules of the Tic-Tac-Toe game, declared in the order in which they are evaluated.
+ * Rule#1 - User has selected all the cells in a row.
+ * Rule#2 - User has selected all the cells in a column.
+ * Rule#3 - User has selected all the cells in the principal diagonal.
+ * Rule#4 - User has selected all the cells in the secondary diagonal.
+ * Rule#5 - User has selected all the cells on the four corners of the board.
+ * Rule#6 - User has selected a 2x2 box on the board.
+ */
+public enum StandardWinRule implements WinRule {
+
+    ROW {
+        @Override
+        public void addPatterns(int boardSize, @NonNull WinPatternTable.Builder builder) {
+            for (int row = 0; row < boardSize; row++) {
+                for (int column = 0; column < boardSize; column++) {
+                    builder.addCell(row, column);
+                }
+                builder.endPattern();
+            }
+        }
+    },
+    COLUMN {
+        @Override
+        public void addPatterns(int boardSize, @NonNull WinPatternTable.Builder builder) {
+            for (int column = 0; column < boardSize; column++) {
+                for (int row = 0; row < boardSize; row++) {
+                    builder.addCell(row, column);
+                }
+                builder.endPattern();
+            }
+        }
+    },
+    PRINCIPAL_DIAGONAL {
+        @Override
+        public void addPatterns(int boardSize, @NonNull WinPatternTable.Builder builder) {
+            for (int row = 0; row < boardSize; row++) {
+                builder.addCell(row, row);
+            }
+            builder.endPattern();
+        }
+    },
+    SECONDARY_DIAGONAL {
+        @Override
+        public void addPatterns(int boardSize, @NonNull WinPatternTable.Builder builder) {
+            for (int row = 0; row < boardSize; row++) {
+                builder.addCell(row, boardSize - 1 - row);
+            }
+            builder.endPattern();
+        }
+    },
+    CORNERS {
+        @Override
+        public void addPatterns(int boardSize, @NonNull WinPatternTable.Builder builder) {
+            if (boardSize > 1) {
+                builder.addCell(0, 0);
+                builder.addCell(0, boardSize - 1);
+                builder.addCell(boardSize - 1, 0);
+                builder.addCell(boardSize - 1, boardSize - 1);
+                builder.endPattern();
+            }
+        }
+    },
+    SQUARE {
+        @Override
+        public void addPatterns(int boardSize, @NonNull WinPatternTable.Builder builder) {
+            for (int row = 0; row < boardSize - 1; row++) {
+                for (int column = 0; column < boardSize - 1; column++) {
+                    builder.addCell(row, column);
+                    builder.addCell(row, column + 1);
+                    builder.addCell(row + 1, column);
+                    builder.addCell(row + 1, column + 1);
+                    builder.endPattern();
+                }
+            }
+        }
+    }
+}
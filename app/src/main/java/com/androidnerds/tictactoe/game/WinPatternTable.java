@@ -0,0 +1,283 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.Cell;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled table of the winning patterns for a NxN board.
+ * <p>
+ * A pattern is the set of cells a player has to occupy to win the game, declared by a {@link WinRule}, eg. a row,
+ * a column, the principal diagonal, the secondary diagonal, the four corners or a 2x2 box.
+ * Cells are identified by the index {@code row * boardSize + column}.
+ * </p>
+ * <p>
+ * The table maps each cell index to the exact list of patterns which include it, so that the evaluation after a move
+ * only has to test the patterns reachable from the last move. Both the mappings are stored as flat int arrays,
+ * with an offsets array marking the start of the entries of each pattern/cell. For boards of up to 64 cells, every
+ * pattern is also compiled into a bit mask of its cells.
+ * </p>
+ */
+public final class WinPatternTable implements WinPatterns {
+
+    //Tables for the board sizes up to this value are cached after the first use.
+    private static final int MAX_CACHED_SIZE = 32;
+    private static final WinPatternTable[] CACHE = new WinPatternTable[MAX_CACHED_SIZE + 1];
+    //Table of the larger board size used last, as the tables of these sizes are too large to keep one per size.
+    private static volatile WinPatternTable lastLargeTable;
+    //Largest no: of cells for which the patterns are compiled into masks.
+    private static final int MAX_MASK_CELLS = Long.SIZE;
+
+    private final int boardSize;
+    //Cells of the patterns, the cells of pattern p are in [patternOffsets[p], patternOffsets[p + 1]).
+    private final int[] patternOffsets;
+    private final int[] patternCells;
+    //Index of the rule in the rule set, which declared the pattern.
+    private final int[] patternRules;
+    //Mask of the cells of the patterns, null if the board has more than 64 cells.
+    private final long[] patternMasks;
+    //Patterns through the cells, the patterns of cell c are in [cellOffsets[c], cellOffsets[c + 1]).
+    private final int[] cellOffsets;
+    private final int[] cellPatterns;
+    //Mask of each pattern in the cellPatterns, so the patterns through a cell are tested on consecutive masks.
+    private final long[] cellPatternMasks;
+
+    private WinPatternTable(int boardSize, int[] patternOffsets, int[] patternCells, int[] patternRules) {
+        this.boardSize = boardSize;
+        this.patternOffsets = patternOffsets;
+        this.patternCells = patternCells;
+        this.patternRules = patternRules;
+        int cellCount = boardSize * boardSize;
+        int patternCount = patternRules.length;
+        this.cellOffsets = new int[cellCount + 1];
+        for (int cell : patternCells) {
+            cellOffsets[cell + 1]++;
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellOffsets[cell + 1] += cellOffsets[cell];
+        }
+        this.cellPatterns = new int[patternCells.length];
+        int[] nextIndex = new int[cellCount];
+        for (int pattern = 0; pattern < patternCount; pattern++) {
+            for (int i = patternOffsets[pattern]; i < patternOffsets[pattern + 1]; i++) {
+                int cell = patternCells[i];
+                cellPatterns[cellOffsets[cell] + nextIndex[cell]++] = pattern;
+            }
+        }
+        if (cellCount <= MAX_MASK_CELLS) {
+            this.patternMasks = new long[patternCount];
+            for (int pattern = 0; pattern < patternCount; pattern++) {
+                for (int i = patternOffsets[pattern]; i < patternOffsets[pattern + 1]; i++) {
+                    patternMasks[pattern] |= 1L << patternCells[i];
+                }
+            }
+            this.cellPatternMasks = new long[cellPatterns.length];
+            for (int index = 0; index < cellPatterns.length; index++) {
+                cellPatternMasks[index] = patternMasks[cellPatterns[index]];
+            }
+        } else {
+            this.patternMasks = null;
+            this.cellPatternMasks = null;
+        }
+    }
+
+    /**
+     * Returns the table of the {@link StandardWinRule}s for the board size.
+     * Tables for the common board sizes are compiled once and shared, the table of a larger size is kept until another
+     * larger size is asked for, so the repeated evaluations on a board do not compile its table every time.
+     *
+     * @param boardSize - size of the board.
+     */
+    @NonNull
+    public static WinPatternTable forSize(int boardSize) {
+        if (boardSize <= 0) {
+            throw new IllegalArgumentException("Invalid board size: " + boardSize);
+        }
+        if (boardSize > MAX_CACHED_SIZE) {
+            WinPatternTable table = lastLargeTable;
+            if (null == table || table.boardSize != boardSize) {
+                table = compile(boardSize, StandardWinRule.values());
+                lastLargeTable = table;
+            }
+            return table;
+        }
+        WinPatternTable table = CACHE[boardSize];
+        if (null == table) {
+            table = compile(boardSize, StandardWinRule.values());
+            CACHE[boardSize] = table;
+        }
+        return table;
+    }
+
+    /**
+     * Compiles the patterns of the rule set for the board size. The patterns are numbered in the order of the rules.
+     *
+     * @param boardSize - size of the board.
+     * @param rules     - rules of the game, in the order in which they should be evaluated.
+     */
+    @NonNull
+    public static WinPatternTable compile(int boardSize, @NonNull WinRule... rules) {
+        if (boardSize <= 0) {
+            throw new IllegalArgumentException("Invalid board size: " + boardSize);
+        }
+        Builder builder = new Builder(boardSize);
+        for (int rule = 0; rule < rules.length; rule++) {
+            builder.rule = rule;
+            rules[rule].addPatterns(boardSize, builder);
+        }
+        return builder.build();
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getPatternCount() {
+        return patternRules.length;
+    }
+
+    /**
+     * @return index of the first cell of the pattern, to be used with {@link #getPatternCell(int)}.
+     */
+    public int getPatternStart(int pattern) {
+        return patternOffsets[pattern];
+    }
+
+    /**
+     * @return index after the last cell of the pattern, to be used with {@link #getPatternCell(int)}.
+     */
+    public int getPatternEnd(int pattern) {
+        return patternOffsets[pattern + 1];
+    }
+
+    public int getPatternCell(int index) {
+        return patternCells[index];
+    }
+
+    /**
+     * @return index of the rule, in the rule set used to compile the table, which declared the pattern.
+     */
+    public int getPatternRule(int pattern) {
+        return patternRules[pattern];
+    }
+
+    /**
+     * @return TRUE - if the patterns are compiled into masks, ie. the board has at most 64 cells.
+     */
+    public boolean hasPatternMasks() {
+        return null != patternMasks;
+    }
+
+    /**
+     * @return mask of the cells of the pattern, bit {@code row * boardSize + column} representing the cell.
+     */
+    public long getPatternMask(int pattern) {
+        return patternMasks[pattern];
+    }
+
+    /**
+     * @return index of the first pattern through the cell, to be used with {@link #getCellPattern(int)}.
+     */
+    public int getCellStart(int cell) {
+        return cellOffsets[cell];
+    }
+
+    /**
+     * @return index after the last pattern through the cell, to be used with {@link #getCellPattern(int)}.
+     */
+    public int getCellEnd(int cell) {
+        return cellOffsets[cell + 1];
+    }
+
+    public int getCellPattern(int index) {
+        return cellPatterns[index];
+    }
+
+    /**
+     * Tests the masks of the patterns through the cell, on the boards of up to 64 cells, see {@link #hasPatternMasks()}.
+     *
+     * @param playerMask - cells of the player, including the cell.
+     * @param cell       - index of the cell ({@code row * boardSize + column}), usually of the last move.
+     * @return the first pattern through the cell completed by the player, ie. the first in the order of the rules,
+     * or -1 if there is none.
+     */
+    public int findWinningPattern(long playerMask, int cell) {
+        for (int index = cellOffsets[cell]; index < cellOffsets[cell + 1]; index++) {
+            long patternMask = cellPatternMasks[index];
+            if ((playerMask & patternMask) == patternMask) {
+                return cellPatterns[index];
+            }
+        }
+        return -1;
+    }
+
+    @NonNull
+    @Override
+    public List<Cell> getPatternCells(int pattern, CellState playerState) {
+        List<Cell> matchedCells = new ArrayList<>();
+        for (int index = getPatternStart(pattern); index < getPatternEnd(pattern); index++) {
+            int cell = patternCells[index];
+            matchedCells.add(new Cell(cell / boardSize, cell % boardSize, true, playerState));
+        }
+        return matchedCells;
+    }
+
+    /**
+     * Collects the patterns declared by the {@link WinRule}s while the table is compiled.
+     */
+    public static final class Builder {
+
+        private final int boardSize;
+        private int[] patternOffsets = new int[16];
+        private int[] patternCells = new int[64];
+        private int[] patternRules = new int[16];
+        private int patternCount;
+        private int cellCount;
+        //Index of the rule currently adding the patterns.
+        private int rule;
+
+        private Builder(int boardSize) {
+            this.boardSize = boardSize;
+        }
+
+        /**
+         * Adds the (row, column) cell to the pattern being declared.
+         */
+        public void addCell(int row, int column) {
+            if (row < 0 || row >= boardSize || column < 0 || column >= boardSize) {
+                throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") is not on the board.");
+            }
+            if (cellCount == patternCells.length) {
+                patternCells = Arrays.copyOf(patternCells, cellCount * 2);
+            }
+            patternCells[cellCount++] = row * boardSize + column;
+        }
+
+        /**
+         * Completes the pattern with the cells added since the previous pattern.
+         */
+        public void endPattern() {
+            if (cellCount == patternOffsets[patternCount]) {
+                throw new IllegalStateException("A pattern should contain at least one cell.");
+            }
+            if (patternCount + 2 > patternOffsets.length) {
+                patternOffsets = Arrays.copyOf(patternOffsets, patternOffsets.length * 2);
+                patternRules = Arrays.copyOf(patternRules, patternRules.length * 2);
+            }
+            patternRules[patternCount] = rule;
+            patternOffsets[++patternCount] = cellCount;
+        }
+
+        private WinPatternTable build() {
+            return new WinPatternTable(boardSize,
+                    Arrays.copyOf(patternOffsets, patternCount + 1),
+                    Arrays.copyOf(patternCells, cellCount),
+                    Arrays.copyOf(patternRules, patternCount));
+        }
+    }
+}
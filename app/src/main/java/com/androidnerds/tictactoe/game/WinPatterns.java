@@ -0,0 +1,23 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.Cell;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.util.List;
+
+/**
+ * Numbered set of winning patterns of a board, used to build the matched cells of a win on demand.
+ */
+public interface WinPatterns {
+
+    /**
+     * Creates the visual representation of the cells of the pattern, marked as matched.
+     *
+     * @param pattern     - index of the pattern.
+     * @param playerState - state of the cells occupied by the player.
+     */
+    @NonNull
+    List<Cell> getPatternCells(int pattern, CellState playerState);
+}
@@ -0,0 +1,21 @@
+package com.androidnerds.tictactoe.game;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Declaration of a rule of the game, as the set of patterns a player has to occupy to win.
+ * <p>
+ * Rules are only invoked when a {@link WinPatternTable} is compiled for a board size, the evaluation of the moves
+ * works on the compiled table and never calls back into the rules.
+ * </p>
+ */
+public interface WinRule {
+
+    /**
+     * Adds the winning patterns of the rule for the board size.
+     *
+     * @param boardSize - no: of cells on a row/column of the board.
+     * @param builder   - builder of the table collecting the patterns.
+     */
+    void addPatterns(int boardSize, @NonNull WinPatternTable.Builder builder);
+}
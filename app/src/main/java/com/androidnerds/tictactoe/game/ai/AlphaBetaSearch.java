@@ -0,0 +1,416 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+import com.androidnerds.tictactoe.game.board.ZobristHash;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.util.Arrays;
+
+/**
+ * Game-tree search for the 4x4 game, using negamax with alpha-beta pruning on the masks of the {@link BitBoard}.
+ * <p>
+ * The search is done with the masks of the side to move and of the opponent, so a position costs two ints and the
+ * moves are applied by setting a bit. A win is detected via the winning masks through the last move, which include
+ * the corners & 2x2 box rules. Positions at the depth limit are scored by counting the patterns which are still
+ * open for only one of the players.
+ * </p>
+ * <p>
+ * The positions reached through different move orders are searched once, via the {@link TranspositionTable} keyed by
+ * the {@link ZobristHash} of the position, which is updated with a XOR on every move. The move stored for a position
+ * is searched first when the position is visited again. Cut-offs by the table can shorten the principal variation.
+ * </p>
+ * <p>
+ * The table is shared by the symmetric positions (see {@link BoardSymmetry}): the hashes of the 8 symmetric images of
+ * the position are updated on every move, and the smallest of them is the key of the table. The move stored in the
+ * table is translated to the symmetric image which has the smallest hash.
+ * </p>
+ * <p>
+ * The moves are searched in the order of the {@link MoveOrdering}: the move of the table, the immediate wins & blocks,
+ * the killer moves and then by the history score. Without the ordering, the moves after the move of the table are
+ * searched in the order of the cells.
+ * </p>
+ * <p>
+ * An instance keeps the buffers for the principal variation and is not thread-safe.
+ * </p>
+ */
+public class AlphaBetaSearch {
+
+    //Score of a win at the root, reduced by the no: of plies to reach it so that faster wins are preferred.
+    public static final int WIN_SCORE = 10000;
+    //Scores beyond this value are forced wins/losses.
+    public static final int WIN_THRESHOLD = WIN_SCORE - BitBoard.CELL_COUNT - 1;
+    static final int INFINITY = WIN_SCORE + 1;
+    static final int DRAW_SCORE = 0;
+    //Weight of a pattern by the no: of cells occupied, when no cell is occupied by the other player.
+    private static final int[] PATTERN_WEIGHTS = {0, 1, 4, 16, 64};
+    //The limits of the search are checked once every (mask + 1) positions.
+    private static final int LIMIT_CHECK_MASK = 1024 - 1;
+    //Index of the players, for the side to move.
+    static final int CROSS = 0;
+    static final int CIRCLE = 1;
+    //Zobrist keys of the pieces, indexed by {@code cell * 2 + player}.
+    private static final long[] CELL_KEYS = createCellKeys();
+    //Zobrist keys of the pieces on the symmetric images, indexed by {@code (cell * 2 + player) * SYMMETRY_COUNT + symmetry}.
+    private static final long[] SYMMETRY_KEYS = createSymmetryKeys();
+
+    private final TranspositionTable transpositionTable;
+    //TRUE - if the table is shared with other searches, which is then advanced to a new search by the owner.
+    private final boolean sharedTable;
+
+    //Triangular table of the principal variation, the line from ply p is in principalVariations[p][p..length[p]).
+    private final int[][] principalVariations = new int[BitBoard.CELL_COUNT + 1][BitBoard.CELL_COUNT + 1];
+    private final int[] principalVariationLengths = new int[BitBoard.CELL_COUNT + 1];
+    //Hashes of the symmetric images of the position at each ply, indexed by {@code ply * SYMMETRY_COUNT + symmetry}.
+    private final long[] symmetryHashes = new long[(BitBoard.CELL_COUNT + 1) * BoardSymmetry.SYMMETRY_COUNT];
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    //Ordered moves of the position at each ply, indexed by {@code ply * CELL_COUNT + index}.
+    private final int[] moves = new int[(BitBoard.CELL_COUNT + 1) * BitBoard.CELL_COUNT];
+    //FALSE - to search the moves in the order of the cells, for measuring the effect of the ordering.
+    private boolean moveOrderingEnabled = true;
+    private long nodeCount;
+    //Limits of the current search, null when the search runs until the depth.
+    private SearchLimits limits;
+    private long deadlineNanos;
+    private long nodeLimit;
+    //Set when the limits are reached, the search unwinds without updating the table.
+    private boolean aborted;
+
+    public AlphaBetaSearch() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * @param transpositionTable - cache of the positions searched, kept across the searches.
+     */
+    public AlphaBetaSearch(@NonNull TranspositionTable transpositionTable) {
+        this(transpositionTable, false);
+    }
+
+    /**
+     * @param sharedTable - TRUE if the table is shared by concurrent searches, see {@link LazySmpSearch} &
+     *                    {@link ParallelAlphaBetaSearch}.
+     */
+    AlphaBetaSearch(@NonNull TranspositionTable transpositionTable, boolean sharedTable) {
+        this.transpositionTable = transpositionTable;
+        this.sharedTable = sharedTable;
+    }
+
+    /**
+     * Searches the best move for the side to move on the board.
+     *
+     * @param board      - position to search.
+     * @param sideToMove - state of the cells of the player to move.
+     * @param depth      - max no: of plies to search, the search is exact when it covers all the free cells.
+     */
+    @NonNull
+    public SearchResult search(@NonNull BitBoard board, @NonNull CellState sideToMove, int depth) {
+        CellState opponent = sideToMove == CellState.CROSS ? CellState.CIRCLE : CellState.CROSS;
+        return search(board.getMask(sideToMove), board.getMask(opponent), sideToMove == CellState.CROSS ? CROSS : CIRCLE, depth);
+    }
+
+    /**
+     * Searches the best move within the limits, used by the {@link IterativeDeepeningSearch}.
+     *
+     * @param deadlineNanos - value of {@link System#nanoTime()} after which the search is abandoned.
+     * @param nodeLimit     - no: of positions after which the search is abandoned.
+     * @return the result of the search, or null if the search was abandoned or cancelled.
+     */
+    @Nullable
+    SearchResult search(@NonNull BitBoard board, @NonNull CellState sideToMove, int depth,
+                        @NonNull SearchLimits limits, long deadlineNanos, long nodeLimit) {
+        this.limits = limits;
+        this.deadlineNanos = deadlineNanos;
+        this.nodeLimit = nodeLimit;
+        try {
+            SearchResult result = search(board, sideToMove, depth);
+            return aborted ? null : result;
+        } finally {
+            this.limits = null;
+        }
+    }
+
+    /**
+     * Searches the best move for the side to move.
+     * Player 1 is assumed to be the side to move when both the players have the same no: of pieces.
+     *
+     * @param ownMask      - cells occupied by the side to move.
+     * @param opponentMask - cells occupied by the opponent.
+     * @param depth        - max no: of plies to search.
+     */
+    @NonNull
+    public SearchResult search(int ownMask, int opponentMask, int depth) {
+        int player = Integer.bitCount(ownMask) == Integer.bitCount(opponentMask) ? CROSS : CIRCLE;
+        return search(ownMask, opponentMask, player, depth);
+    }
+
+    /**
+     * Searches the subtree below a split point of the {@link ParallelAlphaBetaSearch}, with the window & the ply of the
+     * split point, so the scores of the wins are relative to the root of the parallel search.
+     * The shared table is advanced to a new search by the parallel search.
+     *
+     * @param limits - the search is abandoned when the limits are cancelled, see {@link #isAborted()}.
+     * @return score of the position from the point of view of the side to move.
+     */
+    int searchSubtree(int ownMask, int opponentMask, int player, int depth, int alpha, int beta, int ply,
+                      @NonNull SearchLimits limits) {
+        nodeCount = 0;
+        aborted = false;
+        this.limits = limits;
+        this.deadlineNanos = Long.MAX_VALUE;
+        this.nodeLimit = Long.MAX_VALUE;
+        try {
+            initSymmetryHashes(ownMask, opponentMask, player, ply);
+            return negamax(ownMask, opponentMask, player, depth, alpha, beta, ply);
+        } finally {
+            this.limits = null;
+        }
+    }
+
+    /**
+     * Enables or disables the {@link MoveOrdering}, which is enabled by default.
+     */
+    void setMoveOrderingEnabled(boolean moveOrderingEnabled) {
+        this.moveOrderingEnabled = moveOrderingEnabled;
+    }
+
+    /**
+     * @return TRUE - if the last search was abandoned as the limits were reached.
+     */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    @NonNull
+    private SearchResult search(int ownMask, int opponentMask, int player, int depth) {
+        nodeCount = 0;
+        aborted = false;
+        if (!sharedTable) {
+            transpositionTable.newSearch();
+        }
+        moveOrdering.newSearch();
+        initSymmetryHashes(ownMask, opponentMask, player, 0);
+        int score = negamax(ownMask, opponentMask, player, Math.max(depth, 1), -INFINITY, INFINITY, 0);
+        int[] principalVariation = Arrays.copyOf(principalVariations[0], principalVariationLengths[0]);
+        int bestMove = principalVariation.length > 0 ? principalVariation[0] : -1;
+        return new SearchResult(bestMove, score, depth, nodeCount, principalVariation);
+    }
+
+    /**
+     * @return the no: of positions visited by the last search.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    private int negamax(int ownMask, int opponentMask, int player, int depth, int alpha, int beta, int ply) {
+        nodeCount++;
+        if ((nodeCount & LIMIT_CHECK_MASK) == 0 && null != limits && isLimitReached()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return DRAW_SCORE;
+        }
+        principalVariationLengths[ply] = ply;
+        int freeMask = ~(ownMask | opponentMask) & BitBoard.FULL_MASK;
+        if (freeMask == 0) {
+            return DRAW_SCORE;
+        }
+        if (depth == 0) {
+            return evaluate(ownMask, opponentMask);
+        }
+        int hashIndex = ply * BoardSymmetry.SYMMETRY_COUNT;
+        long hash = symmetryHashes[hashIndex];
+        int symmetry = BoardSymmetry.IDENTITY;
+        for (int index = 1; index < BoardSymmetry.SYMMETRY_COUNT; index++) {
+            if (symmetryHashes[hashIndex + index] < hash) {
+                hash = symmetryHashes[hashIndex + index];
+                symmetry = index;
+            }
+        }
+        int firstMove = TranspositionTable.NO_MOVE;
+        long entry = transpositionTable.probe(hash);
+        if (entry != 0) {
+            firstMove = TranspositionTable.getMove(entry);
+            if (firstMove != TranspositionTable.NO_MOVE) {
+                firstMove = BoardSymmetry.transformCell(firstMove, BoardSymmetry.inverse(symmetry));
+            }
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                        (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        int moveOffset = ply * BitBoard.CELL_COUNT;
+        int moveCount = moveOrderingEnabled ?
+                moveOrdering.orderMoves(ownMask, opponentMask, player, ply, firstMove, moves, moveOffset) :
+                listMoves(freeMask, firstMove, moveOffset);
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int index = moveOffset; index < moveOffset + moveCount; index++) {
+            int cell = moves[index];
+            int newOwnMask = ownMask | (1 << cell);
+            int score;
+            if (BitBoard.isWinningMove(newOwnMask, cell)) {
+                score = WIN_SCORE - ply - 1;
+                principalVariationLengths[ply + 1] = ply + 1;
+            } else {
+                updateSymmetryHashes(hashIndex, (cell * 2 + player) * BoardSymmetry.SYMMETRY_COUNT);
+                score = -negamax(opponentMask, newOwnMask, 1 - player, depth - 1, -beta, -alpha, ply + 1);
+                if (aborted) {
+                    return DRAW_SCORE;
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = cell;
+                updatePrincipalVariation(ply, cell);
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        moveOrdering.onCutOff(player, ply, cell, depth);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        transpositionTable.store(hash, depth, toTableScore(bestScore, ply), bound,
+                bestMove != TranspositionTable.NO_MOVE ? BoardSymmetry.transformCell(bestMove, symmetry) : bestMove);
+        return bestScore;
+    }
+
+    /**
+     * Lists the move of the table followed by the other free cells in the order of the cells.
+     *
+     * @return the no: of moves.
+     */
+    private int listMoves(int freeMask, int firstMove, int moveOffset) {
+        int count = 0;
+        if (firstMove != TranspositionTable.NO_MOVE && (freeMask & (1 << firstMove)) != 0) {
+            moves[moveOffset + count++] = firstMove;
+            freeMask &= ~(1 << firstMove);
+        }
+        for (; freeMask != 0; freeMask &= freeMask - 1) {
+            moves[moveOffset + count++] = Integer.numberOfTrailingZeros(freeMask);
+        }
+        return count;
+    }
+
+    private void initSymmetryHashes(int ownMask, int opponentMask, int player, int ply) {
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            symmetryHashes[ply * BoardSymmetry.SYMMETRY_COUNT + symmetry] = hash(BoardSymmetry.transform(ownMask, symmetry), player) ^
+                    hash(BoardSymmetry.transform(opponentMask, symmetry), 1 - player);
+        }
+    }
+
+    private boolean isLimitReached() {
+        return limits.isCancelled() || nodeCount >= nodeLimit || System.nanoTime() >= deadlineNanos;
+    }
+
+    /**
+     * Computes the hashes of the symmetric images for the next ply, after the piece with the keys has been placed.
+     */
+    private void updateSymmetryHashes(int hashIndex, int keyIndex) {
+        int childIndex = hashIndex + BoardSymmetry.SYMMETRY_COUNT;
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            symmetryHashes[childIndex + symmetry] = symmetryHashes[hashIndex + symmetry] ^ SYMMETRY_KEYS[keyIndex + symmetry];
+        }
+    }
+
+    /**
+     * Wins are stored relative to the position instead of the root, so that they can be reused at any ply.
+     */
+    private static int toTableScore(int score, int ply) {
+        if (score > WIN_THRESHOLD) {
+            return score + ply;
+        } else if (score < -WIN_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score > WIN_THRESHOLD) {
+            return score - ply;
+        } else if (score < -WIN_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private void updatePrincipalVariation(int ply, int cell) {
+        int[] line = principalVariations[ply];
+        int[] childLine = principalVariations[ply + 1];
+        line[ply] = cell;
+        int length = principalVariationLengths[ply + 1];
+        for (int index = ply + 1; index < length; index++) {
+            line[index] = childLine[index];
+        }
+        principalVariationLengths[ply] = Math.max(length, ply + 1);
+    }
+
+    /**
+     * Static evaluation of a position at the depth limit, from the point of view of the side to move.
+     */
+    static int evaluate(int ownMask, int opponentMask) {
+        int score = 0;
+        for (int pattern = 0; pattern < BitBoard.getWinMaskCount(); pattern++) {
+            int winMask = BitBoard.getWinMask(pattern);
+            int own = ownMask & winMask;
+            int opponent = opponentMask & winMask;
+            if (opponent == 0) {
+                score += PATTERN_WEIGHTS[Integer.bitCount(own)];
+            } else if (own == 0) {
+                score -= PATTERN_WEIGHTS[Integer.bitCount(opponent)];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @return the Zobrist hash of the pieces of the player on the cells of the mask.
+     */
+    private static long hash(int mask, int player) {
+        long hash = ZobristHash.EMPTY_HASH;
+        while (mask != 0) {
+            int cell = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            hash ^= CELL_KEYS[cell * 2 + player];
+        }
+        return hash;
+    }
+
+    private static long[] createCellKeys() {
+        long[] keys = new long[BitBoard.CELL_COUNT * 2];
+        for (int cell = 0; cell < BitBoard.CELL_COUNT; cell++) {
+            int row = cell / BitBoard.SIZE;
+            int column = cell % BitBoard.SIZE;
+            keys[cell * 2 + CROSS] = ZobristHash.getKey(row, column, CellState.CROSS);
+            keys[cell * 2 + CIRCLE] = ZobristHash.getKey(row, column, CellState.CIRCLE);
+        }
+        return keys;
+    }
+
+    private static long[] createSymmetryKeys() {
+        long[] keys = new long[CELL_KEYS.length * BoardSymmetry.SYMMETRY_COUNT];
+        for (int cell = 0; cell < BitBoard.CELL_COUNT; cell++) {
+            for (int player = CROSS; player <= CIRCLE; player++) {
+                for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+                    keys[(cell * 2 + player) * BoardSymmetry.SYMMETRY_COUNT + symmetry] =
+                            CELL_KEYS[BoardSymmetry.transformCell(cell, symmetry) * 2 + player];
+                }
+            }
+        }
+        return keys;
+    }
+}
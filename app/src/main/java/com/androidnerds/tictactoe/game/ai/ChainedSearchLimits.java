@@ -0,0 +1,21 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Limits of a part of a search, which is cancelled on its own or along with the search it is part of.
+ */
+final class ChainedSearchLimits extends SearchLimits {
+
+    private final SearchLimits parent;
+
+    ChainedSearchLimits(@NonNull SearchLimits parent) {
+        super(UNLIMITED, UNLIMITED, Integer.MAX_VALUE);
+        this.parent = parent;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return super.isCancelled() || parent.isCancelled();
+    }
+}
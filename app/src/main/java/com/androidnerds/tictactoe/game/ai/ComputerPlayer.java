@@ -0,0 +1,215 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Computer opponent for the {@link com.androidnerds.tictactoe.game.GameEngine.GameType#ONE_PLAYER} game.
+ * <p>
+ * On the 4x4 board, the moves are selected by the {@link IterativeDeepeningSearch} within a time budget, so the response
+ * time is bounded irrespective of the position. The transposition table is kept across the moves of the game, so the
+ * later searches reuse the positions searched for the earlier moves. The early moves are looked up in the
+ * {@link OpeningBook} and, if a {@link Tablebase} is set, the other moves on the 4x4 board are looked up in it.
+ * </p>
+ * <p>
+ * The larger boards can not be searched to a useful depth, so the moves are selected by the
+ * {@link MonteCarloTreeSearch} within the same time budget. If the search fails, the first free cell is played
+ * so that the game goes on, and the failure is reported by {@link #getLastFailure()}.
+ * </p>
+ */
+public class ComputerPlayer {
+
+    //Default time for selecting a move.
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 200;
+
+    private final IterativeDeepeningSearch search;
+    private final long timeBudgetMillis;
+    private SearchResult lastResult;
+    //Failure of the search for the last move, null if the move was searched.
+    private RuntimeException lastFailure;
+    //Created on the first move on a board other than 4x4.
+    private MonteCarloTreeSearch monteCarloTreeSearch;
+    //Perfect play on the 4x4 board, if the tablebase is available.
+    private Tablebase tablebase;
+    //Precomputed moves of the early positions on the 4x4 board.
+    private OpeningBook openingBook;
+
+    public ComputerPlayer() {
+        this(DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * @param timeBudgetMillis - wall-clock time for selecting each move.
+     */
+    public ComputerPlayer(long timeBudgetMillis) {
+        this(timeBudgetMillis, new IterativeDeepeningSearch());
+    }
+
+    public ComputerPlayer(long timeBudgetMillis, @NonNull IterativeDeepeningSearch search) {
+        if (timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Invalid time budget: " + timeBudgetMillis);
+        }
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.search = search;
+    }
+
+    /**
+     * @return the limits for selecting the next move, which can be used to cancel the selection.
+     */
+    @NonNull
+    public SearchLimits newSearchLimits() {
+        return SearchLimits.ofTime(timeBudgetMillis);
+    }
+
+    /**
+     * Setter for the listener of the iterations of the search.
+     */
+    public void setIterationListener(IterativeDeepeningSearch.IterationListener iterationListener) {
+        search.setIterationListener(iterationListener);
+    }
+
+    /**
+     * Selects the move for the player on the board, within the default time budget.
+     *
+     * @param board      - 2d array representation of the board.
+     * @param sideToMove - state of the cells of the computer player.
+     * @return index of the selected cell ({@code row * size + column}), or -1 if there are no free cells.
+     */
+    public int selectMove(@NonNull CellState[][] board, @NonNull CellState sideToMove) {
+        return selectMove(board, sideToMove, newSearchLimits());
+    }
+
+    /**
+     * Selects the move for the player on the board.
+     *
+     * @param board      - 2d array representation of the board.
+     * @param sideToMove - state of the cells of the computer player.
+     * @param limits     - budget of the search, cancelling it returns the best move found so far.
+     * @return index of the selected cell ({@code row * size + column}), or -1 if there are no free cells.
+     */
+    public int selectMove(@NonNull CellState[][] board, @NonNull CellState sideToMove, @NonNull SearchLimits limits) {
+        if (board.length != BitBoard.SIZE) {
+            return selectMonteCarloMove(board, sideToMove, limits);
+        }
+        BitBoard bitBoard = new BitBoard();
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            for (int column = 0; column < BitBoard.SIZE; column++) {
+                bitBoard.setCellState(row, column, board[row][column]);
+            }
+        }
+        return selectMove(bitBoard, sideToMove, limits);
+    }
+
+    /**
+     * Selects the move for the player on the board.
+     *
+     * @param board      - bitboard representation of the board.
+     * @param sideToMove - state of the cells of the computer player.
+     * @param limits     - budget of the search, cancelling it returns the best move found so far.
+     * @return index of the selected cell ({@code row * 4 + column}), or -1 if there are no free cells.
+     */
+    public int selectMove(@NonNull BitBoard board, @NonNull CellState sideToMove, @NonNull SearchLimits limits) {
+        lastFailure = null;
+        boolean crossToMove = Tablebase.isCrossToMove(board.getMask(CellState.CROSS), board.getMask(CellState.CIRCLE));
+        if (null != openingBook && crossToMove == (sideToMove == CellState.CROSS)) {
+            int move = openingBook.lookup(board);
+            if (move != OpeningBook.NO_MOVE) {
+                lastResult = null;
+                return move;
+            }
+        }
+        if (null != tablebase && tablebase.probe(board) != Tablebase.UNKNOWN &&
+                crossToMove == (sideToMove == CellState.CROSS)) {
+            lastResult = null;
+            return tablebase.selectMove(board);
+        }
+        lastResult = search.search(board, sideToMove, limits);
+        return lastResult.getBestMove();
+    }
+
+    /**
+     * Setter for the book of the moves of the early positions on the 4x4 board, consulted before the search.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Setter for the tablebase used for the perfect play on the 4x4 board.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * @return result of the search for the last move selected on the 4x4 board, with the principal variation and
+     * the node count, null if the move was looked up in the opening book or the tablebase.
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * @return the failure of the search for the last move selected, which was then the first free cell, null if the
+     * search did not fail.
+     */
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * @return the search used on the boards other than 4x4, null if no move was selected on such a board.
+     */
+    public MonteCarloTreeSearch getMonteCarloTreeSearch() {
+        return monteCarloTreeSearch;
+    }
+
+    /**
+     * Stops the threads of the searches, the player can not be used after this.
+     */
+    public void shutdown() {
+        if (null != monteCarloTreeSearch) {
+            monteCarloTreeSearch.shutdown();
+        }
+    }
+
+    private int selectMonteCarloMove(@NonNull CellState[][] board, @NonNull CellState sideToMove,
+                                     @NonNull SearchLimits limits) {
+        lastResult = null;
+        lastFailure = null;
+        try {
+            if (null == monteCarloTreeSearch) {
+                int parallelism = Math.min(Runtime.getRuntime().availableProcessors(),
+                        ParallelAlphaBetaSearch.MOBILE_PARALLELISM);
+                monteCarloTreeSearch = new MonteCarloTreeSearch(parallelism);
+            }
+            PackedBoard packedBoard = new PackedBoard(board.length);
+            for (int row = 0; row < board.length; row++) {
+                for (int column = 0; column < board.length; column++) {
+                    packedBoard.setCellState(row, column, board[row][column]);
+                }
+            }
+            return monteCarloTreeSearch.selectMove(packedBoard, sideToMove, limits);
+        } catch (RuntimeException e) {
+            lastFailure = e;
+            return getFirstFreeCell(board);
+        }
+    }
+
+    /**
+     * @return index of the first free cell, -1 if there are no free cells.
+     */
+    private static int getFirstFreeCell(@NonNull CellState[][] board) {
+        for (int row = 0; row < board.length; row++) {
+            for (int column = 0; column < board.length; column++) {
+                if (board[row][column] == CellState.FREE) {
+                    return row * board.length + column;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,88 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Runs the {@link AlphaBetaSearch} with increasing depths until the {@link SearchLimits} are reached.
+ * <p>
+ * Each iteration fills the transposition table with the best moves, which are searched first by the next iteration,
+ * so the earlier iterations cost a fraction of the last one. An iteration that runs out of the budget, or which is
+ * cancelled, is discarded and the result of the last completed iteration is returned. The first iteration always
+ * completes, so a legal move is returned even when the budget is exhausted or the search has been cancelled.
+ * </p>
+ * <p>
+ * The search stops early when all the free cells have been searched or a forced win/loss has been found.
+ * </p>
+ */
+public class IterativeDeepeningSearch {
+
+    //Interface for reporting the completed iterations, to tune the budgets for the devices.
+    public interface IterationListener {
+        /**
+         * @param result       - result of the iteration, with the depth & the no: of positions visited by it.
+         * @param elapsedNanos - time since the start of the search.
+         */
+        void onIterationCompleted(@NonNull SearchResult result, long elapsedNanos);
+    }
+
+    private final AlphaBetaSearch search;
+    private IterationListener iterationListener;
+
+    public IterativeDeepeningSearch() {
+        this(new AlphaBetaSearch());
+    }
+
+    public IterativeDeepeningSearch(@NonNull AlphaBetaSearch search) {
+        this.search = search;
+    }
+
+    /**
+     * Setter for the {@link IterationListener} listener.
+     */
+    public void setIterationListener(IterationListener iterationListener) {
+        this.iterationListener = iterationListener;
+    }
+
+    /**
+     * Searches the best move for the side to move on the board, within the limits.
+     *
+     * @param board      - position to search.
+     * @param sideToMove - state of the cells of the player to move.
+     * @param limits     - budget of the search, which can also be used to cancel the search.
+     * @return the result of the deepest completed iteration, with the total no: of positions visited.
+     */
+    @NonNull
+    public SearchResult search(@NonNull BitBoard board, @NonNull CellState sideToMove, @NonNull SearchLimits limits) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = limits.getTimeBudgetNanos() == SearchLimits.UNLIMITED ?
+                Long.MAX_VALUE : startNanos + limits.getTimeBudgetNanos();
+        int freeCells = board.getSize() * board.getSize() - board.getOccupiedCount();
+        int maxDepth = Math.max(1, Math.min(limits.getMaxDepth(), freeCells));
+        long totalNodes = 0;
+        SearchResult bestResult = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (depth > 1 && (limits.isCancelled() || System.nanoTime() >= deadlineNanos)) {
+                break;
+            }
+            //The first iteration is not limited, to always have a move.
+            SearchResult result = depth == 1 ? search.search(board, sideToMove, depth) :
+                    search.search(board, sideToMove, depth, limits, deadlineNanos, limits.getNodeBudget() - totalNodes);
+            totalNodes += search.getNodeCount();
+            if (null == result) {
+                break;
+            }
+            bestResult = result;
+            if (null != iterationListener) {
+                iterationListener.onIterationCompleted(result, System.nanoTime() - startNanos);
+            }
+            if (Math.abs(result.getScore()) > AlphaBetaSearch.WIN_THRESHOLD) {
+                break;
+            }
+        }
+        return new SearchResult(bestResult.getBestMove(), bestResult.getScore(), bestResult.getDepth(), totalNodes,
+                bestResult.getPrincipalVariation());
+    }
+}
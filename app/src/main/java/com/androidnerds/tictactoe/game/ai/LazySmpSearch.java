@@ -0,0 +1,166 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lazy-SMP search: several threads run the iterative deepening on the same position, sharing one
+ * {@link TranspositionTable}.
+ * <p>
+ * The threads do not split the tree among them. They cooperate only via the table, which is updated without any
+ * locks: the positions searched by one thread are cut-offs or first moves for the others. The helper threads start
+ * at staggered depths, so that the threads are spread over the depths instead of searching the same tree in lock-step.
+ * The calling thread is the main thread of the search; when it completes, the helpers are cancelled and the result of
+ * the deepest iteration completed by any of the threads is returned.
+ * </p>
+ */
+public class LazySmpSearch {
+
+    //Default memory cap of the shared table.
+    public static final long DEFAULT_TABLE_BYTES = 8L << 20;
+
+    private final TranspositionTable transpositionTable;
+    //Search of each thread, the main thread uses the first one.
+    private final AlphaBetaSearch[] searches;
+    //Runs the helper threads, null when the search is single-threaded.
+    private final ExecutorService helpers;
+
+    /**
+     * @param threadCount - no: of threads searching, including the calling thread.
+     */
+    public LazySmpSearch(int threadCount) {
+        this(threadCount, DEFAULT_TABLE_BYTES);
+    }
+
+    /**
+     * @param threadCount - no: of threads searching, including the calling thread.
+     * @param tableBytes  - memory cap of the shared table.
+     */
+    public LazySmpSearch(int threadCount, long tableBytes) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Invalid thread count: " + threadCount);
+        }
+        this.transpositionTable = new TranspositionTable(tableBytes);
+        this.searches = new AlphaBetaSearch[threadCount];
+        for (int index = 0; index < threadCount; index++) {
+            searches[index] = new AlphaBetaSearch(transpositionTable, true);
+        }
+        this.helpers = threadCount > 1 ? Executors.newFixedThreadPool(threadCount - 1) : null;
+    }
+
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    /**
+     * Searches the best move for the side to move on the board, within the limits.
+     *
+     * @param board      - position to search.
+     * @param sideToMove - state of the cells of the player to move.
+     * @param limits     - budget of the search, shared by all the threads.
+     * @return the result of the deepest iteration completed, with the no: of positions visited by all the threads.
+     */
+    @NonNull
+    public SearchResult search(@NonNull final BitBoard board, @NonNull final CellState sideToMove, @NonNull SearchLimits limits) {
+        long startNanos = System.nanoTime();
+        final long deadlineNanos = limits.getTimeBudgetNanos() == SearchLimits.UNLIMITED ?
+                Long.MAX_VALUE : startNanos + limits.getTimeBudgetNanos();
+        int freeCells = BitBoard.CELL_COUNT - board.getOccupiedCount();
+        final int maxDepth = Math.max(1, Math.min(limits.getMaxDepth(), freeCells));
+        final long nodeBudget = limits.getNodeBudget();
+        final AtomicReference<SearchResult> bestResult = new AtomicReference<>();
+        final AtomicLong nodeCount = new AtomicLong();
+        //Cancelled when the main thread completes.
+        final SearchLimits helperLimits = new ChainedSearchLimits(limits);
+        transpositionTable.newSearch();
+
+        Future<?>[] futures = new Future<?>[searches.length - 1];
+        for (int index = 1; index < searches.length; index++) {
+            final AlphaBetaSearch search = searches[index];
+            final int startDepth = getStartDepth(index, searches.length, maxDepth);
+            futures[index - 1] = helpers.submit(() -> deepen(search, board, sideToMove, startDepth, maxDepth,
+                    helperLimits, deadlineNanos, nodeBudget, nodeCount, bestResult));
+        }
+        deepen(searches[0], board, sideToMove, 1, maxDepth, limits, deadlineNanos, nodeBudget, nodeCount, bestResult);
+        helperLimits.cancel();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+        SearchResult result = bestResult.get();
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodeCount.get(),
+                result.getPrincipalVariation());
+    }
+
+    /**
+     * Stops the helper threads, the instance can not be used after this.
+     */
+    public void shutdown() {
+        if (null != helpers) {
+            helpers.shutdown();
+        }
+    }
+
+    /**
+     * @return the depth of the first iteration of the thread, the helper threads cycle through as many depths as there
+     * are threads, up to half the max depth.
+     */
+    static int getStartDepth(int index, int threadCount, int maxDepth) {
+        int stagger = Math.max(2, Math.min(threadCount, maxDepth / 2));
+        return Math.min(maxDepth, 1 + index % stagger);
+    }
+
+    /**
+     * Iterative deepening by one of the threads, from the start depth.
+     */
+    private static void deepen(@NonNull AlphaBetaSearch search, @NonNull BitBoard board, @NonNull CellState sideToMove,
+                               int startDepth, int maxDepth, @NonNull SearchLimits limits, long deadlineNanos,
+                               long nodeBudget, @NonNull AtomicLong nodeCount,
+                               @NonNull AtomicReference<SearchResult> bestResult) {
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            if (depth > 1 && (limits.isCancelled() || System.nanoTime() >= deadlineNanos)) {
+                break;
+            }
+            //The first iteration is not limited, to always have a move.
+            SearchResult result = depth == 1 ? search.search(board, sideToMove, depth) :
+                    search.search(board, sideToMove, depth, limits, deadlineNanos, nodeBudget - nodeCount.get());
+            nodeCount.addAndGet(search.getNodeCount());
+            if (null == result) {
+                break;
+            }
+            offer(bestResult, result);
+            if (Math.abs(result.getScore()) > AlphaBetaSearch.WIN_THRESHOLD) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Keeps the result of the deepest iteration.
+     */
+    private static void offer(@NonNull AtomicReference<SearchResult> bestResult, @NonNull SearchResult result) {
+        while (true) {
+            SearchResult current = bestResult.get();
+            if (null != current && current.getDepth() >= result.getDepth()) {
+                return;
+            }
+            if (bestResult.compareAndSet(current, result)) {
+                return;
+            }
+        }
+    }
+}
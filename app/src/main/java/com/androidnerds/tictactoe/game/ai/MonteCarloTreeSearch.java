@@ -0,0 +1,591 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.WinPatternTable;
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo Tree Search with the UCT selection, for the boards which are too large for the {@link AlphaBetaSearch}.
+ * <p>
+ * The nodes of the tree are held in parallel int arrays (parent, move, first child, no: of children, visits & score),
+ * indexed by the node, so a node costs {@link #BYTES_PER_NODE} bytes instead of an object. The children of a node are
+ * allocated as one contiguous block when the node is visited for the second time. A node has at most half the ceiling
+ * of children, a random sample of the free cells on the boards with more cells, so that any board fits in the tree.
+ * The score of a node is kept in half-points (2 for a win, 1 for a draw) of the player who made the move into the node.
+ * </p>
+ * <p>
+ * The playouts are run in batches: the leaves of a batch are selected on the calling thread, with a virtual loss on the
+ * path so that the leaves differ, then the random playouts of the batch run in parallel on a {@link ForkJoinPool},
+ * each on its own {@link PackedBoard} which is overwritten with the position of the leaf without any allocation.
+ * The boards of the playouts are limited to the memory ceiling of the tree as well, so the batch is smaller on the
+ * boards whose playouts do not fit. The results are propagated back on the calling thread, so the tree is never
+ * accessed concurrently.
+ * </p>
+ * <p>
+ * The tree is limited to a memory ceiling. When the ceiling is reached, the children of the least-visited nodes are
+ * dropped, doubling the visit threshold until half the ceiling is free, and the remaining nodes are compacted in
+ * place. The dropped nodes keep their statistics and are expanded again when they are visited.
+ * </p>
+ */
+public class MonteCarloTreeSearch {
+
+    //Default memory ceiling of the tree.
+    public static final long DEFAULT_MAX_TREE_BYTES = 16L << 20;
+    //Default no: of playouts run in parallel.
+    public static final int DEFAULT_BATCH_SIZE = 32;
+    //Memory of a node: parent, move, first child, no: of children, visits, score & the index used while compacting.
+    public static final int BYTES_PER_NODE = 7 * 4;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+    //Visits of a node before its children are allocated.
+    private static final int EXPANSION_VISITS = 2;
+    private static final int ROOT = 0;
+    private static final int NO_PARENT = -1;
+    //Values of the first child for the nodes without children.
+    private static final int NOT_EXPANDED = -1;
+    private static final int TERMINAL_WIN = -2;
+    private static final int TERMINAL_DRAW = -3;
+    //Results of the playouts.
+    private static final int CROSS = AlphaBetaSearch.CROSS;
+    private static final int CIRCLE = AlphaBetaSearch.CIRCLE;
+    private static final int DRAW = 2;
+    private static final int WIN_POINTS = 2;
+    private static final int DRAW_POINTS = 1;
+
+    private final int capacity;
+    //Most children of a node, so that an expansion fits in the tree once it is recycled.
+    private final int maxChildren;
+    private final long maxTreeBytes;
+    private final int[] parents;
+    private final int[] moves;
+    private final int[] firstChildren;
+    private final int[] childCounts;
+    private final int[] visits;
+    private final int[] scores;
+    //New index of each node while compacting, -1 for the dropped nodes.
+    private final int[] forwards;
+    private int nodeCount;
+
+    private final ForkJoinPool pool;
+    private final Playout[] playouts;
+    //Leaf selected for each playout of the batch, with its depth below the root.
+    private final int[] leafNodes;
+    private final int[] leafDepths;
+    private final int[] results;
+    private long randomState;
+
+    //Boards of the current board size, reallocated only when the size changes.
+    private WinPatternTable patternTable;
+    private PackedBoard rootBoard;
+    private PackedBoard selectionBoard;
+    private int[] freeCells;
+    //No: of playouts of a batch, the first ones of the playouts whose boards fit in the memory ceiling.
+    private int batchSize;
+    private int rootPlayer;
+    private boolean recycleRequested;
+
+    //Metrics of the last search.
+    private long playoutCount;
+    private long elapsedNanos;
+    private int recycleCount;
+
+    /**
+     * @param parallelism - no: of threads running the playouts.
+     */
+    public MonteCarloTreeSearch(int parallelism) {
+        this(parallelism, DEFAULT_MAX_TREE_BYTES, DEFAULT_BATCH_SIZE, System.nanoTime());
+    }
+
+    /**
+     * @param parallelism  - no: of threads running the playouts.
+     * @param maxTreeBytes - memory ceiling of the tree.
+     * @param batchSize    - no: of playouts in a batch.
+     * @param seed         - seed of the random moves.
+     */
+    public MonteCarloTreeSearch(int parallelism, long maxTreeBytes, int batchSize, long seed) {
+        if (parallelism <= 0 || batchSize <= 0 || maxTreeBytes < 2 * BYTES_PER_NODE) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism + ", batch size: " + batchSize +
+                    " or memory ceiling: " + maxTreeBytes);
+        }
+        this.capacity = (int) Math.min(maxTreeBytes / BYTES_PER_NODE, Integer.MAX_VALUE - 8);
+        this.maxChildren = capacity / 2;
+        this.maxTreeBytes = maxTreeBytes;
+        this.parents = new int[capacity];
+        this.moves = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.childCounts = new int[capacity];
+        this.visits = new int[capacity];
+        this.scores = new int[capacity];
+        this.forwards = new int[capacity];
+        this.pool = new ForkJoinPool(parallelism);
+        this.playouts = new Playout[batchSize];
+        for (int index = 0; index < batchSize; index++) {
+            playouts[index] = new Playout(seed + index + 1);
+        }
+        this.leafNodes = new int[batchSize];
+        this.leafDepths = new int[batchSize];
+        this.results = new int[batchSize];
+        this.randomState = seed == 0 ? 1 : seed;
+    }
+
+    /**
+     * Selects the move for the side to move on the board.
+     *
+     * @param board      - position to search, of any bounded size. On the boards with more free cells than half
+     *                   the memory ceiling in nodes, only a random sample of the moves is searched.
+     * @param sideToMove - state of the cells of the player to move.
+     * @param limits     - time & no: of playouts ({@link SearchLimits#getNodeBudget()}) for the search, the search
+     *                   can be cancelled via the limits. The depth is not limited.
+     * @return index of the selected cell ({@code row * size + column}), or -1 if there are no free cells.
+     */
+    public int selectMove(@NonNull Board board, @NonNull CellState sideToMove, @NonNull SearchLimits limits) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = limits.getTimeBudgetNanos() == SearchLimits.UNLIMITED ?
+                Long.MAX_VALUE : startNanos + limits.getTimeBudgetNanos();
+        initBoards(board);
+        rootPlayer = sideToMove == CellState.CROSS ? CROSS : CIRCLE;
+        playoutCount = 0;
+        recycleCount = 0;
+        initTree();
+        int rootMoves = rootBoard.getFreeCells(freeCells);
+        if (rootMoves == 0) {
+            return -1;
+        }
+        do {
+            runBatch();
+        } while (!limits.isCancelled() && playoutCount < limits.getNodeBudget() && System.nanoTime() < deadlineNanos);
+        elapsedNanos = System.nanoTime() - startNanos;
+        return moves[getMostVisitedChild(ROOT)];
+    }
+
+    /**
+     * @return the no: of playouts run by the last search.
+     */
+    public long getPlayoutCount() {
+        return playoutCount;
+    }
+
+    /**
+     * @return the playouts per second of the last search.
+     */
+    public double getPlayoutsPerSecond() {
+        return elapsedNanos > 0 ? playoutCount * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * @return the no: of nodes in the tree of the last search.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return the memory used by the nodes in the tree.
+     */
+    public long getUsedTreeBytes() {
+        return (long) nodeCount * BYTES_PER_NODE;
+    }
+
+    /**
+     * @return the memory allocated for the tree, the memory ceiling rounded down to a whole node.
+     */
+    public long getTreeBytes() {
+        return (long) capacity * BYTES_PER_NODE;
+    }
+
+    /**
+     * @return the no: of playouts run in parallel in the last search, less than the batch size if the boards of the
+     * playouts did not fit in the memory ceiling.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the no: of times the least-visited subtrees were dropped in the last search.
+     */
+    public int getRecycleCount() {
+        return recycleCount;
+    }
+
+    /**
+     * @return the no: of visits of the move at the root in the last search, 0 if the move was not searched.
+     */
+    public int getVisits(int move) {
+        int first = firstChildren[ROOT];
+        for (int child = first; first >= 0 && child < first + childCounts[ROOT]; child++) {
+            if (moves[child] == move) {
+                return visits[child];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stops the threads running the playouts, the instance can not be used after this.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void initBoards(@NonNull Board board) {
+        int size = board.getSize();
+        if (size == Board.UNBOUNDED_SIZE) {
+            throw new IllegalArgumentException("Unbounded boards are not supported");
+        }
+        if (null == rootBoard || rootBoard.getSize() != size) {
+            patternTable = WinPatternTable.forSize(size);
+            rootBoard = new PackedBoard(size);
+            selectionBoard = new PackedBoard(size);
+            freeCells = new int[size * size];
+            //A playout holds a board of 2 bits & a free cell of 4 bytes per cell.
+            long playoutBytes = (long) size * size * 2 / 8 + (long) size * size * 4;
+            batchSize = (int) Math.max(1, Math.min(playouts.length, maxTreeBytes / playoutBytes));
+            for (int index = 0; index < playouts.length; index++) {
+                if (index < batchSize) {
+                    playouts[index].init(new PackedBoard(size), new int[size * size], patternTable);
+                } else {
+                    playouts[index].init(null, null, null);
+                }
+            }
+        }
+        if (board instanceof PackedBoard) {
+            rootBoard.copyFrom((PackedBoard) board);
+        } else {
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) {
+                    rootBoard.setCellState(row, column, board.getCellState(row, column));
+                }
+            }
+        }
+    }
+
+    private void initTree() {
+        nodeCount = 1;
+        parents[ROOT] = NO_PARENT;
+        moves[ROOT] = -1;
+        firstChildren[ROOT] = NOT_EXPANDED;
+        childCounts[ROOT] = 0;
+        visits[ROOT] = 0;
+        scores[ROOT] = 0;
+    }
+
+    private void runBatch() {
+        for (int slot = 0; slot < batchSize; slot++) {
+            select(slot);
+        }
+        pool.invoke(new PlayoutBatch(playouts, 0, batchSize));
+        for (int slot = 0; slot < batchSize; slot++) {
+            Playout playout = playouts[slot];
+            if (playout.pending) {
+                results[slot] = playout.winner;
+                playout.pending = false;
+            }
+            //A descent ending on a finished game counts as a playout, so that a solved position exhausts the budget.
+            playoutCount++;
+            backPropagate(leafNodes[slot], leafDepths[slot], results[slot]);
+        }
+        if (recycleRequested) {
+            recycle();
+            recycleRequested = false;
+        }
+    }
+
+    /**
+     * Descends from the root to a leaf by the UCT selection, adding a visit to every node on the path.
+     * The playout of the slot is set up from the leaf, unless the leaf is the end of the game.
+     */
+    private void select(int slot) {
+        selectionBoard.copyFrom(rootBoard);
+        int node = ROOT;
+        int depth = 0;
+        int player = rootPlayer;
+        visits[ROOT]++;
+        while (true) {
+            int first = firstChildren[node];
+            if (first == TERMINAL_WIN || first == TERMINAL_DRAW) {
+                results[slot] = first == TERMINAL_WIN ? 1 - player : DRAW;
+                break;
+            }
+            if (first == NOT_EXPANDED && (node != ROOT && visits[node] < EXPANSION_VISITS || !expand(node))) {
+                Playout playout = playouts[slot];
+                playout.board.copyFrom(selectionBoard);
+                playout.player = player;
+                playout.pending = true;
+                break;
+            }
+            int child = selectChild(node);
+            int cell = moves[child];
+            selectionBoard.setCellState(cell, toCellState(player));
+            visits[child]++;
+            depth++;
+            node = child;
+            if (visits[child] == 1) {
+                if (isWinningMove(selectionBoard, patternTable, cell, toCellState(player))) {
+                    firstChildren[child] = TERMINAL_WIN;
+                } else if (selectionBoard.isFull()) {
+                    firstChildren[child] = TERMINAL_DRAW;
+                }
+            }
+            player = 1 - player;
+        }
+        leafNodes[slot] = node;
+        leafDepths[slot] = depth;
+    }
+
+    /**
+     * Allocates the children of the node, for the free cells of the selection board in a random order.
+     * A random sample of {@link #maxChildren} cells is taken if there are more free cells.
+     *
+     * @return FALSE - if the tree is full, the tree is then recycled after the batch.
+     */
+    private boolean expand(int node) {
+        int freeCount = selectionBoard.getFreeCells(freeCells);
+        int count = Math.min(freeCount, maxChildren);
+        if (count == 0 || nodeCount + count > capacity) {
+            recycleRequested = count > 0;
+            return false;
+        }
+        int first = nodeCount;
+        for (int index = 0; index < count; index++) {
+            int swap = index + nextInt(freeCount - index);
+            int cell = freeCells[swap];
+            freeCells[swap] = freeCells[index];
+            int child = first + index;
+            parents[child] = node;
+            moves[child] = cell;
+            firstChildren[child] = NOT_EXPANDED;
+            childCounts[child] = 0;
+            visits[child] = 0;
+            scores[child] = 0;
+        }
+        firstChildren[node] = first;
+        childCounts[node] = count;
+        nodeCount += count;
+        return true;
+    }
+
+    private int selectChild(int node) {
+        int first = firstChildren[node];
+        int end = first + childCounts[node];
+        double logVisits = Math.log(visits[node]);
+        int bestChild = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < end; child++) {
+            int childVisits = visits[child];
+            if (childVisits == 0) {
+                return child;
+            }
+            double value = scores[child] / (double) (WIN_POINTS * childVisits) +
+                    EXPLORATION * Math.sqrt(logVisits / childVisits);
+            if (value > bestValue) {
+                bestValue = value;
+                bestChild = child;
+            }
+        }
+        return bestChild;
+    }
+
+    private int getMostVisitedChild(int node) {
+        int first = firstChildren[node];
+        int bestChild = first;
+        for (int child = first + 1; child < first + childCounts[node]; child++) {
+            if (visits[child] > visits[bestChild]) {
+                bestChild = child;
+            }
+        }
+        return bestChild;
+    }
+
+    /**
+     * Adds the result to the scores of the nodes from the leaf to the root, the visits were added by the selection.
+     */
+    private void backPropagate(int node, int depth, int winner) {
+        while (node != ROOT) {
+            //The player who moved into the node is the side to move at the root for the odd depths.
+            int mover = (depth & 1) == 1 ? rootPlayer : 1 - rootPlayer;
+            if (winner == mover) {
+                scores[node] += WIN_POINTS;
+            } else if (winner == DRAW) {
+                scores[node] += DRAW_POINTS;
+            }
+            node = parents[node];
+            depth--;
+        }
+    }
+
+    /**
+     * Drops the children of the least-visited nodes and compacts the remaining nodes, keeping the children of a node
+     * contiguous. The nodes are allocated after their parents, so the nodes are moved towards the start of the arrays
+     * in the order of their index.
+     */
+    private void recycle() {
+        int threshold = EXPANSION_VISITS;
+        while (markLiveNodes(threshold) > capacity / 2 && threshold <= visits[ROOT]) {
+            threshold *= 2;
+        }
+        int liveCount = markLiveNodes(threshold);
+        for (int node = 0; node < nodeCount; node++) {
+            int target = forwards[node];
+            if (target < 0) {
+                continue;
+            }
+            int first = firstChildren[node];
+            int count = childCounts[node];
+            if (first >= 0) {
+                if (isCollapsed(node, threshold)) {
+                    first = NOT_EXPANDED;
+                    count = 0;
+                } else {
+                    first = forwards[first];
+                }
+            }
+            parents[target] = node == ROOT ? NO_PARENT : forwards[parents[node]];
+            moves[target] = moves[node];
+            firstChildren[target] = first;
+            childCounts[target] = count;
+            visits[target] = visits[node];
+            scores[target] = scores[node];
+        }
+        nodeCount = liveCount;
+        recycleCount++;
+    }
+
+    /**
+     * Computes the new index of the nodes which are kept, when the nodes with less visits than the threshold are collapsed.
+     *
+     * @return the no: of nodes kept.
+     */
+    private int markLiveNodes(int threshold) {
+        int liveCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            int parent = parents[node];
+            boolean live = node == ROOT || (forwards[parent] >= 0 && !isCollapsed(parent, threshold));
+            forwards[node] = live ? liveCount++ : -1;
+        }
+        return liveCount;
+    }
+
+    private boolean isCollapsed(int node, int threshold) {
+        return node != ROOT && firstChildren[node] >= 0 && visits[node] < threshold;
+    }
+
+    private int nextInt(int bound) {
+        randomState = nextRandom(randomState);
+        return (int) ((randomState >>> 33) % bound);
+    }
+
+    private static long nextRandom(long state) {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        return state ^ (state << 17);
+    }
+
+    private static CellState toCellState(int player) {
+        return player == CROSS ? CellState.CROSS : CellState.CIRCLE;
+    }
+
+    /**
+     * @return TRUE - if a winning pattern through the cell is fully occupied by the player.
+     */
+    private static boolean isWinningMove(@NonNull PackedBoard board, @NonNull WinPatternTable patternTable, int cell,
+                                         @NonNull CellState playerState) {
+        for (int index = patternTable.getCellStart(cell); index < patternTable.getCellEnd(cell); index++) {
+            int pattern = patternTable.getCellPattern(index);
+            int patternIndex = patternTable.getPatternStart(pattern);
+            int patternEnd = patternTable.getPatternEnd(pattern);
+            while (patternIndex < patternEnd && board.getCellState(patternTable.getPatternCell(patternIndex)) == playerState) {
+                patternIndex++;
+            }
+            if (patternIndex == patternEnd) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the pending playouts of the batch in parallel, splitting the range of the playouts in halves.
+     * Only these small tasks are allocated per batch, the boards of the playouts are reused.
+     */
+    private static final class PlayoutBatch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Playout[] playouts;
+        private final int start;
+        private final int end;
+
+        PlayoutBatch(@NonNull Playout[] playouts, int start, int end) {
+            this.playouts = playouts;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                playouts[start].run();
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new PlayoutBatch(playouts, start, middle), new PlayoutBatch(playouts, middle, end));
+        }
+    }
+
+    /**
+     * Random playout from the position of a leaf, on a board owned by the playout.
+     */
+    private static final class Playout {
+
+        private PackedBoard board;
+        private int[] freeCells;
+        private WinPatternTable patternTable;
+        private long randomState;
+        //Player to move at the leaf.
+        private int player;
+        private boolean pending;
+        private int winner;
+
+        Playout(long seed) {
+            this.randomState = seed;
+        }
+
+        /**
+         * Sets the buffers of the playout, null for the playouts left out of the batch.
+         */
+        void init(PackedBoard board, int[] freeCells, WinPatternTable patternTable) {
+            this.board = board;
+            this.freeCells = freeCells;
+            this.patternTable = patternTable;
+        }
+
+        void run() {
+            if (!pending) {
+                return;
+            }
+            int count = board.getFreeCells(freeCells);
+            int current = player;
+            winner = DRAW;
+            while (count > 0) {
+                randomState = nextRandom(randomState);
+                int index = (int) ((randomState >>> 33) % count);
+                int cell = freeCells[index];
+                freeCells[index] = freeCells[--count];
+                CellState playerState = toCellState(current);
+                board.setCellState(cell, playerState);
+                if (isWinningMove(board, patternTable, cell, playerState)) {
+                    winner = current;
+                    break;
+                }
+                current = 1 - current;
+            }
+        }
+    }
+}
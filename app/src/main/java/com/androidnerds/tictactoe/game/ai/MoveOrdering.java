@@ -0,0 +1,136 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+
+/**
+ * Orders the moves of a position for the {@link AlphaBetaSearch}, so that the moves most likely to cause a cut-off are
+ * searched first:
+ * 1. The move of the transposition table.
+ * 2. The moves which win immediately.
+ * 3. The moves which block an immediate win of the opponent.
+ * 4. The killer moves of the ply, the last 2 moves which caused a cut-off at the same ply in another position.
+ * 5. The other moves, by their history score, which adds up the cut-offs caused by the move of the player.
+ * <p>
+ * The killer moves and the history scores are kept in int arrays indexed by the ply/cell, so the ordering does not
+ * allocate. The history is halved on every new search, so that it favours the recent searches.
+ * </p>
+ */
+class MoveOrdering {
+
+    //No: of killer moves kept per ply.
+    private static final int KILLERS_PER_PLY = 2;
+    //History scores are halved when a score exceeds this value, well before an overflow.
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    //Killer moves, indexed by {@code ply * KILLERS_PER_PLY + slot}.
+    private final int[] killers = new int[(BitBoard.CELL_COUNT + 1) * KILLERS_PER_PLY];
+    //History scores, indexed by {@code player * CELL_COUNT + cell}.
+    private final int[] history = new int[2 * BitBoard.CELL_COUNT];
+
+    MoveOrdering() {
+        clearKillers();
+    }
+
+    /**
+     * Ages the history and clears the killer moves for a new search.
+     */
+    void newSearch() {
+        ageHistory();
+        clearKillers();
+    }
+
+    /**
+     * Writes the free cells of the position into the buffer, in the order in which they should be searched.
+     *
+     * @param hashMove - move of the transposition table, or {@link TranspositionTable#NO_MOVE}.
+     * @param moves    - buffer for the moves.
+     * @param offset   - index of the first move in the buffer.
+     * @return the no: of moves written.
+     */
+    int orderMoves(int ownMask, int opponentMask, int player, int ply, int hashMove, @NonNull int[] moves, int offset) {
+        int freeMask = ~(ownMask | opponentMask) & BitBoard.FULL_MASK;
+        int count = 0;
+        if (hashMove != TranspositionTable.NO_MOVE && (freeMask & (1 << hashMove)) != 0) {
+            moves[offset + count++] = hashMove;
+            freeMask &= ~(1 << hashMove);
+        }
+        for (int cells = freeMask; cells != 0; cells &= cells - 1) {
+            int cell = Integer.numberOfTrailingZeros(cells);
+            if (BitBoard.isWinningMove(ownMask | (1 << cell), cell)) {
+                moves[offset + count++] = cell;
+                freeMask &= ~(1 << cell);
+            }
+        }
+        for (int cells = freeMask; cells != 0; cells &= cells - 1) {
+            int cell = Integer.numberOfTrailingZeros(cells);
+            if (BitBoard.isWinningMove(opponentMask | (1 << cell), cell)) {
+                moves[offset + count++] = cell;
+                freeMask &= ~(1 << cell);
+            }
+        }
+        for (int slot = 0; slot < KILLERS_PER_PLY; slot++) {
+            int killer = killers[ply * KILLERS_PER_PLY + slot];
+            if (killer != TranspositionTable.NO_MOVE && (freeMask & (1 << killer)) != 0) {
+                moves[offset + count++] = killer;
+                freeMask &= ~(1 << killer);
+            }
+        }
+        //Insertion sort of the remaining moves by the history score, stable for the equal scores.
+        int sortedStart = offset + count;
+        int historyOffset = player * BitBoard.CELL_COUNT;
+        for (int cells = freeMask; cells != 0; cells &= cells - 1) {
+            int cell = Integer.numberOfTrailingZeros(cells);
+            int score = history[historyOffset + cell];
+            int index = offset + count++;
+            while (index > sortedStart && history[historyOffset + moves[index - 1]] < score) {
+                moves[index] = moves[index - 1];
+                index--;
+            }
+            moves[index] = cell;
+        }
+        return count;
+    }
+
+    /**
+     * Records the move which caused a cut-off as a killer move of the ply and in the history.
+     *
+     * @param depth - remaining depth of the position, the deeper cut-offs save more positions.
+     */
+    void onCutOff(int player, int ply, int cell, int depth) {
+        int index = ply * KILLERS_PER_PLY;
+        if (killers[index] != cell) {
+            killers[index + 1] = killers[index];
+            killers[index] = cell;
+        }
+        int historyIndex = player * BitBoard.CELL_COUNT + cell;
+        history[historyIndex] += depth * depth;
+        if (history[historyIndex] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * @return the killer move of the ply in the slot, or {@link TranspositionTable#NO_MOVE}.
+     */
+    int getKiller(int ply, int slot) {
+        return killers[ply * KILLERS_PER_PLY + slot];
+    }
+
+    int getHistory(int player, int cell) {
+        return history[player * BitBoard.CELL_COUNT + cell];
+    }
+
+    private void ageHistory() {
+        for (int index = 0; index < history.length; index++) {
+            history[index] >>= 1;
+        }
+    }
+
+    private void clearKillers() {
+        for (int index = 0; index < killers.length; index++) {
+            killers[index] = TranspositionTable.NO_MOVE;
+        }
+    }
+}
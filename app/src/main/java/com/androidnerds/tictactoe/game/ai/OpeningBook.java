@@ -0,0 +1,138 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Best moves of the early positions of the 4x4 game, precomputed by the {@link OpeningBookGenerator}.
+ * <p>
+ * The book holds the canonical positions of the {@link BoardSymmetry}, as {@code circleMask << 16 | crossMask},
+ * in a sorted int array and the best move on each position in a parallel byte array. A position is canonicalized,
+ * binary searched & the move is translated back to the position, without any allocation.
+ * </p>
+ * <p>
+ * File format: magic, version, max ply & the no: of positions as ints, followed by the positions (ints) and the moves
+ * (bytes) in the order of the positions.
+ * </p>
+ */
+public final class OpeningBook {
+
+    //Name of the book bundled in the assets of the app.
+    public static final String ASSET_NAME = "opening_book.bin";
+    //Returned when the position is not in the book.
+    public static final int NO_MOVE = -1;
+
+    static final int MAGIC = 0x54544F42;
+    static final int VERSION = 1;
+
+    private final int maxPly;
+    private final int[] positions;
+    private final byte[] moves;
+
+    /**
+     * @param maxPly    - positions with less cells than the max ply are in the book.
+     * @param positions - canonical positions in ascending order.
+     * @param moves     - best move on each canonical position.
+     */
+    OpeningBook(int maxPly, @NonNull int[] positions, @NonNull byte[] moves) {
+        if (positions.length != moves.length) {
+            throw new IllegalArgumentException(positions.length + " positions for " + moves.length + " moves");
+        }
+        for (int index = 1; index < positions.length; index++) {
+            if (positions[index - 1] >= positions[index]) {
+                throw new IllegalArgumentException("Positions are not sorted at " + index);
+            }
+        }
+        this.maxPly = maxPly;
+        this.positions = positions;
+        this.moves = moves;
+    }
+
+    /**
+     * Reads the book written by {@link #write(OutputStream)}, the stream is not closed.
+     *
+     * @throws IOException - if the stream can not be read or does not hold a book.
+     */
+    @NonNull
+    public static OpeningBook read(@NonNull InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("Invalid header of the opening book");
+        }
+        int maxPly = input.readInt();
+        int count = input.readInt();
+        if (maxPly < 0 || maxPly > BitBoard.CELL_COUNT || count < 0 || count > (1 << BitBoard.CELL_COUNT)) {
+            throw new IOException("Invalid opening book of " + count + " positions up to ply " + maxPly);
+        }
+        int[] positions = new int[count];
+        for (int index = 0; index < count; index++) {
+            positions[index] = input.readInt();
+        }
+        byte[] moves = new byte[count];
+        input.readFully(moves);
+        try {
+            return new OpeningBook(maxPly, positions, moves);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid opening book: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the book to the stream, the stream is flushed but not closed.
+     */
+    public void write(@NonNull OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(maxPly);
+        output.writeInt(positions.length);
+        for (int position : positions) {
+            output.writeInt(position);
+        }
+        output.write(moves);
+        output.flush();
+    }
+
+    /**
+     * @return the best move on the position ({@code row * 4 + column}), or {@link #NO_MOVE} if the position is not
+     * in the book.
+     */
+    public int lookup(int crossMask, int circleMask) {
+        long canonical = BoardSymmetry.canonicalize(crossMask, circleMask);
+        int index = Arrays.binarySearch(positions, (int) canonical);
+        if (index < 0) {
+            return NO_MOVE;
+        }
+        return BoardSymmetry.transformCell(moves[index], BoardSymmetry.inverse(BoardSymmetry.getSymmetry(canonical)));
+    }
+
+    public int lookup(@NonNull BitBoard board) {
+        return lookup(board.getMask(CellState.CROSS), board.getMask(CellState.CIRCLE));
+    }
+
+    /**
+     * @return the no: of cells below which the positions are in the book.
+     */
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    /**
+     * @return the no: of canonical positions in the book.
+     */
+    public int size() {
+        return positions.length;
+    }
+}
@@ -0,0 +1,132 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Offline generator of the {@link OpeningBook}, which searches every canonical position reachable in the first plies
+ * to the end of the game with the {@link AlphaBetaSearch}.
+ * <p>
+ * The positions are expanded ply by ply from the empty board. The positions of a ply are kept as a sorted array of the
+ * canonical positions, so the symmetric positions are searched once. The transposition table is shared by all the
+ * searches, so the later searches reuse the subtrees of the earlier ones.
+ * </p>
+ */
+public final class OpeningBookGenerator {
+
+    //Default no: of plies in the book, the positions with up to 5 cells.
+    public static final int DEFAULT_MAX_PLY = 6;
+    //Memory of the transposition table shared by the searches.
+    private static final long TABLE_BYTES = 64L << 20;
+
+    private final AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(TABLE_BYTES));
+
+    /**
+     * @param maxPly - the positions with less cells than the max ply are searched.
+     */
+    @NonNull
+    public OpeningBook generate(int maxPly) {
+        if (maxPly < 0 || maxPly > BitBoard.CELL_COUNT) {
+            throw new IllegalArgumentException("Invalid max ply: " + maxPly);
+        }
+        int[] bookPositions = new int[0];
+        byte[] bookMoves = new byte[0];
+        int[] level = {0};
+        for (int ply = 0; ply < maxPly && level.length > 0; ply++) {
+            int start = bookPositions.length;
+            bookPositions = Arrays.copyOf(bookPositions, start + level.length);
+            bookMoves = Arrays.copyOf(bookMoves, start + level.length);
+            for (int index = 0; index < level.length; index++) {
+                bookPositions[start + index] = level[index];
+                bookMoves[start + index] = (byte) searchBestMove(level[index], ply);
+            }
+            level = expand(level, ply);
+        }
+        //The canonical positions of the different plies have different no: of cells, so they are distinct.
+        sort(bookPositions, bookMoves);
+        return new OpeningBook(maxPly, bookPositions, bookMoves);
+    }
+
+    /**
+     * Generates the book up to the ply given as the first argument and writes it to the file given as the second.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: OpeningBookGenerator <max ply> <output file>");
+            return;
+        }
+        long startNanos = System.nanoTime();
+        OpeningBook book = new OpeningBookGenerator().generate(Integer.parseInt(args[0]));
+        OutputStream output = new FileOutputStream(args[1]);
+        try {
+            book.write(output);
+        } finally {
+            output.close();
+        }
+        System.out.println("Generated " + book.size() + " positions in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+    }
+
+    private int searchBestMove(int position, int ply) {
+        int crossMask = BoardSymmetry.getCrossMask(position);
+        int circleMask = BoardSymmetry.getCircleMask(position);
+        boolean crossToMove = (ply & 1) == 0;
+        SearchResult result = crossToMove ?
+                search.search(crossMask, circleMask, BitBoard.CELL_COUNT - ply) :
+                search.search(circleMask, crossMask, BitBoard.CELL_COUNT - ply);
+        return result.getBestMove();
+    }
+
+    /**
+     * @return the canonical positions after every move on the positions of the ply, except the positions which end
+     * the game, in ascending order.
+     */
+    @NonNull
+    private static int[] expand(@NonNull int[] level, int ply) {
+        int[] children = new int[level.length * (BitBoard.CELL_COUNT - ply)];
+        int count = 0;
+        boolean crossToMove = (ply & 1) == 0;
+        for (int position : level) {
+            int crossMask = BoardSymmetry.getCrossMask(position);
+            int circleMask = BoardSymmetry.getCircleMask(position);
+            for (int free = ~(crossMask | circleMask) & BitBoard.FULL_MASK; free != 0; free &= free - 1) {
+                int cell = Integer.numberOfTrailingZeros(free);
+                int moverMask = (crossToMove ? crossMask : circleMask) | (1 << cell);
+                if (BitBoard.isWinningMove(moverMask, cell)) {
+                    continue;
+                }
+                children[count++] = (int) (crossToMove ?
+                        BoardSymmetry.canonicalize(moverMask, circleMask) : BoardSymmetry.canonicalize(crossMask, moverMask));
+            }
+        }
+        Arrays.sort(children, 0, count);
+        int distinct = 0;
+        for (int index = 0; index < count; index++) {
+            if (distinct == 0 || children[distinct - 1] != children[index]) {
+                children[distinct++] = children[index];
+            }
+        }
+        return Arrays.copyOf(children, distinct);
+    }
+
+    /**
+     * Sorts the positions in ascending order, moving the moves along with them.
+     */
+    private static void sort(@NonNull int[] positions, @NonNull byte[] moves) {
+        long[] entries = new long[positions.length];
+        for (int index = 0; index < positions.length; index++) {
+            entries[index] = (long) positions[index] << 8 | (moves[index] & 0xFF);
+        }
+        Arrays.sort(entries);
+        for (int index = 0; index < entries.length; index++) {
+            positions[index] = (int) (entries[index] >> 8);
+            moves[index] = (byte) entries[index];
+        }
+    }
+}
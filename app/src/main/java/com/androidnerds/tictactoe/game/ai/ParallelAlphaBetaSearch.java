@@ -0,0 +1,268 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel version of the {@link AlphaBetaSearch} on a {@link ForkJoinPool}, using the Young Brothers Wait scheme.
+ * <p>
+ * At the nodes close to the root, the first move (the eldest brother) is searched before the other moves, so that the
+ * bound from it is available to them. The other moves (the younger brothers) are then searched in parallel, each with
+ * the best score found so far at the time it starts. A younger brother which causes a cut-off cancels its siblings,
+ * via the {@link SearchLimits} of the node, which are chained to the limits of the parent node. The nodes with
+ * {@code sequentialDepth} plies or less left are searched by an {@link AlphaBetaSearch} owned by the worker thread, so
+ * the search is released with the thread. The sequential searches share one {@link TranspositionTable}, which is
+ * updated without any locks, so a subtree searched by one thread is a cut-off for the others.
+ * </p>
+ * <p>
+ * The score of the position is the same as the score of the sequential search for a full search of the game, the best
+ * move can differ when several moves have the same score. The Android client should cap the parallelism to
+ * {@link #MOBILE_PARALLELISM}.
+ * </p>
+ */
+public class ParallelAlphaBetaSearch {
+
+    //Parallelism for the mobile devices.
+    public static final int MOBILE_PARALLELISM = 2;
+    //No: of plies left at which the nodes are searched sequentially.
+    public static final int DEFAULT_SEQUENTIAL_DEPTH = 7;
+
+    private final TranspositionTable transpositionTable;
+    private final ForkJoinPool pool;
+    private final int sequentialDepth;
+    //Sequential search of the tasks run by the calling thread while it waits for the pool.
+    private final AlphaBetaSearch callerSearch;
+    private final AtomicLong nodeCount = new AtomicLong();
+
+    /**
+     * @param parallelism - no: of worker threads.
+     */
+    public ParallelAlphaBetaSearch(int parallelism) {
+        this(parallelism, DEFAULT_SEQUENTIAL_DEPTH, LazySmpSearch.DEFAULT_TABLE_BYTES);
+    }
+
+    /**
+     * @param parallelism     - no: of worker threads.
+     * @param sequentialDepth - no: of plies left at which the nodes are searched sequentially.
+     * @param tableBytes      - memory cap of the transposition table shared by the threads.
+     */
+    public ParallelAlphaBetaSearch(int parallelism, int sequentialDepth, long tableBytes) {
+        if (parallelism <= 0 || sequentialDepth < 0) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism + " or sequential depth: " + sequentialDepth);
+        }
+        final TranspositionTable table = new TranspositionTable(tableBytes);
+        this.transpositionTable = table;
+        this.pool = new ForkJoinPool(parallelism, pool -> new SearchThread(pool, table), null, false);
+        this.sequentialDepth = sequentialDepth;
+        this.callerSearch = new AlphaBetaSearch(table, true);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Searches the best move for the side to move on the board.
+     *
+     * @param board      - position to search.
+     * @param sideToMove - state of the cells of the player to move.
+     * @param depth      - max no: of plies to search, the search is exact when it covers all the free cells.
+     * @return result of the search, the principal variation holds only the best move.
+     */
+    @NonNull
+    public SearchResult search(@NonNull BitBoard board, @NonNull CellState sideToMove, int depth) {
+        CellState opponent = sideToMove == CellState.CROSS ? CellState.CIRCLE : CellState.CROSS;
+        final int ownMask = board.getMask(sideToMove);
+        final int opponentMask = board.getMask(opponent);
+        final int player = sideToMove == CellState.CROSS ? AlphaBetaSearch.CROSS : AlphaBetaSearch.CIRCLE;
+        final int searchDepth = Math.max(depth, 1);
+        final int[] bestMove = {-1};
+        transpositionTable.newSearch();
+        nodeCount.set(0);
+        int score = pool.invoke(new RecursiveTask<Integer>() {
+            @Override
+            protected Integer compute() {
+                return negamax(ownMask, opponentMask, player, searchDepth, -AlphaBetaSearch.INFINITY,
+                        AlphaBetaSearch.INFINITY, 0, SearchLimits.ofDepth(searchDepth), bestMove);
+            }
+        });
+        int[] principalVariation = bestMove[0] >= 0 ? new int[]{bestMove[0]} : new int[0];
+        return new SearchResult(bestMove[0], score, depth, nodeCount.get(), principalVariation);
+    }
+
+    /**
+     * Stops the worker threads, the instance can not be used after this.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Searches the position, in parallel if enough plies are left.
+     *
+     * @param limits   - cancelled when the result of the node is no longer needed.
+     * @param bestMove - holder for the best move at the root, null for the other nodes.
+     */
+    private int negamax(int ownMask, int opponentMask, int player, int depth, int alpha, int beta, int ply,
+                        @NonNull SearchLimits limits, @Nullable int[] bestMove) {
+        if (depth <= sequentialDepth && null == bestMove) {
+            Thread thread = Thread.currentThread();
+            AlphaBetaSearch search = thread instanceof SearchThread ? ((SearchThread) thread).search : callerSearch;
+            int score = search.searchSubtree(ownMask, opponentMask, player, depth, alpha, beta, ply, limits);
+            nodeCount.addAndGet(search.getNodeCount());
+            return score;
+        }
+        nodeCount.incrementAndGet();
+        int freeMask = ~(ownMask | opponentMask) & BitBoard.FULL_MASK;
+        if (freeMask == 0) {
+            return AlphaBetaSearch.DRAW_SCORE;
+        }
+        int[] moves = new int[Integer.bitCount(freeMask)];
+        int moveCount = orderMoves(ownMask, opponentMask, freeMask, moves);
+        for (int index = 0; index < moveCount; index++) {
+            if (BitBoard.isWinningMove(ownMask | (1 << moves[index]), moves[index])) {
+                setBestMove(bestMove, moves[index]);
+                return AlphaBetaSearch.WIN_SCORE - ply - 1;
+            }
+        }
+        //The eldest brother is searched first, for the bound of the younger brothers.
+        //Cancelled by a cut-off of a younger brother or when the parent node is cancelled.
+        SearchLimits splitPoint = new ChainedSearchLimits(limits);
+        int bestScore = -negamax(opponentMask, ownMask | (1 << moves[0]), 1 - player, depth - 1, -beta, -alpha,
+                ply + 1, splitPoint, null);
+        int bestCell = moves[0];
+        if (limits.isCancelled()) {
+            return AlphaBetaSearch.DRAW_SCORE;
+        }
+        if (bestScore < beta && moveCount > 1) {
+            AtomicInteger sharedAlpha = new AtomicInteger(Math.max(alpha, bestScore));
+            YoungerBrother[] brothers = new YoungerBrother[moveCount - 1];
+            for (int index = 1; index < moveCount; index++) {
+                brothers[index - 1] = new YoungerBrother(ownMask, opponentMask, player, moves[index], depth, beta, ply,
+                        sharedAlpha, splitPoint);
+            }
+            ForkJoinTask.invokeAll(brothers);
+            if (limits.isCancelled()) {
+                return AlphaBetaSearch.DRAW_SCORE;
+            }
+            for (YoungerBrother brother : brothers) {
+                if (brother.completed && brother.score > bestScore) {
+                    bestScore = brother.score;
+                    bestCell = brother.cell;
+                }
+            }
+        }
+        setBestMove(bestMove, bestCell);
+        return bestScore;
+    }
+
+    private static void setBestMove(@Nullable int[] bestMove, int cell) {
+        if (null != bestMove) {
+            bestMove[0] = cell;
+        }
+    }
+
+    /**
+     * Orders the free cells by the static evaluation after the move, so the eldest brother is likely the best move.
+     *
+     * @return the no: of moves written into the array.
+     */
+    private static int orderMoves(int ownMask, int opponentMask, int freeMask, int[] moves) {
+        int[] scores = new int[moves.length];
+        int moveCount = 0;
+        while (freeMask != 0) {
+            int cell = Integer.numberOfTrailingZeros(freeMask);
+            freeMask &= freeMask - 1;
+            int score = AlphaBetaSearch.evaluate(ownMask | (1 << cell), opponentMask);
+            int index = moveCount++;
+            while (index > 0 && scores[index - 1] < score) {
+                scores[index] = scores[index - 1];
+                moves[index] = moves[index - 1];
+                index--;
+            }
+            scores[index] = score;
+            moves[index] = cell;
+        }
+        return moveCount;
+    }
+
+    /**
+     * Worker thread of the pool, with its sequential search on the shared table.
+     */
+    private static final class SearchThread extends ForkJoinWorkerThread {
+
+        private final AlphaBetaSearch search;
+
+        SearchThread(@NonNull ForkJoinPool pool, @NonNull TranspositionTable transpositionTable) {
+            super(pool);
+            this.search = new AlphaBetaSearch(transpositionTable, true);
+        }
+    }
+
+    /**
+     * Search of a move after the eldest brother, with the best score of the split point when the search starts.
+     */
+    private final class YoungerBrother extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int ownMask;
+        private final int opponentMask;
+        private final int player;
+        private final int cell;
+        private final int depth;
+        private final int beta;
+        private final int ply;
+        private final AtomicInteger sharedAlpha;
+        private final SearchLimits splitPoint;
+        //Result of the search, valid only if the search was not cancelled.
+        private int score;
+        private boolean completed;
+
+        YoungerBrother(int ownMask, int opponentMask, int player, int cell, int depth, int beta, int ply,
+                       @NonNull AtomicInteger sharedAlpha, @NonNull SearchLimits splitPoint) {
+            this.ownMask = ownMask;
+            this.opponentMask = opponentMask;
+            this.player = player;
+            this.cell = cell;
+            this.depth = depth;
+            this.beta = beta;
+            this.ply = ply;
+            this.sharedAlpha = sharedAlpha;
+            this.splitPoint = splitPoint;
+        }
+
+        @Override
+        protected void compute() {
+            if (splitPoint.isCancelled()) {
+                return;
+            }
+            int alpha = sharedAlpha.get();
+            score = -negamax(opponentMask, ownMask | (1 << cell), 1 - player, depth - 1, -beta, -alpha, ply + 1,
+                    splitPoint, null);
+            //A search which has completed before the cancellation is still valid.
+            completed = !splitPoint.isCancelled();
+            if (!completed) {
+                return;
+            }
+            if (score >= beta) {
+                splitPoint.cancel();
+            }
+            int current;
+            while (score > (current = sharedAlpha.get()) && !sharedAlpha.compareAndSet(current, score)) {
+                //Retried until the best score is updated or a better score is found by a sibling.
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.androidnerds.tictactoe.game.ai;
+
+/**
+ * Budget of a search by the {@link IterativeDeepeningSearch}, along with the flag to cancel the search.
+ * <p>
+ * A new instance is created for every search. The search can be cancelled from any thread via {@link #cancel()},
+ * the searching thread checks the flag periodically and returns the result of the last completed depth.
+ * </p>
+ */
+public class SearchLimits {
+
+    //Represents a budget which is not limited.
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long timeBudgetNanos;
+    private final long nodeBudget;
+    private final int maxDepth;
+    //Set by the thread cancelling the search, read by the searching thread.
+    private volatile boolean cancelled;
+
+    /**
+     * @param timeBudgetMillis - wall-clock time for the search, or {@link #UNLIMITED}.
+     * @param nodeBudget       - max no: of positions visited by the search, or {@link #UNLIMITED}.
+     * @param maxDepth         - max no: of plies to search.
+     */
+    public SearchLimits(long timeBudgetMillis, long nodeBudget, int maxDepth) {
+        if (timeBudgetMillis <= 0 || nodeBudget <= 0 || maxDepth <= 0) {
+            throw new IllegalArgumentException("Invalid search limits: " + timeBudgetMillis + "ms, " + nodeBudget + " nodes, depth " + maxDepth);
+        }
+        this.timeBudgetNanos = timeBudgetMillis == UNLIMITED ? UNLIMITED : timeBudgetMillis * 1_000_000L;
+        this.nodeBudget = nodeBudget;
+        this.maxDepth = maxDepth;
+    }
+
+    public static SearchLimits ofTime(long timeBudgetMillis) {
+        return new SearchLimits(timeBudgetMillis, UNLIMITED, Integer.MAX_VALUE);
+    }
+
+    public static SearchLimits ofNodes(long nodeBudget) {
+        return new SearchLimits(UNLIMITED, nodeBudget, Integer.MAX_VALUE);
+    }
+
+    public static SearchLimits ofDepth(int maxDepth) {
+        return new SearchLimits(UNLIMITED, UNLIMITED, maxDepth);
+    }
+
+    public long getTimeBudgetNanos() {
+        return timeBudgetNanos;
+    }
+
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Requests the search to stop, the search returns the result of the last completed depth.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,67 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the result of a game-tree search.
+ */
+public class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodeCount;
+    private final int[] principalVariation;
+
+    public SearchResult(int bestMove, int score, int depth, long nodeCount, int[] principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodeCount = nodeCount;
+        this.principalVariation = principalVariation;
+    }
+
+    /**
+     * @return index of the best cell for the side to move ({@code row * size + column}), or -1 if there are no moves.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return score of the position from the point of view of the side to move.
+     * Scores above {@link AlphaBetaSearch#WIN_THRESHOLD} are forced wins, below the negated value forced losses.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the no: of positions visited by the search.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return the sequence of best moves for both the sides, starting with {@link #getBestMove()}.
+     */
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "bestMove=" + bestMove +
+                ", score=" + score +
+                ", depth=" + depth +
+                ", nodeCount=" + nodeCount +
+                ", principalVariation=" + Arrays.toString(principalVariation) +
+                '}';
+    }
+}
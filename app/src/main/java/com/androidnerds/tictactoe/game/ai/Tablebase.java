@@ -0,0 +1,184 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Win/draw/loss of every reachable position of the 4x4 game, solved by the {@link TablebaseSolver}.
+ * <p>
+ * The file holds 2 bits per position, addressed by the base-3 index of the cells (free = 0, cross = 1, circle = 2),
+ * so a position is looked up without any search. Only the canonical positions of the {@link BoardSymmetry} are
+ * stored, the other positions are canonicalized before the lookup. The value is for the player to move, which is
+ * CROSS when both players have the same no: of cells.
+ * </p>
+ * <p>
+ * The file is memory-mapped, so the ~10MB of the table are paged in by the OS on demand and are not copied into the
+ * heap. The mapping stays valid after the file is closed.
+ * </p>
+ */
+public final class Tablebase {
+
+    //Values of a position for the player to move.
+    public static final int UNKNOWN = 0;
+    public static final int WIN = 1;
+    public static final int DRAW = 2;
+    public static final int LOSS = 3;
+
+    //No: of positions in the table, 3 states for each of the 16 cells.
+    public static final int POSITION_COUNT = 43_046_721;
+
+    static final int MAGIC = 0x54544234;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int POSITIONS_PER_BYTE = 4;
+    static final int DATA_BYTES = (POSITION_COUNT + POSITIONS_PER_BYTE - 1) / POSITIONS_PER_BYTE;
+
+    private static final int VALUE_MASK = 0b11;
+    private static final int IMMEDIATE_WIN_RANK = 4;
+    private static final int[] POWERS_OF_THREE = createPowersOfThree();
+
+    private final ByteBuffer data;
+
+    private Tablebase(@NonNull ByteBuffer data) {
+        this.data = data;
+    }
+
+    /**
+     * Memory-maps the tablebase file written by {@link TablebaseSolver#write(File)}.
+     *
+     * @throws IOException - if the file can not be read or is not a tablebase.
+     */
+    @NonNull
+    public static Tablebase open(@NonNull File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            if (channel.size() != HEADER_BYTES + DATA_BYTES) {
+                throw new IOException("Invalid tablebase file " + file + " of " + channel.size() + " bytes");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != POSITION_COUNT) {
+                throw new IOException("Invalid header of the tablebase file " + file);
+            }
+            return new Tablebase(buffer);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * @return the value of the position for the player to move, {@link #UNKNOWN} if the position can not be reached
+     * in a game.
+     */
+    public int probe(int crossMask, int circleMask) {
+        long canonical = BoardSymmetry.canonicalize(crossMask, circleMask);
+        int index = getIndex(BoardSymmetry.getCrossMask(canonical), BoardSymmetry.getCircleMask(canonical));
+        return (data.get(HEADER_BYTES + index / POSITIONS_PER_BYTE) >>> getShift(index)) & VALUE_MASK;
+    }
+
+    public int probe(@NonNull BitBoard board) {
+        return probe(board.getMask(CellState.CROSS), board.getMask(CellState.CIRCLE));
+    }
+
+    /**
+     * Hint for a move of the player to move.
+     *
+     * @param cell - index of a free cell ({@code row * 4 + column}).
+     * @return the value of the game for the player making the move, if both players play perfectly after the move.
+     */
+    public int getMoveResult(@NonNull BitBoard board, int cell) {
+        int crossMask = board.getMask(CellState.CROSS);
+        int circleMask = board.getMask(CellState.CIRCLE);
+        if (((crossMask | circleMask) & (1 << cell)) != 0) {
+            throw new IllegalArgumentException("Cell " + cell + " is not free");
+        }
+        int moverMask = isCrossToMove(crossMask, circleMask) ? crossMask : circleMask;
+        if (BitBoard.isWinningMove(moverMask | (1 << cell), cell)) {
+            return WIN;
+        }
+        int result = isCrossToMove(crossMask, circleMask) ?
+                probe(crossMask | (1 << cell), circleMask) : probe(crossMask, circleMask | (1 << cell));
+        return result == WIN ? LOSS : result == LOSS ? WIN : result;
+    }
+
+    /**
+     * Selects a perfect move for the player to move: a winning move if there is one, preferring the move which wins
+     * immediately, else a drawing move.
+     *
+     * @return index of the selected cell ({@code row * 4 + column}), or -1 if there are no free cells.
+     */
+    public int selectMove(@NonNull BitBoard board) {
+        int crossMask = board.getMask(CellState.CROSS);
+        int circleMask = board.getMask(CellState.CIRCLE);
+        int moverMask = isCrossToMove(crossMask, circleMask) ? crossMask : circleMask;
+        int freeMask = ~(crossMask | circleMask) & BitBoard.FULL_MASK;
+        int bestMove = -1;
+        int bestRank = -1;
+        while (freeMask != 0) {
+            int cell = Integer.numberOfTrailingZeros(freeMask);
+            freeMask &= freeMask - 1;
+            int rank = BitBoard.isWinningMove(moverMask | (1 << cell), cell) ?
+                    IMMEDIATE_WIN_RANK : getRank(getMoveResult(board, cell));
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = cell;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * @return the position of the base-3 number formed by the cells, with the cell 0 as the least significant digit.
+     */
+    static int getIndex(int crossMask, int circleMask) {
+        int index = 0;
+        while (crossMask != 0) {
+            index += POWERS_OF_THREE[Integer.numberOfTrailingZeros(crossMask)];
+            crossMask &= crossMask - 1;
+        }
+        while (circleMask != 0) {
+            index += 2 * POWERS_OF_THREE[Integer.numberOfTrailingZeros(circleMask)];
+            circleMask &= circleMask - 1;
+        }
+        return index;
+    }
+
+    static int getShift(int index) {
+        return (index % POSITIONS_PER_BYTE) * 2;
+    }
+
+    static boolean isCrossToMove(int crossMask, int circleMask) {
+        return Integer.bitCount(crossMask) == Integer.bitCount(circleMask);
+    }
+
+    private static int getRank(int result) {
+        switch (result) {
+            case WIN:
+                return 3;
+            case DRAW:
+                return 2;
+            case LOSS:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static int[] createPowersOfThree() {
+        int[] powers = new int[BitBoard.CELL_COUNT];
+        powers[0] = 1;
+        for (int cell = 1; cell < powers.length; cell++) {
+            powers[cell] = powers[cell - 1] * 3;
+        }
+        return powers;
+    }
+}
@@ -0,0 +1,283 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Offline solver of the 4x4 game, which computes the value & the distance to the end of every reachable position by a
+ * retrograde analysis and writes the values into the file read by the {@link Tablebase}.
+ * <p>
+ * Every move adds a cell, so the positions are solved level by level, from the full board back to the empty board,
+ * each level from the values of the next level. The positions of a level are independent of each other, so a level is
+ * solved in parallel on a {@link ForkJoinPool}, split by the mask of the cross cells. A forward pass from the empty
+ * board first marks the reachable positions, as the positions after the end of a game are not stored.
+ * </p>
+ * <p>
+ * Only the canonical positions of the {@link BoardSymmetry} are solved. The solver needs a byte per position (~43MB),
+ * so it is meant to be run on a desktop via {@link #main(String[])}, not on the device.
+ * </p>
+ */
+public final class TablebaseSolver {
+
+    //Bits of an entry: the value, whether the position is reachable & the distance to the end of the game.
+    private static final int VALUE_MASK = 0b11;
+    private static final int REACHABLE = 0b100;
+    private static final int DISTANCE_SHIFT = 3;
+    //No: of cross masks below which a level is solved by a single task.
+    private static final int SEQUENTIAL_MASKS = 512;
+
+    private final byte[] entries = new byte[Tablebase.POSITION_COUNT];
+    private final ForkJoinPool pool;
+    private boolean solved;
+
+    public TablebaseSolver(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Solves all the positions, which can be called only once.
+     */
+    public void solve() {
+        if (solved) {
+            throw new IllegalStateException("Tablebase is already solved");
+        }
+        try {
+            for (int level = 0; level <= BitBoard.CELL_COUNT; level++) {
+                pool.invoke(new LevelTask(level, false, 0, BitBoard.FULL_MASK + 1));
+            }
+            for (int level = BitBoard.CELL_COUNT; level >= 0; level--) {
+                pool.invoke(new LevelTask(level, true, 0, BitBoard.FULL_MASK + 1));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        solved = true;
+    }
+
+    /**
+     * @return the value of the position for the player to move, {@link Tablebase#UNKNOWN} if the position can not be
+     * reached in a game.
+     */
+    public int getValue(int crossMask, int circleMask) {
+        return getCanonicalEntry(crossMask, circleMask) & VALUE_MASK;
+    }
+
+    /**
+     * @return the no: of moves until the end of the game if both players play perfectly, where the winner wins as
+     * fast as possible and the loser delays the loss as long as possible.
+     */
+    public int getDistanceToEnd(int crossMask, int circleMask) {
+        return (getCanonicalEntry(crossMask, circleMask) & 0xFF) >>> DISTANCE_SHIFT;
+    }
+
+    /**
+     * @return the no: of canonical positions which can be reached in a game.
+     */
+    public int getReachableCount() {
+        int count = 0;
+        for (byte entry : entries) {
+            if ((entry & REACHABLE) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the values of the positions, 2 bits per position, in the format read by {@link Tablebase#open(File)}.
+     */
+    public void write(@NonNull File file) throws IOException {
+        if (!solved) {
+            throw new IllegalStateException("Tablebase is not solved");
+        }
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        try {
+            output.writeInt(Tablebase.MAGIC);
+            output.writeInt(Tablebase.VERSION);
+            output.writeInt(Tablebase.POSITION_COUNT);
+            for (int index = 0; index < Tablebase.POSITION_COUNT; index += Tablebase.POSITIONS_PER_BYTE) {
+                int packed = 0;
+                for (int offset = 0; offset < Tablebase.POSITIONS_PER_BYTE && index + offset < Tablebase.POSITION_COUNT; offset++) {
+                    packed |= (entries[index + offset] & VALUE_MASK) << Tablebase.getShift(index + offset);
+                }
+                output.writeByte(packed);
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Solves the tablebase and writes it to the file given as the argument.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TablebaseSolver <output file>");
+            return;
+        }
+        long startNanos = System.nanoTime();
+        TablebaseSolver solver = new TablebaseSolver(Runtime.getRuntime().availableProcessors());
+        solver.solve();
+        solver.write(new File(args[0]));
+        System.out.println("Solved " + solver.getReachableCount() + " positions in " +
+                (System.nanoTime() - startNanos) / 1_000_000 + " ms, empty board: " + solver.getValue(0, 0));
+    }
+
+    private byte getCanonicalEntry(int crossMask, int circleMask) {
+        long canonical = BoardSymmetry.canonicalize(crossMask, circleMask);
+        return entries[Tablebase.getIndex(BoardSymmetry.getCrossMask(canonical), BoardSymmetry.getCircleMask(canonical))];
+    }
+
+    /**
+     * Marks the position as reachable, if the game has not ended before it and one of the positions before the
+     * last move is reachable.
+     */
+    private void markReachable(int crossMask, int circleMask, int index, int level) {
+        if (level == 0) {
+            entries[index] = REACHABLE;
+            return;
+        }
+        boolean crossMovedLast = (level & 1) == 1;
+        int moverMask = crossMovedLast ? circleMask : crossMask;
+        int lastMoverMask = crossMovedLast ? crossMask : circleMask;
+        if (hasWon(moverMask)) {
+            return;
+        }
+        for (int cells = lastMoverMask; cells != 0; cells &= cells - 1) {
+            int parentMask = lastMoverMask & ~Integer.lowestOneBit(cells);
+            byte parent = crossMovedLast ?
+                    getCanonicalEntry(parentMask, circleMask) : getCanonicalEntry(crossMask, parentMask);
+            if ((parent & REACHABLE) != 0) {
+                entries[index] = REACHABLE;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Computes the value of a reachable position from the values of the positions after each move.
+     */
+    private void solvePosition(int crossMask, int circleMask, int index, int level) {
+        boolean crossToMove = (level & 1) == 0;
+        int lastMoverMask = crossToMove ? circleMask : crossMask;
+        if (hasWon(lastMoverMask)) {
+            entries[index] = toEntry(Tablebase.LOSS, 0);
+            return;
+        }
+        if (level == BitBoard.CELL_COUNT) {
+            entries[index] = toEntry(Tablebase.DRAW, 0);
+            return;
+        }
+        int winDistance = Integer.MAX_VALUE;
+        int lossDistance = -1;
+        boolean draw = false;
+        for (int freeCells = ~(crossMask | circleMask) & BitBoard.FULL_MASK; freeCells != 0; freeCells &= freeCells - 1) {
+            int cell = Integer.lowestOneBit(freeCells);
+            byte child = crossToMove ?
+                    getCanonicalEntry(crossMask | cell, circleMask) : getCanonicalEntry(crossMask, circleMask | cell);
+            int childDistance = (child & 0xFF) >>> DISTANCE_SHIFT;
+            switch (child & VALUE_MASK) {
+                case Tablebase.LOSS:
+                    winDistance = Math.min(winDistance, childDistance + 1);
+                    break;
+                case Tablebase.DRAW:
+                    draw = true;
+                    break;
+                default:
+                    lossDistance = Math.max(lossDistance, childDistance + 1);
+                    break;
+            }
+        }
+        if (winDistance != Integer.MAX_VALUE) {
+            entries[index] = toEntry(Tablebase.WIN, winDistance);
+        } else if (draw) {
+            //Neither player can win, so the game goes on until the board is full.
+            entries[index] = toEntry(Tablebase.DRAW, BitBoard.CELL_COUNT - level);
+        } else {
+            entries[index] = toEntry(Tablebase.LOSS, lossDistance);
+        }
+    }
+
+    private static byte toEntry(int value, int distance) {
+        return (byte) (REACHABLE | value | distance << DISTANCE_SHIFT);
+    }
+
+    private static boolean hasWon(int playerMask) {
+        for (int pattern = 0; pattern < BitBoard.getWinMaskCount(); pattern++) {
+            int winMask = BitBoard.getWinMask(pattern);
+            if ((playerMask & winMask) == winMask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks or solves the canonical positions of a level, for a range of the cross masks.
+     */
+    private final class LevelTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int level;
+        private final boolean solve;
+        private final int startMask;
+        private final int endMask;
+
+        LevelTask(int level, boolean solve, int startMask, int endMask) {
+            this.level = level;
+            this.solve = solve;
+            this.startMask = startMask;
+            this.endMask = endMask;
+        }
+
+        @Override
+        protected void compute() {
+            if (endMask - startMask > SEQUENTIAL_MASKS) {
+                int middle = (startMask + endMask) >>> 1;
+                invokeAll(new LevelTask(level, solve, startMask, middle), new LevelTask(level, solve, middle, endMask));
+                return;
+            }
+            //Cross moves first, so cross has half the cells of the level, rounded up.
+            int crossCount = (level + 1) / 2;
+            int circleCount = level / 2;
+            for (int crossMask = startMask; crossMask < endMask; crossMask++) {
+                if (Integer.bitCount(crossMask) != crossCount) {
+                    continue;
+                }
+                int freeMask = ~crossMask & BitBoard.FULL_MASK;
+                for (int circleMask = freeMask; ; circleMask = (circleMask - 1) & freeMask) {
+                    if (Integer.bitCount(circleMask) == circleCount) {
+                        processPosition(crossMask, circleMask);
+                    }
+                    if (circleMask == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void processPosition(int crossMask, int circleMask) {
+            long canonical = BoardSymmetry.canonicalize(crossMask, circleMask);
+            if (BoardSymmetry.getCrossMask(canonical) != crossMask || BoardSymmetry.getCircleMask(canonical) != circleMask) {
+                return;
+            }
+            int index = Tablebase.getIndex(crossMask, circleMask);
+            if (!solve) {
+                markReachable(crossMask, circleMask, index, level);
+            } else if ((entries[index] & REACHABLE) != 0) {
+                solvePosition(crossMask, circleMask, index, level);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.androidnerds.tictactoe.game.ai;
+
+/**
+ * Fixed-size cache of the search results, indexed by the Zobrist hash of the position.
+ * <p>
+ * The table is held in two primitive arrays, one for the keys and one for the packed entries, with a power-of-two
+ * no: of slots so the slot is picked by masking the hash. Nothing is allocated after the construction. Each slot keeps
+ * a single entry; a new entry replaces the existing one only when it was searched at least as deep, or when the
+ * existing one is left over from an earlier search.
+ * </p>
+ * <p>
+ * Layout of an entry: score (bits 0-15), depth (16-23), bound (24-25), best move (26-33) and the search generation
+ * (34-41). A stored entry always has a non-zero bound, so 0 represents a missing entry.
+ * </p>
+ * <p>
+ * The table can be shared by the threads of a search without any locks. The key array holds the hash XOR-ed with the
+ * entry, so an entry is accepted only if the key & the entry were written by the same store: a slot which was written
+ * concurrently by two threads, or a torn write of a long, fails the check and is treated as a missing entry. The
+ * replacement decision can race with other stores, which only affects which of the entries is kept.
+ * </p>
+ */
+public class TranspositionTable {
+
+    //Memory used by each slot, the key & the packed entry.
+    public static final int BYTES_PER_ENTRY = 16;
+    //Default memory cap, 64k entries.
+    public static final long DEFAULT_MAX_BYTES = 1L << 20;
+    //Largest table allowed, bounded by the size of a java array.
+    private static final int MAX_ENTRIES = 1 << 30;
+
+    //Types of the stored scores.
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+    //Move stored when the best move is not known.
+    public static final int NO_MOVE = -1;
+
+    private static final int DEPTH_SHIFT = 16;
+    private static final int BOUND_SHIFT = 24;
+    private static final int MOVE_SHIFT = 26;
+    private static final int GENERATION_SHIFT = 34;
+    private static final int BYTE_MASK = 0xFF;
+
+    //Hash of the position XOR-ed with the entry.
+    private final long[] keys;
+    private final long[] entries;
+    private final int indexMask;
+    //Incremented for every new search, to prefer replacing the entries of the earlier searches.
+    private int generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes - memory cap of the table, rounded down to a power-of-two no: of entries.
+     */
+    public TranspositionTable(long maxBytes) {
+        if (maxBytes < BYTES_PER_ENTRY) {
+            throw new IllegalArgumentException("Invalid memory cap: " + maxBytes);
+        }
+        int capacity = (int) Math.min(Long.highestOneBit(maxBytes / BYTES_PER_ENTRY), MAX_ENTRIES);
+        this.keys = new long[capacity];
+        this.entries = new long[capacity];
+        this.indexMask = capacity - 1;
+    }
+
+    /**
+     * @return the no: of entries held by the table.
+     */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Marks the start of a new search, the entries stored so far can be replaced by the shallower ones.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & BYTE_MASK;
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public void clear() {
+        for (int index = 0; index < entries.length; index++) {
+            keys[index] = 0;
+            entries[index] = 0;
+        }
+        generation = 0;
+    }
+
+    /**
+     * @return the packed entry for the position, or 0 if the position is not in the table.
+     */
+    public long probe(long hash) {
+        int index = (int) hash & indexMask;
+        long entry = entries[index];
+        return entry != 0 && (keys[index] ^ entry) == hash ? entry : 0;
+    }
+
+    /**
+     * Stores the result of the search of the position, if it is preferred over the entry in the slot.
+     *
+     * @param hash  - Zobrist hash of the position.
+     * @param depth - no: of plies searched below the position.
+     * @param score - score of the position, from the point of view of the side to move.
+     * @param bound - one of {@link #EXACT}, {@link #LOWER_BOUND} & {@link #UPPER_BOUND}.
+     * @param move  - index of the best cell, or {@link #NO_MOVE}.
+     */
+    public void store(long hash, int depth, int score, int bound, int move) {
+        int index = (int) hash & indexMask;
+        long existing = entries[index];
+        if (existing != 0 && getGeneration(existing) == generation && depth < getDepth(existing)) {
+            return;
+        }
+        long entry = (score & 0xFFFFL) |
+                ((long) Math.min(depth, BYTE_MASK) << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) (move & BYTE_MASK) << MOVE_SHIFT) |
+                ((long) generation << GENERATION_SHIFT);
+        entries[index] = entry;
+        keys[index] = hash ^ entry;
+    }
+
+    public static int getScore(long entry) {
+        return (short) entry;
+    }
+
+    public static int getDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & BYTE_MASK;
+    }
+
+    public static int getBound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * @return index of the best cell, or {@link #NO_MOVE}.
+     */
+    public static int getMove(long entry) {
+        int move = (int) (entry >>> MOVE_SHIFT) & BYTE_MASK;
+        return move == BYTE_MASK ? NO_MOVE : move;
+    }
+
+    private static int getGeneration(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & BYTE_MASK;
+    }
+}
@@ -0,0 +1,223 @@
+package com.androidnerds.tictactoe.game.board;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.StandardWinRule;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * {@link Board} implementation for the 4x4 board which packs the 16 cells into two 16-bit masks,
+ * one for each player.
+ * <p>
+ * Cell (row, column) is represented by the bit at index {@code row * SIZE + column}.
+ * The rules of the game are precomputed as masks(rows, columns, both diagonals, the four corners and the nine 2x2 boxes),
+ * compiled from the {@link StandardWinRule}s by the {@link WinPatternTable} of the 4x4 board,
+ * so a win is detected by AND-ing the mask of the player with the masks passing through the last move.
+ * </p>
+ */
+public final class BitBoard implements Board {
+
+    //Represents the max number of ROW/COLUMN on the board(4x4)
+    public static final int SIZE = 4;
+    //Total no: of cells on the board.
+    public static final int CELL_COUNT = SIZE * SIZE;
+    //Mask with all the cells of the board set.
+    public static final int FULL_MASK = (1 << CELL_COUNT) - 1;
+
+    //All the winning masks, in the order in which the rules are evaluated.
+    private static final int[] WIN_MASKS = createWinMasks(WinPatternTable.forSize(SIZE));
+    //Indices into WIN_MASKS of the winning masks passing through each cell, indexed by the cell index.
+    private static final int[][] CELL_WIN_PATTERNS = createCellWinPatterns(WIN_MASKS);
+
+    //Cells occupied by Player 1.
+    private int crossMask;
+    //Cells occupied by Player 2.
+    private int circleMask;
+
+    public BitBoard() {
+    }
+
+    public BitBoard(int crossMask, int circleMask) {
+        this.crossMask = crossMask & FULL_MASK;
+        this.circleMask = circleMask & FULL_MASK & ~this.crossMask;
+    }
+
+    /**
+     * @return the bit index representing the (row, column) cell on the board.
+     */
+    public static int toCellIndex(int row, int column) {
+        return row * SIZE + column;
+    }
+
+    @Override
+    public int getSize() {
+        return SIZE;
+    }
+
+    @NonNull
+    @Override
+    public CellState getCellState(int row, int column) {
+        int bit = toBit(row, column);
+        if ((crossMask & bit) != 0) {
+            return CellState.CROSS;
+        } else if ((circleMask & bit) != 0) {
+            return CellState.CIRCLE;
+        }
+        return CellState.FREE;
+    }
+
+    @Override
+    public void setCellState(int row, int column, @NonNull CellState cellState) {
+        int bit = toBit(row, column);
+        crossMask &= ~bit;
+        circleMask &= ~bit;
+        if (cellState == CellState.CROSS) {
+            crossMask |= bit;
+        } else if (cellState == CellState.CIRCLE) {
+            circleMask |= bit;
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        return (crossMask | circleMask) == FULL_MASK;
+    }
+
+    @Override
+    public int getOccupiedCount() {
+        return Integer.bitCount(crossMask | circleMask);
+    }
+
+    @Override
+    public int getFreeCells(@NonNull int[] cells) {
+        int count = 0;
+        int freeMask = ~(crossMask | circleMask) & FULL_MASK;
+        while (freeMask != 0) {
+            cells[count++] = Integer.numberOfTrailingZeros(freeMask);
+            freeMask &= freeMask - 1;
+        }
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        crossMask = 0;
+        circleMask = 0;
+    }
+
+    /**
+     * @return the mask of the cells occupied by the player owning the cellState.
+     */
+    public int getMask(@NonNull CellState cellState) {
+        if (cellState == CellState.CROSS) {
+            return crossMask;
+        } else if (cellState == CellState.CIRCLE) {
+            return circleMask;
+        }
+        return ~(crossMask | circleMask) & FULL_MASK;
+    }
+
+    /**
+     * Method evaluates whether the player occupying the (row, column) cell has won using that cell.
+     *
+     * @param row    - rowIndex of the selected cell on the board.
+     * @param column - columnIndex of the selected cell on the board.
+     * @return the first winning mask passing through the cell, or 0 if the player has not won.
+     */
+    public int findWinningMask(int row, int column) {
+        int pattern = findWinningPattern(row, column);
+        return pattern >= 0 ? WIN_MASKS[pattern] : 0;
+    }
+
+    /**
+     * Method evaluates whether the player occupying the (row, column) cell has won using that cell.
+     * The patterns are numbered in the same order as the {@link com.androidnerds.tictactoe.game.WinPatternTable}
+     * of the 4x4 board.
+     *
+     * @param row    - rowIndex of the selected cell on the board.
+     * @param column - columnIndex of the selected cell on the board.
+     * @return index of the first winning pattern passing through the cell, or -1 if the player has not won.
+     */
+    public int findWinningPattern(int row, int column) {
+        CellState cellState = getCellState(row, column);
+        if (cellState == CellState.FREE) {
+            return -1;
+        }
+        return findWinningPatternOfMask(getMask(cellState), toCellIndex(row, column));
+    }
+
+    /**
+     * Mask based variant of {@link #findWinningPattern(int, int)}, for callers holding the masks of the players,
+     * eg. the game-tree search.
+     *
+     * @param playerMask - cells occupied by the player.
+     * @param cellIndex  - index of the cell selected by the player.
+     * @return index of the first winning pattern passing through the cell, or -1 if the player has not won.
+     */
+    public static int findWinningPatternOfMask(int playerMask, int cellIndex) {
+        for (int pattern : CELL_WIN_PATTERNS[cellIndex]) {
+            int winMask = WIN_MASKS[pattern];
+            if ((playerMask & winMask) == winMask) {
+                return pattern;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return TRUE - if the player occupying the cells of the playerMask has won via the cell.
+     */
+    public static boolean isWinningMove(int playerMask, int cellIndex) {
+        return findWinningPatternOfMask(playerMask, cellIndex) >= 0;
+    }
+
+    /**
+     * @return the no: of winning masks on the board.
+     */
+    public static int getWinMaskCount() {
+        return WIN_MASKS.length;
+    }
+
+    /**
+     * @return the winning mask of the pattern, numbered as in the {@link WinPatternTable} of the 4x4 board.
+     */
+    public static int getWinMask(int pattern) {
+        return WIN_MASKS[pattern];
+    }
+
+    private static int toBit(int row, int column) {
+        if (row < 0 || row >= SIZE || column < 0 || column >= SIZE) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") is not on the board.");
+        }
+        return 1 << toCellIndex(row, column);
+    }
+
+    private static int[] createWinMasks(WinPatternTable patternTable) {
+        int[] masks = new int[patternTable.getPatternCount()];
+        for (int pattern = 0; pattern < masks.length; pattern++) {
+            masks[pattern] = (int) patternTable.getPatternMask(pattern);
+        }
+        return masks;
+    }
+
+    private static int[][] createCellWinPatterns(int[] winMasks) {
+        int[][] cellWinPatterns = new int[CELL_COUNT][];
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; cellIndex++) {
+            int count = 0;
+            for (int winMask : winMasks) {
+                if ((winMask & (1 << cellIndex)) != 0) {
+                    count++;
+                }
+            }
+            cellWinPatterns[cellIndex] = new int[count];
+            count = 0;
+            for (int pattern = 0; pattern < winMasks.length; pattern++) {
+                if ((winMasks[pattern] & (1 << cellIndex)) != 0) {
+                    cellWinPatterns[cellIndex][count++] = pattern;
+                }
+            }
+        }
+        return cellWinPatterns;
+    }
+}
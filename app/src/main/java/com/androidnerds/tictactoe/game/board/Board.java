@@ -0,0 +1,63 @@
+package com.androidnerds.tictactoe.game.board;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Abstraction over the storage used for the Tic-Tac-Toe board.
+ * <p>
+ * The {@link com.androidnerds.tictactoe.game.GameEngine} only talks to the board via this interface,
+ * so that the representation of the cells can be chosen based on the board size and the performance needs.
+ * </p>
+ */
+public interface Board {
+
+    //Size reported by the boards without any limits on the rows & columns.
+    int UNBOUNDED_SIZE = -1;
+
+    /**
+     * @return the no: of cells on a row/column on the board, or {@link #UNBOUNDED_SIZE}.
+     */
+    int getSize();
+
+    /**
+     * @param row    - rowIndex of the cell on the board.
+     * @param column - columnIndex of the cell on the board.
+     * @return the state of the cell at the (row, column) index.
+     */
+    @NonNull
+    CellState getCellState(int row, int column);
+
+    /**
+     * Updates the state of the cell at the (row, column) index.
+     *
+     * @param row       - rowIndex of the cell on the board.
+     * @param column    - columnIndex of the cell on the board.
+     * @param cellState - new state of the cell. {@link CellState#FREE} clears the cell.
+     */
+    void setCellState(int row, int column, @NonNull CellState cellState);
+
+    /**
+     * @return TRUE - if there are no free cells left on the board.
+     */
+    boolean isFull();
+
+    /**
+     * @return the no: of cells occupied by the players.
+     */
+    int getOccupiedCount();
+
+    /**
+     * Collects the free cells on the board, identified by the index {@code row * size + column}.
+     *
+     * @param cells - array to be filled with the indices of the free cells, should be able to hold all of them.
+     * @return the no: of free cells written into the array, 0 for the unbounded boards.
+     */
+    int getFreeCells(@NonNull int[] cells);
+
+    /**
+     * Marks all the cells on the board as {@link CellState#FREE}.
+     */
+    void clear();
+}
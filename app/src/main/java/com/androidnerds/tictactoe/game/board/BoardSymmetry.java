@@ -0,0 +1,154 @@
+package com.androidnerds.tictactoe.game.board;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Symmetries of the 4x4 board, the 4 rotations and the 4 reflections.
+ * <p>
+ * All the winning rules (rows, columns, diagonals, corners & 2x2 boxes) are mapped onto each other by these
+ * symmetries, so the symmetric positions have the same value and only one of them, the canonical position, needs to
+ * be searched or stored. A symmetry is identified by an index in [0, {@link #SYMMETRY_COUNT}), which is a combination
+ * of a transpose (bit 2), a reversal of the rows (bit 1) & a reversal of the columns (bit 0), applied in that order.
+ * Symmetry 0 is the identity.
+ * </p>
+ * <p>
+ * The masks of the {@link BitBoard} are transformed with a few shifts & masks, so the canonical position is found
+ * without any allocation. The canonical position is the one with the smallest value of
+ * {@code circleMask << 16 | crossMask}.
+ * </p>
+ */
+public final class BoardSymmetry {
+
+    //No: of symmetries of the square board.
+    public static final int SYMMETRY_COUNT = 8;
+    public static final int IDENTITY = 0;
+
+    private static final int REVERSE_COLUMNS = 1;
+    private static final int REVERSE_ROWS = 2;
+    private static final int TRANSPOSE = 4;
+
+    //Cell index after each symmetry, indexed by {@code symmetry * CELL_COUNT + cell}.
+    private static final byte[] CELL_TRANSFORMS = createCellTransforms();
+    //Symmetry which undoes each symmetry.
+    private static final int[] INVERSES = createInverses();
+
+    private BoardSymmetry() {
+    }
+
+    /**
+     * @return the mask of the cells after the symmetry is applied to the cells of the mask.
+     */
+    public static int transform(int mask, int symmetry) {
+        if ((symmetry & TRANSPOSE) != 0) {
+            mask = transpose(mask);
+        }
+        if ((symmetry & REVERSE_ROWS) != 0) {
+            mask = ((mask & 0x00FF) << 8) | ((mask >>> 8) & 0x00FF);
+            mask = ((mask & 0x0F0F) << 4) | ((mask >>> 4) & 0x0F0F);
+        }
+        if ((symmetry & REVERSE_COLUMNS) != 0) {
+            mask = ((mask & 0x5555) << 1) | ((mask >>> 1) & 0x5555);
+            mask = ((mask & 0x3333) << 2) | ((mask >>> 2) & 0x3333);
+        }
+        return mask;
+    }
+
+    /**
+     * @return index of the cell after the symmetry is applied, for a cell index {@code row * 4 + column}.
+     */
+    public static int transformCell(int cell, int symmetry) {
+        return CELL_TRANSFORMS[symmetry * BitBoard.CELL_COUNT + cell];
+    }
+
+    /**
+     * @return the symmetry which maps the transformed position back to the original position.
+     */
+    public static int inverse(int symmetry) {
+        return INVERSES[symmetry];
+    }
+
+    /**
+     * Finds the canonical position among the positions symmetric to the given position.
+     *
+     * @return the canonical position, {@code circleMask << 16 | crossMask} in the lower 32 bits, and the symmetry
+     * which maps the given position to it in the upper bits. See {@link #getCrossMask(long)},
+     * {@link #getCircleMask(long)} & {@link #getSymmetry(long)}.
+     */
+    public static long canonicalize(int crossMask, int circleMask) {
+        long best = toPosition(crossMask, circleMask);
+        int bestSymmetry = IDENTITY;
+        for (int symmetry = 1; symmetry < SYMMETRY_COUNT; symmetry++) {
+            long position = toPosition(transform(crossMask, symmetry), transform(circleMask, symmetry));
+            if (position < best) {
+                best = position;
+                bestSymmetry = symmetry;
+            }
+        }
+        return ((long) bestSymmetry << 32) | best;
+    }
+
+    /**
+     * @return the canonical position of the board, in the format of {@link #canonicalize(int, int)}.
+     */
+    public static long canonicalize(@NonNull BitBoard board) {
+        return canonicalize(board.getMask(CellState.CROSS),
+                board.getMask(CellState.CIRCLE));
+    }
+
+    public static int getCrossMask(long canonical) {
+        return (int) canonical & BitBoard.FULL_MASK;
+    }
+
+    public static int getCircleMask(long canonical) {
+        return (int) (canonical >>> 16) & BitBoard.FULL_MASK;
+    }
+
+    /**
+     * @return the symmetry which maps the original position to the canonical position. A move on the original
+     * position is translated with {@link #transformCell(int, int)} and a move on the canonical position is translated
+     * back with the {@link #inverse(int)} symmetry.
+     */
+    public static int getSymmetry(long canonical) {
+        return (int) (canonical >>> 32) & (SYMMETRY_COUNT - 1);
+    }
+
+    private static long toPosition(int crossMask, int circleMask) {
+        return ((long) circleMask << 16) | crossMask;
+    }
+
+    /**
+     * Mirrors the cells along the principal diagonal, by swapping the 2x2 blocks and then the cells within them.
+     */
+    private static int transpose(int mask) {
+        int swap = (mask ^ (mask >>> 3)) & 0x0A0A;
+        mask ^= swap ^ (swap << 3);
+        swap = (mask ^ (mask >>> 6)) & 0x00CC;
+        return mask ^ swap ^ (swap << 6);
+    }
+
+    private static byte[] createCellTransforms() {
+        byte[] transforms = new byte[SYMMETRY_COUNT * BitBoard.CELL_COUNT];
+        for (int symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++) {
+            for (int cell = 0; cell < BitBoard.CELL_COUNT; cell++) {
+                transforms[symmetry * BitBoard.CELL_COUNT + cell] =
+                        (byte) Integer.numberOfTrailingZeros(transform(1 << cell, symmetry));
+            }
+        }
+        return transforms;
+    }
+
+    private static int[] createInverses() {
+        int[] inverses = new int[SYMMETRY_COUNT];
+        for (int symmetry = 0; symmetry < SYMMETRY_COUNT; symmetry++) {
+            for (int candidate = 0; candidate < SYMMETRY_COUNT; candidate++) {
+                if (transformCell(transformCell(1, symmetry), candidate) == 1 &&
+                        transformCell(transformCell(BitBoard.SIZE, symmetry), candidate) == BitBoard.SIZE) {
+                    inverses[symmetry] = candidate;
+                }
+            }
+        }
+        return inverses;
+    }
+}
@@ -0,0 +1,156 @@
+package com.androidnerds.tictactoe.game.board;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * {@link Board} implementation for boards of any size, which packs every cell into 2 bits of a long array
+ * instead of holding a reference per cell.
+ * <p>
+ * A 1000x1000 board needs ~250KB. The cells are identified by the index {@code row * size + column},
+ * so the size of the board is limited to {@link #MAX_SIZE}.
+ * </p>
+ */
+public final class PackedBoard implements Board {
+
+    //Largest board for which the cell indices fit into an int.
+    public static final int MAX_SIZE = 46340;
+
+    private static final int BITS_PER_CELL = 2;
+    private static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+    private static final long CELL_MASK = 0b11L;
+    //Lower bit of every cell in a word.
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    private static final long FREE = 0;
+    private static final long CROSS = 1;
+    private static final long CIRCLE = 2;
+
+    private final int size;
+    private final int cellCount;
+    private final long[] words;
+    //No: of cells occupied by the players.
+    private int occupiedCount;
+
+    public PackedBoard(int size) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid board size: " + size);
+        }
+        this.size = size;
+        this.cellCount = size * size;
+        this.words = new long[(cellCount + CELLS_PER_WORD - 1) / CELLS_PER_WORD];
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @NonNull
+    @Override
+    public CellState getCellState(int row, int column) {
+        return getCellState(toCellIndex(row, column));
+    }
+
+    /**
+     * @return the state of the cell at the index {@code row * size + column}.
+     */
+    @NonNull
+    public CellState getCellState(int cellIndex) {
+        checkCellIndex(cellIndex);
+        long value = (words[cellIndex / CELLS_PER_WORD] >>> shift(cellIndex)) & CELL_MASK;
+        if (value == CROSS) {
+            return CellState.CROSS;
+        } else if (value == CIRCLE) {
+            return CellState.CIRCLE;
+        }
+        return CellState.FREE;
+    }
+
+    @Override
+    public void setCellState(int row, int column, @NonNull CellState cellState) {
+        setCellState(toCellIndex(row, column), cellState);
+    }
+
+    /**
+     * Updates the state of the cell at the index {@code row * size + column}.
+     */
+    public void setCellState(int cellIndex, @NonNull CellState cellState) {
+        checkCellIndex(cellIndex);
+        int wordIndex = cellIndex / CELLS_PER_WORD;
+        int shift = shift(cellIndex);
+        long oldValue = (words[wordIndex] >>> shift) & CELL_MASK;
+        long newValue = cellState == CellState.CROSS ? CROSS : cellState == CellState.CIRCLE ? CIRCLE : FREE;
+        words[wordIndex] = (words[wordIndex] & ~(CELL_MASK << shift)) | (newValue << shift);
+        if (oldValue == FREE && newValue != FREE) {
+            occupiedCount++;
+        } else if (oldValue != FREE && newValue == FREE) {
+            occupiedCount--;
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        return occupiedCount == cellCount;
+    }
+
+    @Override
+    public int getOccupiedCount() {
+        return occupiedCount;
+    }
+
+    @Override
+    public int getFreeCells(@NonNull int[] cells) {
+        int count = 0;
+        for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+            long word = words[wordIndex];
+            long freeBits = ~(word | (word >>> 1)) & LOW_BITS;
+            while (freeBits != 0) {
+                int cellIndex = wordIndex * CELLS_PER_WORD + Long.numberOfTrailingZeros(freeBits) / BITS_PER_CELL;
+                if (cellIndex >= cellCount) {
+                    break;
+                }
+                cells[count++] = cellIndex;
+                freeBits &= freeBits - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies the cells of the other board of the same size into this board, without any allocation.
+     */
+    public void copyFrom(@NonNull PackedBoard other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Board of size " + other.size + " can not be copied to size " + size);
+        }
+        System.arraycopy(other.words, 0, words, 0, words.length);
+        occupiedCount = other.occupiedCount;
+    }
+
+    @Override
+    public void clear() {
+        for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+            words[wordIndex] = 0;
+        }
+        occupiedCount = 0;
+    }
+
+    private int toCellIndex(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= size) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") is not on the board.");
+        }
+        return row * size + column;
+    }
+
+    private void checkCellIndex(int cellIndex) {
+        if (cellIndex < 0 || cellIndex >= cellCount) {
+            throw new IndexOutOfBoundsException("Cell " + cellIndex + " is not on the board.");
+        }
+    }
+
+    private static int shift(int cellIndex) {
+        return (cellIndex % CELLS_PER_WORD) * BITS_PER_CELL;
+    }
+}
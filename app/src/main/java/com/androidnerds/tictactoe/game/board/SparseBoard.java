@@ -0,0 +1,161 @@
+package com.androidnerds.tictactoe.game.board;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Unbounded {@link Board} which only stores the occupied cells, for the k-in-a-row variants of the game.
+ * <p>
+ * The cells are kept in an open-addressing hash map with linear probing, keyed by the (row, column) pair packed
+ * into a long, so no boxed keys are created. The memory used is proportional to the no: of moves played.
+ * Rows and columns can take any int value, including negative ones.
+ * </p>
+ */
+public final class SparseBoard implements Board {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final byte EMPTY = 0;
+    private static final byte CROSS = 1;
+    private static final byte CIRCLE = 2;
+
+    //Packed (row, column) keys of the slots, only valid when the value of the slot is not EMPTY.
+    private long[] keys;
+    private byte[] values;
+    private int mask;
+    private int occupiedCount;
+
+    public SparseBoard() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return {@link Board#UNBOUNDED_SIZE}, as the board has no limits.
+     */
+    @Override
+    public int getSize() {
+        return UNBOUNDED_SIZE;
+    }
+
+    @NonNull
+    @Override
+    public CellState getCellState(int row, int column) {
+        int slot = findSlot(toKey(row, column));
+        byte value = values[slot];
+        if (value == CROSS) {
+            return CellState.CROSS;
+        } else if (value == CIRCLE) {
+            return CellState.CIRCLE;
+        }
+        return CellState.FREE;
+    }
+
+    @Override
+    public void setCellState(int row, int column, @NonNull CellState cellState) {
+        long key = toKey(row, column);
+        int slot = findSlot(key);
+        if (cellState == CellState.FREE) {
+            if (values[slot] != EMPTY) {
+                remove(slot);
+            }
+            return;
+        }
+        if (values[slot] == EMPTY) {
+            keys[slot] = key;
+            occupiedCount++;
+        }
+        values[slot] = cellState == CellState.CROSS ? CROSS : CIRCLE;
+        if (occupiedCount * 2 > values.length) {
+            rehash(values.length * 2);
+        }
+    }
+
+    /**
+     * @return FALSE, the board never runs out of free cells.
+     */
+    @Override
+    public boolean isFull() {
+        return false;
+    }
+
+    @Override
+    public int getOccupiedCount() {
+        return occupiedCount;
+    }
+
+    /**
+     * The free cells of an unbounded board can not be enumerated.
+     *
+     * @return 0
+     */
+    @Override
+    public int getFreeCells(@NonNull int[] cells) {
+        return 0;
+    }
+
+    @Override
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        occupiedCount = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    private static long toKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /**
+     * @return the slot holding the key, or the empty slot where it would be inserted.
+     */
+    private int findSlot(long key) {
+        int slot = slotOf(key);
+        while (values[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the entry of the slot, shifting back the entries of the probe sequence so that no tombstones are needed.
+     */
+    private void remove(int slot) {
+        values[slot] = EMPTY;
+        occupiedCount--;
+        int next = (slot + 1) & mask;
+        while (values[next] != EMPTY) {
+            int home = slotOf(keys[next]);
+            //Move the entry back if its home slot is not within (slot, next].
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = EMPTY;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        byte[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != EMPTY) {
+                int newSlot = findSlot(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+}
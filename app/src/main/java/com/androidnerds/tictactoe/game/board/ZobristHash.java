@@ -0,0 +1,65 @@
+package com.androidnerds.tictactoe.game.board;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Zobrist hashing of the positions on the board.
+ * <p>
+ * Every (row, column, player) triple is mapped to a pseudo-random 64-bit key and the hash of a position is the XOR of
+ * the keys of the occupied cells. Placing or removing a piece is a single XOR, so the hash is maintained incrementally
+ * while the moves are played & undone. The keys are derived from the coordinates by a mixing function instead of a
+ * table, which keeps them identical for every board size, including the unbounded boards.
+ * </p>
+ * <p>
+ * The player to move is not hashed, since it is implied by the no: of pieces on the board.
+ * </p>
+ */
+public final class ZobristHash {
+
+    //Hash of the empty board.
+    public static final long EMPTY_HASH = 0L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private ZobristHash() {
+    }
+
+    /**
+     * @return the key of the piece of the player on the (row, column) cell, 0 for the {@link CellState#FREE} cells.
+     */
+    public static long getKey(int row, int column, @NonNull CellState cellState) {
+        if (cellState == CellState.FREE) {
+            return 0L;
+        }
+        long cell = ((long) row << 32) | (column & 0xFFFFFFFFL);
+        return mix(cell * 2 + (cellState == CellState.CROSS ? 1 : 2));
+    }
+
+    /**
+     * Computes the hash of the position from scratch, for the bounded boards.
+     */
+    public static long hash(@NonNull Board board) {
+        if (board.getSize() == Board.UNBOUNDED_SIZE) {
+            throw new IllegalArgumentException("Unbounded boards can only be hashed incrementally");
+        }
+        long hash = EMPTY_HASH;
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int column = 0; column < board.getSize(); column++) {
+                hash ^= getKey(row, column, board.getCellState(row, column));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, the keys of consecutive cells are statistically independent.
+     */
+    private static long mix(long value) {
+        long z = (value + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,181 @@
+package com.androidnerds.tictactoe.game.index;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+import com.androidnerds.tictactoe.game.board.ZobristHash;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Canonical hashing of the positions of a NxN board, so that the symmetric positions share a single hash.
+ * <p>
+ * The hash of a position under each of the {@link BoardSymmetry#SYMMETRY_COUNT} symmetries is the {@link ZobristHash}
+ * of the transformed position, maintained incrementally while the moves are played, and the canonical hash is the
+ * smallest of them. The symmetries are numbered as by the {@link BoardSymmetry} of the 4x4 board, and the hash of the
+ * identity is the hash of the {@link com.androidnerds.tictactoe.game.GameEngine}, so the positions are hashed straight
+ * from the cell indices {@code row * boardSize + column} of the engine, the logs & the masks of the boards of up to 64
+ * cells. A hasher is not thread-safe.
+ * </p>
+ */
+public final class PositionHasher {
+
+    //Largest no: of cells whose keys are precomputed, 512KB of keys, the keys of larger boards are mixed on each move.
+    static final int MAX_TABLE_CELLS = 64 * 64;
+
+    private static final int REVERSE_COLUMNS = 1;
+    private static final int REVERSE_ROWS = 2;
+    private static final int TRANSPOSE = 4;
+
+    private final int boardSize;
+    private final int cellCount;
+    //Keys of the pieces under each symmetry, indexed by {@code (cell * 2 + player) * SYMMETRY_COUNT + symmetry}.
+    private final long[] keys;
+    //Hash of the position under each symmetry.
+    private final long[] hashes = new long[BoardSymmetry.SYMMETRY_COUNT];
+    private int moveCount;
+
+    public PositionHasher(int boardSize) {
+        if (boardSize <= 0 || (long) boardSize * boardSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board size: " + boardSize);
+        }
+        this.boardSize = boardSize;
+        this.cellCount = boardSize * boardSize;
+        if (cellCount <= MAX_TABLE_CELLS) {
+            this.keys = new long[cellCount * 2 * BoardSymmetry.SYMMETRY_COUNT];
+            for (int cell = 0; cell < cellCount; cell++) {
+                for (int player = 0; player < 2; player++) {
+                    for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+                        keys[(cell * 2 + player) * BoardSymmetry.SYMMETRY_COUNT + symmetry] =
+                                computeKey(cell, player, symmetry);
+                    }
+                }
+            }
+        } else {
+            this.keys = null;
+        }
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Clears the position, to hash the moves of another game.
+     */
+    public void reset() {
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            hashes[symmetry] = ZobristHash.EMPTY_HASH;
+        }
+        moveCount = 0;
+    }
+
+    /**
+     * Places the piece of the player to move on the cell, Cross moves first. The cell is not checked to be free.
+     */
+    public void play(int cell) {
+        if (cell < 0 || cell >= cellCount) {
+            throw new IllegalArgumentException("Invalid cell: " + cell);
+        }
+        place(cell, moveCount & 1);
+        moveCount++;
+    }
+
+    /**
+     * @return the hash of the position as played, equal to the hash of the engine after the same moves.
+     */
+    public long getHash() {
+        return hashes[BoardSymmetry.IDENTITY];
+    }
+
+    /**
+     * @return the smallest hash of the symmetric positions.
+     */
+    public long getCanonicalHash() {
+        long hash = hashes[0];
+        for (int symmetry = 1; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            if (hashes[symmetry] < hash) {
+                hash = hashes[symmetry];
+            }
+        }
+        return hash;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @param moves     - cells of the moves, Cross moves first, eg. from
+     *                  {@link com.androidnerds.tictactoe.game.GameEngine#getMoves(int[])}.
+     * @param moveCount - no: of moves in the array.
+     * @return the canonical hash of the position after the moves.
+     */
+    public long hashMoves(@NonNull int[] moves, int moveCount) {
+        reset();
+        for (int index = 0; index < moveCount; index++) {
+            play(moves[index]);
+        }
+        return getCanonicalHash();
+    }
+
+    /**
+     * The masks are not checked to be a reachable position, ie. where Cross has as many pieces as Circle or one more.
+     *
+     * @param crossMask  - cells of Cross, bit {@code row * boardSize + column}, on a board of up to 64 cells.
+     * @param circleMask - cells of Circle.
+     * @return the canonical hash of the position.
+     */
+    public long hashMasks(long crossMask, long circleMask) {
+        if (cellCount > Long.SIZE) {
+            throw new IllegalStateException("Masks are not supported on the board of size: " + boardSize);
+        }
+        reset();
+        moveCount = Long.bitCount(crossMask) + Long.bitCount(circleMask);
+        for (; crossMask != 0; crossMask &= crossMask - 1) {
+            place(Long.numberOfTrailingZeros(crossMask), 0);
+        }
+        for (; circleMask != 0; circleMask &= circleMask - 1) {
+            place(Long.numberOfTrailingZeros(circleMask), 1);
+        }
+        return getCanonicalHash();
+    }
+
+    /**
+     * @return index of the cell after the symmetry is applied, for a cell index {@code row * boardSize + column}.
+     */
+    public int transformCell(int cell, int symmetry) {
+        int row = cell / boardSize;
+        int column = cell % boardSize;
+        if ((symmetry & TRANSPOSE) != 0) {
+            int swap = row;
+            row = column;
+            column = swap;
+        }
+        if ((symmetry & REVERSE_ROWS) != 0) {
+            row = boardSize - 1 - row;
+        }
+        if ((symmetry & REVERSE_COLUMNS) != 0) {
+            column = boardSize - 1 - column;
+        }
+        return row * boardSize + column;
+    }
+
+    private void place(int cell, int player) {
+        if (null != keys) {
+            int keyIndex = (cell * 2 + player) * BoardSymmetry.SYMMETRY_COUNT;
+            for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+                hashes[symmetry] ^= keys[keyIndex + symmetry];
+            }
+        } else {
+            for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+                hashes[symmetry] ^= computeKey(cell, player, symmetry);
+            }
+        }
+    }
+
+    private long computeKey(int cell, int player, int symmetry) {
+        int transformed = transformCell(cell, symmetry);
+        return ZobristHash.getKey(transformed / boardSize, transformed % boardSize,
+                player == 0 ? CellState.CROSS : CellState.CIRCLE);
+    }
+}
@@ -0,0 +1,350 @@
+package com.androidnerds.tictactoe.game.index;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Looks up the games which reached a position, in a position index of the {@link PositionIndexFormat}.
+ * <p>
+ * The keys & the postings files of every segment are memory-mapped in windows of 2^{@link #WINDOW_SHIFT} bytes, so
+ * indices larger than a single mapping are supported and a lookup reads the pages it touches only. The entry of a
+ * hash is found by an interpolation search, which takes a few probes instead of the ~30 of a binary search over a
+ * billion entries. A canonical hash is the smallest of 8 random hashes, so the hashes are mapped through the
+ * distribution of the minimum of 8 uniform values, which spreads them uniformly, before the interpolation. The posting
+ * lists are decoded straight from the mapped postings, the segments in the order of the game ids. A page starting deep
+ * in a list is decoded from the last skip before its first id, found by a binary search of the skip table of the list.
+ * </p>
+ * <p>
+ * The hashes are 64 bits, so a game of another position with the same hash may be returned, with a probability of
+ * about n / 2^64 for n distinct positions in the index. An index is safe for concurrent lookups, and sees the segments
+ * written before it was opened.
+ * </p>
+ */
+public final class PositionIndex implements Closeable {
+
+    //Largest no: of bytes mapped at a time, a power of 2 which is a multiple of the size of the entries.
+    static final int WINDOW_SHIFT = 30;
+
+    //Below this no: of entries the search is a linear scan.
+    private static final int SCAN_ENTRIES = 8;
+    //No: of interpolation probes after which the search bisects, for the ranges of skewed hashes.
+    private static final int MAX_INTERPOLATIONS = 8;
+
+    private final List<Segment> segments;
+    private final int boardSize;
+
+    private PositionIndex(@NonNull List<Segment> segments, int boardSize) {
+        this.segments = segments;
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * Opens the index in the directory.
+     *
+     * @throws IOException - if a segment can not be read, or the segments are of different board sizes.
+     */
+    @NonNull
+    public static PositionIndex open(@NonNull File directory) throws IOException {
+        return open(directory, WINDOW_SHIFT);
+    }
+
+    @NonNull
+    static PositionIndex open(@NonNull File directory, int windowShift) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        int boardSize = 0;
+        try {
+            for (PositionIndexFormat.SegmentFile segmentFile :
+                    PositionIndexFormat.listSegments(directory, new ArrayList<PositionIndexFormat.SegmentFile>())) {
+                if (boardSize != 0 && segmentFile.boardSize != boardSize) {
+                    throw new IOException("Index " + directory + " holds the board sizes " + boardSize + " and " +
+                            segmentFile.boardSize);
+                }
+                boardSize = segmentFile.boardSize;
+                segments.add(new Segment(segmentFile, windowShift));
+            }
+        } catch (IOException e) {
+            for (Segment segment : segments) {
+                segment.close();
+            }
+            throw e;
+        }
+        return new PositionIndex(segments, boardSize);
+    }
+
+    /**
+     * @return the board size of the games indexed, 0 if the index is empty.
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * @param canonicalHash - hash of the position, see {@link PositionHasher#getCanonicalHash()}.
+     * @return the no: of games which reached the position.
+     */
+    public long getGameCount(long canonicalHash) {
+        long count = 0;
+        for (Segment segment : segments) {
+            long entry = segment.findEntry(canonicalHash);
+            if (entry >= 0) {
+                count += segment.readCount(segment.getPostingsOffset(entry));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the games which reached the position, in the order of their ids. The games are returned a page at a time,
+     * the next page starting after the last id of the previous one.
+     *
+     * @param canonicalHash - hash of the position, see {@link PositionHasher#getCanonicalHash()}.
+     * @param fromGameId    - smallest id of the games to return.
+     * @param gameIds       - filled with the ids of the games, up to its length.
+     * @return the no: of ids filled.
+     */
+    public int findGames(long canonicalHash, long fromGameId, @NonNull long[] gameIds) {
+        int count = 0;
+        for (Segment segment : segments) {
+            if (count == gameIds.length) {
+                break;
+            }
+            if (segment.lastGameId < fromGameId) {
+                continue;
+            }
+            long entry = segment.findEntry(canonicalHash);
+            if (entry >= 0) {
+                count = segment.readGameIds(entry, fromGameId, gameIds, count);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Mapped files of a segment.
+     */
+    private static final class Segment {
+
+        private final RandomAccessFile keysFile;
+        private final RandomAccessFile postingsFile;
+        private final int windowShift;
+        private final long windowMask;
+        private final int entryShift;
+        private final long keyCount;
+        private final long lastGameId;
+        private final long postingsLength;
+        //Windows of the entries, from the end of the header, and of the postings.
+        private final MappedByteBuffer[] keyWindows;
+        private final MappedByteBuffer[] postingWindows;
+
+        Segment(@NonNull PositionIndexFormat.SegmentFile segmentFile, int windowShift) throws IOException {
+            this.keysFile = new RandomAccessFile(segmentFile.keysFile, "r");
+            RandomAccessFile postings = null;
+            try {
+                postings = new RandomAccessFile(segmentFile.postingsFile, "r");
+                this.windowShift = windowShift;
+                this.windowMask = (1L << windowShift) - 1;
+                this.entryShift = Integer.numberOfTrailingZeros(PositionIndexFormat.ENTRY_BYTES);
+                this.keyCount = segmentFile.keyCount;
+                this.lastGameId = segmentFile.lastGameId;
+                this.keyWindows = map(keysFile.getChannel(), PositionIndexFormat.KEYS_HEADER_BYTES,
+                        keyCount << entryShift, windowShift);
+                this.postingsLength = postings.length();
+                this.postingWindows = map(postings.getChannel(), 0, postingsLength, windowShift);
+            } catch (IOException e) {
+                keysFile.close();
+                if (null != postings) {
+                    postings.close();
+                }
+                throw e;
+            }
+            this.postingsFile = postings;
+        }
+
+        /**
+         * @return the index of the entry of the hash, -1 if the hash is not in the segment.
+         */
+        long findEntry(long hash) {
+            long low = 0;
+            long high = keyCount - 1;
+            if (high < 0) {
+                return -1;
+            }
+            long lowHash = getHash(low);
+            long highHash = getHash(high);
+            if (hash <= lowHash || hash >= highHash) {
+                return hash == lowHash ? low : hash == highHash ? high : -1;
+            }
+            //The hash is strictly between the hashes at the bounds.
+            for (int probes = 0; high - low > SCAN_ENTRIES; probes++) {
+                long probe;
+                if (probes < MAX_INTERPOLATIONS) {
+                    //Guesses the entry from the position of the hash between the hashes at the bounds.
+                    double fraction = (toUniform(hash) - toUniform(lowHash)) / (toUniform(highHash) - toUniform(lowHash));
+                    probe = low + 1 + (long) (fraction * (high - low - 1));
+                    probe = Math.min(high - 1, Math.max(low + 1, probe));
+                } else {
+                    probe = (low + high) >>> 1;
+                }
+                long probeHash = getHash(probe);
+                if (probeHash == hash) {
+                    return probe;
+                } else if (probeHash < hash) {
+                    low = probe;
+                    lowHash = probeHash;
+                } else {
+                    high = probe;
+                    highHash = probeHash;
+                }
+            }
+            for (long entry = low + 1; entry < high; entry++) {
+                long entryHash = getHash(entry);
+                if (entryHash >= hash) {
+                    return entryHash == hash ? entry : -1;
+                }
+            }
+            return -1;
+        }
+
+        long getPostingsOffset(long entry) {
+            long position = entry << entryShift;
+            return keyWindows[(int) (position >>> windowShift)].getLong((int) (position & windowMask) + 8);
+        }
+
+        long readCount(long offset) {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = getPostingByte(offset++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        /**
+         * Decodes the ids of the posting list of the entry, from the id, into the array from the index.
+         *
+         * @return the index after the last id filled.
+         */
+        int readGameIds(long entry, long fromGameId, @NonNull long[] gameIds, int index) {
+            long offset = getPostingsOffset(entry);
+            long count = readCount(offset);
+            //Skips the bytes of the count, the last one has the high bit clear.
+            while (getPostingByte(offset++) < 0) {
+            }
+            long gameId = 0;
+            long posting = 0;
+            long skipCount = count > 0 ? (count - 1) / PositionIndexFormat.SKIP_INTERVAL : 0;
+            if (skipCount > 0) {
+                //The skip table ends where the list of the next entry starts.
+                long skipsOffset = (entry + 1 < keyCount ? getPostingsOffset(entry + 1) : postingsLength) -
+                        skipCount * PositionIndexFormat.SKIP_BYTES;
+                //Last skip to an id before the id looked up.
+                long low = 0;
+                long high = skipCount;
+                while (low < high) {
+                    long middle = (low + high) >>> 1;
+                    if (readLong(skipsOffset + middle * PositionIndexFormat.SKIP_BYTES) < fromGameId) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                if (low > 0) {
+                    long skipOffset = skipsOffset + (low - 1) * PositionIndexFormat.SKIP_BYTES;
+                    gameId = readLong(skipOffset);
+                    offset = readLong(skipOffset + 8);
+                    posting = low * PositionIndexFormat.SKIP_INTERVAL;
+                }
+            }
+            for (; posting < count && index < gameIds.length; posting++) {
+                long delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    int b = getPostingByte(offset++);
+                    delta |= (long) (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                gameId += delta;
+                if (gameId >= fromGameId) {
+                    gameIds[index++] = gameId;
+                }
+            }
+            return index;
+        }
+
+        void close() throws IOException {
+            try {
+                keysFile.close();
+            } finally {
+                if (null != postingsFile) {
+                    postingsFile.close();
+                }
+            }
+        }
+
+        private long getHash(long entry) {
+            long position = entry << entryShift;
+            return keyWindows[(int) (position >>> windowShift)].getLong((int) (position & windowMask));
+        }
+
+        /**
+         * @return the fraction of the canonical hashes smaller than the hash, 1 - (1 - u)^8 for the position u of the
+         * hash in the range of the longs.
+         */
+        private static double toUniform(long hash) {
+            double complement = 1 - ((hash ^ Long.MIN_VALUE) >>> 11) * 0x1p-53;
+            complement *= complement;
+            complement *= complement;
+            return 1 - complement * complement;
+        }
+
+        private byte getPostingByte(long offset) {
+            return postingWindows[(int) (offset >>> windowShift)].get((int) (offset & windowMask));
+        }
+
+        /**
+         * @return the big-endian long at the offset of the postings, read a byte at a time as it may span 2 windows.
+         */
+        private long readLong(long offset) {
+            long value = 0;
+            for (int index = 0; index < 8; index++) {
+                value = value << 8 | (getPostingByte(offset + index) & 0xFF);
+            }
+            return value;
+        }
+
+        @NonNull
+        private static MappedByteBuffer[] map(@NonNull FileChannel channel, long start, long length, int windowShift)
+                throws IOException {
+            long windowBytes = 1L << windowShift;
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((length + windowBytes - 1) >>> windowShift)];
+            for (int index = 0; index < windows.length; index++) {
+                long windowStart = (long) index << windowShift;
+                windows[index] = channel.map(FileChannel.MapMode.READ_ONLY, start + windowStart,
+                        Math.min(windowBytes, length - windowStart));
+            }
+            return windows;
+        }
+    }
+}
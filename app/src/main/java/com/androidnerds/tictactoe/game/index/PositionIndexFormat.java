@@ -0,0 +1,150 @@
+package com.androidnerds.tictactoe.game.index;
+
+import androidx.annotation.NonNull;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * On-disk format of the position index, written by the {@link PositionIndexWriter} and looked up by the
+ * {@link PositionIndex}.
+ * <p>
+ * An index is a directory of immutable segments, numbered in the order they are written. A segment holds the postings
+ * of a range of game ids in 2 files:
+ * <pre>
+ * segment-N.keys     - header of {@link #KEYS_HEADER_BYTES}: magic (int), version (int), board size (int),
+ *                      0 (int), key count (long), first game id (long), last game id (long), followed by an entry
+ *                      of {@link #ENTRY_BYTES} per position, its canonical hash (long) & the offset of its posting
+ *                      list in the postings file (long), sorted by hash.
+ * segment-N.postings - posting list of each position, in the order of the entries: the no: of games (varlong),
+ *                      the ids of the games in increasing order, each as the difference with the previous id
+ *                      (varlong), the first one with 0, followed by a skip table of {@link #SKIP_BYTES} per
+ *                      {@link #SKIP_INTERVAL} ids, {@code (count - 1) / SKIP_INTERVAL} skips in all: the skip k, from 1,
+ *                      holds the id {@code k * SKIP_INTERVAL - 1}, from 0, (long) & the offset in the postings file of
+ *                      the id after it (long).
+ * </pre>
+ * The varints are unsigned LEB128 as in the {@link com.androidnerds.tictactoe.game.log.GameLogFormat}, the other
+ * values are big-endian. The skip table ends where the next posting list starts, or at the end of the file, so the
+ * lists are written in a single pass, and a page of ids deep in a long list is found by a binary search of the skips
+ * and the decoding of at most {@link #SKIP_INTERVAL} ids. The keys file of a segment is renamed into place after its
+ * postings file, so a segment is visible once complete. A segment merged from others covers their range of game ids,
+ * so the segments it replaces are ignored even if they are not deleted yet.
+ * </p>
+ */
+public final class PositionIndexFormat {
+
+    public static final int MAGIC = 0x54545049;
+    public static final int VERSION = 2;
+    public static final int KEYS_HEADER_BYTES = 40;
+    public static final int ENTRY_BYTES = 16;
+    public static final int SKIP_INTERVAL = 128;
+    public static final int SKIP_BYTES = 16;
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String KEYS_SUFFIX = ".keys";
+    static final String POSTINGS_SUFFIX = ".postings";
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private PositionIndexFormat() {
+    }
+
+    /**
+     * Files & header of a segment.
+     */
+    static final class SegmentFile {
+
+        final int number;
+        final File keysFile;
+        final File postingsFile;
+        final int boardSize;
+        final long keyCount;
+        final long firstGameId;
+        final long lastGameId;
+
+        SegmentFile(int number, @NonNull File keysFile, @NonNull File postingsFile, int boardSize, long keyCount,
+                    long firstGameId, long lastGameId) {
+            this.number = number;
+            this.keysFile = keysFile;
+            this.postingsFile = postingsFile;
+            this.boardSize = boardSize;
+            this.keyCount = keyCount;
+            this.firstGameId = firstGameId;
+            this.lastGameId = lastGameId;
+        }
+    }
+
+    @NonNull
+    static File getKeysFile(@NonNull File directory, int number) {
+        return new File(directory, SEGMENT_PREFIX + number + KEYS_SUFFIX);
+    }
+
+    @NonNull
+    static File getPostingsFile(@NonNull File directory, int number) {
+        return new File(directory, SEGMENT_PREFIX + number + POSTINGS_SUFFIX);
+    }
+
+    /**
+     * Lists the complete segments of the index in the order of their numbers, but for the segments replaced by a
+     * merged segment.
+     *
+     * @param superseded - filled with the segments replaced by a merged segment, which can be deleted.
+     */
+    @NonNull
+    static List<SegmentFile> listSegments(@NonNull File directory, @NonNull List<SegmentFile> superseded)
+            throws IOException {
+        List<SegmentFile> segments = new ArrayList<>();
+        String[] names = directory.list();
+        if (null == names) {
+            throw new IOException("Can not list the index directory " + directory);
+        }
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(KEYS_SUFFIX)) {
+                int number;
+                try {
+                    number = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - KEYS_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                segments.add(readSegment(directory, number));
+            }
+        }
+        Collections.sort(segments, (first, second) -> Integer.compare(first.number, second.number));
+        //A segment is replaced by a later segment which starts at or before its first game.
+        List<SegmentFile> live = new ArrayList<>(segments.size());
+        for (int index = segments.size() - 1; index >= 0; index--) {
+            SegmentFile segment = segments.get(index);
+            if (!live.isEmpty() && live.get(live.size() - 1).firstGameId <= segment.firstGameId) {
+                superseded.add(segment);
+            } else {
+                live.add(segment);
+            }
+        }
+        Collections.reverse(live);
+        return live;
+    }
+
+    @NonNull
+    private static SegmentFile readSegment(@NonNull File directory, int number) throws IOException {
+        File keysFile = getKeysFile(directory, number);
+        try (DataInputStream input = new DataInputStream(new FileInputStream(keysFile))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Invalid header of the index segment " + keysFile);
+            }
+            int boardSize = input.readInt();
+            input.readInt();
+            long keyCount = input.readLong();
+            long firstGameId = input.readLong();
+            long lastGameId = input.readLong();
+            if (keysFile.length() != KEYS_HEADER_BYTES + keyCount * ENTRY_BYTES) {
+                throw new IOException("Invalid length of the index segment " + keysFile);
+            }
+            return new SegmentFile(number, keysFile, getPostingsFile(directory, number), boardSize, keyCount,
+                    firstGameId, lastGameId);
+        }
+    }
+}
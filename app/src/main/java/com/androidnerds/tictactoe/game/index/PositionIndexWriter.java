@@ -0,0 +1,522 @@
+package com.androidnerds.tictactoe.game.index;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the position index of the games of a board size incrementally, as the games are appended to the archive.
+ * <p>
+ * The canonical hash of every position reached by a game, from its first move to its last, is hashed by a
+ * {@link PositionHasher} and the id of the game is added to the posting list of the hash, in an open-addressing table
+ * of the hashes & a pool of the postings chained per hash, held in primitive arrays. When the pool holds the
+ * maximum no: of postings, or on {@link #flush()}, the table is written as a new segment of the
+ * {@link PositionIndexFormat}, sorted by hash, so the memory of the writer is bounded however many games are indexed.
+ * {@link #compact()} merges the segments into one, to keep the lookups to a single search. The ids of the games must
+ * increase from a game to the next, across the writers of the index. A writer is not thread-safe and an index is
+ * written by a single writer at a time.
+ * </p>
+ */
+public final class PositionIndexWriter implements Closeable {
+
+    //No: of postings held before a segment is written, ~16 bytes each.
+    static final int DEFAULT_MAX_POSTINGS = 4 * 1024 * 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_POSTING = -1;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final File directory;
+    private final PositionHasher hasher;
+    private final int maxPostings;
+    //Open-addressing table of the hashes, with the first & last posting of each hash, NO_POSTING for a free slot.
+    private long[] tableHashes = new long[INITIAL_CAPACITY];
+    private int[] firstPostings = new int[INITIAL_CAPACITY];
+    private int[] lastPostings = new int[INITIAL_CAPACITY];
+    private int[] postingCounts = new int[INITIAL_CAPACITY];
+    private int keyCount;
+    //Pool of the postings, the id of the game & the next posting of the same hash.
+    private long[] postingIds = new long[INITIAL_CAPACITY];
+    private int[] nextPostings = new int[INITIAL_CAPACITY];
+    private int postingCount;
+    //Id of the first game held, and of the last game indexed.
+    private long firstGameId = -1;
+    private long lastGameId = -1;
+    private int nextSegment;
+
+    /**
+     * Opens the index in the directory for appending, the directory is created if needed.
+     *
+     * @throws IOException - if the index can not be read or is of another board size.
+     */
+    public PositionIndexWriter(@NonNull File directory, int boardSize) throws IOException {
+        this(directory, boardSize, DEFAULT_MAX_POSTINGS);
+    }
+
+    PositionIndexWriter(@NonNull File directory, int boardSize, int maxPostings) throws IOException {
+        if (maxPostings <= 0) {
+            throw new IllegalArgumentException("Invalid max postings: " + maxPostings);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create the index directory " + directory);
+        }
+        this.directory = directory;
+        this.hasher = new PositionHasher(boardSize);
+        this.maxPostings = maxPostings;
+        Arrays.fill(firstPostings, NO_POSTING);
+        List<PositionIndexFormat.SegmentFile> superseded = new ArrayList<>();
+        for (PositionIndexFormat.SegmentFile segment : PositionIndexFormat.listSegments(directory, superseded)) {
+            if (segment.boardSize != boardSize) {
+                throw new IOException("Index " + directory + " is of the board size " + segment.boardSize);
+            }
+            lastGameId = Math.max(lastGameId, segment.lastGameId);
+            nextSegment = Math.max(nextSegment, segment.number + 1);
+        }
+        for (PositionIndexFormat.SegmentFile segment : superseded) {
+            nextSegment = Math.max(nextSegment, segment.number + 1);
+        }
+        //Completes a compaction interrupted before the replaced segments were deleted.
+        delete(superseded);
+    }
+
+    public int getBoardSize() {
+        return hasher.getBoardSize();
+    }
+
+    /**
+     * @return the id of the last game indexed, -1 if there is none.
+     */
+    public long getLastGameId() {
+        return lastGameId;
+    }
+
+    /**
+     * Indexes the positions reached by the moves of a game.
+     *
+     * @param gameId    - id of the game, eg. its ordinal in the archive, larger than the id of the last game.
+     * @param moves     - cells of the moves ({@code row * boardSize + column}), Cross moves first.
+     * @param moveCount - no: of moves in the array.
+     */
+    public void addGame(long gameId, @NonNull int[] moves, int moveCount) throws IOException {
+        if (gameId <= lastGameId) {
+            throw new IllegalArgumentException("Game id " + gameId + " is not larger than the last id " + lastGameId);
+        }
+        if (postingCount > 0 && postingCount + moveCount > maxPostings) {
+            flush();
+        }
+        if (postingCount == 0) {
+            firstGameId = gameId;
+        }
+        hasher.reset();
+        for (int index = 0; index < moveCount; index++) {
+            hasher.play(moves[index]);
+            addPosting(hasher.getCanonicalHash(), gameId);
+        }
+        lastGameId = gameId;
+    }
+
+    /**
+     * Writes the postings held as a new segment.
+     */
+    public void flush() throws IOException {
+        if (postingCount == 0) {
+            return;
+        }
+        long[] hashes = new long[keyCount];
+        int count = 0;
+        for (int slot = 0; slot < tableHashes.length; slot++) {
+            if (firstPostings[slot] != NO_POSTING) {
+                hashes[count++] = tableHashes[slot];
+            }
+        }
+        Arrays.sort(hashes);
+        int number = nextSegment++;
+        File postingsFile = PositionIndexFormat.getPostingsFile(directory, number);
+        File keysFile = PositionIndexFormat.getKeysFile(directory, number);
+        File postingsTemp = new File(postingsFile.getPath() + PositionIndexFormat.TEMP_SUFFIX);
+        File keysTemp = new File(keysFile.getPath() + PositionIndexFormat.TEMP_SUFFIX);
+        try (SegmentOutput output = new SegmentOutput(keysTemp, postingsTemp)) {
+            output.writeHeader(getBoardSize(), keyCount, firstGameId, lastGameId);
+            for (long hash : hashes) {
+                int slot = findSlot(hash);
+                output.startPostings(hash, postingCounts[slot]);
+                for (int posting = firstPostings[slot]; posting != NO_POSTING; posting = nextPostings[posting]) {
+                    output.writeGameId(postingIds[posting]);
+                }
+                output.endPostings();
+            }
+        }
+        rename(postingsTemp, postingsFile);
+        rename(keysTemp, keysFile);
+        clear();
+    }
+
+    /**
+     * Flushes the postings held and merges all the segments of the index into one, whose posting lists are the
+     * concatenation of the lists of the segments. The index should not be open for lookups while it is compacted.
+     */
+    public void compact() throws IOException {
+        flush();
+        List<PositionIndexFormat.SegmentFile> segments =
+                PositionIndexFormat.listSegments(directory, new ArrayList<PositionIndexFormat.SegmentFile>());
+        if (segments.size() <= 1) {
+            return;
+        }
+        int number = nextSegment++;
+        File postingsFile = PositionIndexFormat.getPostingsFile(directory, number);
+        File keysFile = PositionIndexFormat.getKeysFile(directory, number);
+        File postingsTemp = new File(postingsFile.getPath() + PositionIndexFormat.TEMP_SUFFIX);
+        File keysTemp = new File(keysFile.getPath() + PositionIndexFormat.TEMP_SUFFIX);
+        SegmentInput[] inputs = new SegmentInput[segments.size()];
+        try {
+            long mergedKeyCount = 0;
+            for (int index = 0; index < inputs.length; index++) {
+                inputs[index] = new SegmentInput(segments.get(index));
+                mergedKeyCount += segments.get(index).keyCount;
+            }
+            try (SegmentOutput output = new SegmentOutput(keysTemp, postingsTemp)) {
+                //The no: of distinct hashes is known after the merge only, the header is rewritten at the end.
+                output.writeHeader(getBoardSize(), mergedKeyCount, segments.get(0).firstGameId,
+                        segments.get(segments.size() - 1).lastGameId);
+                merge(inputs, output);
+            }
+            rewriteKeyCount(keysTemp);
+        } finally {
+            for (SegmentInput input : inputs) {
+                if (null != input) {
+                    input.close();
+                }
+            }
+        }
+        rename(postingsTemp, postingsFile);
+        rename(keysTemp, keysFile);
+        delete(segments);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void addPosting(long hash, long gameId) {
+        if (postingCount == postingIds.length) {
+            postingIds = Arrays.copyOf(postingIds, 2 * postingCount);
+            nextPostings = Arrays.copyOf(nextPostings, 2 * postingCount);
+        }
+        int posting = postingCount++;
+        postingIds[posting] = gameId;
+        nextPostings[posting] = NO_POSTING;
+        int slot = findSlot(hash);
+        if (firstPostings[slot] == NO_POSTING) {
+            tableHashes[slot] = hash;
+            firstPostings[slot] = posting;
+            postingCounts[slot] = 1;
+            lastPostings[slot] = posting;
+            if (++keyCount * 2 > tableHashes.length) {
+                growTable();
+            }
+            return;
+        }
+        //A game reaches a position once, as the no: of pieces grows with every move.
+        nextPostings[lastPostings[slot]] = posting;
+        lastPostings[slot] = posting;
+        postingCounts[slot]++;
+    }
+
+    /**
+     * @return the slot of the hash, or the free slot where it is to be added.
+     */
+    private int findSlot(long hash) {
+        int mask = tableHashes.length - 1;
+        int slot = (int) mix(hash) & mask;
+        while (firstPostings[slot] != NO_POSTING && tableHashes[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growTable() {
+        long[] oldHashes = tableHashes;
+        int[] oldFirsts = firstPostings;
+        int[] oldLasts = lastPostings;
+        int[] oldCounts = postingCounts;
+        tableHashes = new long[2 * oldHashes.length];
+        firstPostings = new int[tableHashes.length];
+        lastPostings = new int[tableHashes.length];
+        postingCounts = new int[tableHashes.length];
+        Arrays.fill(firstPostings, NO_POSTING);
+        for (int slot = 0; slot < oldHashes.length; slot++) {
+            if (oldFirsts[slot] != NO_POSTING) {
+                int newSlot = findSlot(oldHashes[slot]);
+                tableHashes[newSlot] = oldHashes[slot];
+                firstPostings[newSlot] = oldFirsts[slot];
+                lastPostings[newSlot] = oldLasts[slot];
+                postingCounts[newSlot] = oldCounts[slot];
+            }
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(firstPostings, NO_POSTING);
+        keyCount = 0;
+        postingCount = 0;
+        firstGameId = -1;
+    }
+
+    /**
+     * Merges the segments, the hashes in order and the posting lists of a hash in the order of the segments, so the ids
+     * stay in increasing order.
+     */
+    private static void merge(@NonNull SegmentInput[] inputs, @NonNull SegmentOutput output) throws IOException {
+        for (SegmentInput input : inputs) {
+            input.nextKey();
+        }
+        while (true) {
+            long hash = Long.MAX_VALUE;
+            boolean found = false;
+            for (SegmentInput input : inputs) {
+                if (input.hasKey && (!found || input.hash < hash)) {
+                    hash = input.hash;
+                    found = true;
+                }
+            }
+            if (!found) {
+                return;
+            }
+            long count = 0;
+            for (SegmentInput input : inputs) {
+                if (input.hasKey && input.hash == hash) {
+                    count += input.readPostingCount();
+                }
+            }
+            output.startPostings(hash, count);
+            for (SegmentInput input : inputs) {
+                if (input.hasKey && input.hash == hash) {
+                    input.copyGameIds(output);
+                    input.nextKey();
+                }
+            }
+            output.endPostings();
+        }
+    }
+
+    private static void rewriteKeyCount(@NonNull File keysFile) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(keysFile, "rw")) {
+            file.seek(16);
+            file.writeLong((file.length() - PositionIndexFormat.KEYS_HEADER_BYTES) / PositionIndexFormat.ENTRY_BYTES);
+        }
+    }
+
+    private static void rename(@NonNull File from, @NonNull File to) throws IOException {
+        if (!from.renameTo(to)) {
+            throw new IOException("Can not rename " + from + " to " + to);
+        }
+    }
+
+    /**
+     * Deletes the segments, the keys file first so that a segment is never seen without its postings.
+     */
+    private static void delete(@NonNull List<PositionIndexFormat.SegmentFile> segments) throws IOException {
+        for (PositionIndexFormat.SegmentFile segment : segments) {
+            if ((segment.keysFile.exists() && !segment.keysFile.delete()) ||
+                    (segment.postingsFile.exists() && !segment.postingsFile.delete())) {
+                throw new IOException("Can not delete the index segment " + segment.keysFile);
+            }
+        }
+    }
+
+    /**
+     * Murmur3 finalizer, the canonical hashes are the smallest of 8 hashes, so they are not uniform.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Writes the keys & the postings files of a segment.
+     */
+    private static final class SegmentOutput implements Closeable {
+
+        private final DataOutputStream keys;
+        private final OutputStream postings;
+        private long postingsOffset;
+        private long lastId;
+        //No: of ids written in the current list, and its skips, an id & the offset of the id after it.
+        private long idCount;
+        private long[] skipIds = new long[16];
+        private long[] skipOffsets = new long[16];
+        private int skipCount;
+
+        SegmentOutput(@NonNull File keysFile, @NonNull File postingsFile) throws IOException {
+            this.keys = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(keysFile), BUFFER_BYTES));
+            this.postings = new BufferedOutputStream(new FileOutputStream(postingsFile), BUFFER_BYTES);
+        }
+
+        void writeHeader(int boardSize, long keyCount, long firstGameId, long lastGameId) throws IOException {
+            keys.writeInt(PositionIndexFormat.MAGIC);
+            keys.writeInt(PositionIndexFormat.VERSION);
+            keys.writeInt(boardSize);
+            keys.writeInt(0);
+            keys.writeLong(keyCount);
+            keys.writeLong(firstGameId);
+            keys.writeLong(lastGameId);
+        }
+
+        void startPostings(long hash, long count) throws IOException {
+            keys.writeLong(hash);
+            keys.writeLong(postingsOffset);
+            writeVarlong(count);
+            lastId = 0;
+            idCount = 0;
+            skipCount = 0;
+        }
+
+        void writeGameId(long gameId) throws IOException {
+            if (idCount > 0 && idCount % PositionIndexFormat.SKIP_INTERVAL == 0) {
+                if (skipCount == skipIds.length) {
+                    skipIds = Arrays.copyOf(skipIds, 2 * skipCount);
+                    skipOffsets = Arrays.copyOf(skipOffsets, 2 * skipCount);
+                }
+                skipIds[skipCount] = lastId;
+                skipOffsets[skipCount++] = postingsOffset;
+            }
+            writeVarlong(gameId - lastId);
+            lastId = gameId;
+            idCount++;
+        }
+
+        /**
+         * Writes the skip table of the current list, after its ids.
+         */
+        void endPostings() throws IOException {
+            for (int skip = 0; skip < skipCount; skip++) {
+                writeLong(skipIds[skip]);
+                writeLong(skipOffsets[skip]);
+            }
+        }
+
+        private void writeLong(long value) throws IOException {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                postings.write((int) (value >>> shift));
+            }
+            postingsOffset += 8;
+        }
+
+        private void writeVarlong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                postings.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+                postingsOffset++;
+            }
+            postings.write((int) value);
+            postingsOffset++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                keys.close();
+            } finally {
+                postings.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the keys & the postings files of a segment sequentially, the posting lists being in the order of the keys.
+     */
+    private static final class SegmentInput implements Closeable {
+
+        private final DataInputStream keys;
+        private final InputStream postings;
+        private final long keyCount;
+        private long keysRead;
+        private boolean hasKey;
+        private long hash;
+        private long postingCount;
+
+        SegmentInput(@NonNull PositionIndexFormat.SegmentFile segment) throws IOException {
+            this.keys = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.keysFile), BUFFER_BYTES));
+            this.postings = new BufferedInputStream(new FileInputStream(segment.postingsFile), BUFFER_BYTES);
+            this.keyCount = segment.keyCount;
+            if (keys.skip(PositionIndexFormat.KEYS_HEADER_BYTES) != PositionIndexFormat.KEYS_HEADER_BYTES) {
+                close();
+                throw new IOException("Truncated index segment " + segment.keysFile);
+            }
+        }
+
+        void nextKey() throws IOException {
+            hasKey = keysRead < keyCount;
+            if (hasKey) {
+                hash = keys.readLong();
+                keys.readLong();
+                keysRead++;
+            }
+        }
+
+        long readPostingCount() throws IOException {
+            postingCount = readVarlong();
+            return postingCount;
+        }
+
+        void copyGameIds(@NonNull SegmentOutput output) throws IOException {
+            long gameId = 0;
+            for (long index = 0; index < postingCount; index++) {
+                gameId += readVarlong();
+                output.writeGameId(gameId);
+            }
+            //The skips of the list are rewritten by the output, at the offsets of the merged list.
+            long skipBytes = postingCount > 0 ?
+                    (postingCount - 1) / PositionIndexFormat.SKIP_INTERVAL * PositionIndexFormat.SKIP_BYTES : 0;
+            while (skipBytes > 0) {
+                long skipped = postings.skip(skipBytes);
+                if (skipped <= 0) {
+                    throw new EOFException("Truncated skip table");
+                }
+                skipBytes -= skipped;
+            }
+        }
+
+        private long readVarlong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = postings.read();
+                if (b < 0) {
+                    throw new EOFException("Truncated posting list");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Invalid varlong in a posting list");
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                keys.close();
+            } finally {
+                postings.close();
+            }
+        }
+    }
+}
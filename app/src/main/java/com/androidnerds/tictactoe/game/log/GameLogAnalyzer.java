@@ -0,0 +1,263 @@
+package com.androidnerds.tictactoe.game.log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates the games of a rule set and a board size, in game logs of the {@link GameLogFormat}, into a
+ * {@link GameLogReport}, on a {@link ForkJoinPool}.
+ * <p>
+ * The logs are split into chunks of about {@link #CHUNK_BYTES} at the block boundaries, found by reading the headers
+ * of the blocks only. The chunks are analyzed by a fork/join task which halves its range of chunks until a single chunk
+ * is left, a leaf maps its chunk, replays the records with its own {@link GameRecordDecoder} & {@link GameValidator}
+ * into its own report, and the reports are merged up the tree of tasks. So the memory of a worker does not depend on
+ * the size of the logs, only a chunk of a log is mapped by a worker at a time, and the logs can be larger than the
+ * memory.
+ * </p>
+ */
+public final class GameLogAnalyzer {
+
+    //No: of bytes of the logs analyzed by a leaf task, but for the last chunk of a log & the blocks larger than a chunk.
+    static final long CHUNK_BYTES = 64L * 1024 * 1024;
+
+    private final int ruleMask;
+    private final int boardSize;
+    private final long chunkBytes;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param ruleMask    - rules of the games to analyze, see {@link GameLogFormat#getRuleMask}.
+     * @param boardSize   - board size of the games to analyze.
+     * @param parallelism - no: of worker threads.
+     */
+    public GameLogAnalyzer(int ruleMask, int boardSize, int parallelism) {
+        this(ruleMask, boardSize, parallelism, CHUNK_BYTES);
+    }
+
+    GameLogAnalyzer(int ruleMask, int boardSize, int parallelism, long chunkBytes) {
+        if (!GameLogFormat.isValid(ruleMask, boardSize)) {
+            throw new IllegalArgumentException("Invalid rules: " + ruleMask + " or board size: " + boardSize);
+        }
+        if (parallelism <= 0 || chunkBytes <= 0) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism + " or chunk size: " + chunkBytes);
+        }
+        this.ruleMask = ruleMask;
+        this.boardSize = boardSize;
+        this.chunkBytes = chunkBytes;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Analyzes all the games of the logs and waits for the analysis to complete.
+     *
+     * @return the merged statistics of the games of the rules & the board size.
+     * @throws IOException - if a log can not be read, is not a game log or holds an invalid block.
+     */
+    @NonNull
+    public GameLogReport analyze(@NonNull File... files) throws IOException {
+        List<RandomAccessFile> openFiles = new ArrayList<>(files.length);
+        try {
+            GameLogReport report = new GameLogReport(ruleMask, boardSize);
+            List<Chunk> chunks = new ArrayList<>();
+            for (File file : files) {
+                RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                openFiles.add(randomAccessFile);
+                if (!addChunks(file, randomAccessFile.getChannel(), chunks)) {
+                    report.addTruncated();
+                }
+            }
+            if (!chunks.isEmpty()) {
+                report.merge(pool.invoke(new AnalysisTask(chunks, 0, chunks.size())));
+            }
+            return report;
+        } catch (ChunkException e) {
+            throw e.getCause();
+        } finally {
+            for (RandomAccessFile randomAccessFile : openFiles) {
+                randomAccessFile.close();
+            }
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Splits the log into chunks of whole blocks, by reading the header of the log & of each block.
+     *
+     * @return FALSE - if the last block of the log is truncated.
+     */
+    private boolean addChunks(@NonNull File file, @NonNull FileChannel channel, @NonNull List<Chunk> chunks)
+            throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(GameLogFormat.HEADER_BYTES);
+        if (size < GameLogFormat.HEADER_BYTES || !read(channel, header, 0) ||
+                header.getInt(0) != GameLogFormat.MAGIC || header.getInt(4) != GameLogFormat.VERSION) {
+            throw new IOException("Invalid header of the game log " + file);
+        }
+        long position = GameLogFormat.HEADER_BYTES;
+        long chunkStart = position;
+        boolean complete = true;
+        while (position < size) {
+            if (!read(channel, header, position)) {
+                complete = false;
+                break;
+            }
+            int payloadBytes = header.getInt(0);
+            if (payloadBytes < 0 || header.getInt(4) < 0) {
+                throw new IOException("Invalid block at " + position + " of the game log " + file);
+            }
+            long blockEnd = position + GameLogFormat.BLOCK_HEADER_BYTES + payloadBytes;
+            if (blockEnd > size) {
+                complete = false;
+                break;
+            }
+            position = blockEnd;
+            if (position - chunkStart >= chunkBytes) {
+                chunks.add(new Chunk(channel, chunkStart, position));
+                chunkStart = position;
+            }
+        }
+        if (position > chunkStart) {
+            chunks.add(new Chunk(channel, chunkStart, position));
+        }
+        return complete;
+    }
+
+    /**
+     * Reads the buffer from the position of the channel.
+     *
+     * @return FALSE - if the channel ends before the buffer is full.
+     */
+    private static boolean read(@NonNull FileChannel channel, @NonNull ByteBuffer buffer, long position)
+            throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position + buffer.position());
+            if (count < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Range of whole blocks of a log.
+     */
+    private static final class Chunk {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        Chunk(@NonNull FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Carries the IOException of a chunk out of the tasks, which can not throw it. Used in place of
+     * {@code java.io.UncheckedIOException}, which needs API 24. Its constructor is private, so the pool rethrows it as
+     * is instead of a copy.
+     */
+    private static final class ChunkException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private ChunkException(@NonNull IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    /**
+     * Analyzes a range of the chunks, by halving it down to a single chunk.
+     */
+    private final class AnalysisTask extends RecursiveTask<GameLogReport> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        AnalysisTask(@NonNull List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GameLogReport compute() {
+            if (to - from == 1) {
+                try {
+                    return analyzeChunk(chunks.get(from));
+                } catch (IOException e) {
+                    throw new ChunkException(e);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            AnalysisTask right = new AnalysisTask(chunks, middle, to);
+            right.fork();
+            GameLogReport report = new AnalysisTask(chunks, from, middle).compute();
+            report.merge(right.join());
+            return report;
+        }
+
+        @NonNull
+        private GameLogReport analyzeChunk(@NonNull Chunk chunk) throws IOException {
+            GameLogReport report = new GameLogReport(ruleMask, boardSize);
+            GameValidator validator = new GameValidator(ruleMask, boardSize);
+            GameRecordDecoder decoder = new GameRecordDecoder();
+            MappedByteBuffer buffer = chunk.channel.map(FileChannel.MapMode.READ_ONLY, chunk.start,
+                    chunk.end - chunk.start);
+            int blockStart = 0;
+            while (blockStart < buffer.limit()) {
+                int blockEnd = blockStart + GameLogFormat.BLOCK_HEADER_BYTES + buffer.getInt(blockStart);
+                int gameCount = buffer.getInt(blockStart + 4);
+                int offset = blockStart + GameLogFormat.BLOCK_HEADER_BYTES;
+                int count = 0;
+                while (offset < blockEnd) {
+                    offset = decoder.decode(buffer, chunk.start, offset, blockEnd);
+                    count++;
+                    if (!validator.matches(decoder.ruleMask, decoder.boardSize)) {
+                        report.addSkipped();
+                        continue;
+                    }
+                    int status = validator.validate(decoder.moves, decoder.moveCount);
+                    int winningPattern = validator.getWinningPattern();
+                    report.addGame(decoder.moves, decoder.moveCount, decoder.status, status,
+                            winningPattern == GameValidator.NO_PATTERN ? -1 :
+                                    validator.getPatternTable().getPatternRule(winningPattern));
+                }
+                if (count != gameCount) {
+                    throw new IOException("Block at " + (chunk.start + blockStart) + " holds " + count +
+                            " records instead of " + gameCount);
+                }
+                blockStart = blockEnd;
+            }
+            return report;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.androidnerds.tictactoe.game.log;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.StandardWinRule;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+
+/**
+ * Binary format of the game logs, written by the {@link GameLogWriter} and replayed by the {@link GameLogReader}.
+ * <p>
+ * A log starts with a header of {@link #HEADER_BYTES}, the magic & the version as ints, followed by blocks of records.
+ * A block starts with a header of {@link #BLOCK_HEADER_BYTES}, the no: of bytes of its records & the no: of its records
+ * as ints, and holds up to {@link #BLOCK_BYTES} of whole records, a record never spans 2 blocks. So a log can be split
+ * into chunks at the block boundaries, found by reading the block headers only, and a block cut by the end of the log
+ * is detected from its header. A record is:
+ * <pre>
+ * rules      (byte)   - mask of the {@link StandardWinRule}s of the game, bit {@code rule.ordinal()}.
+ * boardSize  (varint) - no: of cells on a row/column of the board.
+ * seed       (long)   - seed of the game, eg. of the random source of a simulated game, 0 if there is none.
+ * moveCount  (varint) - no: of moves of the game.
+ * status     (byte)   - ordinal of the {@link com.androidnerds.tictactoe.game.GameEngine.GameStatus} recorded at the
+ *                       end of the game.
+ * moves               - cell of each move ({@code row * boardSize + column}), a byte per move on the boards of up to
+ *                       {@link #MAX_BYTE_MOVE_SIZE}, a varint per move on the larger boards.
+ * </pre>
+ * The varints are unsigned LEB128, 7 bits per byte with the high bit set on all the bytes but the last. The other
+ * values are big-endian.
+ * </p>
+ */
+public final class GameLogFormat {
+
+    public static final int MAGIC = 0x5454474C;
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = 8;
+    public static final int BLOCK_HEADER_BYTES = 8;
+    //Largest size of a block, but for the blocks of a single record larger than a block.
+    public static final int BLOCK_BYTES = 64 * 1024;
+
+    //Largest board size whose cells fit into a byte.
+    public static final int MAX_BYTE_MOVE_SIZE = 16;
+    //Mask of all the standard rules.
+    public static final int STANDARD_RULES = (1 << StandardWinRule.values().length) - 1;
+    //Largest no: of bytes of a varint of an int.
+    static final int MAX_VARINT_BYTES = 5;
+    //Largest no: of bytes of a record before its moves.
+    static final int MAX_RECORD_HEADER_BYTES = 1 + MAX_VARINT_BYTES + 8 + MAX_VARINT_BYTES + 1;
+
+    private static final StandardWinRule[] RULES = StandardWinRule.values();
+
+    private GameLogFormat() {
+    }
+
+    /**
+     * @return the mask of the rules, to be written into the records.
+     */
+    public static int getRuleMask(@NonNull StandardWinRule... rules) {
+        int ruleMask = 0;
+        for (StandardWinRule rule : rules) {
+            ruleMask |= 1 << rule.ordinal();
+        }
+        return ruleMask;
+    }
+
+    /**
+     * @return TRUE - if the rule mask and the board size can be written into a record.
+     */
+    public static boolean isValid(int ruleMask, int boardSize) {
+        return ruleMask > 0 && (ruleMask & ~STANDARD_RULES) == 0 && boardSize > 0 && boardSize <= PackedBoard.MAX_SIZE;
+    }
+
+    /**
+     * Compiles the table of the rules of the mask, in the order of the {@link StandardWinRule}s.
+     */
+    @NonNull
+    public static WinPatternTable compileRules(int ruleMask, int boardSize) {
+        if (ruleMask == STANDARD_RULES) {
+            return WinPatternTable.forSize(boardSize);
+        }
+        StandardWinRule[] rules = new StandardWinRule[Integer.bitCount(ruleMask)];
+        int count = 0;
+        for (StandardWinRule rule : RULES) {
+            if ((ruleMask & (1 << rule.ordinal())) != 0) {
+                rules[count++] = rule;
+            }
+        }
+        return WinPatternTable.compile(boardSize, rules);
+    }
+
+    /**
+     * @return the rule of the index in the rule set of the mask, ie. the rule of the index-th bit of the mask.
+     */
+    @NonNull
+    public static StandardWinRule getRule(int ruleMask, int ruleIndex) {
+        for (StandardWinRule rule : RULES) {
+            if ((ruleMask & (1 << rule.ordinal())) != 0 && ruleIndex-- == 0) {
+                return rule;
+            }
+        }
+        throw new IllegalArgumentException("No rule " + ruleIndex + " in the rules " + ruleMask);
+    }
+
+    /**
+     * @return TRUE - if a move of the board size is written as a single byte.
+     */
+    static boolean isByteMove(int boardSize) {
+        return boardSize <= MAX_BYTE_MOVE_SIZE;
+    }
+}
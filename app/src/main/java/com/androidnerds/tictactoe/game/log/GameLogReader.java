@@ -0,0 +1,176 @@
+package com.androidnerds.tictactoe.game.log;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays the games of a log in the {@link GameLogFormat}, and re-validates the status recorded for each game.
+ * <p>
+ * The log file is memory-mapped in windows of up to {@link #WINDOW_BYTES}, the next window being mapped from the
+ * block which does not fit into the current one, so logs larger than a single mapping can be replayed. The moves of
+ * a record are decoded by a {@link GameRecordDecoder} into an int array and replayed by a {@link GameValidator} of
+ * the rules & the board size of the record, so a replay does not create any
+ * {@link com.androidnerds.tictactoe.game.model.Cell} or {@link com.androidnerds.tictactoe.game.model.EvaluationResult}.
+ * A reader is not thread-safe.
+ * </p>
+ */
+public final class GameLogReader implements Closeable {
+
+    //Largest no: of bytes mapped at a time.
+    static final long WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+    private final long windowBytes;
+    //Mapped window of the file, starting at windowStart.
+    private MappedByteBuffer window;
+    private long windowStart;
+    //Validators of the rules & board sizes of the log, the last one used first, as a log usually holds the games
+    //of a single kind.
+    private final List<GameValidator> validators = new ArrayList<>();
+    private GameValidator validator;
+    private final GameRecordDecoder decoder = new GameRecordDecoder();
+
+    private GameLogReader(@NonNull RandomAccessFile file, long windowBytes) throws IOException {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Opens the log file and checks its header.
+     *
+     * @throws IOException - if the file can not be read or is not a game log.
+     */
+    @NonNull
+    public static GameLogReader open(@NonNull File file) throws IOException {
+        return open(file, WINDOW_BYTES);
+    }
+
+    @NonNull
+    static GameLogReader open(@NonNull File file, long windowBytes) throws IOException {
+        GameLogReader reader = new GameLogReader(new RandomAccessFile(file, "r"), windowBytes);
+        try {
+            if (reader.size < GameLogFormat.HEADER_BYTES) {
+                throw new IOException("Invalid game log " + file + " of " + reader.size + " bytes");
+            }
+            reader.map(0, GameLogFormat.HEADER_BYTES);
+            if (reader.window.getInt(0) != GameLogFormat.MAGIC || reader.window.getInt(4) != GameLogFormat.VERSION) {
+                throw new IOException("Invalid header of the game log " + file);
+            }
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    /**
+     * Replays all the games of the log.
+     *
+     * @return the counts of the games replayed & of the games whose replay does not match the record.
+     * @throws IOException - if a block holds an invalid record or another no: of records than its header.
+     */
+    @NonNull
+    public ReplayResult replay() throws IOException {
+        ReplayResult result = new ReplayResult();
+        long position = GameLogFormat.HEADER_BYTES;
+        while (position < size) {
+            long blockEnd = replayBlock(position, result);
+            if (blockEnd < 0) {
+                result.truncatedOffset = position;
+                break;
+            }
+            position = blockEnd;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        file.close();
+    }
+
+    /**
+     * Replays the records of the block at the position of the file.
+     *
+     * @return the position after the block, -1 if the block is truncated.
+     */
+    private long replayBlock(long position, @NonNull ReplayResult result) throws IOException {
+        if (position + GameLogFormat.BLOCK_HEADER_BYTES > size) {
+            return -1;
+        }
+        if (position + GameLogFormat.BLOCK_HEADER_BYTES > getWindowEnd()) {
+            map(position, GameLogFormat.BLOCK_HEADER_BYTES);
+        }
+        int payloadBytes = window.getInt((int) (position - windowStart));
+        int gameCount = window.getInt((int) (position - windowStart) + 4);
+        long blockEnd = position + GameLogFormat.BLOCK_HEADER_BYTES + payloadBytes;
+        if (payloadBytes < 0 || gameCount < 0) {
+            throw new IOException("Invalid block at " + position);
+        }
+        if (blockEnd > size) {
+            return -1;
+        }
+        if (blockEnd > getWindowEnd()) {
+            map(position, blockEnd - position);
+        }
+        int offset = (int) (position - windowStart) + GameLogFormat.BLOCK_HEADER_BYTES;
+        int limit = (int) (blockEnd - windowStart);
+        int count = 0;
+        while (offset < limit) {
+            int recordEnd = decoder.decode(window, windowStart, offset, limit);
+            int status = getValidator(decoder.ruleMask, decoder.boardSize).validate(decoder.moves, decoder.moveCount);
+            result.addGame(windowStart + offset, decoder.moveCount, decoder.status, status);
+            offset = recordEnd;
+            count++;
+        }
+        if (count != gameCount) {
+            throw new IOException("Block at " + position + " holds " + count + " records instead of " + gameCount);
+        }
+        return blockEnd;
+    }
+
+    /**
+     * @return the validator of the rules & the board size, created on the first use.
+     */
+    @NonNull
+    private GameValidator getValidator(int ruleMask, int boardSize) {
+        if (null != validator && validator.matches(ruleMask, boardSize)) {
+            return validator;
+        }
+        for (GameValidator candidate : validators) {
+            if (candidate.matches(ruleMask, boardSize)) {
+                validator = candidate;
+                return candidate;
+            }
+        }
+        validator = new GameValidator(ruleMask, boardSize);
+        validators.add(validator);
+        return validator;
+    }
+
+    private long getWindowEnd() {
+        return windowStart + window.limit();
+    }
+
+    /**
+     * Maps the window from the position, of at least the no: of bytes.
+     */
+    private void map(long position, long minBytes) throws IOException {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                Math.min(Math.max(windowBytes, minBytes), size - position));
+    }
+}
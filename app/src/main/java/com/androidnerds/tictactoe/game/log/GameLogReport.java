@@ -0,0 +1,224 @@
+package com.androidnerds.tictactoe.game.log;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.StandardWinRule;
+
+/**
+ * Aggregated statistics of the games of a rule set and a board size, in the logs analyzed by the
+ * {@link GameLogAnalyzer}.
+ * <p>
+ * Only the games which are replayed to the status recorded are counted in the outcomes, by opening cell & by the rule
+ * deciding the win, and in the lengths; the invalid & mismatched games are counted apart, as in a {@link ReplayResult},
+ * and the games of other rules or board sizes are skipped. Every chunk of the logs is analyzed into its own instance,
+ * which are merged at the end, so the size of a report depends on the board size only.
+ * </p>
+ */
+public final class GameLogReport {
+
+    private static final GameEngine.GameStatus[] GAME_STATUSES = GameEngine.GameStatus.values();
+    private static final StandardWinRule[] RULES = StandardWinRule.values();
+
+    private final int ruleMask;
+    private final int boardSize;
+    private final int cellCount;
+    //Ordinal of the StandardWinRule of each rule index of the compiled table.
+    private final int[] ruleOrdinals;
+    private long gameCount;
+    private long invalidCount;
+    private long mismatchCount;
+    private long skippedCount;
+    private long truncatedCount;
+    //No: of valid games by the no: of moves played.
+    private final long[] lengthCounts;
+    //No: of valid games by the cell of the first move & the ordinal of the status, at cell * statuses + status.
+    private final long[] openingCounts;
+    //No: of wins by the ordinal of the rule of the winning pattern.
+    private final long[] ruleWins = new long[RULES.length];
+
+    GameLogReport(int ruleMask, int boardSize) {
+        this.ruleMask = ruleMask;
+        this.boardSize = boardSize;
+        this.cellCount = boardSize * boardSize;
+        this.ruleOrdinals = new int[Integer.bitCount(ruleMask)];
+        for (int index = 0; index < ruleOrdinals.length; index++) {
+            ruleOrdinals[index] = GameLogFormat.getRule(ruleMask, index).ordinal();
+        }
+        this.lengthCounts = new long[cellCount + 1];
+        this.openingCounts = new long[cellCount * GAME_STATUSES.length];
+    }
+
+    /**
+     * Adds a game replayed by the validator.
+     *
+     * @param recordedStatus - ordinal of the status recorded.
+     * @param replayedStatus - ordinal of the status replayed, or {@link GameValidator#INVALID}.
+     * @param winningRule    - index of the rule of the winning pattern in the compiled table, -1 if not won.
+     */
+    void addGame(@NonNull int[] moves, int moveCount, int recordedStatus, int replayedStatus, int winningRule) {
+        gameCount++;
+        if (replayedStatus == GameValidator.INVALID) {
+            invalidCount++;
+            return;
+        }
+        if (replayedStatus != recordedStatus) {
+            mismatchCount++;
+            return;
+        }
+        lengthCounts[moveCount]++;
+        if (moveCount > 0) {
+            openingCounts[moves[0] * GAME_STATUSES.length + replayedStatus]++;
+        }
+        if (winningRule >= 0) {
+            ruleWins[ruleOrdinals[winningRule]]++;
+        }
+    }
+
+    void addSkipped() {
+        skippedCount++;
+    }
+
+    void addTruncated() {
+        truncatedCount++;
+    }
+
+    /**
+     * Adds the statistics of the other instance to this instance.
+     */
+    void merge(@NonNull GameLogReport other) {
+        if (other.ruleMask != ruleMask || other.boardSize != boardSize) {
+            throw new IllegalArgumentException("Report of " + other.boardSize + "x" + other.boardSize +
+                    " can not be merged into " + boardSize + "x" + boardSize);
+        }
+        gameCount += other.gameCount;
+        invalidCount += other.invalidCount;
+        mismatchCount += other.mismatchCount;
+        skippedCount += other.skippedCount;
+        truncatedCount += other.truncatedCount;
+        for (int length = 0; length <= cellCount; length++) {
+            lengthCounts[length] += other.lengthCounts[length];
+        }
+        for (int index = 0; index < openingCounts.length; index++) {
+            openingCounts[index] += other.openingCounts[index];
+        }
+        for (int index = 0; index < ruleWins.length; index++) {
+            ruleWins[index] += other.ruleWins[index];
+        }
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * @return the no: of games of the rules & the board size, including the invalid & mismatched games.
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+
+    public long getMismatchCount() {
+        return mismatchCount;
+    }
+
+    /**
+     * @return the no: of games of other rules or board sizes.
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * @return the no: of logs whose last block is cut by the end of the log.
+     */
+    public long getTruncatedCount() {
+        return truncatedCount;
+    }
+
+    /**
+     * @return the no: of valid games.
+     */
+    public long getValidCount() {
+        return gameCount - invalidCount - mismatchCount;
+    }
+
+    /**
+     * @return the no: of valid games which ended after the no: of moves.
+     */
+    public long getLengthCount(int moveCount) {
+        return lengthCounts[moveCount];
+    }
+
+    public double getAverageLength() {
+        long totalMoves = 0;
+        for (int length = 0; length <= cellCount; length++) {
+            totalMoves += length * lengthCounts[length];
+        }
+        return getRate(totalMoves, getValidCount());
+    }
+
+    /**
+     * @return the no: of valid games opened at the cell, which ended with the status.
+     */
+    public long getOpeningCount(int cell, @NonNull GameEngine.GameStatus gameStatus) {
+        return openingCounts[cell * GAME_STATUSES.length + gameStatus.ordinal()];
+    }
+
+    /**
+     * @return the no: of valid games opened at the cell.
+     */
+    public long getOpeningGames(int cell) {
+        long games = 0;
+        for (int status = 0; status < GAME_STATUSES.length; status++) {
+            games += openingCounts[cell * GAME_STATUSES.length + status];
+        }
+        return games;
+    }
+
+    /**
+     * @return the rate of the games opened at the cell, which ended with the status.
+     */
+    public double getOpeningRate(int cell, @NonNull GameEngine.GameStatus gameStatus) {
+        return getRate(getOpeningCount(cell, gameStatus), getOpeningGames(cell));
+    }
+
+    /**
+     * @return the no: of wins decided by a pattern of the rule, the first rule in the order of the rules if the last
+     * move completes patterns of several rules.
+     */
+    public long getRuleWins(@NonNull StandardWinRule rule) {
+        return ruleWins[rule.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("games: %d, invalid: %d, mismatched: %d, skipped: %d, truncated logs: %d, average length: %.2f",
+                gameCount, invalidCount, mismatchCount, skippedCount, truncatedCount, getAverageLength()));
+        builder.append("\nwins by rule:");
+        for (StandardWinRule rule : RULES) {
+            if ((ruleMask & (1 << rule.ordinal())) != 0) {
+                builder.append(' ').append(rule).append('=').append(ruleWins[rule.ordinal()]);
+            }
+        }
+        builder.append("\nopenings (player 1 won/player 2 won/drawn):");
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (getOpeningGames(cell) > 0) {
+                builder.append(String.format(" %d=%.3f/%.3f/%.3f", cell,
+                        getOpeningRate(cell, GameEngine.GameStatus.PLAYER_1_WON),
+                        getOpeningRate(cell, GameEngine.GameStatus.PLAYER_2_WON),
+                        getOpeningRate(cell, GameEngine.GameStatus.DRAW)));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static double getRate(long count, long total) {
+        return total > 0 ? (double) count / total : 0;
+    }
+}
@@ -0,0 +1,208 @@
+package com.androidnerds.tictactoe.game.log;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * Appends the records of the games to a log in the {@link GameLogFormat}.
+ * <p>
+ * The records are encoded into the buffer of a block of {@link GameLogFormat#BLOCK_BYTES}, which is written to the
+ * stream when the next record does not fit, on {@link #flush()} & on {@link #close()}, so writing a game does not
+ * allocate. A writer is not thread-safe.
+ * </p>
+ */
+public final class GameLogWriter implements Closeable {
+
+    private final OutputStream outputStream;
+    //Block being filled, its header is written when the block is flushed.
+    private byte[] buffer = new byte[GameLogFormat.BLOCK_BYTES];
+    private int position = GameLogFormat.BLOCK_HEADER_BYTES;
+    private int blockGameCount;
+    private long gameCount;
+
+    /**
+     * Writes the header of a new log to the stream.
+     */
+    public GameLogWriter(@NonNull OutputStream outputStream) throws IOException {
+        this(outputStream, true);
+    }
+
+    private GameLogWriter(@NonNull OutputStream outputStream, boolean writeHeader) throws IOException {
+        this.outputStream = outputStream;
+        if (writeHeader) {
+            byte[] header = new byte[GameLogFormat.HEADER_BYTES];
+            putInt(header, 0, GameLogFormat.MAGIC);
+            putInt(header, 4, GameLogFormat.VERSION);
+            outputStream.write(header);
+        }
+    }
+
+    /**
+     * Opens the log file for appending, the header is written if the file is new or empty. The header of an existing
+     * log is checked, and a block cut by the end of the log, eg. by a crash while it was written, is truncated so the
+     * new blocks follow the last complete block.
+     *
+     * @throws IOException - if the file is not a log of the current version.
+     */
+    @NonNull
+    public static GameLogWriter append(@NonNull File file) throws IOException {
+        boolean writeHeader = true;
+        if (file.length() > 0) {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                long end = findLogEnd(randomAccessFile, file);
+                randomAccessFile.setLength(end);
+                writeHeader = end == 0;
+            }
+        }
+        return new GameLogWriter(new FileOutputStream(file, true), writeHeader);
+    }
+
+    /**
+     * @return the position after the last complete block of the log, 0 if its header is cut.
+     */
+    private static long findLogEnd(@NonNull RandomAccessFile randomAccessFile, @NonNull File file) throws IOException {
+        long length = randomAccessFile.length();
+        byte[] header = new byte[GameLogFormat.HEADER_BYTES];
+        putInt(header, 0, GameLogFormat.MAGIC);
+        putInt(header, 4, GameLogFormat.VERSION);
+        byte[] existing = new byte[(int) Math.min(length, GameLogFormat.HEADER_BYTES)];
+        randomAccessFile.readFully(existing);
+        for (int index = 0; index < existing.length; index++) {
+            if (existing[index] != header[index]) {
+                throw new IOException("Invalid header of the game log " + file);
+            }
+        }
+        if (length < GameLogFormat.HEADER_BYTES) {
+            return 0;
+        }
+        long position = GameLogFormat.HEADER_BYTES;
+        while (position + GameLogFormat.BLOCK_HEADER_BYTES <= length) {
+            randomAccessFile.seek(position);
+            int payloadBytes = randomAccessFile.readInt();
+            int blockGameCount = randomAccessFile.readInt();
+            if (payloadBytes < 0 || blockGameCount < 0) {
+                throw new IOException("Invalid block at " + position + " of the game log " + file);
+            }
+            long blockEnd = position + GameLogFormat.BLOCK_HEADER_BYTES + payloadBytes;
+            if (blockEnd > length) {
+                break;
+            }
+            position = blockEnd;
+        }
+        return position;
+    }
+
+    /**
+     * Appends the record of a game.
+     *
+     * @param ruleMask  - rules of the game, see {@link GameLogFormat#getRuleMask}.
+     * @param boardSize - size of the board.
+     * @param seed      - seed of the game, 0 if there is none.
+     * @param moves     - cells of the moves ({@code row * boardSize + column}), in the order played.
+     * @param moveCount - no: of moves in the array.
+     * @param status    - status at the end of the game.
+     */
+    public void writeGame(int ruleMask, int boardSize, long seed, @NonNull int[] moves, int moveCount,
+                          @NonNull GameEngine.GameStatus status) throws IOException {
+        if (!GameLogFormat.isValid(ruleMask, boardSize)) {
+            throw new IllegalArgumentException("Invalid rules: " + ruleMask + " or board size: " + boardSize);
+        }
+        boolean byteMoves = GameLogFormat.isByteMove(boardSize);
+        int maxRecordBytes = GameLogFormat.MAX_RECORD_HEADER_BYTES +
+                moveCount * (byteMoves ? 1 : GameLogFormat.MAX_VARINT_BYTES);
+        if (position + maxRecordBytes > buffer.length) {
+            writeBlock();
+            if (GameLogFormat.BLOCK_HEADER_BYTES + maxRecordBytes > buffer.length) {
+                buffer = new byte[GameLogFormat.BLOCK_HEADER_BYTES + maxRecordBytes];
+            }
+        }
+        buffer[position++] = (byte) ruleMask;
+        writeVarint(boardSize);
+        putInt(buffer, position, (int) (seed >>> 32));
+        putInt(buffer, position + 4, (int) seed);
+        position += 8;
+        writeVarint(moveCount);
+        buffer[position++] = (byte) status.ordinal();
+        for (int index = 0; index < moveCount; index++) {
+            if (byteMoves) {
+                buffer[position++] = (byte) moves[index];
+            } else {
+                writeVarint(moves[index]);
+            }
+        }
+        blockGameCount++;
+        gameCount++;
+        if (buffer.length > GameLogFormat.BLOCK_BYTES) {
+            //The block of a record larger than a block is written alone.
+            writeBlock();
+            buffer = new byte[GameLogFormat.BLOCK_BYTES];
+        }
+    }
+
+    /**
+     * Appends the record of the game played by the engine, with the standard rules.
+     */
+    public void writeGame(@NonNull GameEngine gameEngine, long seed, @NonNull int[] moves) throws IOException {
+        int moveCount = gameEngine.getMoves(moves);
+        writeGame(GameLogFormat.STANDARD_RULES, gameEngine.getBoardSize(), seed, moves, moveCount,
+                gameEngine.getGameStatus());
+    }
+
+    /**
+     * @return the no: of games written by this writer.
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Writes the block being filled to the stream, even if it is not full.
+     */
+    public void flush() throws IOException {
+        writeBlock();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (blockGameCount == 0) {
+            return;
+        }
+        putInt(buffer, 0, position - GameLogFormat.BLOCK_HEADER_BYTES);
+        putInt(buffer, 4, blockGameCount);
+        outputStream.write(buffer, 0, position);
+        position = GameLogFormat.BLOCK_HEADER_BYTES;
+        blockGameCount = 0;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private static void putInt(@NonNull byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
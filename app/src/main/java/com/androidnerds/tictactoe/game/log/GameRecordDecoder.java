@@ -0,0 +1,112 @@
+package com.androidnerds.tictactoe.game.log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes the records of a block of a game log in the {@link GameLogFormat} into its fields, which are reused from a
+ * record to the next, so decoding a record does not allocate once the moves array fits the largest game. A decoder is
+ * not thread-safe.
+ */
+final class GameRecordDecoder {
+
+    int ruleMask;
+    int boardSize;
+    long seed;
+    int moveCount;
+    int status;
+    //Cells of the moves of the record, only the first moveCount are set.
+    int[] moves = new int[0];
+    //End of the last varint read, set by readVarint which returns the value.
+    private int varintEnd;
+
+    /**
+     * Decodes the record at the offset of the buffer, which must end before the limit, ie. the end of its block.
+     *
+     * @param bufferPosition - position of the buffer in the log, for the errors.
+     * @return the offset after the record.
+     * @throws IOException - if the record is invalid or does not end before the limit.
+     */
+    int decode(@NonNull ByteBuffer buffer, long bufferPosition, int offset, int limit) throws IOException {
+        int start = offset;
+        if (offset + GameLogFormat.MAX_RECORD_HEADER_BYTES > limit) {
+            //The header of a record may be shorter than the largest header, so it is read with bounds checks.
+            return decodeNearLimit(buffer, bufferPosition, offset, limit);
+        }
+        ruleMask = buffer.get(offset++) & 0xFF;
+        boardSize = readVarint(buffer, bufferPosition, offset, limit);
+        offset = varintEnd;
+        seed = buffer.getLong(offset);
+        moveCount = readVarint(buffer, bufferPosition, offset + 8, limit);
+        offset = varintEnd;
+        status = buffer.get(offset++);
+        return decodeMoves(buffer, bufferPosition, start, offset, limit);
+    }
+
+    private int decodeNearLimit(@NonNull ByteBuffer buffer, long bufferPosition, int offset, int limit)
+            throws IOException {
+        int start = offset;
+        checkLimit(bufferPosition, start, offset + 1, limit);
+        ruleMask = buffer.get(offset++) & 0xFF;
+        boardSize = readVarint(buffer, bufferPosition, offset, limit);
+        offset = varintEnd;
+        checkLimit(bufferPosition, start, offset + 8, limit);
+        seed = buffer.getLong(offset);
+        moveCount = readVarint(buffer, bufferPosition, offset + 8, limit);
+        offset = varintEnd;
+        checkLimit(bufferPosition, start, offset + 1, limit);
+        status = buffer.get(offset++);
+        return decodeMoves(buffer, bufferPosition, start, offset, limit);
+    }
+
+    private int decodeMoves(@NonNull ByteBuffer buffer, long bufferPosition, int start, int offset, int limit)
+            throws IOException {
+        if (!GameLogFormat.isValid(ruleMask, boardSize) || moveCount > (long) boardSize * boardSize) {
+            throw new IOException("Invalid record at " + (bufferPosition + start) + ": rules " + ruleMask +
+                    ", board size " + boardSize + ", " + moveCount + " moves");
+        }
+        if (moves.length < moveCount) {
+            moves = new int[Math.max(moveCount, 2 * moves.length)];
+        }
+        if (GameLogFormat.isByteMove(boardSize)) {
+            checkLimit(bufferPosition, start, offset + moveCount, limit);
+            for (int index = 0; index < moveCount; index++) {
+                moves[index] = buffer.get(offset++) & 0xFF;
+            }
+            return offset;
+        }
+        for (int index = 0; index < moveCount; index++) {
+            moves[index] = readVarint(buffer, bufferPosition, offset, limit);
+            offset = varintEnd;
+        }
+        return offset;
+    }
+
+    /**
+     * Reads the varint at the offset of the buffer and sets {@link #varintEnd}.
+     */
+    private int readVarint(@NonNull ByteBuffer buffer, long bufferPosition, int offset, int limit) throws IOException {
+        int value = 0;
+        int end = Math.min(limit, offset + GameLogFormat.MAX_VARINT_BYTES);
+        for (int shift = 0; offset < end; shift += 7) {
+            int b = buffer.get(offset++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                varintEnd = offset;
+                return value;
+            }
+        }
+        throw new IOException("Invalid varint at " + (bufferPosition + offset));
+    }
+
+    private static void checkLimit(long bufferPosition, int start, long end, int limit) throws IOException {
+        if (end > limit) {
+            throw new IOException("Record at " + (bufferPosition + start) + " overruns its block");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.androidnerds.tictactoe.game.log;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+
+/**
+ * Replays the moves of a game on primitive state & recomputes the status at the end of the game, for a rule set and a
+ * board size.
+ * <p>
+ * On the boards of up to 64 cells the cells of each player are held in a long mask and a win is detected with the masks
+ * of the patterns. On the larger boards the occupied cells are held in a bit set and a win is detected by counting the
+ * cells of each player in the patterns through the move, the counters are reset by walking the moves again after the
+ * game. Either way a game is replayed without any allocation.
+ * </p>
+ */
+final class GameValidator {
+
+    //Status of a game which has an illegal move: a cell off the board, an occupied cell or a move after the end.
+    static final int INVALID = -1;
+    //Winning pattern of a game which is not won.
+    static final int NO_PATTERN = -1;
+
+    private static final int NEXT_PLAYER_PLAYS = GameEngine.GameStatus.NEXT_PLAYER_PLAYS.ordinal();
+    private static final int PLAYER_1_WON = GameEngine.GameStatus.PLAYER_1_WON.ordinal();
+    private static final int PLAYER_2_WON = GameEngine.GameStatus.PLAYER_2_WON.ordinal();
+    private static final int DRAW = GameEngine.GameStatus.DRAW.ordinal();
+
+    private final WinPatternTable patternTable;
+    private final int ruleMask;
+    private final int cellCount;
+    //Occupied cells & cells of each player in the patterns, null on the boards of up to 64 cells.
+    private final long[] occupied;
+    private final int[] patternCounts;
+    //Winning pattern of the last game validated.
+    private int winningPattern = NO_PATTERN;
+
+    GameValidator(int ruleMask, int boardSize) {
+        this.patternTable = GameLogFormat.compileRules(ruleMask, boardSize);
+        this.ruleMask = ruleMask;
+        this.cellCount = boardSize * boardSize;
+        if (patternTable.hasPatternMasks()) {
+            this.occupied = null;
+            this.patternCounts = null;
+        } else {
+            this.occupied = new long[(cellCount + Long.SIZE - 1) / Long.SIZE];
+            this.patternCounts = new int[2 * patternTable.getPatternCount()];
+        }
+    }
+
+    boolean matches(int ruleMask, int boardSize) {
+        return this.ruleMask == ruleMask && patternTable.getBoardSize() == boardSize;
+    }
+
+    @NonNull
+    WinPatternTable getPatternTable() {
+        return patternTable;
+    }
+
+    /**
+     * @return the winning pattern of the last game validated, the first one in the order of the rules if the last move
+     * completes several patterns, or {@link #NO_PATTERN} if the game is not won.
+     */
+    int getWinningPattern() {
+        return winningPattern;
+    }
+
+    /**
+     * @param moves     - cells of the moves, Cross moves first.
+     * @param moveCount - no: of moves in the array.
+     * @return the ordinal of the {@link GameEngine.GameStatus} after the moves, or {@link #INVALID}.
+     */
+    int validate(@NonNull int[] moves, int moveCount) {
+        winningPattern = NO_PATTERN;
+        return null == occupied ? validateMasks(moves, moveCount) : validateCounts(moves, moveCount);
+    }
+
+    private int validateMasks(@NonNull int[] moves, int moveCount) {
+        long crossMask = 0;
+        long circleMask = 0;
+        for (int index = 0; index < moveCount; index++) {
+            int cell = moves[index];
+            long cellMask = 1L << cell;
+            if (cell < 0 || cell >= cellCount || ((crossMask | circleMask) & cellMask) != 0) {
+                return INVALID;
+            }
+            long playerMask;
+            if ((index & 1) == 0) {
+                crossMask |= cellMask;
+                playerMask = crossMask;
+            } else {
+                circleMask |= cellMask;
+                playerMask = circleMask;
+            }
+            winningPattern = patternTable.findWinningPattern(playerMask, cell);
+            if (winningPattern != NO_PATTERN) {
+                if (index + 1 != moveCount) {
+                    winningPattern = NO_PATTERN;
+                    return INVALID;
+                }
+                return getWinner(index);
+            }
+        }
+        return getStatus(moveCount);
+    }
+
+    private int validateCounts(@NonNull int[] moves, int moveCount) {
+        int status = NEXT_PLAYER_PLAYS;
+        int played = 0;
+        for (; played < moveCount; played++) {
+            int cell = moves[played];
+            if (cell < 0 || cell >= cellCount || (occupied[cell >>> 6] & (1L << cell)) != 0) {
+                status = INVALID;
+                break;
+            }
+            occupied[cell >>> 6] |= 1L << cell;
+            int countOffset = (played & 1) * patternTable.getPatternCount();
+            boolean won = false;
+            for (int index = patternTable.getCellStart(cell); index < patternTable.getCellEnd(cell); index++) {
+                int pattern = patternTable.getCellPattern(index);
+                int count = ++patternCounts[countOffset + pattern];
+                if (count == patternTable.getPatternEnd(pattern) - patternTable.getPatternStart(pattern)) {
+                    won = true;
+                    if (winningPattern == NO_PATTERN || pattern < winningPattern) {
+                        winningPattern = pattern;
+                    }
+                }
+            }
+            if (won) {
+                status = played + 1 == moveCount ? getWinner(played) : INVALID;
+                if (status == INVALID) {
+                    winningPattern = NO_PATTERN;
+                }
+                played++;
+                break;
+            }
+        }
+        if (status == NEXT_PLAYER_PLAYS) {
+            status = getStatus(moveCount);
+        }
+        //Clears the cells & the counters of the moves played.
+        for (int index = 0; index < played; index++) {
+            int cell = moves[index];
+            occupied[cell >>> 6] &= ~(1L << cell);
+            int countOffset = (index & 1) * patternTable.getPatternCount();
+            for (int entry = patternTable.getCellStart(cell); entry < patternTable.getCellEnd(cell); entry++) {
+                patternCounts[countOffset + patternTable.getCellPattern(entry)]--;
+            }
+        }
+        return status;
+    }
+
+    private static int getWinner(int moveIndex) {
+        return (moveIndex & 1) == 0 ? PLAYER_1_WON : PLAYER_2_WON;
+    }
+
+    private int getStatus(int moveCount) {
+        return moveCount == cellCount ? DRAW : NEXT_PLAYER_PLAYS;
+    }
+}
@@ -0,0 +1,101 @@
+package com.androidnerds.tictactoe.game.log;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+
+/**
+ * Counts of a replay of a game log by the {@link GameLogReader}.
+ * <p>
+ * A game is invalid if one of its moves is illegal, and mismatched if its moves are legal but end with another status
+ * than the status recorded. The offset of the first failed game is kept, to locate it in the log.
+ * </p>
+ */
+public final class ReplayResult {
+
+    public static final long NO_OFFSET = -1;
+
+    private static final GameEngine.GameStatus[] GAME_STATUSES = GameEngine.GameStatus.values();
+
+    private long gameCount;
+    private long moveCount;
+    private long invalidCount;
+    private long mismatchCount;
+    //No: of valid games by the ordinal of their status.
+    private final long[] statusCounts = new long[GAME_STATUSES.length];
+    private long firstFailureOffset = NO_OFFSET;
+    //Offset of the record cut by the end of the log, eg. by a crash while appending.
+    long truncatedOffset = NO_OFFSET;
+
+    ReplayResult() {
+    }
+
+    void addGame(long offset, int moves, int recordedStatus, int replayedStatus) {
+        gameCount++;
+        moveCount += moves;
+        if (replayedStatus == GameValidator.INVALID) {
+            invalidCount++;
+        } else if (replayedStatus != recordedStatus) {
+            mismatchCount++;
+        } else {
+            statusCounts[replayedStatus]++;
+            return;
+        }
+        if (firstFailureOffset == NO_OFFSET) {
+            firstFailureOffset = offset;
+        }
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+
+    public long getMismatchCount() {
+        return mismatchCount;
+    }
+
+    /**
+     * @return the no: of games which were replayed to the status recorded.
+     */
+    public long getStatusCount(GameEngine.GameStatus gameStatus) {
+        return statusCounts[gameStatus.ordinal()];
+    }
+
+    /**
+     * @return TRUE - if every game was replayed to the status recorded and the log is not truncated.
+     */
+    public boolean isValid() {
+        return invalidCount == 0 && mismatchCount == 0 && truncatedOffset == NO_OFFSET;
+    }
+
+    /**
+     * @return the offset in the log of the first invalid or mismatched game, or {@link #NO_OFFSET}.
+     */
+    public long getFirstFailureOffset() {
+        return firstFailureOffset;
+    }
+
+    /**
+     * @return the offset in the log of the record which is truncated, or {@link #NO_OFFSET}.
+     */
+    public long getTruncatedOffset() {
+        return truncatedOffset;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games: %d, moves: %d, invalid: %d, mismatched: %d, won by player 1: %d, won by player 2: %d, drawn: %d, unfinished: %d%s",
+                gameCount, moveCount, invalidCount, mismatchCount,
+                statusCounts[GameEngine.GameStatus.PLAYER_1_WON.ordinal()],
+                statusCounts[GameEngine.GameStatus.PLAYER_2_WON.ordinal()],
+                statusCounts[GameEngine.GameStatus.DRAW.ordinal()],
+                statusCounts[GameEngine.GameStatus.NEXT_PLAYER_PLAYS.ordinal()],
+                truncatedOffset == NO_OFFSET ? "" : ", truncated at: " + truncatedOffset);
+    }
+}
@@ -1,14 +1,24 @@
 package com.androidnerds.tictactoe.game.model;
 
+import com.androidnerds.tictactoe.game.WinPatterns;
+
 import java.util.List;
 
 /**
  * This class holds the result of the evaluation.
+ * <p>
+ * The object can be reused across evaluations, in which case the evaluation only records the winning pattern
+ * and the list of matched cells is built when it is requested.
+ * </p>
  */
 public class EvaluationResult {
 
     private boolean win;
     private List<Cell> matchedCells;
+    //Winning pattern recorded by the evaluation, used to build the matched cells on demand.
+    private WinPatterns winPatterns;
+    private int winningPattern = -1;
+    private CellState playerState;
 
     public EvaluationResult() {
     }
@@ -23,9 +33,41 @@ public class EvaluationResult {
     }
 
     public List<Cell> getMatchedCells() {
+        if (null == matchedCells && null != winPatterns) {
+            matchedCells = winPatterns.getPatternCells(winningPattern, playerState);
+        }
         return matchedCells;
     }
 
+    /**
+     * @return index of the winning pattern in the {@link WinPatterns}, or -1 if it was not recorded.
+     */
+    public int getWinningPattern() {
+        return winningPattern;
+    }
+
+    /**
+     * Records the win of the player via the pattern, without building the list of matched cells.
+     */
+    public void setWinningPattern(WinPatterns winPatterns, int winningPattern, CellState playerState) {
+        this.win = true;
+        this.matchedCells = null;
+        this.winPatterns = winPatterns;
+        this.winningPattern = winningPattern;
+        this.playerState = playerState;
+    }
+
+    /**
+     * Clears the result so that the object can be reused for the next evaluation.
+     */
+    public void reset() {
+        this.win = false;
+        this.matchedCells = null;
+        this.winPatterns = null;
+        this.winningPattern = -1;
+        this.playerState = null;
+    }
+
     public void setWin(boolean win) {
         this.win = win;
     }
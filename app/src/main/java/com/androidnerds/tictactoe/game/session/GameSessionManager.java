@@ -0,0 +1,371 @@
+package com.androidnerds.tictactoe.game.session;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Thread-safe owner of many concurrent games, all played on the same board & rules, keyed by a primitive game id.
+ * <p>
+ * A game is held by the masks of the cross & circle cells and a status byte, instead of a {@link GameEngine}, so the
+ * slot of a game takes 25 bytes and millions of games fit into a process. The games are split into lock stripes by
+ * the hash of their id: each stripe is an open-addressing hash table of its own, guarded by its own monitor, so concurrent moves
+ * to games of different stripes never contend, and the stripes outnumber the threads by far. Looking up a game probes
+ * the primitive arrays of its stripe, without allocating.
+ * </p>
+ * <p>
+ * Moves are validated like {@link GameEngine#playMove(int, int)} and reported by a {@link GameEngine.MoveResult},
+ * Cross moves first. A game is started when it is created and stays in the manager after it is over, until it is
+ * removed.
+ * </p>
+ */
+public final class GameSessionManager {
+
+    //Default no: of lock stripes, a power of 2.
+    public static final int DEFAULT_STRIPE_COUNT = 1024;
+    //Initial no: of slots of a stripe, a power of 2.
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    //Status of a slot of a stripe.
+    private static final byte FREE_SLOT = 0;
+    private static final byte IN_PROGRESS = 1;
+    private static final byte CROSS_WON = 2;
+    private static final byte CIRCLE_WON = 3;
+    private static final byte DRAW = 4;
+    //Status of the game, indexed by the status of its slot.
+    private static final GameEngine.GameStatus[] GAME_STATUS = {
+            GameEngine.GameStatus.NOT_INITIALIZED,
+            GameEngine.GameStatus.NEXT_PLAYER_PLAYS,
+            GameEngine.GameStatus.PLAYER_1_WON,
+            GameEngine.GameStatus.PLAYER_2_WON,
+            GameEngine.GameStatus.DRAW
+    };
+
+    private final WinPatternTable patternTable;
+    private final int cellCount;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public GameSessionManager(int boardSize) {
+        this(WinPatternTable.forSize(boardSize), DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * @param patternTable - rules of the games, compiled for a board of up to 64 cells.
+     * @param stripeCount  - no: of lock stripes, a power of 2.
+     */
+    public GameSessionManager(@NonNull WinPatternTable patternTable, int stripeCount) {
+        if (!patternTable.hasPatternMasks()) {
+            throw new IllegalArgumentException("Sessions are not supported on the board of size: " + patternTable.getBoardSize());
+        }
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Invalid stripe count: " + stripeCount);
+        }
+        this.patternTable = patternTable;
+        this.cellCount = patternTable.getBoardSize() * patternTable.getBoardSize();
+        this.stripes = new Stripe[stripeCount];
+        for (int index = 0; index < stripeCount; index++) {
+            stripes[index] = new Stripe();
+        }
+        //The stripe is chosen by the high bits of the hash, the slot by the low bits.
+        this.stripeShift = Long.SIZE - Integer.numberOfTrailingZeros(stripeCount);
+    }
+
+    /**
+     * Creates a started game with an empty board.
+     *
+     * @return FALSE - if a game with the id already exists.
+     */
+    public boolean createGame(long gameId) {
+        long hash = hash(gameId);
+        Stripe stripe = getStripe(hash);
+        synchronized (stripe) {
+            return stripe.insert(gameId, hash);
+        }
+    }
+
+    /**
+     * Creates the game, or restarts it with an empty board if it already exists.
+     */
+    public void startGame(long gameId) {
+        long hash = hash(gameId);
+        Stripe stripe = getStripe(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(gameId, hash);
+            if (slot < 0) {
+                stripe.insert(gameId, hash);
+            } else {
+                stripe.crossMasks[slot] = 0;
+                stripe.circleMasks[slot] = 0;
+                stripe.statuses[slot] = IN_PROGRESS;
+            }
+        }
+    }
+
+    /**
+     * Removes the game, whether it is over or not.
+     *
+     * @return FALSE - if there is no game with the id.
+     */
+    public boolean removeGame(long gameId) {
+        long hash = hash(gameId);
+        Stripe stripe = getStripe(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(gameId, hash);
+            if (slot < 0) {
+                return false;
+            }
+            stripe.remove(slot);
+            return true;
+        }
+    }
+
+    /**
+     * Plays the move of the player to move in the game.
+     *
+     * @param cell - index of the cell ({@code row * boardSize + column}).
+     * @return {@link GameEngine.MoveResult#ACCEPTED} - if the move was played, else the reason why the move was
+     * rejected, {@link GameEngine.MoveResult#NOT_STARTED} if there is no game with the id.
+     */
+    @NonNull
+    public GameEngine.MoveResult playMove(long gameId, int cell) {
+        return playMove(gameId, cell, null);
+    }
+
+    /**
+     * Plays the move of the player to move in the game, and reads the status of the game after the move under the
+     * same lock, so the status is not the status of a move or a restart made concurrently by another caller.
+     *
+     * @param cell       - index of the cell ({@code row * boardSize + column}).
+     * @param gameStatus - its first element is set to the status of the game after the move, if it was played.
+     * @return {@link GameEngine.MoveResult#ACCEPTED} - if the move was played, else the reason why the move was
+     * rejected, {@link GameEngine.MoveResult#NOT_STARTED} if there is no game with the id.
+     */
+    @NonNull
+    public GameEngine.MoveResult playMove(long gameId, int cell, GameEngine.GameStatus[] gameStatus) {
+        if (cell < 0 || cell >= cellCount) {
+            return GameEngine.MoveResult.ILLEGAL;
+        }
+        long hash = hash(gameId);
+        Stripe stripe = getStripe(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(gameId, hash);
+            if (slot < 0) {
+                return GameEngine.MoveResult.NOT_STARTED;
+            }
+            if (stripe.statuses[slot] != IN_PROGRESS) {
+                return GameEngine.MoveResult.GAME_OVER;
+            }
+            long crossMask = stripe.crossMasks[slot];
+            long circleMask = stripe.circleMasks[slot];
+            long cellMask = 1L << cell;
+            if (((crossMask | circleMask) & cellMask) != 0) {
+                return GameEngine.MoveResult.OCCUPIED;
+            }
+            boolean crossToMove = Long.bitCount(crossMask) == Long.bitCount(circleMask);
+            long playerMask;
+            if (crossToMove) {
+                playerMask = crossMask | cellMask;
+                stripe.crossMasks[slot] = playerMask;
+            } else {
+                playerMask = circleMask | cellMask;
+                stripe.circleMasks[slot] = playerMask;
+            }
+            if (patternTable.findWinningPattern(playerMask, cell) >= 0) {
+                stripe.statuses[slot] = crossToMove ? CROSS_WON : CIRCLE_WON;
+            } else if (Long.bitCount(crossMask | circleMask) + 1 == cellCount) {
+                stripe.statuses[slot] = DRAW;
+            }
+            if (null != gameStatus) {
+                gameStatus[0] = GAME_STATUS[stripe.statuses[slot]];
+            }
+            return GameEngine.MoveResult.ACCEPTED;
+        }
+    }
+
+    /**
+     * @return the status of the game, {@link GameEngine.GameStatus#NOT_INITIALIZED} if there is no game with the id.
+     */
+    @NonNull
+    public GameEngine.GameStatus getGameStatus(long gameId) {
+        long hash = hash(gameId);
+        Stripe stripe = getStripe(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(gameId, hash);
+            return GAME_STATUS[slot < 0 ? FREE_SLOT : stripe.statuses[slot]];
+        }
+    }
+
+    /**
+     * @param cell - index of the cell ({@code row * boardSize + column}).
+     * @return the state of the cell in the game, {@link CellState#FREE} if there is no game with the id.
+     * @throws IllegalArgumentException - if the cell is not on the board.
+     */
+    @NonNull
+    public CellState getCellState(long gameId, int cell) {
+        if (cell < 0 || cell >= cellCount) {
+            throw new IllegalArgumentException("Invalid cell: " + cell);
+        }
+        long cellMask = 1L << cell;
+        long hash = hash(gameId);
+        Stripe stripe = getStripe(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(gameId, hash);
+            if (slot >= 0 && (stripe.crossMasks[slot] & cellMask) != 0) {
+                return CellState.CROSS;
+            }
+            if (slot >= 0 && (stripe.circleMasks[slot] & cellMask) != 0) {
+                return CellState.CIRCLE;
+            }
+            return CellState.FREE;
+        }
+    }
+
+    /**
+     * @return the no: of moves played in the game, -1 if there is no game with the id.
+     */
+    public int getMoveCount(long gameId) {
+        long hash = hash(gameId);
+        Stripe stripe = getStripe(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(gameId, hash);
+            return slot < 0 ? -1 : Long.bitCount(stripe.crossMasks[slot] | stripe.circleMasks[slot]);
+        }
+    }
+
+    /**
+     * @return the no: of games held, which is exact only when no games are being created or removed concurrently.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int getBoardSize() {
+        return patternTable.getBoardSize();
+    }
+
+    @NonNull
+    private Stripe getStripe(long hash) {
+        //The shift of a single stripe is 64, which java reduces to 0, so the hash is masked.
+        return stripes[(int) (hash >>> stripeShift) & (stripes.length - 1)];
+    }
+
+    /**
+     * Finalizer of MurmurHash3, so that sequential ids are spread over the stripes & slots.
+     */
+    private static long hash(long gameId) {
+        long hash = gameId;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Open-addressing hash table of the games of a stripe with linear probing, in parallel primitive arrays.
+     * Guarded by its own monitor.
+     */
+    private static final class Stripe {
+
+        private long[] gameIds = new long[INITIAL_STRIPE_CAPACITY];
+        private long[] crossMasks = new long[INITIAL_STRIPE_CAPACITY];
+        private long[] circleMasks = new long[INITIAL_STRIPE_CAPACITY];
+        //Status of the slot, FREE_SLOT if the slot holds no game.
+        private byte[] statuses = new byte[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        /**
+         * @return the slot of the game, -1 if the stripe does not hold the game.
+         */
+        int find(long gameId, long hash) {
+            int mask = gameIds.length - 1;
+            for (int slot = (int) hash & mask; statuses[slot] != FREE_SLOT; slot = (slot + 1) & mask) {
+                if (gameIds[slot] == gameId) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        boolean insert(long gameId, long hash) {
+            if (find(gameId, hash) >= 0) {
+                return false;
+            }
+            //Load factor of at most 3/4.
+            if ((size + 1) * 4 > gameIds.length * 3) {
+                resize(gameIds.length * 2);
+            }
+            int slot = findFreeSlot(hash);
+            gameIds[slot] = gameId;
+            crossMasks[slot] = 0;
+            circleMasks[slot] = 0;
+            statuses[slot] = IN_PROGRESS;
+            size++;
+            return true;
+        }
+
+        /**
+         * Frees the slot and shifts back the games of the probe sequence after it, so that no tombstones are needed.
+         */
+        void remove(int slot) {
+            int mask = gameIds.length - 1;
+            int free = slot;
+            for (int next = (free + 1) & mask; statuses[next] != FREE_SLOT; next = (next + 1) & mask) {
+                int home = (int) hash(gameIds[next]) & mask;
+                //The game can move to the free slot, if the free slot is not before its home slot in the probe order.
+                if (((next - home) & mask) >= ((next - free) & mask)) {
+                    gameIds[free] = gameIds[next];
+                    crossMasks[free] = crossMasks[next];
+                    circleMasks[free] = circleMasks[next];
+                    statuses[free] = statuses[next];
+                    free = next;
+                }
+            }
+            statuses[free] = FREE_SLOT;
+            size--;
+        }
+
+        private int findFreeSlot(long hash) {
+            int mask = gameIds.length - 1;
+            int slot = (int) hash & mask;
+            while (statuses[slot] != FREE_SLOT) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            long[] oldGameIds = gameIds;
+            long[] oldCrossMasks = crossMasks;
+            long[] oldCircleMasks = circleMasks;
+            byte[] oldStatuses = statuses;
+            gameIds = new long[capacity];
+            crossMasks = new long[capacity];
+            circleMasks = new long[capacity];
+            statuses = new byte[capacity];
+            for (int index = 0; index < oldStatuses.length; index++) {
+                if (oldStatuses[index] != FREE_SLOT) {
+                    int slot = findFreeSlot(hash(oldGameIds[index]));
+                    gameIds[slot] = oldGameIds[index];
+                    crossMasks[slot] = oldCrossMasks[index];
+                    circleMasks[slot] = oldCircleMasks[index];
+                    statuses[slot] = oldStatuses[index];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * Plays a winning move if there is one, else blocks a winning move of the opponent, else plays a random free cell.
+ */
+public final class GreedyStrategy implements Strategy {
+
+    @Override
+    public int selectMove(@NonNull SimulationBoard board, @NonNull Random random) {
+        long freeMask = board.getFreeMask();
+        int player = board.getCurrentPlayer();
+        int block = -1;
+        for (long cells = freeMask; cells != 0; cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            if (board.isWinningMove(player, cell)) {
+                return cell;
+            }
+            if (block < 0 && board.isWinningMove(1 - player, cell)) {
+                block = cell;
+            }
+        }
+        return block >= 0 ? block : RandomStrategy.selectRandomCell(freeMask, random);
+    }
+}
@@ -0,0 +1,26 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * Plays a random free cell.
+ */
+public final class RandomStrategy implements Strategy {
+
+    @Override
+    public int selectMove(@NonNull SimulationBoard board, @NonNull Random random) {
+        return selectRandomCell(board.getFreeMask(), random);
+    }
+
+    /**
+     * @return a random cell of the mask, which is not empty.
+     */
+    static int selectRandomCell(long mask, @NonNull Random random) {
+        for (int skip = random.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+        return Long.numberOfTrailingZeros(mask);
+    }
+}
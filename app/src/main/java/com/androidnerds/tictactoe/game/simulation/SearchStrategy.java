@@ -0,0 +1,39 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.ai.AlphaBetaSearch;
+import com.androidnerds.tictactoe.game.board.BitBoard;
+
+import java.util.Random;
+
+/**
+ * Plays the best move of the {@link AlphaBetaSearch} to a fixed depth, on the 4x4 board with the standard rules.
+ * The transposition table of the search is kept across the games played on the thread.
+ */
+public final class SearchStrategy implements Strategy {
+
+    private final AlphaBetaSearch search = new AlphaBetaSearch();
+    private final int depth;
+
+    /**
+     * @param depth - no: of plies searched for each move.
+     */
+    public SearchStrategy(int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Invalid depth: " + depth);
+        }
+        this.depth = depth;
+    }
+
+    @Override
+    public int selectMove(@NonNull SimulationBoard board, @NonNull Random random) {
+        if (board.getBoardSize() != BitBoard.SIZE) {
+            throw new IllegalArgumentException("Search is not supported on the board of size: " + board.getBoardSize());
+        }
+        int player = board.getCurrentPlayer();
+        int ownMask = (int) board.getPlayerMask(player);
+        int opponentMask = (int) board.getPlayerMask(1 - player);
+        return search.search(ownMask, opponentMask, depth).getBestMove();
+    }
+}
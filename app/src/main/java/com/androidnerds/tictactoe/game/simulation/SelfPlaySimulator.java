@@ -0,0 +1,134 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.WinPatternTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless runner, which plays a number of games between 2 strategies on all the threads and aggregates the results
+ * into the {@link SimulationStats}.
+ * <p>
+ * The games are split evenly between the threads, each thread plays its share on its own {@link SimulationBoard},
+ * strategies, random source & stats, so the threads share nothing until the stats are merged at the end. The strategies
+ * alternate who moves first by the index of the game, so that the first-move advantage cancels out of the win rates of
+ * the strategies. The random source of a thread is seeded from the seed of the run & the index of the thread, so a run
+ * with the same seed & thread count plays the same games.
+ * </p>
+ */
+public final class SelfPlaySimulator {
+
+    private final WinPatternTable patternTable;
+    private final ExecutorService executor;
+    private final int threadCount;
+
+    /**
+     * @param patternTable - rules of the games, compiled for a board of up to 64 cells.
+     * @param threadCount  - no: of threads playing the games.
+     */
+    public SelfPlaySimulator(@NonNull WinPatternTable patternTable, int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Invalid thread count: " + threadCount);
+        }
+        if (!patternTable.hasPatternMasks()) {
+            throw new IllegalArgumentException("Simulation is not supported on the board of size: " + patternTable.getBoardSize());
+        }
+        this.patternTable = patternTable;
+        this.threadCount = threadCount;
+        this.executor = Executors.newFixedThreadPool(threadCount);
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Plays the games between the strategies and waits for all of them to complete.
+     *
+     * @param strategyA - strategy moving first in the even games.
+     * @param strategyB - strategy moving first in the odd games.
+     * @param gameCount - no: of games to play.
+     * @param seed      - seed of the random sources.
+     * @return the merged results of all the games.
+     */
+    @NonNull
+    public SimulationStats run(@NonNull Strategy.Factory strategyA, @NonNull Strategy.Factory strategyB,
+                               long gameCount, long seed) {
+        if (gameCount < 0) {
+            throw new IllegalArgumentException("Invalid game count: " + gameCount);
+        }
+        List<Future<SimulationStats>> futures = new ArrayList<>(threadCount);
+        for (int index = 0; index < threadCount; index++) {
+            long firstGame = gameCount * index / threadCount;
+            long lastGame = gameCount * (index + 1) / threadCount;
+            futures.add(executor.submit(new Worker(patternTable, strategyA.create(), strategyB.create(),
+                    firstGame, lastGame, seed + index)));
+        }
+        SimulationStats stats = new SimulationStats(patternTable.getBoardSize() * patternTable.getBoardSize());
+        for (Future<SimulationStats> future : futures) {
+            try {
+                stats.merge(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Simulation was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Simulation failed", e.getCause());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Stops the threads, the instance can not be used after this.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Plays a range of the games on one thread.
+     */
+    private static final class Worker implements Callable<SimulationStats> {
+
+        private final SimulationBoard board;
+        private final Strategy[] strategies;
+        private final long firstGame;
+        private final long lastGame;
+        private final Random random;
+
+        Worker(@NonNull WinPatternTable patternTable, @NonNull Strategy strategyA, @NonNull Strategy strategyB,
+               long firstGame, long lastGame, long seed) {
+            this.board = new SimulationBoard(patternTable);
+            this.strategies = new Strategy[]{strategyA, strategyB};
+            this.firstGame = firstGame;
+            this.lastGame = lastGame;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public SimulationStats call() {
+            SimulationStats stats = new SimulationStats(board.getCellCount());
+            for (long game = firstGame; game < lastGame; game++) {
+                int firstStrategy = (int) (game & 1);
+                board.reset();
+                int openingCell = strategies[firstStrategy].selectMove(board, random);
+                boolean completed = board.play(openingCell);
+                int strategy = 1 - firstStrategy;
+                while (!completed) {
+                    completed = board.play(strategies[strategy].selectMove(board, random));
+                    strategy = 1 - strategy;
+                }
+                stats.addGame(board, firstStrategy, openingCell);
+            }
+            return stats;
+        }
+    }
+}
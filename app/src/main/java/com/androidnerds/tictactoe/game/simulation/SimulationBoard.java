@@ -0,0 +1,129 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.WinPatternTable;
+
+/**
+ * Board of a simulated game, for boards of up to 64 cells, with the cells of each player in a long mask.
+ * <p>
+ * Unlike the {@link com.androidnerds.tictactoe.game.GameEngine}, the board has no listeners, no players & no
+ * exceptions for the moves: a game is reset and played by setting bits, and a win is detected by testing the masks of
+ * the patterns through the last move. A board is reused for all the games played on a thread.
+ * </p>
+ */
+public final class SimulationBoard {
+
+    //Index of the players, the first player moves first.
+    public static final int FIRST_PLAYER = 0;
+    public static final int SECOND_PLAYER = 1;
+    //Winner of a game which is drawn or not yet completed.
+    public static final int NO_WINNER = -1;
+
+    private final WinPatternTable patternTable;
+    private final int cellCount;
+    private final long fullMask;
+
+    private final long[] playerMasks = new long[2];
+    private int currentPlayer;
+    private int moveCount;
+    private int winner;
+    private int winningPattern;
+
+    /**
+     * @param patternTable - rules of the game, compiled for a board of up to 64 cells.
+     */
+    public SimulationBoard(@NonNull WinPatternTable patternTable) {
+        if (!patternTable.hasPatternMasks()) {
+            throw new IllegalArgumentException("Simulation is not supported on the board of size: " + patternTable.getBoardSize());
+        }
+        this.patternTable = patternTable;
+        this.cellCount = patternTable.getBoardSize() * patternTable.getBoardSize();
+        this.fullMask = cellCount == Long.SIZE ? -1L : (1L << cellCount) - 1;
+        reset();
+    }
+
+    /**
+     * Clears the board for a new game.
+     */
+    public void reset() {
+        playerMasks[FIRST_PLAYER] = 0;
+        playerMasks[SECOND_PLAYER] = 0;
+        currentPlayer = FIRST_PLAYER;
+        moveCount = 0;
+        winner = NO_WINNER;
+        winningPattern = -1;
+    }
+
+    /**
+     * Plays the move of the current player and passes the turn to the other player.
+     *
+     * @param cell - index of a free cell ({@code row * size + column}).
+     * @return TRUE - if the game is completed by the move, with a win or a draw.
+     */
+    public boolean play(int cell) {
+        long cellMask = 1L << cell;
+        if (cell < 0 || cell >= cellCount || ((playerMasks[0] | playerMasks[1]) & cellMask) != 0 || isCompleted()) {
+            throw new IllegalArgumentException("Cell " + cell + " can not be played");
+        }
+        long playerMask = playerMasks[currentPlayer] | cellMask;
+        playerMasks[currentPlayer] = playerMask;
+        moveCount++;
+        int pattern = patternTable.findWinningPattern(playerMask, cell);
+        if (pattern >= 0) {
+            winner = currentPlayer;
+            winningPattern = pattern;
+        }
+        currentPlayer = 1 - currentPlayer;
+        return isCompleted();
+    }
+
+    /**
+     * @return TRUE - if the player would win by playing the free cell.
+     */
+    public boolean isWinningMove(int player, int cell) {
+        return patternTable.findWinningPattern(playerMasks[player] | (1L << cell), cell) >= 0;
+    }
+
+    public boolean isCompleted() {
+        return winner != NO_WINNER || moveCount == cellCount;
+    }
+
+    /**
+     * @return the player who won the game, or {@link #NO_WINNER}.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return the pattern of the {@link WinPatternTable} completed by the winner, or -1.
+     */
+    public int getWinningPattern() {
+        return winningPattern;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public long getPlayerMask(int player) {
+        return playerMasks[player];
+    }
+
+    public long getFreeMask() {
+        return ~(playerMasks[0] | playerMasks[1]) & fullMask;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getBoardSize() {
+        return patternTable.getBoardSize();
+    }
+}
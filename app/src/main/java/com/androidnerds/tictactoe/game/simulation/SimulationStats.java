@@ -0,0 +1,167 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Aggregated results of the games played by the {@link SelfPlaySimulator} between 2 strategies, A & B.
+ * <p>
+ * The strategies take turns to move first, so the results are counted both per strategy and per turn order, which
+ * gives the first-move advantage. The results of the first player are also counted per opening cell.
+ * Every thread of the simulation fills its own instance, which are merged at the end.
+ * </p>
+ */
+public final class SimulationStats {
+
+    //Index of the strategies.
+    public static final int STRATEGY_A = 0;
+    public static final int STRATEGY_B = 1;
+
+    private final int cellCount;
+    private long gameCount;
+    private long drawCount;
+    private final long[] strategyWins = new long[2];
+    //Wins by the turn order, indexed by SimulationBoard.FIRST_PLAYER/SECOND_PLAYER.
+    private final long[] playerWins = new long[2];
+    //No: of games by the no: of moves played.
+    private final long[] lengthCounts;
+    //Games & wins of the first player by the cell of the first move.
+    private final long[] openingGames;
+    private final long[] openingWins;
+
+    public SimulationStats(int cellCount) {
+        this.cellCount = cellCount;
+        this.lengthCounts = new long[cellCount + 1];
+        this.openingGames = new long[cellCount];
+        this.openingWins = new long[cellCount];
+    }
+
+    /**
+     * Adds the result of a completed game.
+     *
+     * @param firstStrategy - strategy which moved first.
+     * @param openingCell   - cell of the first move.
+     */
+    void addGame(@NonNull SimulationBoard board, int firstStrategy, int openingCell) {
+        gameCount++;
+        lengthCounts[board.getMoveCount()]++;
+        openingGames[openingCell]++;
+        int winner = board.getWinner();
+        if (winner == SimulationBoard.NO_WINNER) {
+            drawCount++;
+            return;
+        }
+        playerWins[winner]++;
+        strategyWins[winner == SimulationBoard.FIRST_PLAYER ? firstStrategy : 1 - firstStrategy]++;
+        if (winner == SimulationBoard.FIRST_PLAYER) {
+            openingWins[openingCell]++;
+        }
+    }
+
+    /**
+     * Adds the results of the other instance to this instance.
+     */
+    void merge(@NonNull SimulationStats other) {
+        if (other.cellCount != cellCount) {
+            throw new IllegalArgumentException("Stats of " + other.cellCount + " cells can not be merged into " + cellCount);
+        }
+        gameCount += other.gameCount;
+        drawCount += other.drawCount;
+        for (int index = 0; index < 2; index++) {
+            strategyWins[index] += other.strategyWins[index];
+            playerWins[index] += other.playerWins[index];
+        }
+        for (int length = 0; length <= cellCount; length++) {
+            lengthCounts[length] += other.lengthCounts[length];
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            openingGames[cell] += other.openingGames[cell];
+            openingWins[cell] += other.openingWins[cell];
+        }
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public long getDrawCount() {
+        return drawCount;
+    }
+
+    /**
+     * @param strategy - {@link #STRATEGY_A} or {@link #STRATEGY_B}.
+     */
+    public long getWins(int strategy) {
+        return strategyWins[strategy];
+    }
+
+    /**
+     * @param player - {@link SimulationBoard#FIRST_PLAYER} or {@link SimulationBoard#SECOND_PLAYER}.
+     */
+    public long getPlayerWins(int player) {
+        return playerWins[player];
+    }
+
+    public double getWinRate(int strategy) {
+        return getRate(strategyWins[strategy], gameCount);
+    }
+
+    public double getDrawRate() {
+        return getRate(drawCount, gameCount);
+    }
+
+    /**
+     * @return the win rate of the player moving first minus the win rate of the player moving second.
+     */
+    public double getFirstMoveAdvantage() {
+        return getRate(playerWins[SimulationBoard.FIRST_PLAYER] - playerWins[SimulationBoard.SECOND_PLAYER], gameCount);
+    }
+
+    /**
+     * @return the no: of games which ended after the no: of moves.
+     */
+    public long getLengthCount(int moveCount) {
+        return lengthCounts[moveCount];
+    }
+
+    public double getAverageLength() {
+        long totalMoves = 0;
+        for (int length = 0; length <= cellCount; length++) {
+            totalMoves += length * lengthCounts[length];
+        }
+        return getRate(totalMoves, gameCount);
+    }
+
+    public long getOpeningGames(int cell) {
+        return openingGames[cell];
+    }
+
+    /**
+     * @return the win rate of the first player, in the games opened at the cell.
+     */
+    public double getOpeningWinRate(int cell) {
+        return getRate(openingWins[cell], openingGames[cell]);
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("games: %d, A wins: %.4f, B wins: %.4f, draws: %.4f, first-move advantage: %+.4f, average length: %.2f",
+                gameCount, getWinRate(STRATEGY_A), getWinRate(STRATEGY_B), getDrawRate(), getFirstMoveAdvantage(),
+                getAverageLength()));
+        builder.append("\nlengths:");
+        for (int length = 0; length <= cellCount; length++) {
+            if (lengthCounts[length] > 0) {
+                builder.append(' ').append(length).append('=').append(lengthCounts[length]);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static double getRate(long count, long total) {
+        return total > 0 ? (double) count / total : 0;
+    }
+}
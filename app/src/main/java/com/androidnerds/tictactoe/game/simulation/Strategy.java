@@ -0,0 +1,33 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * Selects the moves of a player in the simulated games.
+ * <p>
+ * A strategy is used by a single thread, the {@link SelfPlaySimulator} creates a strategy per thread via its
+ * {@link Factory}, so a strategy can keep buffers & search tables without any synchronization.
+ * </p>
+ */
+public interface Strategy {
+
+    /**
+     * Selects the move of the current player of the board.
+     *
+     * @param board  - board of the game, which is not completed.
+     * @param random - random source of the thread.
+     * @return index of a free cell ({@code row * size + column}).
+     */
+    int selectMove(@NonNull SimulationBoard board, @NonNull Random random);
+
+    /**
+     * Creates the instances of a strategy for the threads of the simulation.
+     */
+    interface Factory {
+
+        @NonNull
+        Strategy create();
+    }
+}
@@ -0,0 +1,50 @@
+package com.androidnerds.tictactoe.server;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of direct buffers of a fixed size, used by a single event loop, so it needs no synchronization.
+ * <p>
+ * Direct buffers are read & written by the socket channels without a copy into a temporary buffer, but they are
+ * expensive to allocate & free, so the buffers of a closed connection are kept for the next connection.
+ * </p>
+ */
+final class BufferPool {
+
+    private final int bufferBytes;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> buffers;
+
+    /**
+     * @param bufferBytes - capacity of the buffers.
+     * @param maxPooled   - no: of free buffers kept, the others are left to the garbage collector.
+     */
+    BufferPool(int bufferBytes, int maxPooled) {
+        this.bufferBytes = bufferBytes;
+        this.maxPooled = maxPooled;
+        this.buffers = new ArrayDeque<>(Math.min(maxPooled, 1024));
+    }
+
+    /**
+     * @return a cleared buffer, from the pool if there is one.
+     */
+    @NonNull
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.pollFirst();
+        return null != buffer ? buffer : ByteBuffer.allocateDirect(bufferBytes);
+    }
+
+    void release(@NonNull ByteBuffer buffer) {
+        if (buffers.size() < maxPooled) {
+            buffer.clear();
+            buffers.addFirst(buffer);
+        }
+    }
+
+    int getPooledCount() {
+        return buffers.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.androidnerds.tictactoe.server;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary protocol between the {@link GameServer} and its clients, made of fixed-width frames of {@link #FRAME_BYTES}:
+ * <pre>
+ * offset 0: type   (byte)  - {@link #START}, {@link #MOVE}, {@link #STATUS}, {@link #GAME_OVER}.
+ * offset 1: code   (byte)  - ordinal of the {@link GameEngine.MoveResult} or the {@link GameEngine.GameStatus}.
+ * offset 2: cell   (short) - index of the cell ({@code row * boardSize + column}), -1 if there is no cell.
+ * offset 4: gameId (long)  - id of the game, chosen by the client.
+ * </pre>
+ * Every frame of a client gets exactly one frame in reply, in the order of the requests:
+ * <ul>
+ * <li>START (re)starts the game with an empty board, the reply is a STATUS frame.</li>
+ * <li>MOVE plays the cell for the player to move, the reply is a MOVE frame with the result of the move, or a
+ * GAME_OVER frame with the final status when the move was accepted and ended the game.</li>
+ * <li>STATUS asks for the status of the game, the reply is a STATUS frame.</li>
+ * </ul>
+ * The values are big-endian, the default order of a {@link ByteBuffer}.
+ */
+public final class GameProtocol {
+
+    public static final int FRAME_BYTES = 12;
+
+    //Types of the frames.
+    public static final byte START = 1;
+    public static final byte MOVE = 2;
+    public static final byte STATUS = 3;
+    public static final byte GAME_OVER = 4;
+
+    //Cell of the frames without a cell.
+    public static final int NO_CELL = -1;
+
+    //Values of the codes, cached as values() copies the array on every call.
+    private static final GameEngine.MoveResult[] MOVE_RESULTS = GameEngine.MoveResult.values();
+    private static final GameEngine.GameStatus[] GAME_STATUSES = GameEngine.GameStatus.values();
+
+    private GameProtocol() {
+    }
+
+    /**
+     * Writes a frame at the position of the buffer, which should have {@link #FRAME_BYTES} remaining.
+     */
+    public static void putFrame(@NonNull ByteBuffer buffer, byte type, int code, int cell, long gameId) {
+        buffer.put(type);
+        buffer.put((byte) code);
+        buffer.putShort((short) cell);
+        buffer.putLong(gameId);
+    }
+
+    public static byte getType(@NonNull ByteBuffer buffer, int offset) {
+        return buffer.get(offset);
+    }
+
+    public static int getCode(@NonNull ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 1);
+    }
+
+    public static int getCell(@NonNull ByteBuffer buffer, int offset) {
+        return buffer.getShort(offset + 2);
+    }
+
+    public static long getGameId(@NonNull ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 4);
+    }
+
+    /**
+     * @return the result of a MOVE frame sent by the server, null if the code is not valid.
+     */
+    public static GameEngine.MoveResult toMoveResult(int code) {
+        return code >= 0 && code < MOVE_RESULTS.length ? MOVE_RESULTS[code] : null;
+    }
+
+    /**
+     * @return the status of a STATUS or GAME_OVER frame sent by the server, null if the code is not valid.
+     */
+    public static GameEngine.GameStatus toGameStatus(int code) {
+        return code >= 0 && code < GAME_STATUSES.length ? GAME_STATUSES[code] : null;
+    }
+}
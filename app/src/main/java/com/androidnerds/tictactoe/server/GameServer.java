@@ -0,0 +1,365 @@
+package com.androidnerds.tictactoe.server;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.session.GameSessionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless server, which exposes the games of a {@link GameSessionManager} over TCP with the {@link GameProtocol}.
+ * <p>
+ * The connections are served by a small group of event loops, each a thread with its own {@link Selector}. The first
+ * loop also accepts the connections and hands them to the loops in turn. A connection reads into & writes from direct
+ * buffers of the {@link BufferPool} of its loop, and the frames are decoded & encoded in place in the buffers, so the
+ * handling of a move allocates nothing, the only allocations left are those of the selector for its selected keys.
+ * The games are shared by all the loops via the thread-safe session manager.
+ * </p>
+ * <p>
+ * Usage: {@code GameServer [port] [loopCount] [boardSize]}.
+ * </p>
+ */
+public final class GameServer {
+
+    //Capacity of the read & write buffers of a connection.
+    static final int BUFFER_BYTES = 64 * GameProtocol.FRAME_BYTES;
+    //No: of free buffers kept by the pool of a loop.
+    private static final int MAX_POOLED_BUFFERS = 64 * 1024;
+    //No: of pending connections queued by the operating system.
+    private static final int ACCEPT_BACKLOG = 4096;
+    //Time the accepts are paused after a failed accept, eg. when the process is out of file descriptors.
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+
+    private final GameSessionManager sessions;
+    private final EventLoop[] loops;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private ServerSocketChannel serverChannel;
+    //Key of the server channel with the selector of the first loop, and the time its accepts resume if paused.
+    private SelectionKey acceptKey;
+    private long acceptResumeMillis;
+    private boolean acceptPaused;
+    private int nextLoop;
+
+    /**
+     * @param sessions  - games exposed by the server.
+     * @param loopCount - no: of event loop threads.
+     */
+    public GameServer(@NonNull GameSessionManager sessions, int loopCount) {
+        if (loopCount <= 0) {
+            throw new IllegalArgumentException("Invalid loop count: " + loopCount);
+        }
+        this.sessions = sessions;
+        this.loops = new EventLoop[loopCount];
+    }
+
+    /**
+     * Binds the server and starts the event loops.
+     *
+     * @param address - address to listen on, port 0 for any free port.
+     * @return the port the server listens on.
+     */
+    public synchronized int start(@NonNull InetSocketAddress address) throws IOException {
+        if (null != serverChannel) {
+            throw new IllegalStateException("Server is already started");
+        }
+        for (int index = 0; index < loops.length; index++) {
+            loops[index] = new EventLoop(index);
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        //Bound via the socket, as the channel methods of the socket options & binding need API 24.
+        serverChannel.socket().bind(address, ACCEPT_BACKLOG);
+        acceptKey = serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stops the event loops and closes all the connections.
+     */
+    public synchronized void close() throws InterruptedException {
+        if (null == serverChannel) {
+            return;
+        }
+        for (EventLoop loop : loops) {
+            loop.running = false;
+            loop.selector.wakeup();
+        }
+        for (EventLoop loop : loops) {
+            loop.thread.join();
+        }
+        closeQuietly(serverChannel);
+        serverChannel = null;
+    }
+
+    /**
+     * @return the no: of open connections.
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        int loopCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int boardSize = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        GameServer server = new GameServer(new GameSessionManager(boardSize), loopCount);
+        int boundPort = server.start(new InetSocketAddress(port));
+        System.out.println("Listening on port " + boundPort + " with " + loopCount + " loops, board size " + boardSize);
+    }
+
+    /**
+     * Accepts the pending connections, on the first loop. After a failed accept, eg. when the process is out of file
+     * descriptors, the server channel is removed from the selection for {@link #ACCEPT_RETRY_MILLIS}, as the pending
+     * connection keeps it selected and the loop would spin, and the accepts resume once the time has elapsed.
+     */
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                acceptKey.interestOps(0);
+                acceptPaused = true;
+                acceptResumeMillis = System.currentTimeMillis() + ACCEPT_RETRY_MILLIS;
+                return;
+            }
+            if (null == channel) {
+                return;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+            } catch (IOException e) {
+                closeQuietly(channel);
+                continue;
+            }
+            EventLoop loop = loops[nextLoop];
+            nextLoop = (nextLoop + 1) % loops.length;
+            if (loop == loops[0]) {
+                loop.register(channel);
+            } else {
+                loop.pendingChannels.offer(channel);
+                loop.selector.wakeup();
+            }
+        }
+    }
+
+    /**
+     * Selects the keys of the first loop, resuming the accepts once their pause has elapsed.
+     */
+    private void selectAccepting(@NonNull Selector selector) throws IOException {
+        if (acceptPaused) {
+            long wait = acceptResumeMillis - System.currentTimeMillis();
+            if (wait > 0) {
+                selector.select(wait);
+                return;
+            }
+            acceptPaused = false;
+            if (acceptKey.isValid()) {
+                acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+            }
+        }
+        selector.select();
+    }
+
+    private static void closeQuietly(@NonNull Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            //Nothing to do, the channel is discarded.
+        }
+    }
+
+    /**
+     * Connection of a client, attached to its selection key.
+     */
+    private static final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer;
+        private final ByteBuffer writeBuffer;
+        private SelectionKey key;
+        private boolean closed;
+
+        Connection(@NonNull SocketChannel channel, @NonNull ByteBuffer readBuffer, @NonNull ByteBuffer writeBuffer) {
+            this.channel = channel;
+            this.readBuffer = readBuffer;
+            this.writeBuffer = writeBuffer;
+        }
+    }
+
+    /**
+     * Thread serving the connections registered with its selector.
+     */
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Thread thread;
+        private final BufferPool bufferPool = new BufferPool(BUFFER_BYTES, MAX_POOLED_BUFFERS);
+        //Connections accepted by the first loop, to be registered by this loop.
+        private final ConcurrentLinkedQueue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+        //Status of the game after a move, filled by the session manager.
+        private final GameEngine.GameStatus[] moveStatus = new GameEngine.GameStatus[1];
+        private volatile boolean running = true;
+
+        EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "GameServer-loop-" + index);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    if (this == loops[0]) {
+                        selectAccepting(selector);
+                    } else {
+                        selector.select();
+                    }
+                    SocketChannel channel;
+                    while (null != (channel = pendingChannels.poll())) {
+                        register(channel);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable() && connection.channel.read(connection.readBuffer) < 0) {
+                                close(connection);
+                                continue;
+                            }
+                            serve(connection);
+                        } catch (IOException e) {
+                            close(connection);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Event loop failed", e);
+            } finally {
+                SocketChannel channel;
+                while (null != (channel = pendingChannels.poll())) {
+                    closeQuietly(channel);
+                }
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) {
+                        close((Connection) key.attachment());
+                    }
+                }
+                closeQuietly(selector);
+            }
+        }
+
+        private void register(@NonNull SocketChannel channel) {
+            Connection connection = new Connection(channel, bufferPool.acquire(), bufferPool.acquire());
+            try {
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connectionCount.incrementAndGet();
+            } catch (IOException e) {
+                bufferPool.release(connection.readBuffer);
+                bufferPool.release(connection.writeBuffer);
+                closeQuietly(channel);
+            }
+        }
+
+        /**
+         * Handles the complete frames read, as long as the replies fit into the write buffer, and writes the replies.
+         * Reading stops while the write buffer is full, so a client which does not read its replies is throttled.
+         */
+        private void serve(@NonNull Connection connection) throws IOException {
+            ByteBuffer readBuffer = connection.readBuffer;
+            ByteBuffer writeBuffer = connection.writeBuffer;
+            while (true) {
+                readBuffer.flip();
+                while (readBuffer.remaining() >= GameProtocol.FRAME_BYTES &&
+                        writeBuffer.remaining() >= GameProtocol.FRAME_BYTES) {
+                    if (!handleFrame(readBuffer, readBuffer.position(), writeBuffer)) {
+                        close(connection);
+                        return;
+                    }
+                    readBuffer.position(readBuffer.position() + GameProtocol.FRAME_BYTES);
+                }
+                readBuffer.compact();
+                writeBuffer.flip();
+                int written = connection.channel.write(writeBuffer);
+                writeBuffer.compact();
+                //More frames can be handled only if the write has freed space in the full write buffer.
+                if (written == 0 || readBuffer.position() < GameProtocol.FRAME_BYTES) {
+                    break;
+                }
+            }
+            int interestOps = writeBuffer.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (connection.key.interestOps() != interestOps) {
+                connection.key.interestOps(interestOps);
+            }
+        }
+
+        /**
+         * Handles the frame of a client at the offset and writes the reply.
+         *
+         * @return FALSE - if the frame is not valid and the connection should be closed.
+         */
+        private boolean handleFrame(@NonNull ByteBuffer readBuffer, int offset, @NonNull ByteBuffer writeBuffer) {
+            long gameId = GameProtocol.getGameId(readBuffer, offset);
+            switch (GameProtocol.getType(readBuffer, offset)) {
+                case GameProtocol.START:
+                    sessions.startGame(gameId);
+                    GameProtocol.putFrame(writeBuffer, GameProtocol.STATUS,
+                            GameEngine.GameStatus.NEXT_PLAYER_PLAYS.ordinal(), GameProtocol.NO_CELL, gameId);
+                    return true;
+                case GameProtocol.MOVE:
+                    int cell = GameProtocol.getCell(readBuffer, offset);
+                    GameEngine.MoveResult moveResult = sessions.playMove(gameId, cell, moveStatus);
+                    if (moveResult == GameEngine.MoveResult.ACCEPTED &&
+                            moveStatus[0] != GameEngine.GameStatus.NEXT_PLAYER_PLAYS) {
+                        GameEngine.GameStatus gameStatus = moveStatus[0];
+                        GameProtocol.putFrame(writeBuffer, GameProtocol.GAME_OVER, gameStatus.ordinal(), cell, gameId);
+                    } else {
+                        GameProtocol.putFrame(writeBuffer, GameProtocol.MOVE, moveResult.ordinal(), cell, gameId);
+                    }
+                    return true;
+                case GameProtocol.STATUS:
+                    GameProtocol.putFrame(writeBuffer, GameProtocol.STATUS, sessions.getGameStatus(gameId).ordinal(),
+                            GameProtocol.NO_CELL, gameId);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private void close(@NonNull Connection connection) {
+            if (connection.closed) {
+                return;
+            }
+            connection.closed = true;
+            connection.key.cancel();
+            connectionCount.decrementAndGet();
+            closeQuietly(connection.channel);
+            bufferPool.release(connection.readBuffer);
+            bufferPool.release(connection.writeBuffer);
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.androidnerds.tictactoe.server;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Load generator for the {@link GameServer}, which opens many concurrent connections and plays a game after another on
+ * each of them, with a single request in flight per connection.
+ * <p>
+ * A connection plays both players of its game, each move on a random free cell, and restarts the game when the
+ * server reports the game over. The connections are driven by a few event loops like the server, with the direct
+ * buffers of a {@link BufferPool}.
+ * </p>
+ * <p>
+ * A source address can open ~28k connections to the port of the server, limited by the ephemeral ports. To open 100k
+ * connections on loopback, the connections are spread over the source addresses 127.0.0.2, 127.0.0.3..., which are
+ * all loopback addresses on Linux. The limit of open files should exceed the no: of connections, for the client and
+ * for the server.
+ * </p>
+ * <p>
+ * Usage: {@code LoadClient [host] [port] [connections] [loopCount] [seconds] [sourceAddresses] [boardSize]}.
+ * </p>
+ */
+public final class LoadClient {
+
+    //No: of connections of a loop being connected at the same time, to not overflow the accept backlog.
+    private static final int MAX_PENDING_CONNECTS = 512;
+    //Buffers of a connection, a single frame is in flight per connection.
+    private static final int BUFFER_BYTES = 4 * GameProtocol.FRAME_BYTES;
+    //Time allowed to open all the connections.
+    private static final long CONNECT_TIMEOUT_MILLIS = 120_000;
+
+    private final InetSocketAddress serverAddress;
+    private final int connectionCount;
+    private final int sourceAddressCount;
+    private final int cellCount;
+    private final ClientLoop[] loops;
+
+    /**
+     * @param serverAddress      - address of the server.
+     * @param connectionCount    - no: of connections opened.
+     * @param loopCount          - no: of event loop threads.
+     * @param sourceAddressCount - no: of loopback source addresses to spread the connections over, 0 to let the
+     *                           operating system choose the source address.
+     * @param boardSize          - size of the board of the server, up to 8.
+     */
+    public LoadClient(@NonNull InetSocketAddress serverAddress, int connectionCount, int loopCount,
+                      int sourceAddressCount, int boardSize) {
+        if (connectionCount <= 0 || loopCount <= 0 || sourceAddressCount < 0 || sourceAddressCount > 250 ||
+                boardSize <= 0 || boardSize * boardSize > Long.SIZE) {
+            throw new IllegalArgumentException("Invalid load: " + connectionCount + " connections, " + loopCount +
+                    " loops, " + sourceAddressCount + " source addresses, board size " + boardSize);
+        }
+        this.serverAddress = serverAddress;
+        this.connectionCount = connectionCount;
+        this.sourceAddressCount = sourceAddressCount;
+        this.cellCount = boardSize * boardSize;
+        this.loops = new ClientLoop[loopCount];
+    }
+
+    /**
+     * Opens the connections, then measures the round-trips for the duration, and closes the connections.
+     */
+    @NonNull
+    public Result run(long durationMillis) throws IOException, InterruptedException {
+        for (int index = 0; index < loops.length; index++) {
+            int firstConnection = (int) ((long) connectionCount * index / loops.length);
+            int lastConnection = (int) ((long) connectionCount * (index + 1) / loops.length);
+            loops[index] = new ClientLoop(index, firstConnection, lastConnection);
+        }
+        long connectStart = System.nanoTime();
+        for (ClientLoop loop : loops) {
+            loop.thread.start();
+        }
+        long connectDeadline = connectStart + CONNECT_TIMEOUT_MILLIS * 1_000_000;
+        while (getConnectedCount() + getFailedCount() < connectionCount && System.nanoTime() < connectDeadline) {
+            Thread.sleep(10);
+        }
+        long connectNanos = System.nanoTime() - connectStart;
+        long[] start = snapshot();
+        long startNanos = System.nanoTime();
+        Thread.sleep(durationMillis);
+        long[] end = snapshot();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        for (ClientLoop loop : loops) {
+            loop.running = false;
+            loop.selector.wakeup();
+        }
+        for (ClientLoop loop : loops) {
+            loop.thread.join();
+        }
+        return new Result(getConnectedCount(), getFailedCount(), connectNanos, elapsedNanos,
+                end[0] - start[0], end[1] - start[1], end[2] - start[2]);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9090;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int loopCount = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        int sourceAddresses = args.length > 5 ? Integer.parseInt(args[5]) : (connections + 19_999) / 20_000;
+        int boardSize = args.length > 6 ? Integer.parseInt(args[6]) : 4;
+        LoadClient client = new LoadClient(new InetSocketAddress(host, port), connections, loopCount,
+                sourceAddresses, boardSize);
+        System.out.println(client.run(seconds * 1000L));
+    }
+
+    private int getConnectedCount() {
+        int count = 0;
+        for (ClientLoop loop : loops) {
+            count += loop.connectedCount;
+        }
+        return count;
+    }
+
+    private int getFailedCount() {
+        int count = 0;
+        for (ClientLoop loop : loops) {
+            count += loop.failedCount;
+        }
+        return count;
+    }
+
+    /**
+     * @return the round-trips, the games & the sum of the latencies of the round-trips.
+     */
+    @NonNull
+    private long[] snapshot() {
+        long[] counts = new long[3];
+        for (ClientLoop loop : loops) {
+            counts[0] += loop.roundTrips;
+            counts[1] += loop.games;
+            counts[2] += loop.latencyNanos;
+        }
+        return counts;
+    }
+
+    private static void closeQuietly(@NonNull Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            //Nothing to do, the channel is discarded.
+        }
+    }
+
+    /**
+     * Results of a load run.
+     */
+    public static final class Result {
+
+        private final int connectedCount;
+        private final int failedCount;
+        private final long connectNanos;
+        private final long elapsedNanos;
+        private final long roundTrips;
+        private final long games;
+        private final long latencyNanos;
+
+        Result(int connectedCount, int failedCount, long connectNanos, long elapsedNanos, long roundTrips,
+               long games, long latencyNanos) {
+            this.connectedCount = connectedCount;
+            this.failedCount = failedCount;
+            this.connectNanos = connectNanos;
+            this.elapsedNanos = elapsedNanos;
+            this.roundTrips = roundTrips;
+            this.games = games;
+            this.latencyNanos = latencyNanos;
+        }
+
+        public int getConnectedCount() {
+            return connectedCount;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        public long getRoundTrips() {
+            return roundTrips;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public double getRoundTripsPerSecond() {
+            return roundTrips * 1e9 / elapsedNanos;
+        }
+
+        public double getAverageLatencyMicros() {
+            return roundTrips > 0 ? latencyNanos / 1e3 / roundTrips : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d connections (%,d failed) in %d ms, %,.0f round-trips/s, %,.0f games/s, average latency %.1f us",
+                    connectedCount, failedCount, connectNanos / 1_000_000, getRoundTripsPerSecond(),
+                    games * 1e9 / elapsedNanos, getAverageLatencyMicros());
+        }
+    }
+
+    /**
+     * Connection to the server, attached to its selection key.
+     */
+    private static final class Connection {
+
+        private final SocketChannel channel;
+        private final long gameId;
+        private ByteBuffer readBuffer;
+        private ByteBuffer writeBuffer;
+        private SelectionKey key;
+        private boolean connected;
+        //Cells occupied in the game.
+        private long occupiedMask;
+        //Time the request in flight was sent.
+        private long sentNanos;
+
+        Connection(@NonNull SocketChannel channel, long gameId) {
+            this.channel = channel;
+            this.gameId = gameId;
+        }
+    }
+
+    /**
+     * Thread opening & driving a range of the connections.
+     */
+    private final class ClientLoop implements Runnable {
+
+        private final Selector selector;
+        private final Thread thread;
+        private final BufferPool bufferPool = new BufferPool(BUFFER_BYTES, 1024);
+        private final int lastConnection;
+        private int nextConnection;
+        private int pendingConnects;
+        //Xorshift state, for the cells of the moves.
+        private long random;
+        //Written by the loop only, read by the thread measuring the run.
+        private volatile int connectedCount;
+        private volatile int failedCount;
+        private volatile long roundTrips;
+        private volatile long games;
+        private volatile long latencyNanos;
+        private volatile boolean running = true;
+
+        ClientLoop(int index, int firstConnection, int lastConnection) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "LoadClient-loop-" + index);
+            this.nextConnection = firstConnection;
+            this.lastConnection = lastConnection;
+            this.random = 0x9E3779B97F4A7C15L * (index + 1);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    connect();
+                    selector.select(100);
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        try {
+                            if (key.isConnectable()) {
+                                onConnected(connection);
+                            } else {
+                                serve(connection);
+                            }
+                        } catch (IOException e) {
+                            close(connection);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Client loop failed", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key.channel());
+                }
+                closeQuietly(selector);
+            }
+        }
+
+        /**
+         * Starts the connects of the next connections, up to {@link #MAX_PENDING_CONNECTS} at the same time.
+         */
+        private void connect() throws IOException {
+            while (pendingConnects < MAX_PENDING_CONNECTS && nextConnection < lastConnection) {
+                int index = nextConnection++;
+                SocketChannel channel = SocketChannel.open();
+                try {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    if (sourceAddressCount > 0) {
+                        byte[] sourceAddress = {127, 0, 0, (byte) (2 + index % sourceAddressCount)};
+                        channel.socket().bind(new InetSocketAddress(InetAddress.getByAddress(sourceAddress), 0));
+                    }
+                    Connection connection = new Connection(channel, index);
+                    boolean connected = channel.connect(serverAddress);
+                    connection.key = channel.register(selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT,
+                            connection);
+                    pendingConnects++;
+                    if (connected) {
+                        try {
+                            onConnected(connection);
+                        } catch (IOException e) {
+                            close(connection);
+                        }
+                    }
+                } catch (IOException e) {
+                    failedCount++;
+                    closeQuietly(channel);
+                }
+            }
+        }
+
+        private void onConnected(@NonNull Connection connection) throws IOException {
+            if (connection.channel.isConnectionPending()) {
+                connection.channel.finishConnect();
+            }
+            pendingConnects--;
+            connectedCount++;
+            connection.connected = true;
+            connection.readBuffer = bufferPool.acquire();
+            connection.writeBuffer = bufferPool.acquire();
+            connection.key.interestOps(SelectionKey.OP_READ);
+            send(connection, GameProtocol.START, GameProtocol.NO_CELL);
+        }
+
+        /**
+         * Reads the reply of the server and sends the next request.
+         */
+        private void serve(@NonNull Connection connection) throws IOException {
+            if (connection.key.isWritable()) {
+                flush(connection);
+                return;
+            }
+            ByteBuffer readBuffer = connection.readBuffer;
+            if (connection.channel.read(readBuffer) < 0) {
+                throw new IOException("Connection closed by the server");
+            }
+            if (readBuffer.position() < GameProtocol.FRAME_BYTES) {
+                return;
+            }
+            long now = System.nanoTime();
+            roundTrips++;
+            latencyNanos += now - connection.sentNanos;
+            int type = GameProtocol.getType(readBuffer, 0);
+            int code = GameProtocol.getCode(readBuffer, 0);
+            int cell = GameProtocol.getCell(readBuffer, 0);
+            readBuffer.flip();
+            readBuffer.position(GameProtocol.FRAME_BYTES);
+            readBuffer.compact();
+            if (type == GameProtocol.GAME_OVER) {
+                games++;
+                send(connection, GameProtocol.START, GameProtocol.NO_CELL);
+                return;
+            }
+            if (type == GameProtocol.MOVE) {
+                if (GameProtocol.toMoveResult(code) != GameEngine.MoveResult.ACCEPTED) {
+                    send(connection, GameProtocol.START, GameProtocol.NO_CELL);
+                    return;
+                }
+                connection.occupiedMask |= 1L << cell;
+            } else {
+                connection.occupiedMask = 0;
+            }
+            send(connection, GameProtocol.MOVE, selectFreeCell(connection.occupiedMask));
+        }
+
+        private void close(@NonNull Connection connection) {
+            if (!connection.connected) {
+                pendingConnects--;
+                failedCount++;
+            }
+            connection.key.cancel();
+            closeQuietly(connection.channel);
+            if (null != connection.readBuffer) {
+                bufferPool.release(connection.readBuffer);
+                bufferPool.release(connection.writeBuffer);
+                connection.readBuffer = null;
+                connection.writeBuffer = null;
+            }
+        }
+
+        private void send(@NonNull Connection connection, byte type, int cell) throws IOException {
+            connection.sentNanos = System.nanoTime();
+            GameProtocol.putFrame(connection.writeBuffer, type, 0, cell, connection.gameId);
+            flush(connection);
+        }
+
+        private void flush(@NonNull Connection connection) throws IOException {
+            ByteBuffer writeBuffer = connection.writeBuffer;
+            writeBuffer.flip();
+            connection.channel.write(writeBuffer);
+            writeBuffer.compact();
+            int interestOps = writeBuffer.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (connection.key.interestOps() != interestOps) {
+                connection.key.interestOps(interestOps);
+            }
+        }
+
+        /**
+         * @return a random cell which is not in the mask.
+         */
+        private int selectFreeCell(long occupiedMask) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            int cell = (int) ((random >>> 1) % cellCount);
+            while ((occupiedMask & (1L << cell)) != 0) {
+                cell = cell + 1 == cellCount ? 0 : cell + 1;
+            }
+            return cell;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.androidnerds.tictactoe.game;
+
+import com.androidnerds.tictactoe.game.model.Cell;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays random 4x4 games on a {@link GameEngine} and measures the latency of the moves, with listeners that spin for a
+ * fixed time on each event, called synchronously by the engine and via the {@link AsyncGameStatusDispatcher}.
+ * <p>
+ * Usage: {@code AsyncGameStatusDispatcherBenchmark [moves] [listenerNanos]}.
+ * </p>
+ */
+public class AsyncGameStatusDispatcherBenchmark {
+
+    private static final int[] LISTENER_COUNTS = {1, 4, 16};
+
+    public static void main(String[] args) throws Exception {
+        int moveCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long listenerNanos = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+        for (int listenerCount : LISTENER_COUNTS) {
+            GameEngine.GameStatusListener[] listeners = new GameEngine.GameStatusListener[listenerCount];
+            Arrays.fill(listeners, new SpinningListener(listenerNanos));
+            report("sync", listenerCount, run(new FanOutListener(listeners), moveCount));
+            try (AsyncGameStatusDispatcher dispatcher = new AsyncGameStatusDispatcher(listeners)) {
+                report("async", listenerCount, run(dispatcher, moveCount));
+                dispatcher.awaitDelivery(1, TimeUnit.MINUTES);
+                System.out.printf("  coalesced %,d events%n", dispatcher.getCoalescedCount());
+            }
+        }
+    }
+
+    private static long[] run(GameEngine.GameStatusListener listener, int moveCount) throws Exception {
+        GameEngine engine = new GameEngine(listener);
+        Random random = new Random(1);
+        int[] moves = new int[GameEngine.SPAN_COUNT * GameEngine.SPAN_COUNT];
+        long[] nanos = new long[moveCount];
+        engine.init();
+        engine.startGame();
+        for (int move = 0; move < moveCount; move++) {
+            if (engine.isGameOver()) {
+                engine.init();
+                engine.startGame();
+            }
+            int cell = moves[random.nextInt(engine.getLegalMoves(moves))];
+            long start = System.nanoTime();
+            engine.playMove(cell / GameEngine.SPAN_COUNT, cell % GameEngine.SPAN_COUNT);
+            nanos[move] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String mode, int listenerCount, long[] nanos) {
+        System.out.printf("%s, %d listeners: p50 %.2f us, p99 %.2f us, max %.1f us%n", mode, listenerCount,
+                nanos[nanos.length / 2] / 1e3, nanos[nanos.length * 99 / 100] / 1e3, nanos[nanos.length - 1] / 1e3);
+    }
+
+    private static final class FanOutListener implements GameEngine.GameStatusListener {
+
+        private final GameEngine.GameStatusListener[] listeners;
+
+        FanOutListener(GameEngine.GameStatusListener[] listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void onGameStatusChanged(GameEngine.GameStatus gameStatus) {
+            for (GameEngine.GameStatusListener listener : listeners) {
+                listener.onGameStatusChanged(gameStatus);
+            }
+        }
+
+        @Override
+        public void onGameOver(List<Cell> matchedCells) {
+            for (GameEngine.GameStatusListener listener : listeners) {
+                listener.onGameOver(matchedCells);
+            }
+        }
+    }
+
+    private static final class SpinningListener implements GameEngine.GameStatusListener {
+
+        private final long nanos;
+
+        SpinningListener(long nanos) {
+            this.nanos = nanos;
+        }
+
+        @Override
+        public void onGameStatusChanged(GameEngine.GameStatus gameStatus) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+            }
+        }
+
+        @Override
+        public void onGameOver(List<Cell> matchedCells) {
+            onGameStatusChanged(null);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.androidnerds.tictactoe.game;
+
+import com.androidnerds.tictactoe.game.model.Cell;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncGameStatusDispatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void testEngineEventsShouldBeDeliveredOnTheDispatchThread() throws Exception {
+        RecordingListener listener = new RecordingListener(null);
+        try (AsyncGameStatusDispatcher dispatcher = new AsyncGameStatusDispatcher(listener)) {
+            GameEngine engine = new GameEngine(dispatcher);
+            engine.init();
+            engine.startGame();
+            //Cross completes the first row.
+            assertEquals(GameEngine.MoveResult.ACCEPTED, engine.applyMoves(new int[]{0, 4, 1, 5, 2, 6, 3}));
+            assertTrue(dispatcher.awaitDelivery(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(GameEngine.GameStatus.NEXT_PLAYER_PLAYS, GameEngine.GameStatus.PLAYER_1_WON),
+                    listener.statuses);
+            assertEquals(1, listener.matchedCells.size());
+            assertEquals(GameEngine.SPAN_COUNT, listener.matchedCells.get(0).size());
+            assertNotSame(Thread.currentThread(), listener.thread);
+        }
+    }
+
+    @Test
+    public void testNextPlayerPlaysShouldBeCoalescedWhileWaiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener listener = new RecordingListener(release);
+        try (AsyncGameStatusDispatcher dispatcher = new AsyncGameStatusDispatcher(listener)) {
+            //The listener holds the first event until released, the next ones wait in the buffer.
+            dispatcher.onGameStatusChanged(GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            assertTrue(listener.entered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            //Not coalesced into the event being delivered, but into the one waiting.
+            dispatcher.onGameStatusChanged(GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            dispatcher.onGameStatusChanged(GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            dispatcher.onGameStatusChanged(GameEngine.GameStatus.DRAW);
+            dispatcher.onGameStatusChanged(GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            dispatcher.onGameStatusChanged(GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            assertEquals(2, dispatcher.getCoalescedCount());
+            release.countDown();
+            assertTrue(dispatcher.awaitDelivery(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(GameEngine.GameStatus.NEXT_PLAYER_PLAYS, GameEngine.GameStatus.NEXT_PLAYER_PLAYS,
+                    GameEngine.GameStatus.DRAW, GameEngine.GameStatus.NEXT_PLAYER_PLAYS), listener.statuses);
+        }
+    }
+
+    @Test
+    public void testFullBufferShouldNotDropEvents() throws Exception {
+        SlowListener listener = new SlowListener();
+        List<GameEngine.GameStatus> expected = new ArrayList<>();
+        try (AsyncGameStatusDispatcher dispatcher = new AsyncGameStatusDispatcher(4, listener)) {
+            for (int index = 0; index < 50; index++) {
+                GameEngine.GameStatus gameStatus = (index & 1) == 0
+                        ? GameEngine.GameStatus.DRAW : GameEngine.GameStatus.NEXT_PLAYER_PLAYS;
+                dispatcher.onGameStatusChanged(gameStatus);
+                expected.add(gameStatus);
+            }
+        }
+        assertEquals(expected, listener.statuses);
+    }
+
+    @Test
+    public void testFailingListenerShouldNotStopTheOthers() throws Exception {
+        GameEngine.GameStatusListener failing = new GameEngine.GameStatusListener() {
+            @Override
+            public void onGameStatusChanged(GameEngine.GameStatus gameStatus) {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public void onGameOver(List<Cell> matchedCells) {
+                throw new IllegalStateException();
+            }
+        };
+        RecordingListener listener = new RecordingListener(null);
+        try (AsyncGameStatusDispatcher dispatcher = new AsyncGameStatusDispatcher(failing)) {
+            dispatcher.addListener(listener);
+            dispatcher.onGameStatusChanged(GameEngine.GameStatus.PLAYER_2_WON);
+            dispatcher.onGameOver(new ArrayList<Cell>());
+            assertTrue(dispatcher.awaitDelivery(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(2, dispatcher.getFailureCount());
+            assertEquals(Arrays.asList(GameEngine.GameStatus.PLAYER_2_WON), listener.statuses);
+            assertEquals(1, listener.matchedCells.size());
+        }
+    }
+
+    @Test
+    public void testEventsAfterCloseShouldBeIgnored() {
+        RecordingListener listener = new RecordingListener(null);
+        AsyncGameStatusDispatcher dispatcher = new AsyncGameStatusDispatcher(listener);
+        dispatcher.onGameStatusChanged(GameEngine.GameStatus.DRAW);
+        //The pending event is delivered before close returns.
+        dispatcher.close();
+        dispatcher.onGameStatusChanged(GameEngine.GameStatus.PLAYER_1_WON);
+        assertEquals(Arrays.asList(GameEngine.GameStatus.DRAW), listener.statuses);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityShouldBeAPowerOf2() {
+        new AsyncGameStatusDispatcher(1000);
+    }
+
+    /**
+     * Records the events, optionally holding the first one until released.
+     */
+    private static final class RecordingListener implements GameEngine.GameStatusListener {
+
+        final List<GameEngine.GameStatus> statuses = new ArrayList<>();
+        final List<List<Cell>> matchedCells = new ArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+        volatile Thread thread;
+
+        RecordingListener(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onGameStatusChanged(GameEngine.GameStatus gameStatus) {
+            thread = Thread.currentThread();
+            entered.countDown();
+            if (null != release) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            statuses.add(gameStatus);
+        }
+
+        @Override
+        public void onGameOver(List<Cell> matchedCells) {
+            this.matchedCells.add(matchedCells);
+        }
+    }
+
+    private static final class SlowListener implements GameEngine.GameStatusListener {
+
+        final List<GameEngine.GameStatus> statuses = new ArrayList<>();
+
+        @Override
+        public void onGameStatusChanged(GameEngine.GameStatus gameStatus) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            statuses.add(gameStatus);
+        }
+
+        @Override
+        public void onGameOver(List<Cell> matchedCells) {
+        }
+    }
+}
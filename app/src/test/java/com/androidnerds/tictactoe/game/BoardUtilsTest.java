@@ -1,5 +1,7 @@
 package com.androidnerds.tictactoe.game;
 
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.board.SparseBoard;
 import com.androidnerds.tictactoe.game.model.CellState;
 
 import org.junit.After;
@@ -128,4 +130,19 @@ public class BoardUtilsTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testWindowOfAnUnboundedBoardShouldHoldItsCells() {
+        SparseBoard board = new SparseBoard();
+        board.setCellState(-100, 40, CellState.CROSS);
+        board.setCellState(-99, 41, CellState.CIRCLE);
+        CellState[][] window = BoardUtils.toCellStateArray(board, -100, 40, 2);
+        assertEquals(CellState.CROSS, window[0][0]);
+        assertEquals(CellState.FREE, window[0][1]);
+        assertEquals(CellState.CIRCLE, window[1][1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowOffABoundedBoardShouldThrowException() {
+        BoardUtils.toCellStateArray(new PackedBoard(5), 3, 0, 3);
+    }
+}
@@ -1,5 +1,9 @@
 package com.androidnerds.tictactoe.game;
 
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.SparseBoard;
+import com.androidnerds.tictactoe.game.board.ZobristHash;
+import com.androidnerds.tictactoe.game.model.CellState;
 import com.androidnerds.tictactoe.game.model.Player;
 
 import org.junit.After;
@@ -125,4 +129,238 @@ public class GameEngineTest {
         assertTrue(this.gameEngine.isGameOver());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRemainingAndLegalMoves() throws Exception {
+        this.gameEngine.init();
+        this.gameEngine.startGame();
+        int[] moves = new int[16];
+        assertEquals(16, this.gameEngine.getRemainingMoves());
+        assertEquals(16, this.gameEngine.getLegalMoves(moves));
+
+        this.gameEngine.onPlayerSelected(0, 0);
+        this.gameEngine.onPlayerSelected(1, 2);
+        assertEquals(14, this.gameEngine.getRemainingMoves());
+        assertEquals(14, this.gameEngine.getLegalMoves(moves));
+        for (int i = 0; i < 14; i++) {
+            assertNotEquals(0, moves[i]);
+            assertNotEquals(6, moves[i]);
+        }
+    }
+
+    @Test(expected = Exception.class)
+    public void testOnPlayerSelectedOnOccupiedCellShouldThrowException() throws Exception {
+        this.gameEngine.init();
+        this.gameEngine.startGame();
+        this.gameEngine.onPlayerSelected(1, 1);
+        this.gameEngine.onPlayerSelected(1, 1);
+    }
+
+    @Test
+    public void testDraw() throws Exception {
+        this.gameEngine.init();
+        this.gameEngine.startGame();
+        //Final board: XXOO / OOXX / XXOO / OOXX, which does not match any of the rules.
+        int[][] moves = {{0, 0}, {0, 2}, {0, 1}, {0, 3}, {1, 2}, {1, 0}, {1, 3}, {1, 1},
+                {2, 0}, {2, 2}, {2, 1}, {2, 3}, {3, 2}, {3, 0}, {3, 3}, {3, 1}};
+        for (int[] move : moves) {
+            assertFalse(this.gameEngine.isGameOver());
+            this.gameEngine.onPlayerSelected(move[0], move[1]);
+        }
+        assertTrue(this.gameEngine.isGameOver());
+        assertEquals(0, this.gameEngine.getRemainingMoves());
+        assertEquals(0, this.gameEngine.getLegalMoves(new int[16]));
+        Mockito.verify(this.gameStatusListener).onGameStatusChanged(GameEngine.GameStatus.DRAW);
+        Mockito.verify(this.gameStatusListener, Mockito.never()).onGameOver(Mockito.anyList());
+    }
+
+    @Test
+    public void testGameOnConfiguredBoardSize() throws Exception {
+        GameEngine engine = new GameEngine(gameStatusListener, 5);
+        engine.init();
+        engine.startGame();
+        assertEquals(5, engine.getBoardSize());
+        assertEquals(25, engine.getRemainingMoves());
+
+        //Player1 forms the 2x2 box at the bottom right corner.
+        engine.onPlayerSelected(3, 3);
+        engine.onPlayerSelected(0, 0);
+        engine.onPlayerSelected(3, 4);
+        engine.onPlayerSelected(0, 1);
+        engine.onPlayerSelected(4, 3);
+        engine.onPlayerSelected(0, 2);
+        engine.onPlayerSelected(4, 4);
+        assertTrue(engine.isGameOver());
+        Mockito.verify(this.gameStatusListener).onGameStatusChanged(GameEngine.GameStatus.PLAYER_1_WON);
+        Mockito.verify(this.gameStatusListener).onGameOver(Mockito.anyList());
+    }
+
+    @Test
+    public void testGameOnLargeBoard() throws Exception {
+        GameEngine engine = new GameEngine(gameStatusListener, 1000);
+        engine.init();
+        engine.startGame();
+        engine.onPlayerSelected(999, 999);
+        engine.onPlayerSelected(500, 500);
+        assertFalse(engine.isGameOver());
+        assertEquals(1000 * 1000 - 2, engine.getRemainingMoves());
+        assertEquals(PLAYER_1, engine.getCurrentPlayer().getPlayer());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBoardSizeShouldThrowException() {
+        new GameEngine(gameStatusListener, 0);
+    }
+
+    @Test
+    public void testGameOnUnboundedBoard() throws Exception {
+        GameEngine engine = new GameEngine(gameStatusListener, new SparseBoard(), new KInARowEvaluator(3));
+        engine.init();
+        engine.startGame();
+        engine.onPlayerSelected(-1000, 5);
+        engine.onPlayerSelected(0, 0);
+        engine.onPlayerSelected(-999, 5);
+        engine.onPlayerSelected(0, 1);
+        assertEquals(Integer.MAX_VALUE, engine.getRemainingMoves());
+        engine.onPlayerSelected(-1001, 5);
+        assertTrue(engine.isGameOver());
+        Mockito.verify(this.gameStatusListener).onGameStatusChanged(GameEngine.GameStatus.PLAYER_1_WON);
+        assertNull(engine.getBoard());
+        CellState[][] window = engine.getBoard(-1001, 4, 3);
+        assertEquals(CellState.CROSS, window[0][1]);
+        assertEquals(CellState.CROSS, window[2][1]);
+        assertEquals(CellState.FREE, window[1][0]);
+    }
+
+    @Test
+    public void testIsComputerTurnInOnePlayerGame() throws Exception {
+        this.gameEngine.setGameType(GameEngine.GameType.ONE_PLAYER);
+        this.gameEngine.init();
+        this.gameEngine.startGame();
+        assertFalse(this.gameEngine.isComputerTurn());
+        this.gameEngine.onPlayerSelected(0, 0);
+        assertTrue(this.gameEngine.isComputerTurn());
+        this.gameEngine.onPlayerSelected(1, 1);
+        assertFalse(this.gameEngine.isComputerTurn());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOnePlayerGameOnUnboundedBoardShouldThrowException() {
+        new GameEngine(gameStatusListener, new SparseBoard(), new KInARowEvaluator(5))
+                .setGameType(GameEngine.GameType.ONE_PLAYER);
+    }
+
+    @Test
+    public void testOnePlayerGameOnLargerBoard() {
+        GameEngine gameEngine = new GameEngine(gameStatusListener, 5);
+        gameEngine.setGameType(GameEngine.GameType.ONE_PLAYER);
+        assertEquals(GameEngine.GameType.ONE_PLAYER, gameEngine.getGameType());
+    }
+
+    @Test
+    public void testUndoLastMoveShouldRestoreHashAndPlayer() throws Exception {
+        this.gameEngine.init();
+        this.gameEngine.startGame();
+        assertEquals(ZobristHash.EMPTY_HASH, this.gameEngine.getHash());
+        this.gameEngine.onPlayerSelected(0, 0);
+        long hash = this.gameEngine.getHash();
+        this.gameEngine.onPlayerSelected(1, 1);
+        assertEquals(ZobristHash.hash(new BitBoard(0b1, 0b10_0000)), this.gameEngine.getHash());
+
+        this.gameEngine.undoLastMove();
+        assertEquals(hash, this.gameEngine.getHash());
+        assertEquals(PLAYER_2, this.gameEngine.getCurrentPlayer().getPlayer());
+        assertEquals(CellState.FREE, this.gameEngine.getBoard()[1][1]);
+        assertEquals(15, this.gameEngine.getRemainingMoves());
+    }
+
+    @Test
+    public void testUndoOfWinningMoveShouldResumeTheGame() throws Exception {
+        GameEngine engine = new GameEngine(gameStatusListener, 3);
+        engine.init();
+        engine.startGame();
+        engine.onPlayerSelected(0, 0);
+        engine.onPlayerSelected(1, 0);
+        engine.onPlayerSelected(0, 1);
+        engine.onPlayerSelected(1, 1);
+        engine.onPlayerSelected(0, 2);
+        assertTrue(engine.isGameOver());
+
+        engine.undoLastMove();
+        assertFalse(engine.isGameOver());
+        assertEquals(PLAYER_1, engine.getCurrentPlayer().getPlayer());
+        //The counters of the evaluator are restored, so the other winning move is detected.
+        engine.onPlayerSelected(2, 2);
+        engine.onPlayerSelected(1, 2);
+        assertTrue(engine.isGameOver());
+    }
+
+    @Test(expected = Exception.class)
+    public void testUndoWithoutMovesShouldThrowException() throws Exception {
+        this.gameEngine.init();
+        this.gameEngine.startGame();
+        this.gameEngine.undoLastMove();
+    }
+
+    @Test
+    public void testPlayMoveShouldReturnTheResultInsteadOfThrowing() {
+        assertEquals(GameEngine.MoveResult.NOT_STARTED, this.gameEngine.playMove(0, 0));
+        this.gameEngine.init();
+        assertTrue(this.gameEngine.tryStartGame());
+        assertFalse(this.gameEngine.tryStartGame());
+        assertEquals(GameEngine.MoveResult.ILLEGAL, this.gameEngine.playMove(4, 0));
+        assertEquals(GameEngine.MoveResult.ILLEGAL, this.gameEngine.playMove(0, -1));
+        assertEquals(GameEngine.MoveResult.ACCEPTED, this.gameEngine.playMove(1, 1));
+        assertEquals(GameEngine.MoveResult.OCCUPIED, this.gameEngine.playMove(1, 1));
+        //The rejected move did not pass the turn.
+        assertEquals(PLAYER_2, this.gameEngine.getCurrentPlayer().getPlayer());
+        assertEquals(15, this.gameEngine.getRemainingMoves());
+    }
+
+    @Test
+    public void testApplyMovesShouldNotifyOnceAfterTheBatch() {
+        GameEngine engine = new GameEngine(gameStatusListener, 3);
+        engine.init();
+        engine.tryStartGame();
+        Mockito.reset(this.gameStatusListener);
+        //Player1 completes the top row, the move after the win is rejected.
+        int[] moves = {0, 3, 1, 4, 2, 5};
+        assertEquals(GameEngine.MoveResult.GAME_OVER, engine.applyMoves(moves));
+        assertEquals(GameEngine.GameStatus.PLAYER_1_WON, engine.getGameStatus());
+        assertEquals(4, engine.getRemainingMoves());
+        Mockito.verify(this.gameStatusListener).onGameStatusChanged(GameEngine.GameStatus.PLAYER_1_WON);
+        Mockito.verify(this.gameStatusListener).onGameOver(Mockito.anyList());
+        Mockito.verifyNoMoreInteractions(this.gameStatusListener);
+    }
+
+    @Test
+    public void testApplyMovesShouldStopAtTheFirstRejectedMove() {
+        this.gameEngine.init();
+        this.gameEngine.tryStartGame();
+        int[] moves = {-1, 0, 5, 0, 6, 7};
+        assertEquals(GameEngine.MoveResult.ACCEPTED, this.gameEngine.applyMoves(moves, 1, 2));
+        assertEquals(GameEngine.MoveResult.OCCUPIED, this.gameEngine.applyMoves(moves, 3, 3));
+        assertEquals(GameEngine.MoveResult.ILLEGAL, this.gameEngine.applyMoves(moves, 0, 1));
+        assertEquals(GameEngine.MoveResult.ILLEGAL, this.gameEngine.applyMoves(new int[]{16}));
+        assertEquals(14, this.gameEngine.getRemainingMoves());
+        assertEquals(GameEngine.GameStatus.NEXT_PLAYER_PLAYS, this.gameEngine.getGameStatus());
+        assertEquals(PLAYER_1, this.gameEngine.getCurrentPlayer().getPlayer());
+    }
+
+    @Test
+    public void testApplyMovesShouldMatchTheMovesPlayedOneByOne() throws Exception {
+        int[] moves = {0, 2, 1, 3, 6, 4, 5, 7, 8, 10, 9, 11, 14, 12, 15, 13};
+        GameEngine batchEngine = new GameEngine(null);
+        batchEngine.init();
+        batchEngine.tryStartGame();
+        batchEngine.applyMoves(moves);
+        this.gameEngine.init();
+        this.gameEngine.startGame();
+        for (int move : moves) {
+            this.gameEngine.onPlayerSelected(move / 4, move % 4);
+        }
+        assertEquals(this.gameEngine.getGameStatus(), batchEngine.getGameStatus());
+        assertEquals(this.gameEngine.getHash(), batchEngine.getHash());
+        assertArrayEquals(this.gameEngine.getBoard(), batchEngine.getBoard());
+    }
+}
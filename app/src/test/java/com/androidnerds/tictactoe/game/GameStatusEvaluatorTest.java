@@ -19,6 +19,7 @@ import static com.androidnerds.tictactoe.game.GameTestUtils.getMatchedCellsForPl
 import static com.androidnerds.tictactoe.game.GameTestUtils.getMatchedCellsForPlayerWonByFirstRow;
 import static com.androidnerds.tictactoe.game.GameTestUtils.getMatchedCellsForPlayerWonByPrincipalDiagonal;
 import static com.androidnerds.tictactoe.game.GameTestUtils.getMatchedCellsForPlayerWonBySecondaryDiagonal;
+import static com.androidnerds.tictactoe.game.GameTestUtils.toBitBoard;
 import static org.junit.Assert.*;
 
 public class GameStatusEvaluatorTest {
@@ -115,4 +116,61 @@ public class GameStatusEvaluatorTest {
         assertEquals(expected, actual);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testEvaluateBitBoardForWinByRowShouldReturnEvaluationResultAsTrue() {
+        EvaluationResult evaluationResult = GameStatusEvaluator.evaluate(toBitBoard(GameTestUtils.getBoardForPlayerWonByFirstRow()), 0, 0);
+        assertTrue(evaluationResult.hasWon());
+        assertEquals(getMatchedCellsForPlayerWonByFirstRow(), evaluationResult.getMatchedCells());
+    }
+
+    @Test
+    public void testEvaluateBitBoardForWinByCornersShouldReturnEvaluationResultAsTrue() {
+        EvaluationResult evaluationResult = GameStatusEvaluator.evaluate(toBitBoard(GameTestUtils.getBoardForPlayerWonByCorners()), 0, 3);
+        assertTrue(evaluationResult.hasWon());
+        List<Cell> expected = getMatchedCellsForPlayerWonByCorners();
+        Collections.sort(expected);
+        assertEquals(expected, evaluationResult.getMatchedCells());
+    }
+
+    @Test
+    public void testEvaluateBitBoardForWinBy2x2BoxShouldReturnEvaluationResultAsTrue() {
+        EvaluationResult evaluationResult = GameStatusEvaluator.evaluate(toBitBoard(GameTestUtils.getBoardForPlayerWonBy2x2Box()), 1, 1);
+        assertTrue(evaluationResult.hasWon());
+        assertEquals(getMatchedCellsForPlayerWonBy2x2Box(), evaluationResult.getMatchedCells());
+    }
+
+    @Test
+    public void testEvaluateBitBoardWithoutWinShouldReturnEvaluationResultAsFalse() {
+        EvaluationResult evaluationResult = GameStatusEvaluator.evaluate(toBitBoard(GameTestUtils.getBoardForPlayerWonBy2x2Box()), 2, 2);
+        assertFalse(evaluationResult.hasWon());
+        assertNull(evaluationResult.getMatchedCells());
+    }
+
+    @Test
+    public void testEvaluateIntoReusedResult() {
+        EvaluationResult evaluationResult = new EvaluationResult();
+        assertTrue(GameStatusEvaluator.evaluate(GameTestUtils.getBoardForPlayerWonByFirstColumn(), 0, 0, evaluationResult));
+        assertTrue(evaluationResult.hasWon());
+        List<Cell> expected = getMatchedCellsForPlayerWonByFirstColumn();
+        Collections.sort(expected);
+        List<Cell> actual = evaluationResult.getMatchedCells();
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+
+        assertFalse(GameStatusEvaluator.evaluate(GameTestUtils.getBoard(), 0, 0, evaluationResult));
+        assertFalse(evaluationResult.hasWon());
+        assertNull(evaluationResult.getMatchedCells());
+        assertEquals(-1, evaluationResult.getWinningPattern());
+    }
+
+    @Test
+    public void testEvaluateBitBoardIntoReusedResultShouldMatchTheArrayEvaluation() {
+        EvaluationResult bitBoardResult = new EvaluationResult();
+        EvaluationResult arrayResult = new EvaluationResult();
+        CellState[][] board = GameTestUtils.getBoardForPlayerWonBySecondaryDiagonal();
+        assertTrue(GameStatusEvaluator.evaluate(toBitBoard(board), 2, 1, bitBoardResult));
+        assertTrue(GameStatusEvaluator.evaluate(board, 2, 1, arrayResult));
+        assertEquals(arrayResult.getWinningPattern(), bitBoardResult.getWinningPattern());
+        assertEquals(arrayResult.getMatchedCells(), bitBoardResult.getMatchedCells());
+    }
+}
@@ -1,5 +1,6 @@
 package com.androidnerds.tictactoe.game;
 
+import com.androidnerds.tictactoe.game.board.BitBoard;
 import com.androidnerds.tictactoe.game.model.Cell;
 import com.androidnerds.tictactoe.game.model.CellState;
 
@@ -20,6 +21,16 @@ public class GameTestUtils {
         return board;
     }
 
+    public static BitBoard toBitBoard(CellState[][] board) {
+        BitBoard bitBoard = new BitBoard();
+        for (int row = 0; row < board.length; row++) {
+            for (int column = 0; column < board[row].length; column++) {
+                bitBoard.setCellState(row, column, board[row][column]);
+            }
+        }
+        return bitBoard;
+    }
+
     public static CellState[][] getBoardForPlayerWonByFirstRow() {
         CellState[][] board = getBoard();
         for(int  column = 0; column < board.length;column++) {
@@ -0,0 +1,156 @@
+package com.androidnerds.tictactoe.game;
+
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalWinEvaluatorTest {
+
+    @Test
+    public void testEvaluateShouldMatchThePatternTableEvaluation() {
+        Random random = new Random(42);
+        EvaluationResult incrementalResult = new EvaluationResult();
+        EvaluationResult tableResult = new EvaluationResult();
+        for (int boardSize = 1; boardSize <= 7; boardSize++) {
+            for (int game = 0; game < 200; game++) {
+                PackedBoard board = new PackedBoard(boardSize);
+                CellState[][] cellStates = new CellState[boardSize][boardSize];
+                for (CellState[] row : cellStates) {
+                    Arrays.fill(row, CellState.FREE);
+                }
+                IncrementalWinEvaluator evaluator = new IncrementalWinEvaluator(boardSize);
+                int[] freeCells = new int[boardSize * boardSize];
+                CellState playerState = CellState.CROSS;
+                boolean won = false;
+                while (!won && !board.isFull()) {
+                    int cell = freeCells[random.nextInt(board.getFreeCells(freeCells))];
+                    int row = cell / boardSize;
+                    int column = cell % boardSize;
+                    board.setCellState(row, column, playerState);
+                    cellStates[row][column] = playerState;
+
+                    won = evaluator.evaluate(board, row, column, incrementalResult);
+                    assertEquals(GameStatusEvaluator.evaluate(cellStates, row, column, tableResult), won);
+                    assertEquals(tableResult.getWinningPattern(), incrementalResult.getWinningPattern());
+                    if (won) {
+                        assertEquals(tableResult.getMatchedCells(), incrementalResult.getMatchedCells());
+                    }
+                    playerState = playerState == CellState.CROSS ? CellState.CIRCLE : CellState.CROSS;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResetShouldClearTheCounts() {
+        PackedBoard board = new PackedBoard(3);
+        IncrementalWinEvaluator evaluator = new IncrementalWinEvaluator(3);
+        EvaluationResult evaluationResult = new EvaluationResult();
+        board.setCellState(0, 0, CellState.CROSS);
+        evaluator.evaluate(board, 0, 0, evaluationResult);
+        board.setCellState(0, 2, CellState.CROSS);
+        evaluator.evaluate(board, 0, 2, evaluationResult);
+
+        board.clear();
+        evaluator.reset();
+        board.setCellState(0, 1, CellState.CROSS);
+        evaluator.evaluate(board, 0, 1, evaluationResult);
+        board.setCellState(1, 1, CellState.CIRCLE);
+        evaluator.evaluate(board, 1, 1, evaluationResult);
+        board.setCellState(2, 1, CellState.CROSS);
+        //Column 1 is not owned by a single player, the first game should not count.
+        assertFalse(evaluator.evaluate(board, 2, 1, evaluationResult));
+
+        board.setCellState(0, 0, CellState.CROSS);
+        evaluator.evaluate(board, 0, 0, evaluationResult);
+        board.setCellState(0, 2, CellState.CROSS);
+        assertTrue(evaluator.evaluate(board, 0, 2, evaluationResult));
+        assertEquals(0, evaluationResult.getWinningPattern());
+    }
+
+    @Test
+    public void testCellsProbedPerMoveShouldNotGrowWithTheBoardSize() {
+        assertTrue(getMaxProbesPerMove(5) <= 17);
+        assertEquals(getMaxProbesPerMove(5), getMaxProbesPerMove(1000));
+    }
+
+    /**
+     * Fills a 2x2 box next to the corner of the board and returns the max no: of cells probed by a single evaluation.
+     */
+    private int getMaxProbesPerMove(int boardSize) {
+        ProbeCountingBoard board = new ProbeCountingBoard(new PackedBoard(boardSize));
+        IncrementalWinEvaluator evaluator = new IncrementalWinEvaluator(boardSize);
+        EvaluationResult evaluationResult = new EvaluationResult();
+        int[][] moves = {{1, 1}, {0, 3}, {1, 2}, {0, 4}, {2, 1}, {3, 4}, {2, 2}};
+        CellState playerState = CellState.CROSS;
+        int maxProbes = 0;
+        for (int[] move : moves) {
+            board.setCellState(move[0], move[1], playerState);
+            board.probes = 0;
+            evaluator.evaluate(board, move[0], move[1], evaluationResult);
+            maxProbes = Math.max(maxProbes, board.probes);
+            playerState = playerState == CellState.CROSS ? CellState.CIRCLE : CellState.CROSS;
+        }
+        assertTrue(evaluationResult.hasWon());
+        return maxProbes;
+    }
+
+    private static class ProbeCountingBoard implements Board {
+
+        private final Board board;
+        private int probes;
+
+        ProbeCountingBoard(Board board) {
+            this.board = board;
+        }
+
+        @Override
+        public int getSize() {
+            return board.getSize();
+        }
+
+        @NonNull
+        @Override
+        public CellState getCellState(int row, int column) {
+            probes++;
+            return board.getCellState(row, column);
+        }
+
+        @Override
+        public void setCellState(int row, int column, @NonNull CellState cellState) {
+            board.setCellState(row, column, cellState);
+        }
+
+        @Override
+        public boolean isFull() {
+            return board.isFull();
+        }
+
+        @Override
+        public int getOccupiedCount() {
+            return board.getOccupiedCount();
+        }
+
+        @Override
+        public int getFreeCells(@NonNull int[] cells) {
+            return board.getFreeCells(cells);
+        }
+
+        @Override
+        public void clear() {
+            board.clear();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.androidnerds.tictactoe.game;
+
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.board.SparseBoard;
+import com.androidnerds.tictactoe.game.model.Cell;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KInARowEvaluatorTest {
+
+    private final KInARowEvaluator evaluator = new KInARowEvaluator(5);
+    private final EvaluationResult evaluationResult = new EvaluationResult();
+
+    @Test
+    public void testRunThroughTheMiddleOfTheLastMove() {
+        SparseBoard board = new SparseBoard();
+        for (int index = -2; index <= 2; index++) {
+            if (index != 0) {
+                board.setCellState(-100 + index, 40 - index, CellState.CIRCLE);
+            }
+        }
+        assertFalse(evaluator.evaluate(board, -98, 38, evaluationResult));
+
+        board.setCellState(-100, 40, CellState.CIRCLE);
+        assertTrue(evaluator.evaluate(board, -100, 40, evaluationResult));
+        List<Cell> expected = new ArrayList<>();
+        for (int index = -2; index <= 2; index++) {
+            expected.add(new Cell(-100 + index, 40 - index, true, CellState.CIRCLE));
+        }
+        assertEquals(expected, evaluationResult.getMatchedCells());
+    }
+
+    @Test
+    public void testRunBlockedByTheOpponent() {
+        SparseBoard board = new SparseBoard();
+        for (int column = 0; column < 4; column++) {
+            board.setCellState(0, column, CellState.CROSS);
+        }
+        board.setCellState(0, 4, CellState.CIRCLE);
+        assertFalse(evaluator.evaluate(board, 0, 3, evaluationResult));
+
+        board.setCellState(0, -1, CellState.CROSS);
+        assertTrue(evaluator.evaluate(board, 0, -1, evaluationResult));
+        assertEquals(5, evaluationResult.getMatchedCells().size());
+    }
+
+    @Test
+    public void testRunAtTheEdgeOfABoundedBoard() {
+        PackedBoard board = new PackedBoard(6);
+        for (int row = 1; row < 6; row++) {
+            board.setCellState(row, 5, CellState.CROSS);
+        }
+        assertTrue(evaluator.evaluate(board, 5, 5, evaluationResult));
+        assertEquals(new Cell(1, 5, true, CellState.CROSS), evaluationResult.getMatchedCells().get(0));
+    }
+}
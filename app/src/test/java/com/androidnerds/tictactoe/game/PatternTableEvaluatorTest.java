@@ -0,0 +1,69 @@
+package com.androidnerds.tictactoe.game;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.Board;
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternTableEvaluatorTest {
+
+    @Test
+    public void testStandardRulesShouldMatchTheBitBoardEvaluation() {
+        PatternTableEvaluator tableEvaluator = new PatternTableEvaluator(WinPatternTable.forSize(BitBoard.SIZE));
+        BitBoardEvaluator bitBoardEvaluator = new BitBoardEvaluator();
+        EvaluationResult tableResult = new EvaluationResult();
+        EvaluationResult bitBoardResult = new EvaluationResult();
+        EvaluationResult packedResult = new EvaluationResult();
+        Random random = new Random(3);
+        int[] freeCells = new int[BitBoard.CELL_COUNT];
+        for (int game = 0; game < 500; game++) {
+            BitBoard bitBoard = new BitBoard();
+            Board packedBoard = new PackedBoard(BitBoard.SIZE);
+            CellState playerState = CellState.CROSS;
+            boolean won = false;
+            while (!won && !bitBoard.isFull()) {
+                int cell = freeCells[random.nextInt(bitBoard.getFreeCells(freeCells))];
+                int row = cell / BitBoard.SIZE;
+                int column = cell % BitBoard.SIZE;
+                bitBoard.setCellState(row, column, playerState);
+                packedBoard.setCellState(row, column, playerState);
+                won = bitBoardEvaluator.evaluate(bitBoard, row, column, bitBoardResult);
+                assertEquals(won, tableEvaluator.evaluate(bitBoard, row, column, tableResult));
+                assertEquals(won, tableEvaluator.evaluate(packedBoard, row, column, packedResult));
+                assertEquals(bitBoardResult.getWinningPattern(), tableResult.getWinningPattern());
+                assertEquals(bitBoardResult.getWinningPattern(), packedResult.getWinningPattern());
+                playerState = playerState == CellState.CROSS ? CellState.CIRCLE : CellState.CROSS;
+            }
+        }
+    }
+
+    @Test
+    public void testRuleVariantWithoutTheBoxes() {
+        WinPatternTable table = WinPatternTable.compile(5, StandardWinRule.ROW, StandardWinRule.COLUMN);
+        PatternTableEvaluator evaluator = new PatternTableEvaluator(table);
+        EvaluationResult evaluationResult = new EvaluationResult();
+        PackedBoard board = new PackedBoard(5);
+        board.setCellState(0, 0, CellState.CROSS);
+        board.setCellState(0, 1, CellState.CROSS);
+        board.setCellState(1, 0, CellState.CROSS);
+        board.setCellState(1, 1, CellState.CROSS);
+        assertFalse(evaluator.evaluate(board, 1, 1, evaluationResult));
+
+        for (int row = 2; row < 5; row++) {
+            board.setCellState(row, 1, CellState.CROSS);
+        }
+        assertTrue(evaluator.evaluate(board, 4, 1, evaluationResult));
+        //COLUMN is the second rule of the set.
+        assertEquals(1, table.getPatternRule(evaluationResult.getWinningPattern()));
+        assertEquals(5, evaluationResult.getMatchedCells().size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.androidnerds.tictactoe.game;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+import com.androidnerds.tictactoe.game.model.EvaluationResult;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WinPatternTableTest {
+
+    @Test
+    public void testPatternCountFor4x4Board() {
+        //4 rows, 4 columns, 2 diagonals, corners & 9 2x2 boxes.
+        assertEquals(20, WinPatternTable.forSize(4).getPatternCount());
+    }
+
+    @Test
+    public void testTableOfALargeBoardShouldBeReused() {
+        WinPatternTable table = WinPatternTable.forSize(40);
+        assertSame(table, WinPatternTable.forSize(40));
+        assertEquals(41, WinPatternTable.forSize(41).getBoardSize());
+        assertEquals(40, WinPatternTable.forSize(40).getBoardSize());
+    }
+
+    @Test
+    public void testPatternsThroughCornerCell() {
+        WinPatternTable table = WinPatternTable.forSize(4);
+        //row, column, principal diagonal, corners & one 2x2 box.
+        assertEquals(5, table.getCellEnd(0) - table.getCellStart(0));
+    }
+
+    @Test
+    public void testPatternsThroughInnerCell() {
+        WinPatternTable table = WinPatternTable.forSize(4);
+        int cell = 4 + 1;
+        //row, column, principal diagonal & four 2x2 boxes.
+        assertEquals(7, table.getCellEnd(cell) - table.getCellStart(cell));
+        for (int index = table.getCellStart(cell); index < table.getCellEnd(cell); index++) {
+            int pattern = table.getCellPattern(index);
+            boolean containsCell = false;
+            for (int i = table.getPatternStart(pattern); i < table.getPatternEnd(pattern); i++) {
+                containsCell |= table.getPatternCell(i) == cell;
+            }
+            assertTrue(containsCell);
+        }
+    }
+
+    @Test
+    public void testWinningPatternShouldBeFoundFromTheMasks() {
+        WinPatternTable table = WinPatternTable.forSize(4);
+        //Top row & the 2x2 box of the top-left corner, the row is declared first.
+        long playerMask = 0xF | 1L << 4 | 1L << 5;
+        int pattern = table.findWinningPattern(playerMask, 0);
+        assertEquals(0xF, table.getPatternMask(pattern));
+        assertEquals(pattern, table.findWinningPattern(playerMask, 1));
+        assertEquals(-1, table.findWinningPattern(playerMask & ~1L, 5));
+        assertEquals(-1, table.findWinningPattern(1L << 5 | 1L << 10 | 1L << 15, 10));
+    }
+
+    @Test
+    public void testTableIsSharedForTheBoardSize() {
+        assertSame(WinPatternTable.forSize(6), WinPatternTable.forSize(6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBoardSizeShouldThrowException() {
+        WinPatternTable.forSize(0);
+    }
+
+    @Test
+    public void testEvaluateOn5x5Board() {
+        CellState[][] board = new CellState[5][5];
+        for (CellState[] row : board) {
+            Arrays.fill(row, CellState.FREE);
+        }
+        for (int row = 0; row < 5; row++) {
+            board[row][4 - row] = CellState.CIRCLE;
+        }
+        EvaluationResult evaluationResult = GameStatusEvaluator.evaluate(board, 2, 2);
+        assertTrue(evaluationResult.hasWon());
+        assertEquals(5, evaluationResult.getMatchedCells().size());
+
+        board[0][4] = CellState.CROSS;
+        assertFalse(GameStatusEvaluator.evaluate(board, 2, 2).hasWon());
+    }
+
+    @Test
+    public void testCompileRuleSubsetShouldNumberPatternsByRule() {
+        WinPatternTable table = WinPatternTable.compile(3, StandardWinRule.SQUARE, StandardWinRule.ROW);
+        assertEquals(4 + 3, table.getPatternCount());
+        assertEquals(0, table.getPatternRule(0));
+        assertEquals(0, table.getPatternRule(3));
+        assertEquals(1, table.getPatternRule(4));
+        //First 2x2 box: cells 0, 1, 3 & 4.
+        assertEquals(0b11011L, table.getPatternMask(0));
+    }
+
+    @Test
+    public void testCompileCustomRule() {
+        //Variant where the centre cross of a 3x3 board wins.
+        WinRule plusRule = (boardSize, builder) -> {
+            builder.addCell(0, 1);
+            builder.addCell(1, 0);
+            builder.addCell(1, 1);
+            builder.addCell(1, 2);
+            builder.addCell(2, 1);
+            builder.endPattern();
+        };
+        WinPatternTable table = WinPatternTable.compile(3, plusRule);
+        assertEquals(1, table.getPatternCount());
+        assertEquals(0, table.getCellEnd(0) - table.getCellStart(0));
+        assertEquals(1, table.getCellEnd(4) - table.getCellStart(4));
+    }
+
+    @Test
+    public void testPatternMasksOnlyForBoardsUpTo64Cells() {
+        assertTrue(WinPatternTable.forSize(8).hasPatternMasks());
+        assertFalse(WinPatternTable.forSize(9).hasPatternMasks());
+    }
+}
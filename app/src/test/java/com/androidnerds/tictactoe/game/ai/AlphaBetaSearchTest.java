@@ -0,0 +1,70 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AlphaBetaSearchTest {
+
+    private AlphaBetaSearch search;
+    private BitBoard board;
+
+    @Before
+    public void setUp() {
+        search = new AlphaBetaSearch();
+        board = new BitBoard();
+        //X threatens to complete the first row at (0, 3).
+        board.setCellState(0, 0, CellState.CROSS);
+        board.setCellState(0, 1, CellState.CROSS);
+        board.setCellState(0, 2, CellState.CROSS);
+        board.setCellState(2, 0, CellState.CIRCLE);
+        board.setCellState(3, 1, CellState.CIRCLE);
+    }
+
+    @Test
+    public void testSearchShouldPlayTheImmediateWin() {
+        SearchResult result = search.search(board, CellState.CROSS, 4);
+        assertEquals(BitBoard.toCellIndex(0, 3), result.getBestMove());
+        assertTrue(result.getScore() > AlphaBetaSearch.WIN_THRESHOLD);
+    }
+
+    @Test
+    public void testSearchShouldBlockTheImmediateLoss() {
+        SearchResult result = search.search(board, CellState.CIRCLE, 4);
+        assertEquals(BitBoard.toCellIndex(0, 3), result.getBestMove());
+    }
+
+    @Test
+    public void testPrincipalVariationShouldStartWithTheBestMove() {
+        SearchResult result = search.search(new BitBoard(), CellState.CROSS, 3);
+        assertEquals(3, result.getPrincipalVariation().length);
+        assertEquals(result.getBestMove(), result.getPrincipalVariation()[0]);
+        assertTrue(result.getNodeCount() > 0);
+        assertEquals(result.getNodeCount(), search.getNodeCount());
+    }
+
+    @Test
+    public void testSearchOnFullBoardShouldReturnNoMove() {
+        BitBoard fullBoard = new BitBoard(0b1010_0101_1010_0101, 0b0101_1010_0101_1010);
+        SearchResult result = search.search(fullBoard, CellState.CROSS, 4);
+        assertEquals(-1, result.getBestMove());
+    }
+
+    @Test
+    public void testComputerPlayerShouldSelectTheWinningCell() {
+        ComputerPlayer computerPlayer = new ComputerPlayer();
+        CellState[][] cells = new CellState[BitBoard.SIZE][BitBoard.SIZE];
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            for (int column = 0; column < BitBoard.SIZE; column++) {
+                cells[row][column] = board.getCellState(row, column);
+            }
+        }
+        assertEquals(BitBoard.toCellIndex(0, 3), computerPlayer.selectMove(cells, CellState.CROSS));
+        assertEquals(BitBoard.toCellIndex(0, 3), computerPlayer.getLastResult().getBestMove());
+    }
+}
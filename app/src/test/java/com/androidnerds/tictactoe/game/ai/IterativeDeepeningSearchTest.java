@@ -0,0 +1,84 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IterativeDeepeningSearchTest {
+
+    private IterativeDeepeningSearch search;
+    private List<SearchResult> iterations;
+
+    @Before
+    public void setUp() {
+        search = new IterativeDeepeningSearch();
+        iterations = new ArrayList<>();
+        search.setIterationListener((result, elapsedNanos) -> {
+            assertTrue(elapsedNanos >= 0);
+            iterations.add(result);
+        });
+    }
+
+    @Test
+    public void testEachIterationShouldBeReported() {
+        SearchResult result = search.search(new BitBoard(), CellState.CROSS, SearchLimits.ofDepth(4));
+        assertEquals(4, iterations.size());
+        long totalNodes = 0;
+        for (int index = 0; index < iterations.size(); index++) {
+            assertEquals(index + 1, iterations.get(index).getDepth());
+            totalNodes += iterations.get(index).getNodeCount();
+        }
+        assertEquals(4, result.getDepth());
+        assertEquals(totalNodes, result.getNodeCount());
+        assertEquals(iterations.get(3).getBestMove(), result.getBestMove());
+    }
+
+    @Test
+    public void testCancelledSearchShouldReturnMoveOfFirstIteration() {
+        SearchLimits limits = SearchLimits.ofTime(SearchLimits.UNLIMITED / 1_000_000);
+        limits.cancel();
+        SearchResult result = search.search(new BitBoard(), CellState.CROSS, limits);
+        assertEquals(1, result.getDepth());
+        assertTrue(result.getBestMove() >= 0);
+    }
+
+    @Test
+    public void testNodeBudgetShouldStopTheSearch() {
+        SearchResult result = search.search(new BitBoard(), CellState.CROSS, SearchLimits.ofNodes(50_000));
+        assertTrue(result.getDepth() < BitBoard.CELL_COUNT);
+        assertEquals(result.getDepth(), iterations.size());
+        //The budget is checked once every 1024 nodes.
+        assertTrue(result.getNodeCount() <= 50_000 + 1024);
+    }
+
+    @Test
+    public void testTimeBudgetShouldStopTheSearch() {
+        long start = System.nanoTime();
+        SearchResult result = search.search(new BitBoard(), CellState.CROSS, SearchLimits.ofTime(20));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertTrue(result.getBestMove() >= 0);
+    }
+
+    @Test
+    public void testSearchShouldStopAtForcedWin() {
+        BitBoard board = new BitBoard(0b0111, 0b0001_0000_0001_0000_0000);
+        SearchResult result = search.search(board, CellState.CROSS, SearchLimits.ofDepth(BitBoard.CELL_COUNT));
+        assertEquals(1, result.getDepth());
+        assertEquals(BitBoard.toCellIndex(0, 3), result.getBestMove());
+    }
+
+    @Test
+    public void testSearchShouldNotGoDeeperThanFreeCells() {
+        BitBoard board = new BitBoard(0b0000_0101_1010_0101, 0b0000_1010_0101_1010);
+        search.search(board, CellState.CROSS, SearchLimits.ofDepth(BitBoard.CELL_COUNT));
+        assertTrue(iterations.size() <= 4);
+    }
+}
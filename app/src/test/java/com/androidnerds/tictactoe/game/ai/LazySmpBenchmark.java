@@ -0,0 +1,71 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Measures the nodes-per-second of the {@link LazySmpSearch} by the no: of threads, on a fixed suite of 4x4 positions
+ * searched for a fixed time each.
+ * <p>
+ * Usage: {@code LazySmpBenchmark [millisPerPosition] [threads...]}, defaults to 500ms and 1, 2, 4, 8 & 16 threads.
+ * </p>
+ */
+public class LazySmpBenchmark {
+
+    //Cross & circle masks of the positions, cross to move.
+    private static final int[][] SUITE = {
+            {0, 0},
+            {0b0000_0000_0010_0000, 0b0000_0100_0000_0000},
+            {0b0000_0000_0000_0001, 0b0000_0000_0010_0000},
+            {0b0000_0000_0100_0010, 0b0000_0010_0000_1000},
+            {0b0000_0110_0000_0001, 0b1000_0000_0100_1000},
+            {0b0001_0000_0010_1000, 0b0000_0100_1000_0100},
+    };
+
+    public static void main(String[] args) {
+        long millisPerPosition = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        int[] threadCounts = {1, 2, 4, 8, 16};
+        if (args.length > 1) {
+            threadCounts = new int[args.length - 1];
+            for (int index = 1; index < args.length; index++) {
+                threadCounts[index - 1] = Integer.parseInt(args[index]);
+            }
+        }
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors() + ", " + millisPerPosition +
+                "ms per position, " + SUITE.length + " positions");
+        //Warm-up of the JIT.
+        run(1, millisPerPosition);
+
+        double singleThreadNps = 0;
+        for (int threads : threadCounts) {
+            long[] totals = run(threads, millisPerPosition);
+            double nps = totals[0] * 1e9 / totals[1];
+            if (threads == 1) {
+                singleThreadNps = nps;
+            }
+            System.out.printf("threads: %2d, nps: %,.0f, scaling: %.2f, average depth: %.1f%n", threads, nps,
+                    singleThreadNps > 0 ? nps / singleThreadNps : 0, totals[2] / (double) SUITE.length);
+        }
+    }
+
+    /**
+     * @return the total no: of nodes, nanoseconds & depths over the suite.
+     */
+    private static long[] run(int threads, long millisPerPosition) {
+        long[] totals = new long[3];
+        for (int[] position : SUITE) {
+            LazySmpSearch search = new LazySmpSearch(threads);
+            try {
+                long start = System.nanoTime();
+                SearchResult result = search.search(new BitBoard(position[0], position[1]), CellState.CROSS,
+                        SearchLimits.ofTime(millisPerPosition));
+                totals[1] += System.nanoTime() - start;
+                totals[0] += result.getNodeCount();
+                totals[2] += result.getDepth();
+            } finally {
+                search.shutdown();
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,87 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LazySmpSearchTest {
+
+    private LazySmpSearch search;
+
+    @Before
+    public void setUp() {
+        search = new LazySmpSearch(4, 1 << 20);
+    }
+
+    @After
+    public void tearDown() {
+        search.shutdown();
+    }
+
+    @Test
+    public void testScoreShouldMatchSequentialSearch() {
+        BitBoard[] boards = {
+                new BitBoard(0b0000_0010_1010_0101, 0b0000_0001_0000_1010),
+                new BitBoard(0b0000_1000_1001_0101, 0b0000_0010_0100_0010),
+                new BitBoard(0b0000_0110_0000_1001, 0b0000_1001_0000_0110),
+        };
+        for (BitBoard board : boards) {
+            CellState sideToMove = Integer.bitCount(board.getMask(CellState.CROSS)) >
+                    Integer.bitCount(board.getMask(CellState.CIRCLE)) ? CellState.CIRCLE : CellState.CROSS;
+            SearchResult sequential = new AlphaBetaSearch().search(board, sideToMove, BitBoard.CELL_COUNT);
+            SearchResult result = search.search(board, sideToMove, SearchLimits.ofDepth(BitBoard.CELL_COUNT));
+            assertEquals(sequential.getScore(), result.getScore());
+        }
+    }
+
+    @Test
+    public void testSearchShouldReachTheMaxDepth() {
+        SearchResult result = search.search(new BitBoard(), CellState.CROSS, SearchLimits.ofDepth(8));
+        assertEquals(8, result.getDepth());
+        assertTrue(result.getBestMove() >= 0);
+        assertTrue(result.getNodeCount() > 0);
+        assertEquals(4, search.getThreadCount());
+    }
+
+    @Test
+    public void testStartDepthsShouldBeStaggeredByTheThreads() {
+        int[] startDepths = new int[16];
+        for (int index = 1; index < startDepths.length; index++) {
+            startDepths[index] = LazySmpSearch.getStartDepth(index, startDepths.length, BitBoard.CELL_COUNT);
+        }
+        assertEquals(2, startDepths[1]);
+        assertEquals(8, startDepths[7]);
+        assertEquals(1, startDepths[8]);
+        assertEquals(2, startDepths[9]);
+        //Fewer threads are staggered over fewer depths, and never beyond the max depth.
+        assertEquals(1, LazySmpSearch.getStartDepth(2, 2, BitBoard.CELL_COUNT));
+        assertEquals(3, LazySmpSearch.getStartDepth(2, 4, BitBoard.CELL_COUNT));
+        assertEquals(1, LazySmpSearch.getStartDepth(3, 16, 1));
+    }
+
+    @Test
+    public void testCancelledSearchShouldReturnMove() {
+        SearchLimits limits = SearchLimits.ofDepth(BitBoard.CELL_COUNT);
+        limits.cancel();
+        SearchResult result = search.search(new BitBoard(), CellState.CROSS, limits);
+        assertTrue(result.getBestMove() >= 0);
+    }
+
+    @Test
+    public void testSingleThreadedSearch() {
+        LazySmpSearch singleThreaded = new LazySmpSearch(1);
+        try {
+            BitBoard board = new BitBoard(0b0111, 0b0001_0000_0001_0000_0000);
+            SearchResult result = singleThreaded.search(board, CellState.CROSS, SearchLimits.ofTime(100));
+            assertEquals(BitBoard.toCellIndex(0, 3), result.getBestMove());
+        } finally {
+            singleThreaded.shutdown();
+        }
+    }
+}
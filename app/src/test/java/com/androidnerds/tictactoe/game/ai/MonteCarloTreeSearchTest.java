@@ -0,0 +1,108 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.PackedBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MonteCarloTreeSearchTest {
+
+    private static final int SIZE = 7;
+
+    private MonteCarloTreeSearch search;
+    private PackedBoard board;
+
+    @Before
+    public void setUp() {
+        search = new MonteCarloTreeSearch(2, MonteCarloTreeSearch.DEFAULT_MAX_TREE_BYTES, 16, 42);
+        board = new PackedBoard(SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        search.shutdown();
+    }
+
+    @Test
+    public void testShouldCompleteTheSquare() {
+        setCells(CellState.CROSS, 0, 1, SIZE);
+        setCells(CellState.CIRCLE, 24, 34, 45);
+        int move = search.selectMove(board, CellState.CROSS, SearchLimits.ofNodes(20_000));
+        assertEquals(SIZE + 1, move);
+        assertEquals(20_000, search.getPlayoutCount(), 16);
+    }
+
+    @Test
+    public void testShouldBlockTheSquare() {
+        setCells(CellState.CROSS, 0, 1, SIZE, 47);
+        setCells(CellState.CIRCLE, 24, 38, 45);
+        int move = search.selectMove(board, CellState.CIRCLE, SearchLimits.ofNodes(20_000));
+        assertEquals(SIZE + 1, move);
+    }
+
+    @Test
+    public void testMemoryCeilingShouldRecycleTheTree() {
+        int capacity = 500;
+        MonteCarloTreeSearch smallSearch = new MonteCarloTreeSearch(1,
+                capacity * MonteCarloTreeSearch.BYTES_PER_NODE, 8, 7);
+        try {
+            int move = smallSearch.selectMove(board, CellState.CROSS, SearchLimits.ofNodes(5_000));
+            assertTrue(move >= 0 && move < SIZE * SIZE);
+            assertTrue(smallSearch.getRecycleCount() > 0);
+            assertTrue(smallSearch.getNodeCount() <= capacity);
+            assertTrue(smallSearch.getUsedTreeBytes() <= smallSearch.getTreeBytes());
+            assertEquals(capacity * MonteCarloTreeSearch.BYTES_PER_NODE, smallSearch.getTreeBytes());
+        } finally {
+            smallSearch.shutdown();
+        }
+    }
+
+    @Test
+    public void testMemoryCeilingBelowTheMovesShouldSampleTheMoves() {
+        int capacity = 20;
+        MonteCarloTreeSearch smallSearch = new MonteCarloTreeSearch(1,
+                capacity * MonteCarloTreeSearch.BYTES_PER_NODE, 8, 7);
+        try {
+            int move = smallSearch.selectMove(board, CellState.CROSS, SearchLimits.ofNodes(1_000));
+            assertTrue(move >= 0 && move < SIZE * SIZE);
+            assertTrue(smallSearch.getNodeCount() <= capacity);
+            //The boards of 2 playouts fit in the ceiling of 560 bytes.
+            assertEquals(2, smallSearch.getBatchSize());
+        } finally {
+            smallSearch.shutdown();
+        }
+    }
+
+    @Test
+    public void testMetricsShouldBeReported() {
+        search.selectMove(board, CellState.CROSS, SearchLimits.ofTime(50));
+        assertTrue(search.getPlayoutCount() > 0);
+        assertTrue(search.getPlayoutsPerSecond() > 0);
+        assertTrue(search.getNodeCount() > SIZE * SIZE);
+        assertEquals((long) search.getNodeCount() * MonteCarloTreeSearch.BYTES_PER_NODE, search.getUsedTreeBytes());
+        assertEquals(0, search.getRecycleCount());
+    }
+
+    @Test
+    public void testFullBoardShouldHaveNoMove() {
+        PackedBoard fullBoard = new PackedBoard(1);
+        fullBoard.setCellState(0, CellState.CROSS);
+        assertEquals(-1, search.selectMove(fullBoard, CellState.CIRCLE, SearchLimits.ofNodes(10)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSizeShouldThrowException() {
+        new MonteCarloTreeSearch(1, MonteCarloTreeSearch.DEFAULT_MAX_TREE_BYTES, 0, 1);
+    }
+
+    private void setCells(CellState cellState, int... cells) {
+        for (int cell : cells) {
+            board.setCellState(cell, cellState);
+        }
+    }
+}
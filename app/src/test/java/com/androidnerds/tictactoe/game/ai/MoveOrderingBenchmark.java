@@ -0,0 +1,69 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Measures the node count of the {@link AlphaBetaSearch} with & without the {@link MoveOrdering}, on a fixed set of
+ * positions searched to the end of the game. Each search uses a new instance, so the transposition table and the
+ * history start empty.
+ * <p>
+ * Usage: {@code MoveOrderingBenchmark}.
+ * </p>
+ */
+public class MoveOrderingBenchmark {
+
+    private static final int WARMUP_RUNS = 2;
+
+    //Cross & circle masks of the positions, cross moves first.
+    private static final int[][] POSITIONS = {
+            //Empty board.
+            {0, 0},
+            //Corner against the center.
+            {0b0000_0000_0000_0001, 0b0000_0000_0010_0000},
+            //Center against the adjacent center.
+            {0b0000_0000_0010_0000, 0b0000_0000_0100_0000},
+            //Cross threatens the 2x2 box at the top left, circle to move.
+            {0b0000_0000_0010_0011, 0b0000_1000_0000_1000},
+            //4 cells each, scattered.
+            {0b0001_0000_1010_0010, 0b0000_1001_0001_0100},
+            //Cross threatens the principal diagonal, circle to move.
+            {0b1000_0100_0000_1011, 0b0001_0010_0100_0100},
+    };
+
+    public static void main(String[] args) {
+        long totalUnordered = 0;
+        long totalOrdered = 0;
+        for (int[] position : POSITIONS) {
+            BitBoard board = new BitBoard(position[0], position[1]);
+            CellState sideToMove = Integer.bitCount(position[0]) == Integer.bitCount(position[1]) ?
+                    CellState.CROSS : CellState.CIRCLE;
+            long[] unordered = run(board, sideToMove, false);
+            long[] ordered = run(board, sideToMove, true);
+            totalUnordered += unordered[0];
+            totalOrdered += ordered[0];
+            System.out.printf("%04x/%04x: unordered %,d nodes %d ms, ordered %,d nodes %d ms, %.1fx fewer nodes, score %d/%d%n",
+                    position[0], position[1], unordered[0], unordered[1], ordered[0], ordered[1],
+                    (double) unordered[0] / ordered[0], unordered[2], ordered[2]);
+        }
+        System.out.printf("total: unordered %,d nodes, ordered %,d nodes, %.1fx fewer nodes%n",
+                totalUnordered, totalOrdered, (double) totalUnordered / totalOrdered);
+    }
+
+    /**
+     * @return the node count, the time in ms & the score of the last run.
+     */
+    private static long[] run(BitBoard board, CellState sideToMove, boolean moveOrderingEnabled) {
+        long[] result = new long[3];
+        for (int run = 0; run <= WARMUP_RUNS; run++) {
+            AlphaBetaSearch search = new AlphaBetaSearch();
+            search.setMoveOrderingEnabled(moveOrderingEnabled);
+            long start = System.nanoTime();
+            SearchResult searchResult = search.search(board, sideToMove, BitBoard.CELL_COUNT - board.getOccupiedCount());
+            result[1] = (System.nanoTime() - start) / 1_000_000;
+            result[0] = searchResult.getNodeCount();
+            result[2] = searchResult.getScore();
+        }
+        return result;
+    }
+}
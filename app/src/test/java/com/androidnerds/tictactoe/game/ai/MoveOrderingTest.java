@@ -0,0 +1,95 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoveOrderingTest {
+
+    private MoveOrdering moveOrdering;
+    private int[] moves;
+
+    @Before
+    public void setUp() {
+        moveOrdering = new MoveOrdering();
+        moves = new int[BitBoard.CELL_COUNT + 1];
+    }
+
+    @Test
+    public void testWinsAndBlocksShouldBeOrderedFirst() {
+        //Own cells 0, 1 & 2 win at 3, opponent cells 12, 13 & 14 win at 15.
+        int ownMask = 0b0000_0000_0000_0111;
+        int opponentMask = 0b0111_0000_0000_0000;
+        int count = moveOrdering.orderMoves(ownMask, opponentMask, AlphaBetaSearch.CROSS, 0,
+                TranspositionTable.NO_MOVE, moves, 1);
+        assertEquals(10, count);
+        assertEquals(3, moves[1]);
+        assertEquals(15, moves[2]);
+    }
+
+    @Test
+    public void testHashMoveShouldBeOrderedBeforeTheWins() {
+        int count = moveOrdering.orderMoves(0b0111, 0b0111_0000_0000_0000, AlphaBetaSearch.CROSS, 0, 8, moves, 0);
+        assertEquals(10, count);
+        assertEquals(8, moves[0]);
+        assertEquals(3, moves[1]);
+    }
+
+    @Test
+    public void testKillersShouldBeOrderedBeforeTheHistory() {
+        moveOrdering.onCutOff(AlphaBetaSearch.CROSS, 2, 9, 1);
+        moveOrdering.onCutOff(AlphaBetaSearch.CROSS, 2, 6, 1);
+        moveOrdering.onCutOff(AlphaBetaSearch.CROSS, 5, 14, 4);
+        assertEquals(6, moveOrdering.getKiller(2, 0));
+        assertEquals(9, moveOrdering.getKiller(2, 1));
+        moveOrdering.orderMoves(0, 0, AlphaBetaSearch.CROSS, 2, TranspositionTable.NO_MOVE, moves, 0);
+        assertEquals(6, moves[0]);
+        assertEquals(9, moves[1]);
+        //Highest history score of the remaining moves.
+        assertEquals(14, moves[2]);
+        assertEquals(0, moves[3]);
+    }
+
+    @Test
+    public void testHistoryShouldBeKeptPerPlayerAndAged() {
+        moveOrdering.onCutOff(AlphaBetaSearch.CIRCLE, 0, 7, 4);
+        assertEquals(16, moveOrdering.getHistory(AlphaBetaSearch.CIRCLE, 7));
+        assertEquals(0, moveOrdering.getHistory(AlphaBetaSearch.CROSS, 7));
+        moveOrdering.newSearch();
+        assertEquals(8, moveOrdering.getHistory(AlphaBetaSearch.CIRCLE, 7));
+        assertEquals(TranspositionTable.NO_MOVE, moveOrdering.getKiller(0, 0));
+    }
+
+    @Test
+    public void testOrderingShouldNotChangeTheScore() {
+        Random random = new Random(3);
+        for (int game = 0; game < 50; game++) {
+            int crossMask = 0;
+            int circleMask = 0;
+            for (int move = 0; move < 6; move++) {
+                int cell;
+                do {
+                    cell = random.nextInt(BitBoard.CELL_COUNT);
+                } while (((crossMask | circleMask) & (1 << cell)) != 0);
+                if ((move & 1) == 0) {
+                    crossMask |= 1 << cell;
+                } else {
+                    circleMask |= 1 << cell;
+                }
+            }
+            BitBoard board = new BitBoard(crossMask, circleMask);
+            AlphaBetaSearch ordered = new AlphaBetaSearch();
+            AlphaBetaSearch unordered = new AlphaBetaSearch();
+            unordered.setMoveOrderingEnabled(false);
+            int depth = BitBoard.CELL_COUNT - board.getOccupiedCount();
+            assertEquals(unordered.search(board, CellState.CROSS, depth).getScore(),
+                    ordered.search(board, CellState.CROSS, depth).getScore());
+        }
+    }
+}
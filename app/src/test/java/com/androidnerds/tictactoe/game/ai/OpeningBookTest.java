@@ -0,0 +1,93 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OpeningBookTest {
+
+    private static final int MAX_PLY = 4;
+
+    private static OpeningBook book;
+
+    @BeforeClass
+    public static void setUpClass() {
+        book = new OpeningBookGenerator().generate(MAX_PLY);
+    }
+
+    @Test
+    public void testBookShouldHoldTheCanonicalPositions() {
+        //The empty board & the 3 canonical positions after the first move are in the book, along with the later plies.
+        assertEquals(MAX_PLY, book.getMaxPly());
+        assertTrue(book.size() > 1 + 3);
+        assertTrue(book.lookup(new BitBoard()) >= 0);
+        //5 cells are beyond the max ply.
+        assertEquals(OpeningBook.NO_MOVE, book.lookup(0b0000_0000_0101, 0b0000_0001_0010));
+    }
+
+    @Test
+    public void testMoveShouldBeTranslatedToTheSymmetricPosition() {
+        int crossMask = 0b0000_0000_0100_0001;
+        int circleMask = 0b0000_0000_0000_0010;
+        int move = book.lookup(crossMask, circleMask);
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            int symmetricMove = book.lookup(BoardSymmetry.transform(crossMask, symmetry),
+                    BoardSymmetry.transform(circleMask, symmetry));
+            assertEquals(BoardSymmetry.transformCell(move, symmetry), symmetricMove);
+        }
+    }
+
+    @Test
+    public void testBookMoveShouldHaveTheValueOfTheSearch() {
+        AlphaBetaSearch search = new AlphaBetaSearch();
+        int[][] positions = {{0, 0}, {0b1, 0}, {0b10_0000, 0}, {0b1, 0b10}, {0b1, 0b100_0000_0000}};
+        for (int[] position : positions) {
+            int crossMask = position[0];
+            int circleMask = position[1];
+            boolean crossToMove = Integer.bitCount(crossMask) == Integer.bitCount(circleMask);
+            int ownMask = crossToMove ? crossMask : circleMask;
+            int opponentMask = crossToMove ? circleMask : crossMask;
+            int depth = BitBoard.CELL_COUNT - Integer.bitCount(crossMask | circleMask);
+            int move = book.lookup(crossMask, circleMask);
+            assertEquals(0, (crossMask | circleMask) & (1 << move));
+            int score = search.search(ownMask, opponentMask, depth).getScore();
+            int moveScore = -search.search(opponentMask, ownMask | (1 << move), depth - 1).getScore();
+            assertEquals(Integer.signum(score), Integer.signum(moveScore));
+        }
+    }
+
+    @Test
+    public void testBookShouldBeReadAsWritten() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        book.write(output);
+        OpeningBook readBook = OpeningBook.read(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(book.size(), readBook.size());
+        assertEquals(book.getMaxPly(), readBook.getMaxPly());
+        assertEquals(book.lookup(0b1, 0b10), readBook.lookup(0b1, 0b10));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidStreamShouldThrowException() throws IOException {
+        OpeningBook.read(new ByteArrayInputStream(new byte[16]));
+    }
+
+    @Test
+    public void testComputerPlayerShouldUseTheBook() {
+        ComputerPlayer computerPlayer = new ComputerPlayer();
+        computerPlayer.setOpeningBook(book);
+        BitBoard board = new BitBoard(0b1, 0);
+        assertEquals(book.lookup(board), computerPlayer.selectMove(board, CellState.CIRCLE, computerPlayer.newSearchLimits()));
+        assertNull(computerPlayer.getLastResult());
+    }
+}
@@ -0,0 +1,93 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelAlphaBetaSearchTest {
+
+    //Positions with 8 to 10 free cells, searched to the end of the game.
+    private static final int[][] POSITIONS = {
+            {0b0000_0000_0010_0101, 0b0000_0001_0000_1010, 0b0000_0010_1000_0000},
+            {0b0000_0000_1001_0001, 0b0000_0010_0100_0010, 0b0000_1000_0000_0100},
+            {0b0000_0110_0000_1001, 0b0000_1001_0000_0110, 0},
+            {0b0000_0001_1000_0110, 0b0010_0000_0010_1000, 0b0000_0000_0100_0001},
+    };
+
+    private ParallelAlphaBetaSearch parallelSearch;
+
+    @Before
+    public void setUp() {
+        //Every node with a ply left is split, to exercise the cancellation of the younger brothers.
+        parallelSearch = new ParallelAlphaBetaSearch(4, 1, TranspositionTable.DEFAULT_MAX_BYTES);
+    }
+
+    @After
+    public void tearDown() {
+        parallelSearch.shutdown();
+    }
+
+    @Test
+    public void testScoreShouldMatchSequentialSearch() {
+        for (int[] position : POSITIONS) {
+            BitBoard board = new BitBoard(position[0] | position[2], position[1]);
+            CellState sideToMove = Integer.bitCount(board.getMask(CellState.CROSS)) >
+                    Integer.bitCount(board.getMask(CellState.CIRCLE)) ? CellState.CIRCLE : CellState.CROSS;
+            SearchResult sequential = new AlphaBetaSearch().search(board, sideToMove, BitBoard.CELL_COUNT);
+            SearchResult parallel = parallelSearch.search(board, sideToMove, BitBoard.CELL_COUNT);
+            assertEquals(sequential.getScore(), parallel.getScore());
+            assertTrue(parallel.getNodeCount() > 0);
+
+            //The best move of the parallel search leads to the same score.
+            BitBoard next = new BitBoard(board.getMask(CellState.CROSS), board.getMask(CellState.CIRCLE));
+            next.setCellState(parallel.getBestMove() / BitBoard.SIZE, parallel.getBestMove() % BitBoard.SIZE, sideToMove);
+            if (!BitBoard.isWinningMove(next.getMask(sideToMove), parallel.getBestMove())) {
+                CellState opponent = sideToMove == CellState.CROSS ? CellState.CIRCLE : CellState.CROSS;
+                int opponentScore = new AlphaBetaSearch().search(next, opponent, BitBoard.CELL_COUNT).getScore();
+                //Wins & losses are one ply further from the root of the second search.
+                assertEquals(Integer.signum(parallel.getScore()), -Integer.signum(opponentScore));
+            }
+        }
+    }
+
+    @Test
+    public void testSearchShouldPlayTheImmediateWin() {
+        BitBoard board = new BitBoard(0b0111, 0b0001_0000_0001_0000_0000);
+        SearchResult result = parallelSearch.search(board, CellState.CROSS, 6);
+        assertEquals(BitBoard.toCellIndex(0, 3), result.getBestMove());
+        assertEquals(AlphaBetaSearch.WIN_SCORE - 1, result.getScore());
+    }
+
+    @Test
+    public void testTableShouldBeKeptAcrossTheSearches() {
+        ParallelAlphaBetaSearch search = new ParallelAlphaBetaSearch(ParallelAlphaBetaSearch.MOBILE_PARALLELISM);
+        try {
+            BitBoard board = new BitBoard(POSITIONS[2][0] | POSITIONS[2][2], POSITIONS[2][1]);
+            //The nodes below the root are searched sequentially, the subtrees are cut-offs for the second search.
+            int depth = ParallelAlphaBetaSearch.DEFAULT_SEQUENTIAL_DEPTH + 1;
+            SearchResult first = search.search(board, CellState.CROSS, depth);
+            SearchResult second = search.search(board, CellState.CROSS, depth);
+            assertEquals(first.getScore(), second.getScore());
+            assertTrue(second.getNodeCount() < first.getNodeCount());
+        } finally {
+            search.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelismShouldBeConfigurable() {
+        ParallelAlphaBetaSearch search = new ParallelAlphaBetaSearch(ParallelAlphaBetaSearch.MOBILE_PARALLELISM);
+        try {
+            assertEquals(2, search.getParallelism());
+            assertTrue(search.search(new BitBoard(), CellState.CROSS, 8).getBestMove() >= 0);
+        } finally {
+            search.shutdown();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+/**
+ * Measures the speedup of the {@link ParallelAlphaBetaSearch} over the sequential {@link AlphaBetaSearch}, for the
+ * full search of the 4x4 game from the empty board.
+ * <p>
+ * Usage: {@code ParallelSearchBenchmark [depth] [threads...]}, defaults to a depth of 16 and 1, 2, 4, 8 & 16 threads.
+ * </p>
+ */
+public class ParallelSearchBenchmark {
+
+    private static final int WARMUP_RUNS = 2;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : BitBoard.CELL_COUNT;
+        int[] threadCounts = {1, 2, 4, 8, 16};
+        if (args.length > 1) {
+            threadCounts = new int[args.length - 1];
+            for (int index = 1; index < args.length; index++) {
+                threadCounts[index - 1] = Integer.parseInt(args[index]);
+            }
+        }
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors() + ", depth: " + depth);
+
+        long sequentialNanos = 0;
+        SearchResult sequential = null;
+        for (int run = 0; run <= WARMUP_RUNS; run++) {
+            long start = System.nanoTime();
+            sequential = new AlphaBetaSearch().search(new BitBoard(), CellState.CROSS, depth);
+            sequentialNanos = System.nanoTime() - start;
+        }
+        System.out.printf("sequential: %d ms, %d nodes, score %d%n", sequentialNanos / 1_000_000,
+                sequential.getNodeCount(), sequential.getScore());
+
+        long singleThreadNanos = 0;
+        for (int threads : threadCounts) {
+            long nanos = 0;
+            SearchResult result = null;
+            for (int run = 0; run <= WARMUP_RUNS; run++) {
+                //A new instance for each run, so the shared table starts empty like the table of the sequential search.
+                ParallelAlphaBetaSearch search = new ParallelAlphaBetaSearch(threads);
+                try {
+                    long start = System.nanoTime();
+                    result = search.search(new BitBoard(), CellState.CROSS, depth);
+                    nanos = System.nanoTime() - start;
+                } finally {
+                    search.shutdown();
+                }
+            }
+            if (threads == 1) {
+                singleThreadNanos = nanos;
+            }
+            System.out.printf("threads: %2d, %d ms, %d nodes, score %d, speedup vs sequential %.2f, vs 1 thread %.2f%n",
+                    threads, nanos / 1_000_000, result.getNodeCount(), result.getScore(),
+                    (double) sequentialNanos / nanos, singleThreadNanos > 0 ? (double) singleThreadNanos / nanos : 0);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import com.androidnerds.tictactoe.game.board.BitBoard;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TablebaseTest {
+
+    private static TablebaseSolver solver;
+    private static File file;
+    private static Tablebase tablebase;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        solver = new TablebaseSolver(2);
+        solver.solve();
+        file = File.createTempFile("tablebase", ".bin");
+        solver.write(file);
+        tablebase = Tablebase.open(file);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        file.delete();
+    }
+
+    @Test
+    public void testEmptyBoardShouldBeDraw() {
+        assertEquals(Tablebase.DRAW, tablebase.probe(new BitBoard()));
+        assertEquals(Tablebase.DRAW, solver.getValue(0, 0));
+        assertEquals(BitBoard.CELL_COUNT, solver.getDistanceToEnd(0, 0));
+        assertEquals(Tablebase.HEADER_BYTES + Tablebase.DATA_BYTES, file.length());
+    }
+
+    @Test
+    public void testValuesShouldMatchTheFullDepthSearch() {
+        Random random = new Random(11);
+        AlphaBetaSearch search = new AlphaBetaSearch();
+        for (int game = 0; game < 200; game++) {
+            BitBoard board = playRandomMoves(random, 5 + random.nextInt(6));
+            int crossMask = board.getMask(CellState.CROSS);
+            int circleMask = board.getMask(CellState.CIRCLE);
+            boolean crossToMove = Integer.bitCount(crossMask) == Integer.bitCount(circleMask);
+            SearchResult result = search.search(board, crossToMove ? CellState.CROSS : CellState.CIRCLE,
+                    BitBoard.CELL_COUNT - board.getOccupiedCount());
+            int value = tablebase.probe(board);
+            if (result.getScore() > AlphaBetaSearch.WIN_THRESHOLD) {
+                assertEquals(Tablebase.WIN, value);
+                assertEquals(AlphaBetaSearch.WIN_SCORE - result.getScore(), solver.getDistanceToEnd(crossMask, circleMask));
+            } else if (result.getScore() < -AlphaBetaSearch.WIN_THRESHOLD) {
+                assertEquals(Tablebase.LOSS, value);
+            } else {
+                assertEquals(Tablebase.DRAW, value);
+            }
+            assertEquals(value, solver.getValue(crossMask, circleMask));
+        }
+    }
+
+    @Test
+    public void testSymmetricPositionsShouldHaveTheSameValue() {
+        Random random = new Random(5);
+        for (int game = 0; game < 100; game++) {
+            BitBoard board = playRandomMoves(random, 1 + random.nextInt(9));
+            int crossMask = board.getMask(CellState.CROSS);
+            int circleMask = board.getMask(CellState.CIRCLE);
+            for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+                assertEquals(tablebase.probe(crossMask, circleMask), tablebase.probe(
+                        BoardSymmetry.transform(crossMask, symmetry), BoardSymmetry.transform(circleMask, symmetry)));
+            }
+        }
+    }
+
+    @Test
+    public void testUnreachablePositionShouldBeUnknown() {
+        //Both players have completed a row.
+        assertEquals(Tablebase.UNKNOWN, tablebase.probe(0x000F, 0x00F0));
+        //Circle has more cells than cross.
+        assertEquals(Tablebase.UNKNOWN, tablebase.probe(0, 0b1));
+    }
+
+    @Test
+    public void testSelectMoveShouldPlayTheImmediateWin() {
+        BitBoard board = new BitBoard(0b0111, 0b0001_0011_0000_0000);
+        assertEquals(Tablebase.WIN, tablebase.getMoveResult(board, 3));
+        assertEquals(3, tablebase.selectMove(board));
+        assertEquals(1, solver.getDistanceToEnd(0b0111, 0b0001_0011_0000_0000));
+    }
+
+    @Test
+    public void testComputerPlayerShouldUseTheTablebase() {
+        ComputerPlayer computerPlayer = new ComputerPlayer();
+        computerPlayer.setTablebase(tablebase);
+        BitBoard board = new BitBoard(0b0111, 0b0001_0011_0000_0000);
+        assertEquals(3, computerPlayer.selectMove(board, CellState.CROSS, computerPlayer.newSearchLimits()));
+        assertNull(computerPlayer.getLastResult());
+    }
+
+    @Test
+    public void testPerfectPlayShouldDraw() {
+        BitBoard board = new BitBoard();
+        CellState player = CellState.CROSS;
+        while (!board.isFull()) {
+            int move = tablebase.selectMove(board);
+            assertTrue(tablebase.getMoveResult(board, move) != Tablebase.LOSS);
+            board.setCellState(move / BitBoard.SIZE, move % BitBoard.SIZE, player);
+            assertTrue(BitBoard.findWinningPatternOfMask(board.getMask(player), move) < 0);
+            player = player == CellState.CROSS ? CellState.CIRCLE : CellState.CROSS;
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFileShouldThrowException() throws IOException {
+        File invalidFile = File.createTempFile("invalid", ".bin");
+        try {
+            FileOutputStream output = new FileOutputStream(invalidFile);
+            output.write(new byte[Tablebase.HEADER_BYTES + Tablebase.DATA_BYTES]);
+            output.close();
+            Tablebase.open(invalidFile);
+        } finally {
+            invalidFile.delete();
+        }
+    }
+
+    /**
+     * @return the board after the random moves, stopping before a move which would end the game.
+     */
+    private static BitBoard playRandomMoves(Random random, int moveCount) {
+        int[] masks = new int[2];
+        for (int move = 0; move < moveCount; move++) {
+            int player = move & 1;
+            int cell;
+            do {
+                cell = random.nextInt(BitBoard.CELL_COUNT);
+            } while (((masks[0] | masks[1]) & (1 << cell)) != 0);
+            if (BitBoard.isWinningMove(masks[player] | (1 << cell), cell)) {
+                break;
+            }
+            masks[player] |= 1 << cell;
+        }
+        return new BitBoard(masks[0], masks[1]);
+    }
+}
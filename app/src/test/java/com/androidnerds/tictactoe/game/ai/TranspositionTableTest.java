@@ -0,0 +1,107 @@
+package com.androidnerds.tictactoe.game.ai;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TranspositionTableTest {
+
+    private static final long HASH = 0x1234_5678_9ABC_DEF0L;
+
+    private TranspositionTable table;
+
+    @Before
+    public void setUp() {
+        table = new TranspositionTable(1 << 10);
+    }
+
+    @Test
+    public void testCapacityShouldBeRoundedDownToPowerOfTwo() {
+        assertEquals(64, table.getCapacity());
+        assertEquals(64, new TranspositionTable(1500).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMemoryCapBelowOneEntryShouldThrowException() {
+        new TranspositionTable(8);
+    }
+
+    @Test
+    public void testStoredEntryShouldBeDecoded() {
+        table.store(HASH, 7, -9990, TranspositionTable.LOWER_BOUND, 15);
+        long entry = table.probe(HASH);
+        assertEquals(-9990, TranspositionTable.getScore(entry));
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        assertEquals(15, TranspositionTable.getMove(entry));
+
+        table.store(HASH + 1, 1, 0, TranspositionTable.EXACT, TranspositionTable.NO_MOVE);
+        assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.getMove(table.probe(HASH + 1)));
+    }
+
+    @Test
+    public void testProbeOfOtherPositionInSameSlotShouldMiss() {
+        table.store(HASH, 3, 10, TranspositionTable.EXACT, 1);
+        assertEquals(0, table.probe(HASH + table.getCapacity()));
+        assertEquals(0, table.probe(HASH + 1));
+    }
+
+    @Test
+    public void testShallowerEntryShouldNotReplaceDeeperEntryOfSameSearch() {
+        table.store(HASH, 5, 10, TranspositionTable.EXACT, 1);
+        table.store(HASH + table.getCapacity(), 4, 20, TranspositionTable.EXACT, 2);
+        assertEquals(10, TranspositionTable.getScore(table.probe(HASH)));
+
+        table.store(HASH + table.getCapacity(), 5, 20, TranspositionTable.EXACT, 2);
+        assertEquals(0, table.probe(HASH));
+        assertEquals(20, TranspositionTable.getScore(table.probe(HASH + table.getCapacity())));
+    }
+
+    @Test
+    public void testEntryOfEarlierSearchShouldBeReplaced() {
+        table.store(HASH, 5, 10, TranspositionTable.EXACT, 1);
+        table.newSearch();
+        table.store(HASH + table.getCapacity(), 1, 20, TranspositionTable.EXACT, 2);
+        assertEquals(0, table.probe(HASH));
+    }
+
+    @Test
+    public void testClearShouldRemoveAllEntries() {
+        table.store(HASH, 5, 10, TranspositionTable.EXACT, 1);
+        table.clear();
+        assertEquals(0, table.probe(HASH));
+    }
+
+    @Test
+    public void testConcurrentStoresShouldNotReturnMismatchedEntries() throws InterruptedException {
+        final TranspositionTable sharedTable = new TranspositionTable(1 << 8);
+        final AtomicBoolean mismatch = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int index = 0; index < threads.length; index++) {
+            final long seed = index;
+            threads[index] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int iteration = 0; iteration < 200_000; iteration++) {
+                    long hash = random.nextLong();
+                    //The score is derived from the hash, so an entry of another position is detected.
+                    sharedTable.store(hash, 1, (short) hash, TranspositionTable.EXACT, 0);
+                    long entry = sharedTable.probe(random.nextBoolean() ? hash : hash ^ 1);
+                    if (entry != 0 && TranspositionTable.getScore(entry) != (short) hash &&
+                            TranspositionTable.getScore(entry) != (short) (hash ^ 1)) {
+                        mismatch.set(true);
+                    }
+                }
+            });
+            threads[index].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(mismatch.get());
+    }
+}
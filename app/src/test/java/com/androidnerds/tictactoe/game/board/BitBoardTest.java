@@ -0,0 +1,89 @@
+package com.androidnerds.tictactoe.game.board;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BitBoardTest {
+
+    private BitBoard board;
+
+    @Before
+    public void setUp() {
+        board = new BitBoard();
+    }
+
+    @Test
+    public void testSetCellStateShouldUpdateTheMasks() {
+        board.setCellState(0, 1, CellState.CROSS);
+        board.setCellState(3, 3, CellState.CIRCLE);
+        assertEquals(CellState.CROSS, board.getCellState(0, 1));
+        assertEquals(CellState.CIRCLE, board.getCellState(3, 3));
+        assertEquals(CellState.FREE, board.getCellState(2, 2));
+        assertEquals(1 << 1, board.getMask(CellState.CROSS));
+        assertEquals(1 << 15, board.getMask(CellState.CIRCLE));
+
+        board.setCellState(0, 1, CellState.FREE);
+        assertEquals(CellState.FREE, board.getCellState(0, 1));
+        assertEquals(0, board.getMask(CellState.CROSS));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSetCellStateOutsideTheBoardShouldThrowException() {
+        board.setCellState(4, 0, CellState.CROSS);
+    }
+
+    @Test
+    public void testIsFull() {
+        for (int cellIndex = 0; cellIndex < BitBoard.CELL_COUNT; cellIndex++) {
+            assertFalse(board.isFull());
+            board.setCellState(cellIndex / BitBoard.SIZE, cellIndex % BitBoard.SIZE, cellIndex % 2 == 0 ? CellState.CROSS : CellState.CIRCLE);
+        }
+        assertTrue(board.isFull());
+        board.clear();
+        assertFalse(board.isFull());
+    }
+
+    @Test
+    public void testFindWinningMaskForColumn() {
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            board.setCellState(row, 2, CellState.CIRCLE);
+        }
+        assertEquals(0x4444, board.findWinningMask(3, 2));
+    }
+
+    @Test
+    public void testFindWinningMaskForSecondaryDiagonal() {
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            board.setCellState(row, BitBoard.SIZE - 1 - row, CellState.CROSS);
+        }
+        assertEquals(0x1248, board.findWinningMask(1, 2));
+    }
+
+    @Test
+    public void testFindWinningMaskWithoutWinShouldReturnZero() {
+        board.setCellState(0, 0, CellState.CROSS);
+        board.setCellState(0, 1, CellState.CROSS);
+        board.setCellState(1, 0, CellState.CIRCLE);
+        board.setCellState(1, 1, CellState.CROSS);
+        assertEquals(0, board.findWinningMask(1, 1));
+        assertEquals(0, board.findWinningMask(2, 2));
+    }
+
+    @Test
+    public void testOccupiedCountAndFreeCells() {
+        board.setCellState(0, 0, CellState.CROSS);
+        board.setCellState(2, 3, CellState.CIRCLE);
+        assertEquals(2, board.getOccupiedCount());
+
+        int[] cells = new int[BitBoard.CELL_COUNT];
+        assertEquals(14, board.getFreeCells(cells));
+        assertEquals(1, cells[0]);
+        assertEquals(BitBoard.CELL_COUNT - 1, cells[13]);
+    }
+}
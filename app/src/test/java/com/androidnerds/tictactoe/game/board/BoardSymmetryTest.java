@@ -0,0 +1,97 @@
+package com.androidnerds.tictactoe.game.board;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoardSymmetryTest {
+
+    @Test
+    public void testTransformShouldMatchRotationsAndReflections() {
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            for (int cell = 0; cell < BitBoard.CELL_COUNT; cell++) {
+                int row = cell / BitBoard.SIZE;
+                int column = cell % BitBoard.SIZE;
+                if ((symmetry & 4) != 0) {
+                    int temp = row;
+                    row = column;
+                    column = temp;
+                }
+                if ((symmetry & 2) != 0) {
+                    row = BitBoard.SIZE - 1 - row;
+                }
+                if ((symmetry & 1) != 0) {
+                    column = BitBoard.SIZE - 1 - column;
+                }
+                assertEquals(BitBoard.toCellIndex(row, column), BoardSymmetry.transformCell(cell, symmetry));
+                assertEquals(1 << BitBoard.toCellIndex(row, column), BoardSymmetry.transform(1 << cell, symmetry));
+            }
+        }
+    }
+
+    @Test
+    public void testInverseShouldRestoreTheCells() {
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            int inverse = BoardSymmetry.inverse(symmetry);
+            for (int cell = 0; cell < BitBoard.CELL_COUNT; cell++) {
+                assertEquals(cell, BoardSymmetry.transformCell(BoardSymmetry.transformCell(cell, symmetry), inverse));
+            }
+        }
+    }
+
+    @Test
+    public void testWinningMasksShouldBeMappedOntoWinningMasks() {
+        Set<Integer> winMasks = new HashSet<>();
+        for (int pattern = 0; pattern < BitBoard.getWinMaskCount(); pattern++) {
+            winMasks.add(BitBoard.getWinMask(pattern));
+        }
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            for (int winMask : winMasks) {
+                assertTrue(winMasks.contains(BoardSymmetry.transform(winMask, symmetry)));
+            }
+        }
+    }
+
+    @Test
+    public void testSymmetricPositionsShouldHaveSameCanonicalPosition() {
+        int crossMask = 0b0000_0000_0010_0001;
+        int circleMask = 0b0100_0000_0000_0010;
+        long canonical = BoardSymmetry.canonicalize(crossMask, circleMask);
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            long image = BoardSymmetry.canonicalize(BoardSymmetry.transform(crossMask, symmetry),
+                    BoardSymmetry.transform(circleMask, symmetry));
+            assertEquals(BoardSymmetry.getCrossMask(canonical), BoardSymmetry.getCrossMask(image));
+            assertEquals(BoardSymmetry.getCircleMask(canonical), BoardSymmetry.getCircleMask(image));
+        }
+    }
+
+    @Test
+    public void testMoveShouldBeTranslatedToCanonicalPosition() {
+        BitBoard board = new BitBoard(1 << BitBoard.toCellIndex(3, 3), 1 << BitBoard.toCellIndex(2, 3));
+        long canonical = BoardSymmetry.canonicalize(board);
+        int symmetry = BoardSymmetry.getSymmetry(canonical);
+        assertEquals(BoardSymmetry.transform(board.getMask(CellState.CROSS), symmetry),
+                BoardSymmetry.getCrossMask(canonical));
+
+        int move = BitBoard.toCellIndex(0, 3);
+        int canonicalMove = BoardSymmetry.transformCell(move, symmetry);
+        int canonicalCircleMask = BoardSymmetry.getCircleMask(canonical) | (1 << canonicalMove);
+        assertEquals(board.getMask(CellState.CIRCLE) | (1 << move),
+                BoardSymmetry.transform(canonicalCircleMask, BoardSymmetry.inverse(symmetry)));
+    }
+
+    @Test
+    public void testCanonicalPositionsOfTheFirstMoveShouldBeThree() {
+        Set<Long> positions = new HashSet<>();
+        for (int cell = 0; cell < BitBoard.CELL_COUNT; cell++) {
+            positions.add(BoardSymmetry.canonicalize(1 << cell, 0) & 0xFFFFFFFFL);
+        }
+        assertEquals(3, positions.size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.androidnerds.tictactoe.game.board;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PackedBoardTest {
+
+    @Test
+    public void testSetCellStateAcrossWords() {
+        PackedBoard board = new PackedBoard(7);
+        board.setCellState(4, 3, CellState.CROSS);
+        board.setCellState(4, 4, CellState.CIRCLE);
+        board.setCellState(6, 6, CellState.CIRCLE);
+        assertEquals(CellState.CROSS, board.getCellState(4, 3));
+        assertEquals(CellState.CIRCLE, board.getCellState(4, 4));
+        assertEquals(CellState.CIRCLE, board.getCellState(6, 6));
+        assertEquals(CellState.FREE, board.getCellState(4, 5));
+        assertEquals(3, board.getOccupiedCount());
+
+        board.setCellState(4, 4, CellState.CROSS);
+        assertEquals(CellState.CROSS, board.getCellState(4, 4));
+        assertEquals(3, board.getOccupiedCount());
+
+        board.setCellState(4, 4, CellState.FREE);
+        assertEquals(CellState.FREE, board.getCellState(4, 4));
+        assertEquals(2, board.getOccupiedCount());
+    }
+
+    @Test
+    public void testFreeCellsAndIsFull() {
+        PackedBoard board = new PackedBoard(3);
+        int[] cells = new int[9];
+        for (int cellIndex = 0; cellIndex < 9; cellIndex++) {
+            assertFalse(board.isFull());
+            assertEquals(9 - cellIndex, board.getFreeCells(cells));
+            assertEquals(cellIndex, cells[0]);
+            board.setCellState(cellIndex / 3, cellIndex % 3, CellState.CIRCLE);
+        }
+        assertTrue(board.isFull());
+        assertEquals(0, board.getFreeCells(cells));
+
+        board.clear();
+        assertEquals(0, board.getOccupiedCount());
+        assertEquals(9, board.getFreeCells(cells));
+    }
+
+    @Test
+    public void testLargeBoard() {
+        PackedBoard board = new PackedBoard(1000);
+        board.setCellState(999, 999, CellState.CROSS);
+        board.setCellState(0, 999, CellState.CIRCLE);
+        assertEquals(CellState.CROSS, board.getCellState(999, 999));
+        assertEquals(CellState.CIRCLE, board.getCellState(0, 999));
+        assertEquals(1000 * 1000 - 2, board.getFreeCells(new int[1000 * 1000]));
+    }
+
+    @Test
+    public void testCopyFromShouldCopyCellsByIndex() {
+        PackedBoard board = new PackedBoard(9);
+        board.setCellState(40, CellState.CROSS);
+        board.setCellState(80, CellState.CIRCLE);
+        PackedBoard copy = new PackedBoard(9);
+        copy.setCellState(0, CellState.CROSS);
+        copy.copyFrom(board);
+        assertEquals(CellState.FREE, copy.getCellState(0));
+        assertEquals(CellState.CROSS, copy.getCellState(4, 4));
+        assertEquals(CellState.CIRCLE, copy.getCellState(80));
+        assertEquals(2, copy.getOccupiedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCopyFromOtherSizeShouldThrowException() {
+        new PackedBoard(5).copyFrom(new PackedBoard(6));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSetCellStateOutsideTheBoardShouldThrowException() {
+        new PackedBoard(5).setCellState(0, 5, CellState.CROSS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSizeShouldThrowException() {
+        new PackedBoard(0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.androidnerds.tictactoe.game.board;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SparseBoardTest {
+
+    @Test
+    public void testSetCellStateWithNegativeAndLargeIndices() {
+        SparseBoard board = new SparseBoard();
+        board.setCellState(-5, 7, CellState.CROSS);
+        board.setCellState(Integer.MAX_VALUE, Integer.MIN_VALUE, CellState.CIRCLE);
+        assertEquals(CellState.CROSS, board.getCellState(-5, 7));
+        assertEquals(CellState.CIRCLE, board.getCellState(Integer.MAX_VALUE, Integer.MIN_VALUE));
+        assertEquals(CellState.FREE, board.getCellState(7, -5));
+        assertEquals(2, board.getOccupiedCount());
+        assertEquals(Board.UNBOUNDED_SIZE, board.getSize());
+        assertFalse(board.isFull());
+    }
+
+    @Test
+    public void testShouldMatchAHashMapUnderRandomUpdates() {
+        SparseBoard board = new SparseBoard();
+        Map<Long, CellState> expected = new HashMap<>();
+        Random random = new Random(7);
+        CellState[] states = CellState.values();
+        for (int update = 0; update < 20000; update++) {
+            int row = random.nextInt(60) - 30;
+            int column = random.nextInt(60) - 30;
+            CellState cellState = states[random.nextInt(states.length)];
+            board.setCellState(row, column, cellState);
+            long key = ((long) row << 32) | (column & 0xFFFFFFFFL);
+            if (cellState == CellState.FREE) {
+                expected.remove(key);
+            } else {
+                expected.put(key, cellState);
+            }
+        }
+        assertEquals(expected.size(), board.getOccupiedCount());
+        for (int row = -30; row < 30; row++) {
+            for (int column = -30; column < 30; column++) {
+                CellState cellState = expected.get(((long) row << 32) | (column & 0xFFFFFFFFL));
+                assertEquals(null != cellState ? cellState : CellState.FREE, board.getCellState(row, column));
+            }
+        }
+    }
+
+    @Test
+    public void testClear() {
+        SparseBoard board = new SparseBoard();
+        for (int index = 0; index < 1000; index++) {
+            board.setCellState(index, -index, CellState.CROSS);
+        }
+        board.clear();
+        assertEquals(0, board.getOccupiedCount());
+        assertEquals(CellState.FREE, board.getCellState(10, -10));
+    }
+}
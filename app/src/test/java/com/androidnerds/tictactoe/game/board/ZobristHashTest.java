@@ -0,0 +1,39 @@
+package com.androidnerds.tictactoe.game.board;
+
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ZobristHashTest {
+
+    @Test
+    public void testHashShouldNotDependOnMoveOrder() {
+        long first = ZobristHash.getKey(0, 0, CellState.CROSS) ^ ZobristHash.getKey(1, 1, CellState.CIRCLE) ^
+                ZobristHash.getKey(2, 3, CellState.CROSS);
+        long second = ZobristHash.getKey(2, 3, CellState.CROSS) ^ ZobristHash.getKey(1, 1, CellState.CIRCLE) ^
+                ZobristHash.getKey(0, 0, CellState.CROSS);
+        assertEquals(first, second);
+
+        BitBoard board = new BitBoard();
+        board.setCellState(2, 3, CellState.CROSS);
+        board.setCellState(0, 0, CellState.CROSS);
+        board.setCellState(1, 1, CellState.CIRCLE);
+        assertEquals(first, ZobristHash.hash(board));
+    }
+
+    @Test
+    public void testKeysShouldDependOnCellAndPlayer() {
+        assertEquals(0, ZobristHash.getKey(1, 2, CellState.FREE));
+        assertNotEquals(ZobristHash.getKey(1, 2, CellState.CROSS), ZobristHash.getKey(1, 2, CellState.CIRCLE));
+        assertNotEquals(ZobristHash.getKey(1, 2, CellState.CROSS), ZobristHash.getKey(2, 1, CellState.CROSS));
+        assertNotEquals(ZobristHash.getKey(-1, 0, CellState.CROSS), ZobristHash.getKey(0, -1, CellState.CROSS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHashOfUnboundedBoardShouldThrowException() {
+        ZobristHash.hash(new SparseBoard());
+    }
+}
@@ -0,0 +1,100 @@
+package com.androidnerds.tictactoe.game.index;
+
+import com.androidnerds.tictactoe.game.WinPatternTable;
+import com.androidnerds.tictactoe.game.simulation.RandomStrategy;
+import com.androidnerds.tictactoe.game.simulation.SimulationBoard;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Indexes random games, and measures the games per second of the {@link PositionIndexWriter} and the latencies of the
+ * lookups in the {@link PositionIndex}.
+ * <p>
+ * Usage: {@code PositionIndexBenchmark [games] [boardSize] [lookups]}, the games are played by a
+ * {@link SimulationBoard}, so the board size is at most 8. The positions looked up are the positions of random games,
+ * from the opening positions of millions of games to the end positions of a single game, and the pages are read from
+ * the first id of the positions and from a random id, deep in the lists of the opening positions.
+ * </p>
+ */
+public class PositionIndexBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long gameCount = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+        int boardSize = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int lookupCount = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        File directory = File.createTempFile("positions", ".index");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Can not create " + directory);
+        }
+        try {
+            SimulationBoard board = new SimulationBoard(WinPatternTable.forSize(boardSize));
+            RandomStrategy strategy = new RandomStrategy();
+            int[] moves = new int[board.getCellCount()];
+            long start = System.nanoTime();
+            try (PositionIndexWriter writer = new PositionIndexWriter(directory, boardSize)) {
+                Random random = new Random(1);
+                for (long game = 0; game < gameCount; game++) {
+                    writer.addGame(game, moves, play(board, strategy, random, moves));
+                }
+                writer.flush();
+                System.out.printf("indexed %,d games in %d ms, %d segments%n", gameCount,
+                        (System.nanoTime() - start) / 1_000_000, directory.list().length / 2);
+                start = System.nanoTime();
+                writer.compact();
+                System.out.printf("compacted in %d ms, %,d bytes%n", (System.nanoTime() - start) / 1_000_000,
+                        getLength(directory));
+            }
+            try (PositionIndex index = PositionIndex.open(directory)) {
+                PositionHasher hasher = new PositionHasher(boardSize);
+                Random random = new Random(2);
+                long[] page = new long[1000];
+                long[] nanos = new long[lookupCount];
+                long found = 0;
+                for (int run = 0; run < 4; run++) {
+                    boolean deep = run >= 2;
+                    for (int lookup = 0; lookup < lookupCount; lookup++) {
+                        int moveCount = play(board, strategy, random, moves);
+                        long hash = hasher.hashMoves(moves, deep ? 1 : 1 + random.nextInt(moveCount));
+                        long fromGameId = deep ? (long) (random.nextDouble() * gameCount) : 0;
+                        long lookupStart = System.nanoTime();
+                        found += index.getGameCount(hash);
+                        index.findGames(hash, fromGameId, page);
+                        nanos[lookup] = System.nanoTime() - lookupStart;
+                    }
+                    Arrays.sort(nanos);
+                    System.out.printf("lookups (count + %d ids from %s): p50 %.1f us, p99 %.1f us, max %.1f us, %,d games found%n",
+                            page.length, deep ? "a random id of an opening" : "the first id", nanos[lookupCount / 2] / 1e3,
+                            nanos[lookupCount * 99 / 100] / 1e3, nanos[lookupCount - 1] / 1e3, found);
+                }
+            }
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static int play(SimulationBoard board, RandomStrategy strategy, Random random, int[] moves) {
+        board.reset();
+        int moveCount = 0;
+        boolean completed = false;
+        while (!completed) {
+            int cell = strategy.selectMove(board, random);
+            moves[moveCount++] = cell;
+            completed = board.play(cell);
+        }
+        return moveCount;
+    }
+
+    private static long getLength(File directory) {
+        long length = 0;
+        for (File file : directory.listFiles()) {
+            length += file.length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,248 @@
+package com.androidnerds.tictactoe.game.index;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.board.BoardSymmetry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PositionIndexTest {
+
+    private static final int SIZE = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testHashShouldMatchTheEngine() throws Exception {
+        int[] moves = {5, 0, 10, 15, 6};
+        GameEngine engine = new GameEngine(null, SIZE);
+        engine.init();
+        engine.startGame();
+        engine.applyMoves(moves);
+        PositionHasher hasher = new PositionHasher(SIZE);
+        hasher.hashMoves(moves, moves.length);
+        assertEquals(engine.getHash(), hasher.getHash());
+        assertEquals(moves.length, hasher.getMoveCount());
+    }
+
+    @Test
+    public void testSymmetricPositionsShouldShareTheCanonicalHash() {
+        int[] moves = {5, 0, 10, 15, 6, 3};
+        PositionHasher hasher = new PositionHasher(SIZE);
+        long canonical = hasher.hashMoves(moves, moves.length);
+        long crossMask = 0;
+        long circleMask = 0;
+        for (int index = 0; index < moves.length; index++) {
+            if ((index & 1) == 0) {
+                crossMask |= 1L << moves[index];
+            } else {
+                circleMask |= 1L << moves[index];
+            }
+        }
+        assertEquals(canonical, hasher.hashMasks(crossMask, circleMask));
+        for (int symmetry = 0; symmetry < BoardSymmetry.SYMMETRY_COUNT; symmetry++) {
+            int[] transformed = new int[moves.length];
+            for (int index = 0; index < moves.length; index++) {
+                assertEquals(BoardSymmetry.transformCell(moves[index], symmetry), hasher.transformCell(moves[index], symmetry));
+                transformed[index] = hasher.transformCell(moves[index], symmetry);
+            }
+            assertEquals(canonical, hasher.hashMoves(transformed, transformed.length));
+        }
+        //Same cells with the players swapped.
+        assertNotEquals(canonical, hasher.hashMasks(circleMask, crossMask));
+    }
+
+    @Test
+    public void testLargeBoardShouldBeHashedWithoutTheKeyTable() {
+        int size = 70;
+        int[] moves = {0, size * size - 1, 5 * size + 7, 3};
+        PositionHasher hasher = new PositionHasher(size);
+        long canonical = hasher.hashMoves(moves, moves.length);
+        int[] transformed = new int[moves.length];
+        for (int index = 0; index < moves.length; index++) {
+            transformed[index] = hasher.transformCell(moves[index], 5);
+        }
+        assertEquals(canonical, hasher.hashMoves(transformed, transformed.length));
+    }
+
+    @Test
+    public void testGamesShouldBeFoundByPosition() throws IOException {
+        File directory = folder.newFolder();
+        int[][] games = createGames(3000, 1);
+        //Several segments, mapped in windows of 256 bytes.
+        try (PositionIndexWriter writer = new PositionIndexWriter(directory, SIZE, 5000)) {
+            for (int game = 0; game < games.length; game++) {
+                writer.addGame(2L * game, games[game], games[game].length);
+            }
+        }
+        Map<Long, List<Long>> expected = getPostings(games);
+        try (PositionIndex index = PositionIndex.open(directory, 8)) {
+            assertEquals(SIZE, index.getBoardSize());
+            assertTrue(index.getSegmentCount() > 1);
+            assertPostings(expected, index);
+        }
+    }
+
+    @Test
+    public void testCompactedIndexShouldKeepThePostings() throws IOException {
+        File directory = folder.newFolder();
+        int[][] games = createGames(3000, 2);
+        try (PositionIndexWriter writer = new PositionIndexWriter(directory, SIZE, 5000)) {
+            for (int game = 0; game < games.length / 2; game++) {
+                writer.addGame(2L * game, games[game], games[game].length);
+            }
+        }
+        //Reopened for appending, the games are compacted with the segments of the previous writer.
+        try (PositionIndexWriter writer = new PositionIndexWriter(directory, SIZE, 5000)) {
+            assertEquals(2L * (games.length / 2 - 1), writer.getLastGameId());
+            for (int game = games.length / 2; game < games.length; game++) {
+                writer.addGame(2L * game, games[game], games[game].length);
+            }
+            writer.compact();
+        }
+        try (PositionIndex index = PositionIndex.open(directory, 8)) {
+            assertEquals(1, index.getSegmentCount());
+            assertPostings(getPostings(games), index);
+        }
+        assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void testPagesShouldStartAnywhereInTheLists() throws IOException {
+        File directory = folder.newFolder();
+        int[][] games = createGames(5000, 3);
+        //A single segment, whose opening positions have lists of several skips.
+        try (PositionIndexWriter writer = new PositionIndexWriter(directory, SIZE, 100_000)) {
+            for (int game = 0; game < games.length; game++) {
+                writer.addGame(2L * game, games[game], games[game].length);
+            }
+        }
+        Map<Long, List<Long>> expected = getPostings(games);
+        Random random = new Random(4);
+        long[] page = new long[5];
+        try (PositionIndex index = PositionIndex.open(directory, 8)) {
+            assertEquals(1, index.getSegmentCount());
+            for (Map.Entry<Long, List<Long>> entry : expected.entrySet()) {
+                List<Long> gameIds = entry.getValue();
+                if (gameIds.size() <= PositionIndexFormat.SKIP_INTERVAL) {
+                    continue;
+                }
+                for (int lookup = 0; lookup < 100; lookup++) {
+                    //Odd ids are not indexed, so the page starts at the next even one.
+                    long fromGameId = random.nextInt(2 * games.length + 2);
+                    int found = index.findGames(entry.getKey(), fromGameId, page);
+                    int first = 0;
+                    while (first < gameIds.size() && gameIds.get(first) < fromGameId) {
+                        first++;
+                    }
+                    assertEquals(Math.min(page.length, gameIds.size() - first), found);
+                    for (int position = 0; position < found; position++) {
+                        assertEquals((long) gameIds.get(first + position), page[position]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameIdsShouldIncrease() throws IOException {
+        try (PositionIndexWriter writer = new PositionIndexWriter(folder.newFolder(), SIZE)) {
+            writer.addGame(5, new int[]{0}, 1);
+            writer.addGame(5, new int[]{1}, 1);
+        }
+    }
+
+    @Test
+    public void testEmptyIndexShouldFindNoGames() throws IOException {
+        try (PositionIndex index = PositionIndex.open(folder.newFolder())) {
+            assertEquals(0, index.getBoardSize());
+            assertEquals(0, index.getGameCount(42));
+            assertEquals(0, index.findGames(42, 0, new long[4]));
+        }
+    }
+
+    /**
+     * Checks the postings of every position, read in pages of 7 ids.
+     */
+    private static void assertPostings(Map<Long, List<Long>> expected, PositionIndex index) {
+        long[] page = new long[7];
+        for (Map.Entry<Long, List<Long>> entry : expected.entrySet()) {
+            long hash = entry.getKey();
+            List<Long> gameIds = entry.getValue();
+            assertEquals(gameIds.size(), index.getGameCount(hash));
+            long[] expectedIds = new long[gameIds.size()];
+            for (int position = 0; position < expectedIds.length; position++) {
+                expectedIds[position] = gameIds.get(position);
+            }
+            long[] actualIds = new long[expectedIds.length];
+            int count = 0;
+            long fromGameId = 0;
+            int found;
+            while ((found = index.findGames(hash, fromGameId, page)) > 0) {
+                System.arraycopy(page, 0, actualIds, count, found);
+                count += found;
+                fromGameId = page[found - 1] + 1;
+            }
+            assertArrayEquals(expectedIds, actualIds);
+        }
+        //A position of no game.
+        assertEquals(0, index.getGameCount(new PositionHasher(SIZE).hashMasks(0xFFFF, 0)));
+    }
+
+    private static Map<Long, List<Long>> getPostings(int[][] games) {
+        PositionHasher hasher = new PositionHasher(SIZE);
+        Map<Long, List<Long>> postings = new HashMap<>();
+        for (int game = 0; game < games.length; game++) {
+            hasher.reset();
+            for (int cell : games[game]) {
+                hasher.play(cell);
+                List<Long> gameIds = postings.get(hasher.getCanonicalHash());
+                if (null == gameIds) {
+                    gameIds = new ArrayList<>();
+                    postings.put(hasher.getCanonicalHash(), gameIds);
+                }
+                gameIds.add(2L * game);
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * @return games of random lengths on random free cells, the wins are not checked.
+     */
+    private static int[][] createGames(int gameCount, long seed) {
+        Random random = new Random(seed);
+        int[][] games = new int[gameCount][];
+        for (int game = 0; game < gameCount; game++) {
+            int[] cells = new int[SIZE * SIZE];
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = cell;
+            }
+            int length = random.nextInt(cells.length) + 1;
+            for (int index = 0; index < length; index++) {
+                int swap = index + random.nextInt(cells.length - index);
+                int cell = cells[swap];
+                cells[swap] = cells[index];
+                cells[index] = cell;
+            }
+            games[game] = Arrays.copyOf(cells, length);
+        }
+        return games;
+    }
+}
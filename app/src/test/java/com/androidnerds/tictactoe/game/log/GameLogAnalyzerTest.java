@@ -0,0 +1,159 @@
+package com.androidnerds.tictactoe.game.log;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.StandardWinRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+
+public class GameLogAnalyzerTest {
+
+    private File firstFile;
+    private File secondFile;
+    private GameLogAnalyzer analyzer;
+
+    @Before
+    public void setUp() throws IOException {
+        firstFile = File.createTempFile("games", ".log");
+        secondFile = File.createTempFile("games", ".log");
+        assertEquals(true, firstFile.delete() && secondFile.delete());
+    }
+
+    @After
+    public void tearDown() {
+        if (null != analyzer) {
+            analyzer.shutdown();
+        }
+        firstFile.delete();
+        secondFile.delete();
+    }
+
+    @Test
+    public void testGamesShouldBeAggregatedByOpeningAndRule() throws IOException {
+        try (GameLogWriter writer = GameLogWriter.append(firstFile)) {
+            //Cross completes the top row, opened at 0.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+            //Circle completes the middle column, opened at 0.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 1, 2, 4, 5, 7}, 6,
+                    GameEngine.GameStatus.PLAYER_2_WON);
+            //Cross completes the top row and the principal diagonal, counted for the row, opened at 4.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{4, 3, 1, 5, 2, 6, 8, 7, 0}, 9,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        try (GameLogWriter writer = GameLogWriter.append(secondFile)) {
+            //X O X / X O O / O X X
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 1, 2, 4, 3, 5, 7, 6, 8}, 9,
+                    GameEngine.GameStatus.DRAW);
+            //Cross completes the four corners of the 4x4 board, skipped.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 4, 0, new int[]{0, 1, 3, 2, 12, 4, 15}, 7,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+            //Mismatched status.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.DRAW);
+        }
+        analyzer = new GameLogAnalyzer(GameLogFormat.STANDARD_RULES, 3, 2);
+        GameLogReport report = analyzer.analyze(firstFile, secondFile);
+        assertEquals(5, report.getGameCount());
+        assertEquals(4, report.getValidCount());
+        assertEquals(1, report.getMismatchCount());
+        assertEquals(1, report.getSkippedCount());
+        assertEquals(3, report.getOpeningGames(0));
+        assertEquals(1, report.getOpeningCount(0, GameEngine.GameStatus.PLAYER_1_WON));
+        assertEquals(1, report.getOpeningCount(0, GameEngine.GameStatus.PLAYER_2_WON));
+        assertEquals(1, report.getOpeningCount(0, GameEngine.GameStatus.DRAW));
+        assertEquals(1, report.getOpeningCount(4, GameEngine.GameStatus.PLAYER_1_WON));
+        assertEquals(2, report.getRuleWins(StandardWinRule.ROW));
+        assertEquals(1, report.getRuleWins(StandardWinRule.COLUMN));
+        assertEquals(0, report.getRuleWins(StandardWinRule.PRINCIPAL_DIAGONAL));
+        assertEquals((5 + 6 + 9 + 9) / 4.0, report.getAverageLength(), 1e-9);
+        assertEquals(2, report.getLengthCount(9));
+    }
+
+    @Test
+    public void testChunksShouldMatchASequentialReplay() throws IOException {
+        int[][] games = {
+                {0, 1, 3, 2, 6},
+                {0, 4, 8, 1, 7, 2, 6},
+                {5, 0, 10, 15, 6, 9, 3, 12, 13, 1, 2, 7, 4, 8, 11, 14},
+                {0, 1, 4, 2, 5},
+        };
+        GameEngine.GameStatus[] statuses = {
+                GameEngine.GameStatus.PLAYER_1_WON,
+                GameEngine.GameStatus.PLAYER_1_WON,
+                GameEngine.GameStatus.PLAYER_1_WON,
+                GameEngine.GameStatus.PLAYER_1_WON,
+        };
+        try (GameLogWriter writer = GameLogWriter.append(firstFile)) {
+            for (int game = 0; game < 40_000; game++) {
+                int[] moves = games[game % games.length];
+                writer.writeGame(GameLogFormat.STANDARD_RULES, 4, game, moves, moves.length, statuses[game % games.length]);
+            }
+        }
+        ReplayResult result;
+        try (GameLogReader reader = GameLogReader.open(firstFile)) {
+            result = reader.replay();
+        }
+        //Chunks of a few blocks each.
+        analyzer = new GameLogAnalyzer(GameLogFormat.STANDARD_RULES, 4, 3, 3 * GameLogFormat.BLOCK_BYTES);
+        GameLogReport report = analyzer.analyze(firstFile);
+        assertEquals(result.getGameCount(), report.getGameCount());
+        assertEquals(result.getInvalidCount(), report.getInvalidCount());
+        assertEquals(result.getMismatchCount(), report.getMismatchCount());
+        assertEquals(result.getStatusCount(GameEngine.GameStatus.PLAYER_1_WON),
+                report.getRuleWins(StandardWinRule.ROW) + report.getRuleWins(StandardWinRule.COLUMN) +
+                        report.getRuleWins(StandardWinRule.PRINCIPAL_DIAGONAL) +
+                        report.getRuleWins(StandardWinRule.SECONDARY_DIAGONAL) +
+                        report.getRuleWins(StandardWinRule.CORNERS) + report.getRuleWins(StandardWinRule.SQUARE));
+    }
+
+    @Test
+    public void testTruncatedLogShouldBeCounted() throws IOException {
+        try (GameLogWriter writer = GameLogWriter.append(firstFile)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+            writer.flush();
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(firstFile, "rw")) {
+            randomAccessFile.setLength(firstFile.length() - 1);
+        }
+        analyzer = new GameLogAnalyzer(GameLogFormat.STANDARD_RULES, 3, 1);
+        GameLogReport report = analyzer.analyze(firstFile);
+        assertEquals(1, report.getGameCount());
+        assertEquals(1, report.getTruncatedCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidBlockShouldThrowException() throws IOException {
+        try (GameLogWriter writer = GameLogWriter.append(firstFile)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        //Game count of the first block, checked by the task of its chunk.
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(firstFile, "rw")) {
+            randomAccessFile.seek(GameLogFormat.HEADER_BYTES + 4);
+            randomAccessFile.writeInt(2);
+        }
+        analyzer = new GameLogAnalyzer(GameLogFormat.STANDARD_RULES, 3, 2);
+        analyzer.analyze(firstFile);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidLogShouldThrowException() throws IOException {
+        try (FileOutputStream outputStream = new FileOutputStream(firstFile)) {
+            outputStream.write(new byte[16]);
+        }
+        analyzer = new GameLogAnalyzer(GameLogFormat.STANDARD_RULES, 3, 1);
+        analyzer.analyze(firstFile);
+    }
+}
@@ -0,0 +1,81 @@
+package com.androidnerds.tictactoe.game.log;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+import com.androidnerds.tictactoe.game.simulation.RandomStrategy;
+import com.androidnerds.tictactoe.game.simulation.SimulationBoard;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Writes a log of random games and measures the games per second of the {@link GameLogReader} replaying it, and of the
+ * {@link GameLogAnalyzer} aggregating it.
+ * <p>
+ * Usage: {@code GameLogBenchmark [games] [boardSize] [parallelism]}, the games are played by a {@link SimulationBoard}, so the board
+ * size is at most 8.
+ * </p>
+ */
+public class GameLogBenchmark {
+
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int boardSize = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        File file = File.createTempFile("games", ".log");
+        try {
+            long start = System.nanoTime();
+            write(file, gameCount, boardSize);
+            System.out.printf("wrote %,d games, %,d bytes in %d ms%n", gameCount, file.length(),
+                    (System.nanoTime() - start) / 1_000_000);
+            for (int run = 0; run < RUNS; run++) {
+                try (GameLogReader reader = GameLogReader.open(file)) {
+                    start = System.nanoTime();
+                    ReplayResult result = reader.replay();
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("replayed %,.0f games/s%n%s%n", result.getGameCount() / seconds, result);
+                }
+            }
+            GameLogAnalyzer analyzer = new GameLogAnalyzer(GameLogFormat.STANDARD_RULES, boardSize, parallelism);
+            try {
+                for (int run = 0; run < RUNS; run++) {
+                    start = System.nanoTime();
+                    GameLogReport report = analyzer.analyze(file);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("analyzed %,.0f games/s, %,.0f MB/s on %d threads%n%s%n",
+                            report.getGameCount() / seconds, file.length() / seconds / 1e6, parallelism, report);
+                }
+            } finally {
+                analyzer.shutdown();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void write(File file, int gameCount, int boardSize) throws IOException {
+        SimulationBoard board = new SimulationBoard(WinPatternTable.forSize(boardSize));
+        RandomStrategy strategy = new RandomStrategy();
+        Random random = new Random(1);
+        int[] moves = new int[board.getCellCount()];
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            for (int game = 0; game < gameCount; game++) {
+                board.reset();
+                int moveCount = 0;
+                boolean completed = false;
+                while (!completed) {
+                    int cell = strategy.selectMove(board, random);
+                    moves[moveCount++] = cell;
+                    completed = board.play(cell);
+                }
+                GameEngine.GameStatus status = board.getWinner() == SimulationBoard.FIRST_PLAYER ?
+                        GameEngine.GameStatus.PLAYER_1_WON : board.getWinner() == SimulationBoard.SECOND_PLAYER ?
+                        GameEngine.GameStatus.PLAYER_2_WON : GameEngine.GameStatus.DRAW;
+                writer.writeGame(GameLogFormat.STANDARD_RULES, boardSize, game, moves, moveCount, status);
+            }
+        }
+    }
+}
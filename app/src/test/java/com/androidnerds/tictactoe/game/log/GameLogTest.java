@@ -0,0 +1,258 @@
+package com.androidnerds.tictactoe.game.log;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.StandardWinRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GameLogTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("games", ".log");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testGamesShouldBeReplayedToTheirRecordedStatus() throws IOException {
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            //Cross completes the top row of the 3x3 board.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 7, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+            //X O X / X O O / O X X
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 8, new int[]{0, 1, 2, 4, 3, 5, 7, 6, 8}, 9,
+                    GameEngine.GameStatus.DRAW);
+            //Unfinished game.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 4, 9, new int[]{5, 6}, 2,
+                    GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+        }
+        //Bytes of the headers & of the records, the moves of the 3x3 & 4x4 boards take a byte each.
+        assertEquals(GameLogFormat.HEADER_BYTES + GameLogFormat.BLOCK_HEADER_BYTES + 3 * 12 + 5 + 9 + 2, file.length());
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            ReplayResult result = reader.replay();
+            assertTrue(result.toString(), result.isValid());
+            assertEquals(3, result.getGameCount());
+            assertEquals(16, result.getMoveCount());
+            assertEquals(1, result.getStatusCount(GameEngine.GameStatus.PLAYER_1_WON));
+            assertEquals(1, result.getStatusCount(GameEngine.GameStatus.DRAW));
+            assertEquals(1, result.getStatusCount(GameEngine.GameStatus.NEXT_PLAYER_PLAYS));
+        }
+    }
+
+    @Test
+    public void testWrongStatusAndIllegalMovesShouldBeReported() throws IOException {
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 1}, 2, GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            //The status recorded is wrong.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_2_WON);
+            //Occupied cell.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 0}, 2, GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            //Move after the win.
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2, 5}, 6,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            ReplayResult result = reader.replay();
+            assertFalse(result.isValid());
+            assertEquals(4, result.getGameCount());
+            assertEquals(1, result.getMismatchCount());
+            assertEquals(2, result.getInvalidCount());
+            assertEquals(GameLogFormat.HEADER_BYTES + GameLogFormat.BLOCK_HEADER_BYTES + 12 + 2,
+                    result.getFirstFailureOffset());
+        }
+    }
+
+    @Test
+    public void testRulesShouldBeReplayedFromTheRecord() throws IOException {
+        int rowsOnly = GameLogFormat.getRuleMask(StandardWinRule.ROW);
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            //The left column is not a win with the rows only.
+            writer.writeGame(rowsOnly, 3, 0, new int[]{0, 1, 3, 2, 6}, 5, GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 1, 3, 2, 6}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            assertTrue(reader.replay().isValid());
+        }
+    }
+
+    @Test
+    public void testLargeBoardShouldUseVarintMoves() throws IOException {
+        int size = 20;
+        int[] moves = new int[size * 2 - 1];
+        //Cross fills the last row, circle plays on the first row.
+        for (int column = 0; column < size; column++) {
+            moves[2 * column] = (size - 1) * size + column;
+            if (column < size - 1) {
+                moves[2 * column + 1] = column;
+            }
+        }
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            for (int game = 0; game < 3; game++) {
+                writer.writeGame(GameLogFormat.STANDARD_RULES, size, game, moves, moves.length,
+                        GameEngine.GameStatus.PLAYER_1_WON);
+            }
+        }
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            ReplayResult result = reader.replay();
+            assertTrue(result.toString(), result.isValid());
+            assertEquals(3, result.getStatusCount(GameEngine.GameStatus.PLAYER_1_WON));
+        }
+    }
+
+    @Test
+    public void testAppendedLogShouldBeReplayedAcrossTheWindows() throws IOException {
+        int[] moves = {0, 3, 1, 4, 2};
+        for (int batch = 0; batch < 2; batch++) {
+            try (GameLogWriter writer = GameLogWriter.append(file)) {
+                for (int game = 0; game < 10_000; game++) {
+                    writer.writeGame(GameLogFormat.STANDARD_RULES, 3, game, moves, moves.length,
+                            GameEngine.GameStatus.PLAYER_1_WON);
+                }
+            }
+        }
+        //Windows smaller than the log, which do not end on the records.
+        try (GameLogReader reader = GameLogReader.open(file, 1000)) {
+            ReplayResult result = reader.replay();
+            assertTrue(result.toString(), result.isValid());
+            assertEquals(20_000, result.getStatusCount(GameEngine.GameStatus.PLAYER_1_WON));
+        }
+    }
+
+    @Test
+    public void testTruncatedBlockShouldBeReported() throws IOException {
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+            writer.flush();
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(file.length() - 2);
+        }
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            ReplayResult result = reader.replay();
+            assertEquals(1, result.getGameCount());
+            assertEquals(GameLogFormat.HEADER_BYTES + GameLogFormat.BLOCK_HEADER_BYTES + 12 + 5,
+                    result.getTruncatedOffset());
+            assertFalse(result.isValid());
+        }
+    }
+
+    @Test
+    public void testRecordLargerThanABlockShouldBeReplayed() throws IOException {
+        int size = 120;
+        //More moves than fit into a block, at the largest size of a varint.
+        int[] moves = new int[GameLogFormat.BLOCK_BYTES / GameLogFormat.MAX_VARINT_BYTES + 1];
+        for (int index = 0; index < moves.length; index++) {
+            moves[index] = index;
+        }
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 1}, 2, GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            writer.writeGame(GameLogFormat.STANDARD_RULES, size, 0, moves, moves.length,
+                    GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 1}, 2, GameEngine.GameStatus.NEXT_PLAYER_PLAYS);
+        }
+        try (GameLogReader reader = GameLogReader.open(file, 1000)) {
+            ReplayResult result = reader.replay();
+            assertEquals(3, result.getGameCount());
+            assertEquals(moves.length + 4, result.getMoveCount());
+            //Cross plays the even cells and circle the odd cells of the large board, so neither completes a pattern.
+            assertTrue(result.toString(), result.isValid());
+            assertEquals(3, result.getStatusCount(GameEngine.GameStatus.NEXT_PLAYER_PLAYS));
+        }
+    }
+
+    @Test
+    public void testEngineGameShouldBeLogged() throws Exception {
+        GameEngine engine = new GameEngine(null, 4);
+        engine.init();
+        engine.startGame();
+        assertEquals(GameEngine.MoveResult.ACCEPTED, engine.applyMoves(new int[]{0, 4, 1, 5, 2, 6, 3}));
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            writer.writeGame(engine, 0, new int[16]);
+        }
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            ReplayResult result = reader.replay();
+            assertTrue(result.isValid());
+            assertEquals(1, result.getStatusCount(GameEngine.GameStatus.PLAYER_1_WON));
+        }
+    }
+
+    @Test
+    public void testTornBlockShouldBeTruncatedOnAppend() throws IOException {
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+            writer.flush();
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        //The second block is cut, as by a crash while it was written.
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(file.length() - 3);
+        }
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 1, 2, 4, 3, 5, 7, 6, 8}, 9,
+                    GameEngine.GameStatus.DRAW);
+        }
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            ReplayResult result = reader.replay();
+            assertTrue(result.toString(), result.isValid());
+            assertEquals(2, result.getGameCount());
+            assertEquals(1, result.getStatusCount(GameEngine.GameStatus.PLAYER_1_WON));
+            assertEquals(1, result.getStatusCount(GameEngine.GameStatus.DRAW));
+        }
+    }
+
+    @Test
+    public void testTornHeaderShouldBeRewrittenOnAppend() throws IOException {
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(new byte[]{(byte) (GameLogFormat.MAGIC >>> 24), (byte) (GameLogFormat.MAGIC >>> 16)});
+        }
+        try (GameLogWriter writer = GameLogWriter.append(file)) {
+            writer.writeGame(GameLogFormat.STANDARD_RULES, 3, 0, new int[]{0, 3, 1, 4, 2}, 5,
+                    GameEngine.GameStatus.PLAYER_1_WON);
+        }
+        try (GameLogReader reader = GameLogReader.open(file)) {
+            assertEquals(1, reader.replay().getGameCount());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testAppendToAnotherVersionShouldThrowException() throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.writeInt(GameLogFormat.MAGIC);
+            randomAccessFile.writeInt(GameLogFormat.VERSION - 1);
+        }
+        GameLogWriter.append(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidHeaderShouldThrowException() throws IOException {
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(new byte[16]);
+        }
+        GameLogReader.open(file);
+    }
+}
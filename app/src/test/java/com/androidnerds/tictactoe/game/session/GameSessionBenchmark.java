@@ -0,0 +1,68 @@
+package com.androidnerds.tictactoe.game.session;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+
+/**
+ * Measures the moves per second of the {@link GameSessionManager}, with many threads submitting moves to random
+ * games. A game which is over is removed & created again, so the no: of live games stays constant. The run with a
+ * single stripe shows the cost of a global lock.
+ * <p>
+ * Usage: {@code GameSessionBenchmark [games] [movesPerThread] [boardSize]}.
+ * </p>
+ */
+public class GameSessionBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+
+    public static void main(String[] args) throws InterruptedException {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int movesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int boardSize = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        for (int stripeCount : new int[]{GameSessionManager.DEFAULT_STRIPE_COUNT, 1}) {
+            GameSessionManager manager = new GameSessionManager(WinPatternTable.forSize(boardSize), stripeCount);
+            long start = System.nanoTime();
+            for (long gameId = 0; gameId < gameCount; gameId++) {
+                manager.createGame(gameId);
+            }
+            System.out.printf("%d stripes: created %,d games in %d ms%n", stripeCount, gameCount,
+                    (System.nanoTime() - start) / 1_000_000);
+            for (int threadCount : THREAD_COUNTS) {
+                double movesPerSecond = run(manager, gameCount, threadCount, movesPerThread);
+                System.out.printf("%d stripes, %d threads: %,.0f moves/s%n", stripeCount, threadCount, movesPerSecond);
+            }
+        }
+    }
+
+    private static double run(final GameSessionManager manager, final int gameCount, int threadCount,
+                              final int movesPerThread) throws InterruptedException {
+        final int cellCount = manager.getBoardSize() * manager.getBoardSize();
+        Thread[] threads = new Thread[threadCount];
+        for (int index = 0; index < threadCount; index++) {
+            final long seed = 0x9E3779B97F4A7C15L * (index + 1);
+            threads[index] = new Thread(() -> {
+                //Xorshift, so that the threads do not share a random source.
+                long random = seed;
+                for (int move = 0; move < movesPerThread; move++) {
+                    random ^= random << 13;
+                    random ^= random >>> 7;
+                    random ^= random << 17;
+                    long gameId = (random >>> 1) % gameCount;
+                    int cell = (int) ((random >>> 40) % cellCount);
+                    if (manager.playMove(gameId, cell) == GameEngine.MoveResult.GAME_OVER) {
+                        manager.removeGame(gameId);
+                        manager.createGame(gameId);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return (double) threadCount * movesPerThread * 1e9 / (System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,144 @@
+package com.androidnerds.tictactoe.game.session;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+import com.androidnerds.tictactoe.game.model.CellState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GameSessionManagerTest {
+
+    private GameSessionManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new GameSessionManager(WinPatternTable.forSize(3), 4);
+    }
+
+    @Test
+    public void testMovesShouldBeValidatedPerGame() {
+        assertTrue(manager.createGame(7));
+        assertFalse(manager.createGame(7));
+        assertTrue(manager.createGame(-7));
+        assertEquals(GameEngine.MoveResult.NOT_STARTED, manager.playMove(8, 0));
+        assertEquals(GameEngine.MoveResult.ILLEGAL, manager.playMove(7, 9));
+        assertEquals(GameEngine.MoveResult.ACCEPTED, manager.playMove(7, 4));
+        assertEquals(GameEngine.MoveResult.OCCUPIED, manager.playMove(7, 4));
+        assertEquals(GameEngine.MoveResult.ACCEPTED, manager.playMove(-7, 4));
+        assertEquals(GameEngine.MoveResult.ACCEPTED, manager.playMove(7, 0));
+        assertEquals(CellState.CROSS, manager.getCellState(7, 4));
+        assertEquals(CellState.CIRCLE, manager.getCellState(7, 0));
+        assertEquals(CellState.FREE, manager.getCellState(7, 1));
+        assertEquals(2, manager.getMoveCount(7));
+        assertEquals(1, manager.getMoveCount(-7));
+        assertEquals(-1, manager.getMoveCount(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCellStateShouldBeOnTheBoard() {
+        manager.createGame(7);
+        //Would wrap to the cell 0 of the mask.
+        manager.getCellState(7, 64);
+    }
+
+    @Test
+    public void testGameShouldEndWithAWinOrADraw() {
+        manager.createGame(1);
+        GameEngine.GameStatus[] gameStatus = new GameEngine.GameStatus[1];
+        //Cross completes the left column.
+        for (int cell : new int[]{0, 1, 3, 2}) {
+            assertEquals(GameEngine.MoveResult.ACCEPTED, manager.playMove(1, cell, gameStatus));
+            assertEquals(GameEngine.GameStatus.NEXT_PLAYER_PLAYS, gameStatus[0]);
+        }
+        assertEquals(GameEngine.MoveResult.ACCEPTED, manager.playMove(1, 6, gameStatus));
+        assertEquals(GameEngine.GameStatus.PLAYER_1_WON, gameStatus[0]);
+        assertEquals(GameEngine.GameStatus.PLAYER_1_WON, manager.getGameStatus(1));
+        assertEquals(GameEngine.MoveResult.GAME_OVER, manager.playMove(1, 8));
+
+        manager.createGame(2);
+        //X O X / X O O / O X X
+        for (int cell : new int[]{0, 1, 2, 4, 3, 5, 7, 6, 8}) {
+            assertEquals(GameEngine.MoveResult.ACCEPTED, manager.playMove(2, cell));
+        }
+        assertEquals(GameEngine.GameStatus.DRAW, manager.getGameStatus(2));
+        assertEquals(GameEngine.GameStatus.NOT_INITIALIZED, manager.getGameStatus(3));
+    }
+
+    @Test
+    public void testGamesShouldSurviveGrowthAndRemoval() {
+        int gameCount = 10_000;
+        for (long gameId = 0; gameId < gameCount; gameId++) {
+            assertTrue(manager.createGame(gameId));
+            manager.playMove(gameId, (int) (gameId % 9));
+        }
+        assertEquals(gameCount, manager.size());
+        for (long gameId = 0; gameId < gameCount; gameId += 2) {
+            assertTrue(manager.removeGame(gameId));
+        }
+        assertFalse(manager.removeGame(0));
+        assertEquals(gameCount / 2, manager.size());
+        for (long gameId = 0; gameId < gameCount; gameId++) {
+            int expectedCount = gameId % 2 == 0 ? -1 : 1;
+            assertEquals(expectedCount, manager.getMoveCount(gameId));
+            if (gameId % 2 == 1) {
+                assertEquals(CellState.CROSS, manager.getCellState(gameId, (int) (gameId % 9)));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentMovesShouldAllBeApplied() throws InterruptedException {
+        final int threadCount = 4;
+        final int gamesPerThread = 2_000;
+        final AtomicInteger accepted = new AtomicInteger();
+        for (long gameId = 0; gameId < threadCount * gamesPerThread; gameId++) {
+            manager.createGame(gameId);
+        }
+        Thread[] threads = new Thread[threadCount];
+        for (int index = 0; index < threadCount; index++) {
+            final int thread = index;
+            threads[index] = new Thread(() -> {
+                Random random = new Random(thread);
+                for (int move = 0; move < 20_000; move++) {
+                    //Every thread plays moves into all the games.
+                    long gameId = random.nextInt(threadCount * gamesPerThread);
+                    if (manager.playMove(gameId, random.nextInt(9)) == GameEngine.MoveResult.ACCEPTED) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            threads[index].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int moveCount = 0;
+        for (long gameId = 0; gameId < threadCount * gamesPerThread; gameId++) {
+            moveCount += manager.getMoveCount(gameId);
+        }
+        assertEquals(accepted.get(), moveCount);
+    }
+
+    @Test
+    public void testStartGameShouldCreateOrRestartTheGame() {
+        manager.startGame(5);
+        assertEquals(GameEngine.MoveResult.ACCEPTED, manager.playMove(5, 0));
+        manager.startGame(5);
+        assertEquals(0, manager.getMoveCount(5));
+        assertEquals(GameEngine.GameStatus.NEXT_PLAYER_PLAYS, manager.getGameStatus(5));
+        assertEquals(1, manager.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStripeCountShouldBeAPowerOf2() {
+        new GameSessionManager(WinPatternTable.forSize(3), 6);
+    }
+}
@@ -0,0 +1,52 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.WinPatternTable;
+
+/**
+ * Measures the games per minute of the {@link SelfPlaySimulator} between the random & greedy strategies.
+ * <p>
+ * Usage: {@code SelfPlayBenchmark [boardSize] [games] [threads]}.
+ * </p>
+ */
+public class SelfPlayBenchmark {
+
+    public static void main(String[] args) {
+        int boardSize = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 2_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Strategy.Factory random = new Strategy.Factory() {
+            @NonNull
+            @Override
+            public Strategy create() {
+                return new RandomStrategy();
+            }
+        };
+        Strategy.Factory greedy = new Strategy.Factory() {
+            @NonNull
+            @Override
+            public Strategy create() {
+                return new GreedyStrategy();
+            }
+        };
+        SelfPlaySimulator simulator = new SelfPlaySimulator(WinPatternTable.forSize(boardSize), threads);
+        try {
+            //Warm up.
+            simulator.run(random, random, games / 10, 0);
+            run(simulator, "random/random", random, random, games);
+            run(simulator, "greedy/random", greedy, random, games);
+        } finally {
+            simulator.shutdown();
+        }
+    }
+
+    private static void run(SelfPlaySimulator simulator, String name, Strategy.Factory strategyA,
+                            Strategy.Factory strategyB, long games) {
+        long start = System.nanoTime();
+        SimulationStats stats = simulator.run(strategyA, strategyB, games, 1);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s on %d threads: %,.0f games/min%n%s%n", name, simulator.getThreadCount(),
+                games * 60 / seconds, stats);
+    }
+}
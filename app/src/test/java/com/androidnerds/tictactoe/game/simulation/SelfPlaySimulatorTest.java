@@ -0,0 +1,123 @@
+package com.androidnerds.tictactoe.game.simulation;
+
+import androidx.annotation.NonNull;
+
+import com.androidnerds.tictactoe.game.StandardWinRule;
+import com.androidnerds.tictactoe.game.WinPatternTable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SelfPlaySimulatorTest {
+
+    private static final Strategy.Factory RANDOM = new Strategy.Factory() {
+        @NonNull
+        @Override
+        public Strategy create() {
+            return new RandomStrategy();
+        }
+    };
+    private static final Strategy.Factory GREEDY = new Strategy.Factory() {
+        @NonNull
+        @Override
+        public Strategy create() {
+            return new GreedyStrategy();
+        }
+    };
+
+    private SelfPlaySimulator simulator;
+
+    @Before
+    public void setUp() {
+        simulator = new SelfPlaySimulator(WinPatternTable.forSize(4), 2);
+    }
+
+    @After
+    public void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Test
+    public void testResultsShouldAddUpToTheGameCount() {
+        SimulationStats stats = simulator.run(RANDOM, RANDOM, 1001, 1);
+        assertEquals(1001, stats.getGameCount());
+        assertEquals(stats.getGameCount(), stats.getWins(SimulationStats.STRATEGY_A)
+                + stats.getWins(SimulationStats.STRATEGY_B) + stats.getDrawCount());
+        assertEquals(stats.getGameCount(), stats.getPlayerWins(SimulationBoard.FIRST_PLAYER)
+                + stats.getPlayerWins(SimulationBoard.SECOND_PLAYER) + stats.getDrawCount());
+        long lengths = 0;
+        long openings = 0;
+        for (int cell = 0; cell < stats.getCellCount(); cell++) {
+            lengths += stats.getLengthCount(cell + 1);
+            openings += stats.getOpeningGames(cell);
+        }
+        assertEquals(stats.getGameCount(), lengths);
+        assertEquals(stats.getGameCount(), openings);
+        //No player can win before its 3rd move on the 4x4 board.
+        assertEquals(0, stats.getLengthCount(4));
+    }
+
+    @Test
+    public void testSameSeedShouldPlayTheSameGames() {
+        SimulationStats first = simulator.run(RANDOM, GREEDY, 500, 7);
+        SimulationStats second = simulator.run(RANDOM, GREEDY, 500, 7);
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    public void testGreedyShouldBeatRandom() {
+        SimulationStats stats = simulator.run(GREEDY, RANDOM, 2000, 3);
+        assertTrue(stats.getWinRate(SimulationStats.STRATEGY_A) > 2 * stats.getWinRate(SimulationStats.STRATEGY_B));
+    }
+
+    @Test
+    public void testSearchShouldNotLoseToGreedy() {
+        Strategy.Factory search = new Strategy.Factory() {
+            @NonNull
+            @Override
+            public Strategy create() {
+                return new SearchStrategy(4);
+            }
+        };
+        SimulationStats stats = simulator.run(search, GREEDY, 200, 5);
+        assertTrue(stats.getWinRate(SimulationStats.STRATEGY_A) > stats.getWinRate(SimulationStats.STRATEGY_B));
+    }
+
+    @Test
+    public void testFewerRulesShouldGiveMoreDraws() {
+        SimulationStats standard = simulator.run(RANDOM, RANDOM, 2000, 11);
+        SelfPlaySimulator rowsOnly = new SelfPlaySimulator(WinPatternTable.compile(4, StandardWinRule.ROW), 2);
+        try {
+            SimulationStats stats = rowsOnly.run(RANDOM, RANDOM, 2000, 11);
+            assertTrue(stats.getDrawRate() > standard.getDrawRate());
+        } finally {
+            rowsOnly.shutdown();
+        }
+    }
+
+    @Test
+    public void testBoardShouldDetectTheWinningPattern() {
+        SimulationBoard board = new SimulationBoard(WinPatternTable.forSize(3));
+        int[] moves = {0, 3, 1, 4};
+        for (int move : moves) {
+            assertFalse(board.play(move));
+        }
+        assertTrue(board.isWinningMove(SimulationBoard.FIRST_PLAYER, 2));
+        assertTrue(board.play(2));
+        assertEquals(SimulationBoard.FIRST_PLAYER, board.getWinner());
+        assertEquals(5, board.getMoveCount());
+        assertTrue(board.getWinningPattern() >= 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlayingAnOccupiedCellShouldThrowException() {
+        SimulationBoard board = new SimulationBoard(WinPatternTable.forSize(3));
+        board.play(4);
+        board.play(4);
+    }
+}
@@ -0,0 +1,118 @@
+package com.androidnerds.tictactoe.server;
+
+import com.androidnerds.tictactoe.game.GameEngine;
+import com.androidnerds.tictactoe.game.session.GameSessionManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameServerTest {
+
+    private GameSessionManager sessions;
+    private GameServer server;
+    private InetSocketAddress address;
+    private SocketChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(GameProtocol.FRAME_BYTES);
+
+    @Before
+    public void setUp() throws IOException {
+        sessions = new GameSessionManager(3);
+        server = new GameServer(sessions, 2);
+        int port = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        channel = SocketChannel.open(address);
+    }
+
+    @After
+    public void tearDown() throws IOException, InterruptedException {
+        channel.close();
+        server.close();
+    }
+
+    @Test
+    public void testGameShouldBePlayedOverTheFrames() throws IOException {
+        send(GameProtocol.START, GameProtocol.NO_CELL, 42);
+        assertReply(GameProtocol.STATUS, GameEngine.GameStatus.NEXT_PLAYER_PLAYS.ordinal(), GameProtocol.NO_CELL, 42);
+        send(GameProtocol.MOVE, 0, 42);
+        assertReply(GameProtocol.MOVE, GameEngine.MoveResult.ACCEPTED.ordinal(), 0, 42);
+        send(GameProtocol.MOVE, 0, 42);
+        assertReply(GameProtocol.MOVE, GameEngine.MoveResult.OCCUPIED.ordinal(), 0, 42);
+        send(GameProtocol.MOVE, 9, 42);
+        assertReply(GameProtocol.MOVE, GameEngine.MoveResult.ILLEGAL.ordinal(), 9, 42);
+        //Cross completes the top row.
+        for (int cell : new int[]{3, 1, 4}) {
+            send(GameProtocol.MOVE, cell, 42);
+            assertReply(GameProtocol.MOVE, GameEngine.MoveResult.ACCEPTED.ordinal(), cell, 42);
+        }
+        send(GameProtocol.MOVE, 2, 42);
+        assertReply(GameProtocol.GAME_OVER, GameEngine.GameStatus.PLAYER_1_WON.ordinal(), 2, 42);
+        send(GameProtocol.STATUS, GameProtocol.NO_CELL, 42);
+        assertReply(GameProtocol.STATUS, GameEngine.GameStatus.PLAYER_1_WON.ordinal(), GameProtocol.NO_CELL, 42);
+        assertEquals(GameEngine.GameStatus.PLAYER_1_WON, sessions.getGameStatus(42));
+    }
+
+    @Test
+    public void testPipelinedFramesShouldBeRepliedInOrder() throws IOException {
+        int frameCount = 1000;
+        ByteBuffer frames = ByteBuffer.allocate(frameCount * GameProtocol.FRAME_BYTES);
+        for (int index = 0; index < frameCount; index++) {
+            GameProtocol.putFrame(frames, GameProtocol.START, 0, GameProtocol.NO_CELL, index);
+        }
+        frames.flip();
+        while (frames.hasRemaining()) {
+            channel.write(frames);
+        }
+        for (int index = 0; index < frameCount; index++) {
+            assertReply(GameProtocol.STATUS, GameEngine.GameStatus.NEXT_PLAYER_PLAYS.ordinal(), GameProtocol.NO_CELL, index);
+        }
+        assertEquals(frameCount, sessions.size());
+    }
+
+    @Test
+    public void testInvalidFrameShouldCloseTheConnection() throws IOException {
+        send((byte) 99, 0, 1);
+        buffer.clear();
+        assertEquals(-1, channel.read(buffer));
+    }
+
+    @Test
+    public void testLoadClientShouldPlayGames() throws IOException, InterruptedException {
+        LoadClient.Result result = new LoadClient(address, 50, 2, 0, 3).run(300);
+        assertEquals(50, result.getConnectedCount());
+        assertEquals(0, result.getFailedCount());
+        assertTrue(result.getRoundTrips() > 0);
+        assertTrue(result.getGames() > 0);
+    }
+
+    private void send(byte type, int cell, long gameId) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(GameProtocol.FRAME_BYTES);
+        GameProtocol.putFrame(frame, type, 0, cell, gameId);
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    private void assertReply(byte type, int code, int cell, long gameId) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        assertEquals(type, GameProtocol.getType(buffer, 0));
+        assertEquals(code, GameProtocol.getCode(buffer, 0));
+        assertEquals(cell, GameProtocol.getCell(buffer, 0));
+        assertEquals(gameId, GameProtocol.getGameId(buffer, 0));
+    }
+}